@@ -0,0 +1,91 @@
+package com.f1pedia.bench;
+
+import com.f1pedia.dto.PointsEfficiencyDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row cost of the {@code queryForList} path (ColumnMapRowMapper into a
+ * LinkedCaseInsensitiveMap) against a typed record RowMapper, for the
+ * points-efficiency rows. The result set is an in-memory H2
+ * {@link SimpleResultSet} holding the JDBC types the PostgreSQL driver
+ * returns for that query (Long counts, BigDecimal rounded values), so the
+ * driver itself is not part of the measurement. Run with {@code -prof gc} for
+ * the allocation figures; see {@code src/jmh/README.md}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    @Param("1000")
+    private int rows;
+
+    private SimpleResultSet resultSet;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RowMapper<Map<String, Object>> columnMapRowMapper = new ColumnMapRowMapper();
+
+    @Setup
+    public void setUp() {
+        resultSet = new SimpleResultSet();
+        resultSet.setAutoClose(false);
+        resultSet.addColumn("driver", Types.VARCHAR, 255, 0);
+        resultSet.addColumn("team", Types.VARCHAR, 255, 0);
+        resultSet.addColumn("races", Types.BIGINT, 19, 0);
+        resultSet.addColumn("total_points", Types.NUMERIC, 10, 1);
+        resultSet.addColumn("points_per_race", Types.NUMERIC, 10, 2);
+        resultSet.addColumn("points_finishes", Types.BIGINT, 19, 0);
+        resultSet.addColumn("points_rate", Types.NUMERIC, 10, 1);
+        for (int i = 0; i < rows; i++) {
+            resultSet.addRow("Driver " + i, "Team " + (i % 20), (long) (50 + i % 300),
+                    BigDecimal.valueOf(1000 + i, 1), BigDecimal.valueOf(512 + i % 900, 2),
+                    (long) (10 + i % 200), BigDecimal.valueOf(400 + i % 600, 1));
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> mapColumnMap() throws SQLException {
+        return map(columnMapRowMapper);
+    }
+
+    @Benchmark
+    public List<PointsEfficiencyDTO> mapRecord() throws SQLException {
+        return map(PointsEfficiencyDTO.MAPPER);
+    }
+
+    @Benchmark
+    public byte[] serializeColumnMap() throws Exception {
+        return objectMapper.writeValueAsBytes(map(columnMapRowMapper));
+    }
+
+    @Benchmark
+    public byte[] serializeRecord() throws Exception {
+        return objectMapper.writeValueAsBytes(map(PointsEfficiencyDTO.MAPPER));
+    }
+
+    private <T> List<T> map(RowMapper<T> mapper) throws SQLException {
+        ResultSet rs = resultSet;
+        rs.beforeFirst();
+        List<T> result = new ArrayList<>(rows);
+        int rowNum = 0;
+        while (rs.next()) {
+            result.add(mapper.mapRow(rs, rowNum++));
+        }
+        return result;
+    }
+}
@@ -1,9 +1,12 @@
 package com.f1pedia;
 
+import com.f1pedia.config.NativeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeHints.class)
 public class F1PediaApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,31 @@
+package com.f1pedia.config;
+
+import com.f1pedia.web.AdmissionInterceptor;
+import com.f1pedia.web.AdmissionProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the {@link AdmissionInterceptor} for all handlers except the
+ * exempt paths.
+ */
+@Configuration
+@ConditionalOnProperty(name = "f1pedia.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private AdmissionInterceptor admissionInterceptor;
+
+    @Autowired
+    private AdmissionProperties admissionProperties;
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor)
+                .excludePathPatterns(admissionProperties.getExemptPaths());
+    }
+}
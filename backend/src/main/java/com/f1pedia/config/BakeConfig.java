@@ -0,0 +1,29 @@
+package com.f1pedia.config;
+
+import com.f1pedia.web.BakedResponseInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the {@link BakedResponseInterceptor} ahead of every other
+ * interceptor, admission control included.
+ */
+@Configuration
+@ConditionalOnProperty(name = "f1pedia.bake.directory")
+public class BakeConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private BakedResponseInterceptor bakedResponseInterceptor;
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(bakedResponseInterceptor)
+                .addPathPatterns("/api/**")
+                .order(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
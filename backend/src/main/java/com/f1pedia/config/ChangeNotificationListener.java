@@ -0,0 +1,164 @@
+package com.f1pedia.config;
+
+import com.f1pedia.service.CacheInvalidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * Listens for the change notifications sent by {@code etl/notify_triggers.sql}
+ * and hands them to the {@link CacheInvalidator}, so direct edits and ingests
+ * reach every running instance without a restart.
+ * <p>
+ * LISTEN holds a session, so it uses a dedicated connection to the primary
+ * (built from {@code spring.datasource.*}) rather than one from the pool;
+ * notifications are not replicated to standbys. Notifications sent while the
+ * connection is down are lost, so every reconnect evicts all caches. A
+ * connection that silently died (a dropped NAT entry, a failover) would just
+ * stop delivering, so the listener runs {@code SELECT 1} every
+ * {@code liveness-interval}, bounded by a socket timeout, and reconnects when
+ * that fails.
+ * <p>
+ * With read replicas, the router is {@link ReplicaRoutingDataSource#fence()
+ * fenced} before anything is evicted, so the rebuilt caches read the change
+ * from the primary rather than from a replica that has not replayed it yet.
+ */
+@Component
+@EnableConfigurationProperties(InvalidationProperties.class)
+@ConditionalOnProperty(name = "f1pedia.invalidation.enabled", havingValue = "true")
+public class ChangeNotificationListener implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeNotificationListener.class);
+
+    @Autowired
+    private InvalidationProperties properties;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        thread = new Thread(this::listen, "change-notification-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void listen() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = connect()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + properties.getChannel());
+                }
+                log.info("Listening for data changes on channel {}", properties.getChannel());
+                if (connectedBefore) {
+                    fence();
+                    cacheInvalidator.evictAll();
+                }
+                connectedBefore = true;
+
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                int timeout = (int) properties.getPollInterval().toMillis();
+                long livenessNanos = properties.getLivenessInterval().toNanos();
+                long lastCheck = System.nanoTime();
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(timeout);
+                    if (notifications != null && notifications.length > 0) {
+                        fence();
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                    if (System.nanoTime() - lastCheck >= livenessNanos) {
+                        // Throws once the socket timeout passes on a dead connection
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("SELECT 1");
+                        }
+                        lastCheck = System.nanoTime();
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Change notification connection failed, reconnecting in {}: {}",
+                        properties.getReconnectDelay(), e.getMessage());
+                try {
+                    Thread.sleep(properties.getReconnectDelay().toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties info = new Properties();
+        String username = dataSourceProperties.determineUsername();
+        String password = dataSourceProperties.determinePassword();
+        if (username != null) {
+            info.setProperty("user", username);
+        }
+        if (password != null) {
+            info.setProperty("password", password);
+        }
+        // getNotifications sets its own timeout while waiting; this one bounds
+        // the liveness query
+        info.setProperty("socketTimeout", String.valueOf(Math.max(1, properties.getLivenessTimeout().toSeconds())));
+        info.setProperty("tcpKeepAlive", "true");
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), info);
+    }
+
+    private void fence() {
+        if (replicaRoutingDataSource != null) {
+            replicaRoutingDataSource.fence();
+        }
+    }
+
+    private void dispatch(String payload) {
+        try {
+            cacheInvalidator.apply(objectMapper.readValue(payload, CacheInvalidator.Change.class));
+        } catch (Exception e) {
+            // A bad payload must not stop the listener; drop everything instead
+            log.warn("Could not apply change notification {}: {}", payload, e.getMessage());
+            cacheInvalidator.evictAll();
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        running = false;
+        if (thread != null) {
+            thread.join(properties.getPollInterval().toMillis() * 2);
+        }
+    }
+}
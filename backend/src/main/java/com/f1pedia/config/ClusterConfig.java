@@ -0,0 +1,81 @@
+package com.f1pedia.config;
+
+import com.f1pedia.web.ClusterCache;
+import com.f1pedia.web.ClusterProperties;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.NetworkConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+/**
+ * Embedded Hazelcast member for the {@link ClusterCache} when
+ * {@code f1pedia.cluster.enabled=true}; Spring Boot starts the instance from
+ * this config. Members find each other over TCP at the configured addresses
+ * (no multicast) and bind only to {@code f1pedia.cluster.bind-interface}.
+ */
+@Configuration
+@EnableConfigurationProperties(ClusterProperties.class)
+@ConditionalOnProperty(name = "f1pedia.cluster.enabled", havingValue = "true")
+public class ClusterConfig {
+
+    @Bean
+    public Config hazelcastConfig(ClusterProperties properties) {
+        if (!StringUtils.hasText(properties.getBindInterface())) {
+            throw new IllegalStateException("f1pedia.cluster.bind-interface must name the private interface "
+                    + "the members reach each other on: cluster members are not authenticated");
+        }
+        Config config = new Config();
+        config.setClusterName(properties.getName());
+        config.setProperty("hazelcast.logging.type", "slf4j");
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        // Otherwise the member port listens on every interface, whatever the interfaces say
+        config.setProperty("hazelcast.socket.bind.any", "false");
+        // Near copies are dropped as soon as the entry changes, not in batches every 10s
+        config.setProperty("hazelcast.map.invalidation.batch.enabled", "false");
+
+        NetworkConfig network = config.getNetworkConfig();
+        network.setPort(properties.getPort()).setPortAutoIncrement(true);
+        network.getInterfaces().setEnabled(true).addInterface(properties.getBindInterface());
+        JoinConfig join = network.getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getAutoDetectionConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).setMembers(properties.getMembers());
+
+        // A cache: entries lost with a member are recomputed, so no backups
+        config.addMapConfig(new MapConfig(ClusterCache.RESULTS)
+                .setBackupCount(0)
+                .setTimeToLiveSeconds((int) properties.getTtl().toSeconds())
+                .setEvictionConfig(new EvictionConfig()
+                        .setEvictionPolicy(EvictionPolicy.LRU)
+                        .setMaxSizePolicy(MaxSizePolicy.PER_NODE)
+                        .setSize(properties.getMaxEntries()))
+                .setNearCacheConfig(nearCache(properties, properties.getNearCacheEntries())));
+        // The generation must survive a member leaving, or old entries would come back
+        config.addMapConfig(new MapConfig(ClusterCache.GENERATIONS)
+                .setBackupCount(1)
+                .setNearCacheConfig(nearCache(properties, 1)));
+        return config;
+    }
+
+    // BINARY, so every read deserialises its own copy rather than sharing one object
+    private static NearCacheConfig nearCache(ClusterProperties properties, int entries) {
+        return new NearCacheConfig()
+                .setInMemoryFormat(InMemoryFormat.BINARY)
+                .setInvalidateOnChange(true)
+                .setTimeToLiveSeconds((int) properties.getNearCacheTtl().toSeconds())
+                .setEvictionConfig(new EvictionConfig()
+                        .setEvictionPolicy(EvictionPolicy.LRU)
+                        .setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+                        .setSize(entries));
+    }
+}
@@ -0,0 +1,67 @@
+package com.f1pedia.config;
+
+import com.f1pedia.web.QueryDeadlines;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+/**
+ * DataSource whose statements honour the current request's query deadline
+ * (see {@link QueryDeadlines}): every statement a connection creates gets
+ * its query timeout capped at the time left. Wrapping the pool rather than
+ * JdbcTemplate covers Spring Data JPA repositories and Hibernate as well.
+ */
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    private final Supplier<QueryDeadlines> queryDeadlines;
+
+    public DeadlineDataSource(DataSource target, Supplier<QueryDeadlines> queryDeadlines) {
+        super(target);
+        this.queryDeadlines = queryDeadlines;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return withDeadlines(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return withDeadlines(super.getConnection(username, password));
+    }
+
+    private Connection withDeadlines(Connection target) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                    if (result instanceof Statement statement) {
+                        try {
+                            queryDeadlines.get().applyTo(statement);
+                        } catch (SQLException e) {
+                            statement.close();
+                            throw e;
+                        }
+                    }
+                    return result;
+                });
+    }
+}
@@ -0,0 +1,152 @@
+package com.f1pedia.config;
+
+import com.f1pedia.service.ColumnTable;
+import com.f1pedia.service.F1Dataset;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills the in-process database of the {@code embedded} profile at startup:
+ * creates the ETL schema, then bulk inserts every table of the
+ * {@link F1Dataset} (memory mapped from its snapshot after the first boot).
+ * <p>
+ * The database is an H2 file next to the snapshot and records the
+ * {@link F1Dataset#stamp() stamp} of the snapshot it was filled from, so
+ * later boots skip the load until the dataset changes. The rows and the stamp
+ * are committed together, so an interrupted load is redone.
+ * <p>
+ * Repositories and JdbcTemplate queries then run unchanged against it, so the
+ * API keeps the same contract without a Postgres server.
+ */
+@Component
+@Profile("embedded")
+public class EmbeddedDatabaseLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedDatabaseLoader.class);
+
+    // Parents before children, as in etl/load_data.sh
+    private static final List<String> LOAD_ORDER = List.of("circuits", "constructors", "drivers", "seasons",
+            "status", "races", "results", "sprint_results", "qualifying", "pit_stops", "lap_times",
+            "driver_standings", "constructor_standings", "constructor_results");
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String STAMP_TABLE = "embedded_dataset";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private F1Dataset dataset;
+
+    @Value("${f1pedia.embedded.schema}")
+    private Resource schema;
+
+    @PostConstruct
+    public void load() throws SQLException {
+        long started = System.nanoTime();
+        Map<String, ColumnTable> tables = dataset.tables();
+        String stamp = dataset.stamp();
+        if (stamp != null && stamp.equals(loadedStamp())) {
+            log.info("Embedded database already holds dataset {}, skipping the load", stamp);
+            return;
+        }
+
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("CREATE TABLE " + STAMP_TABLE + " (stamp VARCHAR(255))");
+        }
+        new ResourceDatabasePopulator(schema).execute(dataSource);
+
+        int rows = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            for (String name : LOAD_ORDER) {
+                ColumnTable table = tables.get(name);
+                if (table != null) {
+                    insert(connection, table);
+                    rows += table.rows();
+                }
+            }
+            if (stamp != null) {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO " + STAMP_TABLE + " (stamp) VALUES (?)")) {
+                    statement.setString(1, stamp);
+                    statement.executeUpdate();
+                }
+            }
+            connection.commit();
+        }
+        log.info("Loaded {} rows into the embedded database in {} ms", rows,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private String loadedStamp() {
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT stamp FROM " + STAMP_TABLE)) {
+            return rs.next() ? rs.getString(1) : null;
+        } catch (SQLException e) {
+            // Fresh database file: no stamp table yet
+            return null;
+        }
+    }
+
+    private static void insert(Connection connection, ColumnTable table) throws SQLException {
+        List<ColumnTable.Column> columns = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (ColumnTable.Column column : table.columns()) {
+            columns.add(column);
+            names.add(snakeCase(column.name()));
+        }
+        String sql = "INSERT INTO " + table.name() + " (" + String.join(", ", names) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(names.size(), "?")) + ")";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int row = 0; row < table.rows(); row++) {
+                for (int c = 0; c < columns.size(); c++) {
+                    ColumnTable.Column column = columns.get(c);
+                    if (column.isNull(row)) {
+                        statement.setNull(c + 1, Types.NULL);
+                    } else if (column instanceof ColumnTable.IntColumn ints) {
+                        statement.setInt(c + 1, ints.get(row));
+                    } else if (column instanceof ColumnTable.DoubleColumn doubles) {
+                        statement.setDouble(c + 1, doubles.getDouble(row));
+                    } else {
+                        statement.setString(c + 1, ((ColumnTable.StringColumn) column).get(row));
+                    }
+                }
+                statement.addBatch();
+                if ((row + 1) % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    // CSV headers are camelCase (raceId), table columns snake_case (race_id)
+    static String snakeCase(String header) {
+        return header.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
+    }
+}
@@ -0,0 +1,33 @@
+package com.f1pedia.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Cache invalidation from database notifications ({@code f1pedia.invalidation.*}).
+ * Needs PostgreSQL with {@code etl/notify_triggers.sql} applied.
+ */
+@Data
+@ConfigurationProperties(prefix = "f1pedia.invalidation")
+public class InvalidationProperties {
+
+    /** LISTEN for change notifications and invalidate caches on them. */
+    private boolean enabled = false;
+
+    /** Channel the triggers notify on. */
+    private String channel = "f1pedia_changes";
+
+    /** How long one wait for notifications blocks before checking for shutdown. */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /** How often the listening connection is checked with {@code SELECT 1}. */
+    private Duration livenessInterval = Duration.ofSeconds(30);
+
+    /** How long the check may take before the connection counts as dead. */
+    private Duration livenessTimeout = Duration.ofSeconds(10);
+
+    /** Pause before reconnecting after the listening connection failed. */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+}
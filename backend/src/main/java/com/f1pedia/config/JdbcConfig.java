@@ -0,0 +1,34 @@
+package com.f1pedia.config;
+
+import com.f1pedia.web.QueryDeadlines;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's {@code dataSource} in a {@link DeadlineDataSource},
+ * so statements issued through JdbcTemplate and JPA repositories alike honour
+ * the current request's query deadline (see {@link QueryDeadlines}).
+ */
+@Configuration
+public class JdbcConfig {
+
+    // Static, and resolving QueryDeadlines lazily, so the post-processor does
+    // not pull the web layer into early bean creation
+    @Bean
+    public static BeanPostProcessor deadlineDataSourcePostProcessor(ObjectProvider<QueryDeadlines> queryDeadlines) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new DeadlineDataSource(dataSource, queryDeadlines::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+}
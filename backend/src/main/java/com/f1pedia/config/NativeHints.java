@@ -0,0 +1,34 @@
+package com.f1pedia.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Reflection hints for the AOT / native-image build.
+ * <p>
+ * Controllers often return DTO records and Lombok entities nested inside Maps
+ * and Lists, which AOT cannot discover from handler signatures, so every type
+ * in the dto and domain packages is registered for Jackson binding here.
+ * Scanning runs at build time, so new DTOs are picked up automatically.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    private static final String[] BOUND_PACKAGES = { "com.f1pedia.dto", "com.f1pedia.domain" };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter((reader, factory) -> true);
+        for (String basePackage : BOUND_PACKAGES) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                Class<?> type = ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader);
+                binding.registerReflectionHints(hints.reflection(), type);
+            }
+        }
+    }
+}
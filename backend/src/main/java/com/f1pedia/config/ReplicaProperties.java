@@ -0,0 +1,37 @@
+package com.f1pedia.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica settings ({@code f1pedia.datasource.*}).
+ * The primary datasource keeps using the standard {@code spring.datasource.*}
+ * properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "f1pedia.datasource")
+public class ReplicaProperties {
+
+    /** Route read-only work to the replicas below. */
+    private boolean routingEnabled = false;
+
+    /** Replicas lagging further behind the primary than this are skipped. */
+    private Duration maxLag = Duration.ofSeconds(30);
+
+    /** How often replica lag is measured. */
+    private Duration checkInterval = Duration.ofSeconds(5);
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
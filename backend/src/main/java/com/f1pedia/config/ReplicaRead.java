@@ -0,0 +1,17 @@
+package com.f1pedia.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller (or handler method) whose queries only read data and may
+ * therefore run on a read replica when replica routing is enabled. Read-only
+ * transactions ({@code @Transactional(readOnly = true)}, e.g. Spring Data
+ * repository finders) are routed the same way without this annotation.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReplicaRead {
+}
@@ -0,0 +1,37 @@
+package com.f1pedia.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Flags the current thread as read-only for the duration of a
+ * {@link ReplicaRead} call, so JdbcTemplate queries issued outside a
+ * transaction can be routed to a replica.
+ */
+@Aspect
+@Component
+public class ReplicaReadAspect {
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    static boolean isReadOnly() {
+        return Boolean.TRUE.equals(READ_ONLY.get());
+    }
+
+    @Around("@within(com.f1pedia.config.ReplicaRead) || @annotation(com.f1pedia.config.ReplicaRead)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        Boolean previous = READ_ONLY.get();
+        READ_ONLY.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (previous == null) {
+                READ_ONLY.remove();
+            } else {
+                READ_ONLY.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.f1pedia.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends read-only work round-robin to healthy replicas and everything else to
+ * the primary.
+ * <p>
+ * Work is read-only when it runs inside a read-only transaction, or outside
+ * any transaction within a {@link ReplicaRead} call. A replica is healthy while
+ * its WAL receiver is connected and its replay lag, measured against the
+ * primary's current WAL position, stays within the configured maximum; when
+ * none is, reads fall back to the primary. After a data change,
+ * {@link #fence()} holds reads on the primary until the replicas have replayed
+ * it. Must be wrapped in a
+ * {@code LazyConnectionDataSourceProxy} so the routing decision is made after
+ * the transaction's read-only flag has been set.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private static final String PRIMARY_LSN_SQL = "SELECT pg_current_wal_lsn()::text";
+
+    // Zero once the replica has replayed up to the primary's LSN as read just
+    // before, so an idle primary does not show up as growing lag. A replica
+    // whose WAL receiver is not running is disconnected: its own receive and
+    // replay positions stop moving together and would otherwise read as in
+    // sync. NULL lag means "disconnected". The second column tells whether the
+    // replica has replayed up to the fence, if there is one.
+    private static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver) THEN NULL
+                       WHEN pg_last_wal_replay_lsn() >= CAST(? AS pg_lsn) THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END,
+                   CAST(? AS pg_lsn) IS NULL OR NOT pg_is_in_recovery()
+                       OR pg_last_wal_replay_lsn() >= CAST(? AS pg_lsn)
+            """;
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final Set<String> healthy = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicLong> lagMillis = new ConcurrentHashMap<>();
+    private final Map<String, Counter> routed = new HashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Duration maxLag;
+    private final ScheduledExecutorService lagChecker;
+    // Primary WAL position every replica must have replayed to take reads
+    private volatile String fenceLsn;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag,
+            Duration checkInterval, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.replicaKeys = List.copyOf(replicas.keySet());
+        this.maxLag = maxLag;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        routed.put(PRIMARY, Counter.builder("datasource.routing").tag("target", PRIMARY).register(meterRegistry));
+        for (String key : replicaKeys) {
+            routed.put(key, Counter.builder("datasource.routing").tag("target", key).register(meterRegistry));
+            AtomicLong lag = new AtomicLong(-1);
+            lagMillis.put(key, lag);
+            Gauge.builder("datasource.replica.lag", lag, AtomicLong::get)
+                    .tag("replica", key)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+
+        lagChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-lag-checker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagChecker.scheduleWithFixedDelay(this::checkReplicas, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                ? TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                : ReplicaReadAspect.isReadOnly();
+        String key = readOnly ? pickReplica() : PRIMARY;
+        routed.get(key).increment();
+        return key;
+    }
+
+    private String pickReplica() {
+        int size = replicaKeys.size();
+        for (int attempt = 0; attempt < size; attempt++) {
+            String candidate = replicaKeys.get(Math.floorMod(next.getAndIncrement(), size));
+            if (healthy.contains(candidate)) {
+                return candidate;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Sends all reads to the primary until every replica has replayed what the
+     * primary has written so far. Called when a change notification arrives,
+     * before caches are dropped, so their rebuild cannot read a replica that
+     * is still up to {@code maxLag} behind the change.
+     */
+    public void fence() {
+        String lsn = primaryLsn();
+        // Without the primary's position the old fence stays; the lag limit
+        // still applies
+        if (lsn != null) {
+            fenceLsn = lsn;
+        }
+        healthy.clear();
+        log.debug("Reads go to the primary until the replicas have replayed {}", lsn);
+        lagChecker.execute(this::checkReplicas);
+    }
+
+    void checkReplicas() {
+        String fence = fenceLsn;
+        String primaryLsn = primaryLsn();
+        replicas.forEach((key, dataSource) -> {
+            try (Connection connection = dataSource.getConnection();
+                    PreparedStatement statement = connection.prepareStatement(LAG_SQL)) {
+                statement.setString(1, primaryLsn);
+                statement.setString(2, fence);
+                statement.setString(3, fence);
+                Long lag = null;
+                boolean pastFence = false;
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (rs.next()) {
+                        double seconds = rs.getDouble(1);
+                        lag = rs.wasNull() ? null : Math.round(seconds * 1000);
+                        pastFence = rs.getBoolean(2);
+                    }
+                }
+                if (lag == null) {
+                    lagMillis.get(key).set(-1);
+                    if (healthy.remove(key)) {
+                        log.warn("Replica {} is not receiving WAL from the primary, routing its reads to the primary",
+                                key);
+                    }
+                    return;
+                }
+                lagMillis.get(key).set(lag);
+                // A fence set while this check ran is judged by the next one
+                if (fence != null && !pastFence || fence != fenceLsn) {
+                    healthy.remove(key);
+                } else if (lag <= maxLag.toMillis()) {
+                    if (healthy.add(key)) {
+                        log.info("Replica {} is in sync (lag {} ms), routing reads to it", key, lag);
+                    }
+                } else if (healthy.remove(key)) {
+                    log.warn("Replica {} lags {} ms behind the primary, routing its reads to the primary", key, lag);
+                }
+            } catch (SQLException e) {
+                lagMillis.get(key).set(-1);
+                if (healthy.remove(key)) {
+                    log.warn("Replica {} is unreachable, routing its reads to the primary: {}", key, e.getMessage());
+                }
+            }
+        });
+    }
+
+    // Null when the primary cannot be asked; replicas are then judged by the
+    // age of their last replayed transaction alone
+    private String primaryLsn() {
+        try (Connection connection = primary.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(PRIMARY_LSN_SQL)) {
+            return rs.next() ? rs.getString(1) : null;
+        } catch (SQLException e) {
+            log.debug("Could not read the primary's WAL position: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    Set<String> healthyReplicas() {
+        return Set.copyOf(healthy);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        lagChecker.shutdownNow();
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
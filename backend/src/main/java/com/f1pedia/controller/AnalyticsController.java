@@ -1,17 +1,37 @@
 package com.f1pedia.controller;
 
+import com.f1pedia.config.ReplicaRead;
+import com.f1pedia.domain.Circuit;
+import com.f1pedia.domain.Driver;
+import com.f1pedia.dto.*;
 import com.f1pedia.repository.PitStopRepository;
 import com.f1pedia.repository.QualifyingRepository;
 import com.f1pedia.repository.ResultRepository;
+import com.f1pedia.service.ChampionshipSimulationService;
+import com.f1pedia.service.LapTimeAnalyticsService;
+import com.f1pedia.service.PitStrategyService;
+import com.f1pedia.service.ResultsCube;
+import com.f1pedia.web.Bulkhead;
+import com.f1pedia.web.ClusterCached;
+import com.f1pedia.web.Coalesced;
+import com.f1pedia.web.Deadline;
+import com.f1pedia.web.JsonResultStreamer;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/analytics")
+@ClusterCached
+@Coalesced
+@ReplicaRead
+@Bulkhead(Bulkhead.HEAVY)
+@Deadline
 /**
  * Unlocks deep insights into F1 data.
  * Handles complex aggregations for qualifying, race pace, pit stops, and
@@ -31,6 +51,21 @@ public class AnalyticsController {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private JsonResultStreamer jsonResultStreamer;
+
+    @Autowired
+    private ChampionshipSimulationService championshipSimulationService;
+
+    @Autowired
+    private LapTimeAnalyticsService lapTimeAnalyticsService;
+
+    @Autowired
+    private PitStrategyService pitStrategyService;
+
+    @Autowired
+    private ResultsCube resultsCube;
+
     // Helper: fetches the most recent season (year) with data
     private Integer getLatestSeason() {
         String sql = "SELECT MAX(year) FROM races";
@@ -48,43 +83,22 @@ public class AnalyticsController {
     // ===========================================
 
     @GetMapping("/dnf-causes")
-    public List<Map<String, Object>> getDNFCauses() {
-        List<Object[]> results = resultRepository.findDNFCauseCounts();
-        return results.stream().map(row -> {
-            Map<String, Object> map = new HashMap<>();
-            map.put("status", row[0]);
-            map.put("count", ((Number) row[1]).intValue());
-            return map;
-        }).collect(Collectors.toList());
+    public List<DnfCauseDTO> getDNFCauses() {
+        return resultRepository.findDNFCauseCounts().stream().map(DnfCauseDTO::of).toList();
     }
 
     @GetMapping("/pit-stops")
-    public List<Map<String, Object>> getPitStopEfficiency(
+    public List<PitStopEfficiencyDTO> getPitStopEfficiency(
             @RequestParam(required = false) Integer season) {
         List<Object[]> results = season != null
                 ? pitStopRepository.findPitStopEfficiencyBySeason(season)
                 : pitStopRepository.findOverallPitStopEfficiency();
-
-        return results.stream().map(row -> {
-            Map<String, Object> map = new HashMap<>();
-            map.put("driver", row[0]);
-            map.put("avgPitMs", ((Number) row[1]).doubleValue());
-            map.put("avgPitSec", ((Number) row[1]).doubleValue() / 1000.0);
-            return map;
-        }).collect(Collectors.toList());
+        return results.stream().map(PitStopEfficiencyDTO::of).toList();
     }
 
     @GetMapping("/quali-vs-race")
-    public List<Map<String, Object>> getQualiVsRace(@RequestParam Integer driverId) {
-        List<Object[]> results = qualifyingRepository.findQualiVsRaceByDriver(driverId);
-        return results.stream().map(row -> {
-            Map<String, Object> map = new HashMap<>();
-            map.put("race", row[0]);
-            map.put("qualiPos", row[1] != null ? ((Number) row[1]).intValue() : null);
-            map.put("racePos", row[2] != null ? ((Number) row[2]).intValue() : null);
-            map.put("delta", row[3] != null ? ((Number) row[3]).intValue() : null);
-            return map;
-        }).collect(Collectors.toList());
+    public List<QualiVsRaceDTO> getQualiVsRace(@RequestParam Integer driverId) {
+        return qualifyingRepository.findQualiVsRaceByDriver(driverId).stream().map(QualiVsRaceDTO::of).toList();
     }
 
     // ===========================================
@@ -93,7 +107,7 @@ public class AnalyticsController {
 
     // Calculates how effectively drivers convert a Pole Position into a Win
     @GetMapping("/pole-to-win")
-    public List<Map<String, Object>> getPoleToWinConversion() {
+    public List<PoleToWinDTO> getPoleToWinConversion() {
         String sql = """
                 SELECT d.forename || ' ' || d.surname as driver,
                        COUNT(*) as poles,
@@ -104,16 +118,16 @@ public class AnalyticsController {
                 WHERE r.grid = 1
                 GROUP BY d.driver_id, d.forename, d.surname
                 HAVING COUNT(*) >= 5
-                ORDER BY conversion_rate DESC
+                ORDER BY conversion_rate DESC, poles DESC, d.driver_id
                 LIMIT 20
                 """;
-        return jdbcTemplate.queryForList(sql);
+        return jdbcTemplate.query(sql, PoleToWinDTO.MAPPER);
     }
 
     // Analyzes overtaking performance: average positions gained/lost from grid to
     // finish
     @GetMapping("/grid-performance")
-    public List<Map<String, Object>> getGridPerformance(@RequestParam(required = false) Integer season) {
+    public List<GridPerformanceDTO> getGridPerformance(@RequestParam(required = false) Integer season) {
         int targetSeason = resolveSeason(season);
         String sql = """
                 SELECT d.forename || ' ' || d.surname as driver,
@@ -129,14 +143,14 @@ public class AnalyticsController {
                 WHERE ra.year = ? AND r.position IS NOT NULL AND r.grid > 0
                 GROUP BY d.driver_id, d.forename, d.surname
                 HAVING COUNT(*) >= 5
-                ORDER BY avg_positions_gained DESC
+                ORDER BY avg_positions_gained DESC, d.driver_id
                 """;
-        return jdbcTemplate.queryForList(sql, targetSeason);
+        return jdbcTemplate.query(sql, GridPerformanceDTO.MAPPER, targetSeason);
     }
 
     // Tracks how often drivers make it through Q1 -> Q2 -> Q3
     @GetMapping("/qualifying-progression")
-    public List<Map<String, Object>> getQualifyingProgression(@RequestParam(required = false) Integer season) {
+    public List<QualifyingProgressionDTO> getQualifyingProgression(@RequestParam(required = false) Integer season) {
         int targetSeason = resolveSeason(season);
         String sql = """
                 SELECT d.forename || ' ' || d.surname as driver,
@@ -155,12 +169,12 @@ public class AnalyticsController {
                 GROUP BY d.driver_id, d.forename, d.surname, c.name
                 ORDER BY q3_rate DESC, poles DESC
                 """;
-        return jdbcTemplate.queryForList(sql, targetSeason);
+        return jdbcTemplate.query(sql, QualifyingProgressionDTO.MAPPER, targetSeason);
     }
 
     // Stats on Fastest Laps: who sets them, and do they convert to wins/podiums?
     @GetMapping("/fastest-laps")
-    public List<Map<String, Object>> getFastestLapStats(@RequestParam(required = false) Integer season) {
+    public List<FastestLapStatsDTO> getFastestLapStats(@RequestParam(required = false) Integer season) {
         int targetSeason = resolveSeason(season);
         String sql = """
                 SELECT d.forename || ' ' || d.surname as driver,
@@ -175,58 +189,35 @@ public class AnalyticsController {
                 GROUP BY d.driver_id, d.forename, d.surname
                 ORDER BY fastest_laps DESC
                 """;
-        return jdbcTemplate.queryForList(sql, targetSeason);
+        return jdbcTemplate.query(sql, FastestLapStatsDTO.MAPPER, targetSeason);
     }
 
     // Identifies circuits with high DNF (Did Not Finish) rates (reliability/danger
     // analysis)
     @GetMapping("/circuit-reliability")
-    public List<Map<String, Object>> getCircuitReliability() {
-        String sql = """
-                SELECT ci.name as circuit,
-                       ci.country,
-                       COUNT(*) as total_entries,
-                       SUM(CASE WHEN s.status != 'Finished' AND s.status NOT LIKE '+%' THEN 1 ELSE 0 END) as dnfs,
-                       ROUND((100.0 * SUM(CASE WHEN s.status != 'Finished' AND s.status NOT LIKE '+%' THEN 1 ELSE 0 END) / COUNT(*))::numeric, 1) as dnf_rate
-                FROM results r
-                JOIN races ra ON r.race_id = ra.race_id
-                JOIN circuits ci ON ra.circuit_id = ci.circuit_id
-                JOIN status s ON r.status_id = s.status_id
-                GROUP BY ci.circuit_id, ci.name, ci.country
-                HAVING COUNT(*) >= 50
-                ORDER BY dnf_rate DESC
-                LIMIT 20
-                """;
-        return jdbcTemplate.queryForList(sql);
+    public List<CircuitReliabilityDTO> getCircuitReliability() {
+        return resultsCube.rollUp(Map.of(), ResultsCube.Dimension.CIRCUIT).stream()
+                .filter(cell -> cell.entries() >= 50)
+                .map(cell -> {
+                    Circuit circuit = resultsCube.circuit(cell.circuitId());
+                    double dnfRate = Math.round(1000.0 * cell.dnfs() / cell.entries()) / 10.0;
+                    return new CircuitReliabilityDTO(circuit.getName(), circuit.getCountry(), (int) cell.entries(),
+                            (int) cell.dnfs(), dnfRate);
+                })
+                .sorted(Comparator.comparingDouble(CircuitReliabilityDTO::dnfRate).reversed())
+                .limit(20)
+                .toList();
     }
 
     // Breakdown of pit stop counts (1-stop vs 2-stop) by circuit
     @GetMapping("/pit-strategy")
     public List<Map<String, Object>> getPitStrategy(@RequestParam(required = false) Integer circuitId) {
-        String sql = """
-                SELECT ci.name as circuit,
-                       ps.stops,
-                       COUNT(*) as count,
-                       ROUND((100.0 * COUNT(*) / SUM(COUNT(*)) OVER (PARTITION BY ci.circuit_id))::numeric, 1) as percentage
-                FROM (
-                    SELECT race_id, driver_id, MAX(stop) as stops
-                    FROM pit_stops
-                    GROUP BY race_id, driver_id
-                ) ps
-                JOIN races ra ON ps.race_id = ra.race_id
-                JOIN circuits ci ON ra.circuit_id = ci.circuit_id
-                WHERE ra.year >= 2018
-                """
-                + (circuitId != null ? " AND ci.circuit_id = " + circuitId : "") + """
-                        GROUP BY ci.circuit_id, ci.name, ps.stops
-                        ORDER BY ci.name, ps.stops
-                        """;
-        return jdbcTemplate.queryForList(sql);
+        return pitStrategyService.getStopCountsByCircuit(circuitId);
     }
 
     // Long-term performance trends for Constructors over multiple years
     @GetMapping("/constructor-trends")
-    public List<Map<String, Object>> getConstructorTrends() {
+    public void getConstructorTrends(HttpServletResponse response) throws IOException {
         String sql = """
                 SELECT c.name as constructor,
                        ra.year,
@@ -245,12 +236,13 @@ public class AnalyticsController {
                 GROUP BY c.constructor_id, c.name, ra.year
                 ORDER BY c.name, ra.year
                 """;
-        return jdbcTemplate.queryForList(sql);
+        jsonResultStreamer.stream(response, sql);
     }
 
     // Championship points accumulation/progression race-by-race
     @GetMapping("/championship-battle")
-    public List<Map<String, Object>> getChampionshipBattle(@RequestParam(required = false) Integer season) {
+    public void getChampionshipBattle(@RequestParam(required = false) Integer season, HttpServletResponse response)
+            throws IOException {
         int targetSeason = resolveSeason(season);
         String sql = """
                 SELECT d.forename || ' ' || d.surname as driver,
@@ -265,11 +257,11 @@ public class AnalyticsController {
                 WHERE ra.year = ?
                 ORDER BY d.driver_id, ra.round
                 """;
-        return jdbcTemplate.queryForList(sql, targetSeason);
+        jsonResultStreamer.stream(response, sql, targetSeason);
     }
 
     @GetMapping("/constructor-championship")
-    public List<Map<String, Object>> getConstructorChampionship(@RequestParam(required = false) Integer season) {
+    public List<ConstructorStandingProgressDTO> getConstructorChampionship(@RequestParam(required = false) Integer season) {
         int targetSeason = resolveSeason(season);
         String sql = """
                 SELECT c.name as constructor,
@@ -284,12 +276,12 @@ public class AnalyticsController {
                 WHERE ra.year = ?
                 ORDER BY c.constructor_id, ra.round
                 """;
-        return jdbcTemplate.queryForList(sql, targetSeason);
+        return jdbcTemplate.query(sql, ConstructorStandingProgressDTO.MAPPER, targetSeason);
     }
 
     // Tracks Qualifying head-to-head battles between teammates for a season
     @GetMapping("/teammate-battles")
-    public List<Map<String, Object>> getTeammateBattles(@RequestParam(required = false) Integer season) {
+    public List<TeammateBattleDTO> getTeammateBattles(@RequestParam(required = false) Integer season) {
         int targetSeason = resolveSeason(season);
         String sql = """
                 WITH team_quali AS (
@@ -311,16 +303,16 @@ public class AnalyticsController {
                     AND tq1.constructor_id = tq2.constructor_id
                     AND tq1.driver_id < tq2.driver_id
                 JOIN constructors c ON tq1.constructor_id = c.constructor_id
-                GROUP BY c.constructor_id, c.name, tq1.driver, tq2.driver
+                GROUP BY c.constructor_id, c.name, tq1.driver_id, tq1.driver, tq2.driver_id, tq2.driver
                 HAVING COUNT(*) >= 5
-                ORDER BY c.name
+                ORDER BY c.name, tq1.driver_id, tq2.driver_id
                 """;
-        return jdbcTemplate.queryForList(sql, targetSeason);
+        return jdbcTemplate.query(sql, TeammateBattleDTO.MAPPER, targetSeason);
     }
 
     // Efficiency: Points scored per race
     @GetMapping("/points-efficiency")
-    public List<Map<String, Object>> getPointsEfficiency(@RequestParam(required = false) Integer season) {
+    public List<PointsEfficiencyDTO> getPointsEfficiency(@RequestParam(required = false) Integer season) {
         int targetSeason = resolveSeason(season);
         String sql = """
                 SELECT d.forename || ' ' || d.surname as driver,
@@ -336,59 +328,34 @@ public class AnalyticsController {
                 JOIN races ra ON r.race_id = ra.race_id
                 WHERE ra.year = ?
                 GROUP BY d.driver_id, d.forename, d.surname, c.name
-                ORDER BY points_per_race DESC
+                ORDER BY points_per_race DESC, d.driver_id, c.name
                 """;
-        return jdbcTemplate.queryForList(sql, targetSeason);
+        return jdbcTemplate.query(sql, PointsEfficiencyDTO.MAPPER, targetSeason);
     }
 
     // Average pit stop duration for each constructor
     @GetMapping("/pit-stop-team-efficiency")
     public List<Map<String, Object>> getPitStopTeamEfficiency(@RequestParam(required = false) Integer season) {
-        int targetSeason = resolveSeason(season);
-        String sql = """
-                SELECT c.name as constructor,
-                       ROUND(AVG(ps.milliseconds)::numeric / 1000, 3) as avg_duration,
-                       MIN(ps.milliseconds)::numeric / 1000 as min_duration,
-                       COUNT(*) as total_stops
-                FROM pit_stops ps
-                JOIN results r ON ps.race_id = r.race_id AND ps.driver_id = r.driver_id
-                JOIN constructors c ON r.constructor_id = c.constructor_id
-                JOIN races ra ON ps.race_id = ra.race_id
-                WHERE ra.year = ? AND ps.milliseconds < 50000 -- Filter out outliers/penalties > 50s
-                GROUP BY c.constructor_id, c.name
-                HAVING COUNT(*) > 10
-                ORDER BY avg_duration ASC
-                """;
-        return jdbcTemplate.queryForList(sql, targetSeason);
+        return pitStrategyService.getTeamEfficiency(resolveSeason(season));
     }
 
     // Does stopping more/less actually correlate with winning?
     @GetMapping("/pit-strategy-stats")
     public List<Map<String, Object>> getWinningStrategyStats(@RequestParam(required = false) Integer season) {
-        int targetSeason = resolveSeason(season);
-        String sql = """
-                WITH driver_stops AS (
-                    SELECT ps.race_id, ps.driver_id, MAX(ps.stop) as stops
-                    FROM pit_stops ps
-                    JOIN races ra ON ps.race_id = ra.race_id
-                    WHERE ra.year = ?
-                    GROUP BY ps.race_id, ps.driver_id
-                )
-                SELECT
-                    COALESCE(ds.stops, 0) as stops,
-                    COUNT(*) as total_finishers,
-                    SUM(CASE WHEN r.position = 1 THEN 1 ELSE 0 END) as wins,
-                    ROUND((100.0 * SUM(CASE WHEN r.position = 1 THEN 1 ELSE 0 END) / COUNT(*))::numeric, 2) as win_rate,
-                    SUM(CASE WHEN r.position <= 3 THEN 1 ELSE 0 END) as podiums,
-                    ROUND((100.0 * SUM(CASE WHEN r.position <= 3 THEN 1 ELSE 0 END) / COUNT(*))::numeric, 2) as podium_rate
-                FROM results r
-                JOIN races ra ON r.race_id = ra.race_id
-                LEFT JOIN driver_stops ds ON r.race_id = ds.race_id AND r.driver_id = ds.driver_id
-                WHERE ra.year = ? AND r.position IS NOT NULL
-                GROUP BY ds.stops
-                ORDER BY stops
-                """;
-        return jdbcTemplate.queryForList(sql, targetSeason, targetSeason);
+        return pitStrategyService.getWinningStrategyStats(resolveSeason(season));
+    }
+
+    // Race Strategy: stops, stints and undercuts for a single race
+    @GetMapping("/race-strategy")
+    public ResponseEntity<Map<String, Object>> getRaceStrategy(@RequestParam Integer raceId) {
+        Map<String, Object> strategy = pitStrategyService.getRaceStrategy(raceId);
+        return strategy != null ? ResponseEntity.ok(strategy) : ResponseEntity.notFound().build();
+    }
+
+    // Undercuts: who gains track position by stopping first?
+    @GetMapping("/undercuts")
+    public List<Map<String, Object>> getUndercuts(@RequestParam(required = false) Integer season) {
+        return pitStrategyService.getUndercutStats(resolveSeason(season));
     }
 
     // ===========================================
@@ -398,7 +365,7 @@ public class AnalyticsController {
     // Driver Form: Rolling performance over last N races.
     // (Note: rolling_wins is a strong predictor of future success)
     @GetMapping("/driver-form")
-    public List<Map<String, Object>> getDriverForm(@RequestParam(defaultValue = "10") int lastNRaces) {
+    public List<DriverFormDTO> getDriverForm(@RequestParam(defaultValue = "10") int lastNRaces) {
         String sql = """
                 WITH recent_results AS (
                     SELECT r.driver_id,
@@ -429,13 +396,13 @@ public class AnalyticsController {
                 HAVING COUNT(*) >= ?
                 ORDER BY win_rate DESC, avg_finish ASC
                 """;
-        return jdbcTemplate.queryForList(sql, lastNRaces, lastNRaces / 2);
+        return jdbcTemplate.query(sql, DriverFormDTO.MAPPER, lastNRaces, lastNRaces / 2);
     }
 
     // Grid to Win conversion: How often does each grid spot (P1, P2...) take the
     // win?
     @GetMapping("/grid-win-conversion")
-    public List<Map<String, Object>> getGridWinConversion() {
+    public List<GridWinConversionDTO> getGridWinConversion() {
         String sql = """
                 SELECT r.grid,
                        COUNT(*) as races,
@@ -448,40 +415,34 @@ public class AnalyticsController {
                 GROUP BY r.grid
                 ORDER BY r.grid
                 """;
-        return jdbcTemplate.queryForList(sql);
+        return jdbcTemplate.query(sql, GridWinConversionDTO.MAPPER);
     }
 
     // Specialization: Which drivers excel at a specific track?
     @GetMapping("/driver-circuit-advantage")
-    public List<Map<String, Object>> getDriverCircuitAdvantage(@RequestParam(required = false) Integer circuitId) {
-        String baseSql = """
-                SELECT d.forename || ' ' || d.surname as driver,
-                       ci.name as circuit,
-                       ci.country,
-                       COUNT(*) as races,
-                       SUM(CASE WHEN r.position = 1 THEN 1 ELSE 0 END) as wins,
-                       SUM(CASE WHEN r.position <= 3 THEN 1 ELSE 0 END) as podiums,
-                       ROUND(AVG(r.position)::numeric, 2) as avg_finish,
-                       SUM(r.points) as total_points
-                FROM results r
-                JOIN drivers d ON r.driver_id = d.driver_id
-                JOIN races ra ON r.race_id = ra.race_id
-                JOIN circuits ci ON ra.circuit_id = ci.circuit_id
-                WHERE r.position IS NOT NULL
-                """;
-
-        if (circuitId != null) {
-            return jdbcTemplate.queryForList(baseSql +
-                    " AND ci.circuit_id = ? GROUP BY d.driver_id, d.forename, d.surname, ci.circuit_id, ci.name, ci.country HAVING COUNT(*) >= 3 ORDER BY wins DESC LIMIT 50",
-                    circuitId);
-        }
-        return jdbcTemplate.queryForList(baseSql +
-                " GROUP BY d.driver_id, d.forename, d.surname, ci.circuit_id, ci.name, ci.country HAVING COUNT(*) >= 3 ORDER BY wins DESC LIMIT 50");
+    public List<DriverCircuitAdvantageDTO> getDriverCircuitAdvantage(@RequestParam(required = false) Integer circuitId) {
+        Map<ResultsCube.Dimension, Integer> slice = circuitId != null
+                ? Map.of(ResultsCube.Dimension.CIRCUIT, circuitId)
+                : Map.of();
+        return resultsCube.rollUp(slice, ResultsCube.Dimension.DRIVER, ResultsCube.Dimension.CIRCUIT).stream()
+                .filter(cell -> cell.classified() >= 3)
+                .sorted(Comparator.comparingLong(ResultsCube.Cell::wins)
+                        .thenComparingLong(ResultsCube.Cell::podiums).reversed())
+                .limit(50)
+                .map(cell -> {
+                    Driver driver = resultsCube.driver(cell.driverId());
+                    Circuit circuit = resultsCube.circuit(cell.circuitId());
+                    return new DriverCircuitAdvantageDTO(driver.getForename() + " " + driver.getSurname(),
+                            circuit.getName(), circuit.getCountry(), (int) cell.classified(), (int) cell.wins(),
+                            (int) cell.podiums(), Math.round(cell.avgFinish() * 100.0) / 100.0,
+                            cell.classifiedPoints());
+                })
+                .toList();
     }
 
     // Constructor Momentum: Are they improving or declining season over season?
     @GetMapping("/constructor-momentum")
-    public List<Map<String, Object>> getConstructorMomentum() {
+    public List<ConstructorMomentumDTO> getConstructorMomentum() {
         String sql = """
                 SELECT c.name as constructor,
                        ra.year,
@@ -497,12 +458,12 @@ public class AnalyticsController {
                 HAVING SUM(r.points) > 0
                 ORDER BY c.name, ra.year
                 """;
-        return jdbcTemplate.queryForList(sql);
+        return jdbcTemplate.query(sql, ConstructorMomentumDTO.MAPPER);
     }
 
     // Head-to-Head: Compare two drivers directly across shared races
     @GetMapping("/head-to-head")
-    public List<Map<String, Object>> getHeadToHead(
+    public List<HeadToHeadDTO> getHeadToHead(
             @RequestParam int driver1Id,
             @RequestParam int driver2Id) {
         String sql = """
@@ -535,74 +496,33 @@ public class AnalyticsController {
                 FROM paired
                 GROUP BY driver1, driver2
                 """;
-        return jdbcTemplate.queryForList(sql, driver1Id, driver2Id, driver1Id, driver2Id);
+        return jdbcTemplate.query(sql, HeadToHeadDTO.MAPPER, driver1Id, driver2Id, driver1Id, driver2Id);
     }
 
     // Consistency: Low standard deviation in lap times indicates a consistent
-    // driver
+    // driver (computed from cached per-race lap matrices, see
+    // LapTimeAnalyticsService)
     @GetMapping("/lap-consistency")
     public List<Map<String, Object>> getLapConsistency(@RequestParam(required = false) Integer season) {
-        int targetSeason = resolveSeason(season);
-        String sql = """
-                SELECT d.forename || ' ' || d.surname as driver,
-                       c.name as constructor,
-                       ROUND(STDDEV(lt.milliseconds)::numeric / 1000, 3) as deviation,
-                       ROUND(AVG(lt.milliseconds)::numeric / 1000, 3) as avg_lap_time
-                FROM lap_times lt
-                JOIN races r ON lt.race_id = r.race_id
-                JOIN drivers d ON lt.driver_id = d.driver_id
-                JOIN results res ON r.race_id = res.race_id AND d.driver_id = res.driver_id
-                JOIN constructors c ON res.constructor_id = c.constructor_id
-                WHERE r.year = ? AND lt.milliseconds < 100000 -- Filter distinct outliers > 1m40s (approx, varies by track)
-                AND res.status_id = 1 -- Only count finished races to avoid crash laps skewing data
-                GROUP BY d.driver_id, d.forename, d.surname, c.name
-                HAVING COUNT(*) > 100 -- Minimum sample size
-                ORDER BY deviation ASC
-                LIMIT 20
-                """;
-        return jdbcTemplate.queryForList(sql, targetSeason);
+        return lapTimeAnalyticsService.getLapConsistency(resolveSeason(season));
     }
 
     // Race Pace: Comparison of average lap times relative to the winner
     @GetMapping("/race-pace-gap")
     public List<Map<String, Object>> getRacePaceGap(@RequestParam(required = false) Integer season) {
-        int targetSeason = resolveSeason(season);
-        String sql = """
-                WITH RaceWinners AS (
-                    SELECT r.race_id, AVG(lt.milliseconds) as winner_avg_pace
-                    FROM lap_times lt
-                    JOIN results res ON lt.race_id = res.race_id AND lt.driver_id = res.driver_id
-                    JOIN races r ON lt.race_id = r.race_id
-                    WHERE r.year = ? AND res.position = 1 AND lt.milliseconds < 100000 -- Filter pit stops
-                    GROUP BY r.race_id
-                ),
-                DriverPace AS (
-                    SELECT lt.race_id, lt.driver_id, AVG(lt.milliseconds) as driver_avg_pace
-                    FROM lap_times lt
-                    JOIN races r ON lt.race_id = r.race_id
-                    JOIN results res ON lt.race_id = res.race_id AND lt.driver_id = res.driver_id
-                    WHERE r.year = ? AND res.status_id = 1 AND lt.milliseconds < 100000 -- Filter pit stops
-                    GROUP BY lt.race_id, lt.driver_id
-                )
-                SELECT d.forename || ' ' || d.surname as driver,
-                       c.name as constructor,
-                       ROUND(AVG((dp.driver_avg_pace - rw.winner_avg_pace) / 1000)::numeric, 3) as avg_gap_to_winner
-                FROM DriverPace dp
-                JOIN RaceWinners rw ON dp.race_id = rw.race_id
-                JOIN drivers d ON dp.driver_id = d.driver_id
-                JOIN results res ON dp.race_id = res.race_id AND dp.driver_id = res.driver_id
-                JOIN constructors c ON res.constructor_id = c.constructor_id
-                GROUP BY d.driver_id, d.forename, d.surname, c.name
-                HAVING COUNT(*) >= 5 -- Participated in at least 5 races
-                ORDER BY avg_gap_to_winner ASC
-                LIMIT 20
-                """;
-        return jdbcTemplate.queryForList(sql, targetSeason, targetSeason);
+        return lapTimeAnalyticsService.getRacePaceGap(resolveSeason(season));
+    }
+
+    // Stints: Splits each driver's race into stints with per-stint pace and
+    // consistency
+    @GetMapping("/race-stints")
+    public List<Map<String, Object>> getRaceStints(@RequestParam Integer raceId) {
+        return lapTimeAnalyticsService.getRaceStints(raceId);
     }
 
     // Championship Swings: Tracks momentum changes (points gained/lost)
     @GetMapping("/championship-momentum")
-    public List<Map<String, Object>> getChampionshipMomentum(@RequestParam(required = false) Integer season) {
+    public List<ChampionshipMomentumDTO> getChampionshipMomentum(@RequestParam(required = false) Integer season) {
         Integer targetSeason = resolveSeason(season);
         String sql = """
                 SELECT
@@ -623,12 +543,21 @@ public class AnalyticsController {
                 ORDER BY total_points DESC
                 LIMIT 15
                 """;
-        return jdbcTemplate.queryForList(sql, targetSeason);
+        return jdbcTemplate.query(sql, ChampionshipMomentumDTO.MAPPER, targetSeason);
+    }
+
+    // Title Odds: Monte Carlo simulation of the remaining rounds of the latest
+    // season, sampling each race from the drivers' recent finishing positions
+    @GetMapping("/championship-simulation")
+    public Map<String, Object> getChampionshipSimulation(
+            @RequestParam(defaultValue = "100000") int simulations,
+            @RequestParam(defaultValue = "10") int formWindow) {
+        return championshipSimulationService.simulate(simulations, formWindow);
     }
 
     // Season Dominance: Which driver is dominating stats this year?
     @GetMapping("/season-dominance")
-    public List<Map<String, Object>> getSeasonDominance(@RequestParam(required = false) Integer season) {
+    public List<SeasonDominanceDTO> getSeasonDominance(@RequestParam(required = false) Integer season) {
         Integer targetSeason = resolveSeason(season);
         String sql = """
                 SELECT
@@ -649,6 +578,6 @@ public class AnalyticsController {
                 ORDER BY total_points DESC
                 LIMIT 15
                 """;
-        return jdbcTemplate.queryForList(sql, targetSeason);
+        return jdbcTemplate.query(sql, SeasonDominanceDTO.MAPPER, targetSeason);
     }
 }
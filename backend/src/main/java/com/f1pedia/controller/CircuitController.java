@@ -1,16 +1,28 @@
 package com.f1pedia.controller;
 
+import com.f1pedia.config.ReplicaRead;
 import com.f1pedia.domain.Circuit;
+import com.f1pedia.dto.*;
 import com.f1pedia.repository.CircuitRepository;
+import com.f1pedia.service.CircuitSpatialIndex;
+import com.f1pedia.web.Bulkhead;
+import com.f1pedia.web.Coalesced;
+import com.f1pedia.web.Deadline;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
 
 @RestController
 @RequestMapping("/api/circuits")
+@Coalesced
+@ReplicaRead
+@Bulkhead(Bulkhead.LOOKUP)
+@Deadline
 /**
  * Manages circuit data and statistics.
  * Handles fetching circuit details and aggregating race history for specific
@@ -24,12 +36,75 @@ public class CircuitController {
        @Autowired
        private JdbcTemplate jdbcTemplate;
 
+       @Autowired
+       private CircuitSpatialIndex circuitSpatialIndex;
+
        // Returns the full list of circuits available in the system
        @GetMapping
        public List<Circuit> getAllCircuits() {
               return circuitRepository.findAll();
        }
 
+       // Circuits closest to a point, nearest first
+       @GetMapping("/nearest")
+       public List<NearbyCircuitDTO> getNearestCircuits(@RequestParam double lat, @RequestParam double lng,
+                     @RequestParam(defaultValue = "5") int limit) {
+              checkPoint(lat, lng);
+              return circuitSpatialIndex.nearest(lat, lng, Math.min(Math.max(limit, 1), 100));
+       }
+
+       // Circuits within radiusKm of a point, nearest first
+       @GetMapping("/within")
+       public List<NearbyCircuitDTO> getCircuitsWithin(@RequestParam double lat, @RequestParam double lng,
+                     @RequestParam double radiusKm) {
+              checkPoint(lat, lng);
+              if (!(radiusKm >= 0)) {
+                     throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "radiusKm must not be negative");
+              }
+              return circuitSpatialIndex.within(lat, lng, radiusKm);
+       }
+
+       // Circuits inside a bounding box; minLng > maxLng wraps across 180 degrees
+       @GetMapping("/in-box")
+       public List<NearbyCircuitDTO> getCircuitsInBox(@RequestParam double minLat, @RequestParam double minLng,
+                     @RequestParam double maxLat, @RequestParam double maxLng) {
+              checkPoint(minLat, minLng);
+              checkPoint(maxLat, maxLng);
+              return circuitSpatialIndex.inBox(minLat, minLng, maxLat, maxLng);
+       }
+
+       /**
+        * Top drivers and constructors across the circuits of a region, given
+        * either as a circle (lat, lng, radiusKm) or a bounding box.
+        */
+       @Bulkhead(Bulkhead.HEAVY)
+       @GetMapping("/region-performance")
+       public RegionPerformanceDTO getRegionPerformance(@RequestParam(required = false) Double lat,
+                     @RequestParam(required = false) Double lng,
+                     @RequestParam(required = false) Double radiusKm,
+                     @RequestParam(required = false) Double minLat,
+                     @RequestParam(required = false) Double minLng,
+                     @RequestParam(required = false) Double maxLat,
+                     @RequestParam(required = false) Double maxLng,
+                     @RequestParam(defaultValue = "10") int limit) {
+              List<NearbyCircuitDTO> circuits;
+              if (lat != null && lng != null && radiusKm != null) {
+                     circuits = getCircuitsWithin(lat, lng, radiusKm);
+              } else if (minLat != null && minLng != null && maxLat != null && maxLng != null) {
+                     circuits = getCircuitsInBox(minLat, minLng, maxLat, maxLng);
+              } else {
+                     throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                   "Give lat, lng and radiusKm, or minLat, minLng, maxLat and maxLng");
+              }
+              return circuitSpatialIndex.performance(circuits, Math.min(Math.max(limit, 1), 100));
+       }
+
+       private static void checkPoint(double lat, double lng) {
+              if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+                     throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Coordinates out of range");
+              }
+       }
+
        /**
         * Looks up a specific circuit by ID.
         * Returns 404 if the circuit doesn't exist.
@@ -85,10 +160,10 @@ public class CircuitController {
                             JOIN drivers d ON r.driver_id = d.driver_id
                             WHERE ra.circuit_id = ? AND r.position = 1
                             GROUP BY d.driver_id, d.forename, d.surname
-                            ORDER BY wins DESC
+                            ORDER BY wins DESC, d.driver_id
                             LIMIT 10
                             """;
-              stats.put("topWinners", jdbcTemplate.queryForList(winnersSql, id));
+              stats.put("topWinners", jdbcTemplate.query(winnersSql, CircuitDriverWinsDTO.MAPPER, id));
 
               // Most wins by constructor
               String constructorWinsSql = """
@@ -100,10 +175,10 @@ public class CircuitController {
                             JOIN constructors c ON r.constructor_id = c.constructor_id
                             WHERE ra.circuit_id = ? AND r.position = 1
                             GROUP BY c.constructor_id, c.name
-                            ORDER BY wins DESC
+                            ORDER BY wins DESC, c.constructor_id
                             LIMIT 10
                             """;
-              stats.put("topConstructors", jdbcTemplate.queryForList(constructorWinsSql, id));
+              stats.put("topConstructors", jdbcTemplate.query(constructorWinsSql, CircuitConstructorWinsDTO.MAPPER, id));
 
               // Fastest laps
               String fastestLapsSql = """
@@ -118,7 +193,7 @@ public class CircuitController {
                             ORDER BY r.fastest_lap_time ASC
                             LIMIT 10
                             """;
-              stats.put("fastestLaps", jdbcTemplate.queryForList(fastestLapsSql, id));
+              stats.put("fastestLaps", jdbcTemplate.query(fastestLapsSql, CircuitFastestLapDTO.MAPPER, id));
 
               // DNF rate
               String dnfSql = """
@@ -143,7 +218,7 @@ public class CircuitController {
                             ORDER BY ra.year DESC
                             LIMIT 10
                             """;
-              stats.put("recentRaces", jdbcTemplate.queryForList(recentSql, id));
+              stats.put("recentRaces", jdbcTemplate.query(recentSql, CircuitRecentRaceDTO.MAPPER, id));
 
               // Analysis: Win from Pole Percentage
               String poleWinSql = """
@@ -179,8 +254,9 @@ public class CircuitController {
        }
 
        // Fetches all circuits along with basic usage stats (e.g. total races held)
+       @Bulkhead(Bulkhead.HEAVY)
        @GetMapping("/with-stats")
-       public List<Map<String, Object>> getCircuitsWithStats() {
+       public List<CircuitWithStatsDTO> getCircuitsWithStats() {
               String sql = """
                             SELECT ci.circuit_id, ci.name, ci.location, ci.country,
                                    COUNT(DISTINCT ra.race_id) as total_races,
@@ -189,8 +265,8 @@ public class CircuitController {
                             FROM circuits ci
                             LEFT JOIN races ra ON ci.circuit_id = ra.circuit_id
                             GROUP BY ci.circuit_id, ci.name, ci.location, ci.country
-                            ORDER BY total_races DESC
+                            ORDER BY total_races DESC, ci.circuit_id
                             """;
-              return jdbcTemplate.queryForList(sql);
+              return jdbcTemplate.query(sql, CircuitWithStatsDTO.MAPPER);
        }
 }
@@ -1,15 +1,38 @@
 package com.f1pedia.controller;
 
+import com.f1pedia.config.ReplicaRead;
 import com.f1pedia.domain.Constructor;
+import com.f1pedia.dto.ConstructorCircuitDTO;
+import com.f1pedia.dto.ConstructorDriverStatsDTO;
+import com.f1pedia.dto.ConstructorSeasonDTO;
+import com.f1pedia.dto.MetricRankDTO;
+import com.f1pedia.dto.RatingDTO;
+import com.f1pedia.dto.RatingPointDTO;
 import com.f1pedia.repository.ConstructorRepository;
+import com.f1pedia.service.CircuitSpatialIndex;
+import com.f1pedia.service.MetricRankIndex;
+import com.f1pedia.service.RatingService;
+import com.f1pedia.service.ResultsCube;
+import com.f1pedia.service.SearchIndexService;
+import com.f1pedia.web.Bulkhead;
+import com.f1pedia.web.Coalesced;
+import com.f1pedia.web.Deadline;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/constructors")
+@Coalesced
+@ReplicaRead
+@Bulkhead(Bulkhead.LOOKUP)
+@Deadline
 /**
  * Manages Constructor (Team) data.
  * Provides APIs for team details, driver rosters, and team-specific performance
@@ -20,22 +43,54 @@ public class ConstructorController {
     @Autowired
     private ConstructorRepository constructorRepository;
 
-    // List all constructors, optionally filtering by name
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private CircuitSpatialIndex circuitSpatialIndex;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private MetricRankIndex metricRankIndex;
+
+    @Autowired
+    private ResultsCube resultsCube;
+
+    // List all constructors, optionally filtering by name (served from the
+    // in-memory search index rather than an ILIKE scan)
     @GetMapping
     public List<Constructor> getAllConstructors(@RequestParam(required = false) String search) {
         if (search != null && !search.trim().isEmpty()) {
-            return constructorRepository.findByNameContainingIgnoreCase(search);
+            return searchIndexService.constructorsNamed(search);
         }
         return constructorRepository.findAll();
     }
 
     // Returns all constructors enriched with aggregate stats (wins, championships,
     // etc.)
+    @Bulkhead(Bulkhead.HEAVY)
     @GetMapping("/stats")
     public List<com.f1pedia.dto.ConstructorStatsDTO> getConstructorsWithStats() {
         return constructorRepository.findAllWithStats();
     }
 
+    /**
+     * Elo-style team leaderboard: by current rating among teams that raced
+     * recently, or by career peak for cross-era comparison.
+     */
+    @Bulkhead(Bulkhead.HEAVY)
+    @GetMapping("/ratings")
+    public List<RatingDTO> getRatings(@RequestParam(defaultValue = "current") String by,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (!by.equals("current") && !by.equals("peak")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "by must be current or peak");
+        }
+        return ratingService.leaderboard(RatingService.Subject.CONSTRUCTOR, by.equals("peak"),
+                Math.min(Math.max(limit, 1), 200));
+    }
+
     // Fetch team details by ID
     @GetMapping("/{id}")
     public ResponseEntity<Constructor> getConstructorById(@PathVariable int id) {
@@ -44,6 +99,30 @@ public class ConstructorController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Current rating, or the rating as of a date (yyyy-MM-dd)
+    @Bulkhead(Bulkhead.HEAVY)
+    @GetMapping("/{id}/rating")
+    public ResponseEntity<RatingDTO> getRating(@PathVariable int id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        RatingDTO rating = ratingService.rating(RatingService.Subject.CONSTRUCTOR, id, date);
+        return rating == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(rating);
+    }
+
+    // Rating after every race, for charting
+    @Bulkhead(Bulkhead.HEAVY)
+    @GetMapping("/{id}/rating-history")
+    public List<RatingPointDTO> getRatingHistory(@PathVariable int id) {
+        return ratingService.history(RatingService.Subject.CONSTRUCTOR, id);
+    }
+
+    // Rank and percentile on each metric, all-time or for one season
+    @Bulkhead(Bulkhead.HEAVY)
+    @GetMapping("/{id}/ranks")
+    public java.util.Map<String, MetricRankDTO> getRanks(@PathVariable int id,
+            @RequestParam(required = false) Integer season) {
+        return metricRankIndex.ranks(RatingService.Subject.CONSTRUCTOR, id, season);
+    }
+
     @Autowired
     private com.f1pedia.repository.DriverRepository driverRepository;
 
@@ -58,133 +137,60 @@ public class ConstructorController {
 
     // detailed driver stats specifically while driving for this team
     @GetMapping("/{id}/driver-stats")
-    public List<java.util.Map<String, Object>> getDriverStatsByConstructor(@PathVariable Integer id) {
-        List<Object[]> results = resultRepository.findDriverStatsByConstructorId(id);
-
-        return results.stream().map(row -> {
-            com.f1pedia.domain.Driver driver = (com.f1pedia.domain.Driver) row[0];
-            long wins = ((Number) row[1]).longValue();
-            double totalPoints = ((Number) row[2]).doubleValue();
-            long races = ((Number) row[3]).longValue();
-            int firstYear = ((Number) row[4]).intValue();
-            int lastYear = ((Number) row[5]).intValue();
-            long podiums = ((Number) row[6]).longValue();
-
-            java.util.Map<String, Object> stats = new java.util.HashMap<>();
-            stats.put("driverId", driver.getDriverId());
-            stats.put("forename", driver.getForename());
-            stats.put("surname", driver.getSurname());
-            stats.put("code", driver.getCode());
-            stats.put("number", driver.getNumber());
-            stats.put("nationality", driver.getNationality());
-            stats.put("totalPoints", totalPoints);
-            stats.put("wins", wins);
-            stats.put("podiums", podiums);
-            stats.put("races", races);
-            stats.put("firstYear", firstYear);
-            stats.put("lastYear", lastYear);
-            stats.put("yearsActive", firstYear == lastYear ? String.valueOf(firstYear) : firstYear + "-" + lastYear);
-
-            return stats;
-        }).sorted((a, b) -> Double.compare((Double) b.get("totalPoints"), (Double) a.get("totalPoints")))
+    public List<ConstructorDriverStatsDTO> getDriverStatsByConstructor(@PathVariable Integer id) {
+        return resultRepository.findDriverStatsByConstructorId(id).stream()
+                .map(ConstructorDriverStatsDTO::of)
+                .sorted(java.util.Comparator.comparingDouble(ConstructorDriverStatsDTO::totalPoints).reversed())
                 .toList();
     }
 
     // Year-by-year performance breakdown
     @GetMapping("/{id}/seasons")
-    public List<java.util.Map<String, Object>> getConstructorSeasons(@PathVariable Integer id) {
-        List<Object[]> results = resultRepository.findConstructorSeasonStats(id);
-        List<Object[]> driverPointsRaw = resultRepository.findSeasonDriverPoints(id);
-
-        // Map driver points by year
+    public List<ConstructorSeasonDTO> getConstructorSeasons(@PathVariable Integer id) {
+        // Driver points feed the stacked bar chart
         java.util.Map<Integer, java.util.Map<String, Double>> driverPointsByYear = new java.util.HashMap<>();
-        for (Object[] row : driverPointsRaw) {
-            int year = ((Number) row[0]).intValue();
-            String driver = (String) row[1];
-            double points = ((Number) row[2]).doubleValue();
-
-            driverPointsByYear.computeIfAbsent(year, k -> new java.util.HashMap<>()).put(driver, points);
+        for (ResultsCube.Cell cell : resultsCube.rollUp(ResultsCube.Dimension.CONSTRUCTOR, id,
+                ResultsCube.Dimension.SEASON, ResultsCube.Dimension.DRIVER)) {
+            if (cell.points() > 0) {
+                driverPointsByYear.computeIfAbsent(cell.season(), k -> new java.util.HashMap<>())
+                        .merge(resultsCube.driver(cell.driverId()).getSurname(), cell.points(), Double::sum);
+            }
         }
 
-        return results.stream().map(row -> {
-            int year = ((Number) row[0]).intValue();
-            double points = ((Number) row[1]).doubleValue();
-            long wins = ((Number) row[2]).longValue();
-            long podiums = ((Number) row[3]).longValue();
-            long races = ((Number) row[4]).longValue();
-            int bestFinish = row[5] != null ? ((Number) row[5]).intValue() : 0;
-            double avgGrid = row[6] != null ? ((Number) row[6]).doubleValue() : 0.0;
-            long dnfs = ((Number) row[7]).longValue();
-
-            java.util.Map<String, Object> stats = new java.util.HashMap<>();
-            stats.put("year", year);
-            stats.put("points", points);
-            stats.put("wins", wins);
-            stats.put("podiums", podiums);
-            stats.put("races", races);
-            stats.put("bestFinish", bestFinish == 0 ? "N/A" : bestFinish);
-            stats.put("avgGrid", Math.round(avgGrid * 10.0) / 10.0);
-            stats.put("dnfs", dnfs);
-
-            // Add driver points for stacked bar chart
-            stats.put("driverPoints", driverPointsByYear.getOrDefault(year, new java.util.HashMap<>()));
-
-            return stats;
-        }).collect(java.util.stream.Collectors.toList());
+        return resultsCube.rollUp(ResultsCube.Dimension.CONSTRUCTOR, id, ResultsCube.Dimension.SEASON).stream()
+                .sorted(java.util.Comparator.comparing(ResultsCube.Cell::season).reversed())
+                .map(cell -> new ConstructorSeasonDTO(cell.season(), cell.points(), cell.wins(), cell.podiums(),
+                        cell.entries(), bestFinish(cell), round1(cell.avgGrid()), cell.unclassified(),
+                        driverPointsByYear.getOrDefault(cell.season(), java.util.Map.of())))
+                .toList();
     }
 
     // Performance breakdown by circuit/track
     @GetMapping("/{id}/circuits")
-    public List<java.util.Map<String, Object>> getConstructorCircuits(@PathVariable Integer id) {
-        List<Object[]> results = resultRepository.findConstructorCircuitStats(id);
-
-        return results.stream().map(row -> {
-            Integer circuitId = (Integer) row[0];
-            String name = (String) row[1];
-            String location = (String) row[2];
-            String country = (String) row[3];
-            long count = ((Number) row[4]).longValue();
-            double points = ((Number) row[5]).doubleValue();
-            long wins = ((Number) row[6]).longValue();
-            long podiums = ((Number) row[7]).longValue();
-            int firstYear = columnToInt(row[8]);
-            int lastYear = columnToInt(row[9]);
-
-            int bestFinish = row[10] != null ? ((Number) row[10]).intValue() : 0;
-            double avgGrid = row[11] != null ? ((Number) row[11]).doubleValue() : 0.0;
-            double avgFinish = row[12] != null ? ((Number) row[12]).doubleValue() : 0.0;
-            long dnfs = ((Number) row[13]).longValue();
-
-            java.util.Map<String, Object> stats = new java.util.HashMap<>();
-            stats.put("circuitId", circuitId);
-            stats.put("circuit", name); // Frontend expects 'circuit', not 'name'
-            stats.put("name", name);
-            stats.put("location", location);
-            stats.put("country", country);
-            stats.put("races", count);
-            stats.put("points", points);
-            stats.put("wins", wins);
-            stats.put("podiums", podiums);
-            stats.put("firstYear", firstYear);
-            stats.put("lastYear", lastYear);
-
-            stats.put("bestFinish", bestFinish == 0 ? "N/A" : bestFinish);
-            stats.put("avgGrid", Math.round(avgGrid * 10.0) / 10.0);
-            stats.put("avgFinish", Math.round(avgFinish * 10.0) / 10.0);
-            stats.put("totalPoints", points); // Frontend uses 'totalPoints' in some charts
-            stats.put("dnfs", dnfs);
-
-            return stats;
-        }).collect(java.util.stream.Collectors.toList());
+    public List<ConstructorCircuitDTO> getConstructorCircuits(@PathVariable Integer id) {
+        return resultsCube.rollUp(ResultsCube.Dimension.CONSTRUCTOR, id, ResultsCube.Dimension.CIRCUIT).stream()
+                .sorted(java.util.Comparator.comparingLong(ResultsCube.Cell::entries).reversed())
+                .map(cell -> {
+                    com.f1pedia.domain.Circuit circuit = resultsCube.circuit(cell.circuitId());
+                    return new ConstructorCircuitDTO(cell.circuitId(), circuit.getName(), circuit.getName(),
+                            circuit.getLocation(), circuit.getCountry(), cell.entries(), cell.points(), cell.wins(),
+                            cell.podiums(), cell.firstSeason(), cell.lastSeason(), bestFinish(cell),
+                            round1(cell.avgGrid()), round1(cell.avgFinish()), cell.points(), cell.unclassified());
+                })
+                .toList();
+    }
+
+    // "N/A" when no car was classified, as the team pages expect
+    private static Object bestFinish(ResultsCube.Cell cell) {
+        return cell.bestFinish() != null ? cell.bestFinish() : "N/A";
     }
 
-    private int columnToInt(Object col) {
-        if (col == null)
-            return 0;
-        return ((Number) col).intValue();
+    private static double round1(Double value) {
+        return value != null ? Math.round(value * 10.0) / 10.0 : 0.0;
     }
 
     // Key dashboard metrics: Poles, Fastest Laps, and Podiums
+    @Bulkhead(Bulkhead.HEAVY)
     @GetMapping("/{id}/dashboard-stats")
     public java.util.Map<String, Object> getConstructorDashboardStats(@PathVariable Integer id) {
         List<com.f1pedia.domain.Result> results = resultRepository.findByConstructorConstructorId(id);
@@ -228,10 +234,14 @@ public class ConstructorController {
 
         stats.put("resultDistribution", distribution);
 
+        // All-time rank and percentile on each metric
+        stats.put("ranks", metricRankIndex.ranks(RatingService.Subject.CONSTRUCTOR, id, null));
+
         return stats;
     }
 
     // Reliability Analysis: Breakdown of Mechanical vs Accident DNFs
+    @Bulkhead(Bulkhead.HEAVY)
     @GetMapping("/{id}/status-breakdown")
     public List<java.util.Map<String, Object>> getConstructorStatusBreakdown(@PathVariable Integer id) {
         List<com.f1pedia.domain.Result> results = resultRepository.findByConstructorConstructorId(id);
@@ -269,6 +279,7 @@ public class ConstructorController {
     }
 
     // Heatmap Visualization: Season vs Round performance
+    @Bulkhead(Bulkhead.HEAVY)
     @GetMapping("/{id}/points-heatmap")
     public List<java.util.Map<String, Object>> getConstructorPointsHeatmap(@PathVariable Integer id) {
         List<com.f1pedia.domain.Result> results = resultRepository.findByConstructorConstructorId(id);
@@ -314,42 +325,24 @@ public class ConstructorController {
     }
 
     // Performance by Country: Where does this team historically do best?
+    // Summed from the spatial index's per-circuit totals instead of loading
+    // every result of the team
+    @Bulkhead(Bulkhead.HEAVY)
     @GetMapping("/{id}/geo-performance")
     public List<java.util.Map<String, Object>> getConstructorGeoPerformance(@PathVariable Integer id) {
-        List<com.f1pedia.domain.Result> results = resultRepository.findByConstructorConstructorId(id);
-
-        // Group by Country
-        java.util.Map<String, List<com.f1pedia.domain.Result>> byCountry = results.stream()
-                .filter(r -> r.getRace() != null && r.getRace().getCircuit() != null
-                        && r.getRace().getCircuit().getCountry() != null)
-                .collect(java.util.stream.Collectors.groupingBy(r -> r.getRace().getCircuit().getCountry()));
-
-        return byCountry.entrySet().stream()
+        return circuitSpatialIndex.constructorByCountry(id).entrySet().stream()
                 .map(entry -> {
-                    String country = entry.getKey();
-                    List<com.f1pedia.domain.Result> countryResults = entry.getValue();
-
-                    double totalPoints = countryResults.stream()
-                            .mapToDouble(r -> r.getPoints() != null ? r.getPoints() : 0.0)
-                            .sum();
-
-                    long races = countryResults.stream()
-                            .map(r -> r.getRace().getRaceId())
-                            .distinct()
-                            .count();
-
+                    double[] totals = entry.getValue();
+                    double totalPoints = totals[0];
+                    long races = (long) totals[1];
                     double avgPoints = races > 0 ? totalPoints / races : 0;
 
-                    long wins = countryResults.stream()
-                            .filter(r -> r.getPosition() != null && r.getPosition() == 1)
-                            .count();
-
                     java.util.Map<String, Object> map = new java.util.HashMap<>();
-                    map.put("country", country);
+                    map.put("country", entry.getKey());
                     map.put("avgPoints", Math.round(avgPoints * 100.0) / 100.0);
                     map.put("totalPoints", totalPoints);
                     map.put("races", races);
-                    map.put("wins", wins);
+                    map.put("wins", (long) totals[2]);
 
                     return map;
                 })
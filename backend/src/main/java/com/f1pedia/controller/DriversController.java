@@ -1,16 +1,32 @@
 package com.f1pedia.controller;
 
+import com.f1pedia.config.ReplicaRead;
 import com.f1pedia.domain.Driver;
+import com.f1pedia.dto.*;
 import com.f1pedia.repository.DriverRepository;
+import com.f1pedia.service.DriverProfileService;
+import com.f1pedia.service.MetricRankIndex;
+import com.f1pedia.service.RatingService;
+import com.f1pedia.web.Bulkhead;
+import com.f1pedia.web.Coalesced;
+import com.f1pedia.web.Deadline;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
 import java.util.*;
 
 @RestController
 @RequestMapping("/api/drivers")
+@Coalesced
+@ReplicaRead
+@Bulkhead(Bulkhead.LOOKUP)
+@Deadline
 /**
  * Manages driver profiles and statistics.
  * Provides endpoints for retrieving driver details, career history, and
@@ -24,6 +40,15 @@ public class DriversController {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private MetricRankIndex metricRankIndex;
+
+    @Autowired
+    private DriverProfileService driverProfileService;
+
     // Fetch list of all drivers
     @GetMapping
     public List<Driver> getAllDrivers() {
@@ -35,8 +60,9 @@ public class DriversController {
      * tool.
      * Only includes drivers with significant race history.
      */
+    @Bulkhead(Bulkhead.HEAVY)
     @GetMapping("/stats")
-    public List<Map<String, Object>> getDriverStats() {
+    public List<DriverStatsDTO> getDriverStats() {
         String sql = """
                 SELECT
                     d.driver_id as "driverId",
@@ -60,7 +86,22 @@ public class DriversController {
                 ORDER BY wins DESC, podiums DESC
                 LIMIT 100
                 """;
-        return jdbcTemplate.queryForList(sql);
+        return jdbcTemplate.query(sql, DriverStatsDTO.MAPPER);
+    }
+
+    /**
+     * Elo-style driver leaderboard: by current rating among those that raced
+     * recently, or by career peak for cross-era comparison.
+     */
+    @Bulkhead(Bulkhead.HEAVY)
+    @GetMapping("/ratings")
+    public List<RatingDTO> getRatings(@RequestParam(defaultValue = "current") String by,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (!by.equals("current") && !by.equals("peak")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "by must be current or peak");
+        }
+        return ratingService.leaderboard(RatingService.Subject.DRIVER, by.equals("peak"),
+                Math.min(Math.max(limit, 1), 200));
     }
 
     // Look up a driver profile by ID
@@ -72,147 +113,60 @@ public class DriversController {
     }
 
     /**
-     * Compiles a complete history of a driver's career.
-     * Includes teams driven for, season-by-season breakdowns, and best race
-     * results.
+     * The whole driver page in one request: the driver plus the career,
+     * championships, circuits, evolution, status, teammates, trajectory and
+     * positions views, all derived from one read of the driver's results.
      */
-    @GetMapping("/{id}/career")
-    public ResponseEntity<Map<String, Object>> getDriverCareer(@PathVariable int id) {
-        Optional<Driver> driverOpt = driverRepository.findById(id);
-        if (driverOpt.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-
-        Driver driver = driverOpt.get();
-        Map<String, Object> career = new HashMap<>();
-
-        // Basic info
-        career.put("driverId", driver.getDriverId());
-        career.put("forename", driver.getForename());
-        career.put("surname", driver.getSurname());
-        career.put("code", driver.getCode());
-        career.put("nationality", driver.getNationality());
-        career.put("dob", driver.getDob());
-        career.put("url", driver.getUrl());
-
-        // Career totals
-        String totalsSql = """
-                SELECT COUNT(*) as races,
-                       SUM(r.points) as total_points,
-                       COUNT(CASE WHEN r.position = 1 THEN 1 END) as wins,
-                       COUNT(CASE WHEN r.position <= 3 THEN 1 END) as podiums,
-                       COUNT(CASE WHEN r.grid = 1 THEN 1 END) as poles,
-                       COUNT(CASE WHEN r.rank = 1 THEN 1 END) as fastest_laps,
-                       MIN(ra.year) as first_year,
-                       MAX(ra.year) as last_year
-                FROM results r
-                JOIN races ra ON r.race_id = ra.race_id
-                WHERE r.driver_id = ?
-                """;
-        Map<String, Object> totals = jdbcTemplate.queryForMap(totalsSql, id);
-        career.putAll(totals);
+    @GetMapping("/{id}/profile")
+    public ResponseEntity<DriverProfileDTO> getDriverProfile(@PathVariable int id) {
+        DriverProfileDTO profile = driverProfileService.profile(id);
+        return profile == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(profile);
+    }
 
-        // Teams driven for
-        String teamsSql = """
-                SELECT DISTINCT c.constructor_id, c.name, c.nationality,
-                       MIN(ra.year) as from_year, MAX(ra.year) as to_year,
-                       COUNT(*) as races, SUM(r.points) as points,
-                       COUNT(CASE WHEN r.position = 1 THEN 1 END) as wins
-                FROM results r
-                JOIN constructors c ON r.constructor_id = c.constructor_id
-                JOIN races ra ON r.race_id = ra.race_id
-                WHERE r.driver_id = ?
-                GROUP BY c.constructor_id, c.name, c.nationality
-                ORDER BY from_year DESC
-                """;
-        List<Map<String, Object>> teams = jdbcTemplate.queryForList(teamsSql, id);
-        career.put("teams", teams);
+    // Current rating, or the rating as of a date (yyyy-MM-dd)
+    @Bulkhead(Bulkhead.HEAVY)
+    @GetMapping("/{id}/rating")
+    public ResponseEntity<RatingDTO> getRating(@PathVariable int id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        RatingDTO rating = ratingService.rating(RatingService.Subject.DRIVER, id, date);
+        return rating == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(rating);
+    }
 
-        // Season by season breakdown
-        String seasonsSql = """
-                SELECT ra.year,
-                       c.name as team,
-                       COUNT(*) as races,
-                       SUM(r.points) as points,
-                       COUNT(CASE WHEN r.position = 1 THEN 1 END) as wins,
-                       COUNT(CASE WHEN r.position <= 3 THEN 1 END) as podiums,
-                       COUNT(CASE WHEN r.grid = 1 THEN 1 END) as poles,
-                       ds.position as championship_position
-                FROM results r
-                JOIN races ra ON r.race_id = ra.race_id
-                JOIN constructors c ON r.constructor_id = c.constructor_id
-                LEFT JOIN (
-                    SELECT driver_id, race_id, position
-                    FROM driver_standings ds1
-                    WHERE ds1.race_id = (
-                        SELECT MAX(ds2.race_id)
-                        FROM driver_standings ds2
-                        JOIN races r2 ON ds2.race_id = r2.race_id
-                        WHERE ds2.driver_id = ds1.driver_id AND r2.year = (
-                            SELECT year FROM races WHERE race_id = ds1.race_id
-                        )
-                    )
-                ) ds ON ds.driver_id = r.driver_id AND ds.race_id = (
-                    SELECT MAX(race_id) FROM races WHERE year = ra.year
-                )
-                WHERE r.driver_id = ?
-                GROUP BY ra.year, c.name, ds.position
-                ORDER BY ra.year DESC
-                """;
-        List<Map<String, Object>> seasons = jdbcTemplate.queryForList(seasonsSql, id);
-        career.put("seasons", seasons);
+    // Rating after every race, for charting
+    @Bulkhead(Bulkhead.HEAVY)
+    @GetMapping("/{id}/rating-history")
+    public List<RatingPointDTO> getRatingHistory(@PathVariable int id) {
+        return ratingService.history(RatingService.Subject.DRIVER, id);
+    }
 
-        // Best results
-        String bestSql = """
-                SELECT ra.name as race, ra.year, c.name as team, r.position, r.points
-                FROM results r
-                JOIN races ra ON r.race_id = ra.race_id
-                JOIN constructors c ON r.constructor_id = c.constructor_id
-                WHERE r.driver_id = ? AND r.position IS NOT NULL
-                ORDER BY r.points DESC, r.position ASC
-                LIMIT 10
-                """;
-        List<Map<String, Object>> bestResults = jdbcTemplate.queryForList(bestSql, id);
-        career.put("bestResults", bestResults);
+    // Rank and percentile on each metric, all-time or for one season
+    @Bulkhead(Bulkhead.HEAVY)
+    @GetMapping("/{id}/ranks")
+    public Map<String, MetricRankDTO> getRanks(@PathVariable int id, @RequestParam(required = false) Integer season) {
+        return metricRankIndex.ranks(RatingService.Subject.DRIVER, id, season);
+    }
 
-        return ResponseEntity.ok(career);
+    /**
+     * Compiles a complete history of a driver's career.
+     * Includes teams driven for, season-by-season breakdowns, and best race
+     * results. This and the views below are parts of the profile.
+     */
+    @GetMapping("/{id}/career")
+    public ResponseEntity<Map<String, Object>> getDriverCareer(@PathVariable int id) {
+        DriverProfileDTO profile = driverProfileService.profile(id);
+        return profile == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(profile.career());
     }
 
     // Returns a history of championship standings for the driver
     @GetMapping("/{id}/championships")
-    public List<Map<String, Object>> getDriverChampionships(@PathVariable int id) {
-        String sql = """
-                SELECT ra.year, ds.points, ds.position, ds.wins
-                FROM driver_standings ds
-                JOIN races ra ON ds.race_id = ra.race_id
-                WHERE ds.driver_id = ?
-                  AND ds.race_id IN (
-                      SELECT MAX(race_id) FROM races GROUP BY year
-                  )
-                ORDER BY ra.year DESC
-                """;
-        return jdbcTemplate.queryForList(sql, id);
+    public List<DriverChampionshipDTO> getDriverChampionships(@PathVariable int id) {
+        return profile(id).map(DriverProfileDTO::championships).orElse(List.of());
     }
 
     // Analyzes how the driver performs on specific circuits
     @GetMapping("/{id}/circuits")
-    public List<Map<String, Object>> getDriverCircuitPerformance(@PathVariable int id) {
-        String sql = """
-                SELECT ci.name as circuit, ci.country,
-                       COUNT(*) as races,
-                       ROUND(AVG(r.position), 2) as avg_finish,
-                       COUNT(CASE WHEN r.position = 1 THEN 1 END) as wins,
-                       COUNT(CASE WHEN r.position <= 3 THEN 1 END) as podiums,
-                       SUM(r.points) as total_points
-                FROM results r
-                JOIN races ra ON r.race_id = ra.race_id
-                JOIN circuits ci ON ra.circuit_id = ci.circuit_id
-                WHERE r.driver_id = ? AND r.position IS NOT NULL
-                GROUP BY ci.circuit_id, ci.name, ci.country
-                HAVING COUNT(*) >= 2
-                ORDER BY avg_finish ASC
-                """;
-        return jdbcTemplate.queryForList(sql, id);
+    public List<DriverCircuitPerformanceDTO> getDriverCircuitPerformance(@PathVariable int id) {
+        return profile(id).map(DriverProfileDTO::circuits).orElse(List.of());
     }
 
     /**
@@ -220,42 +174,14 @@ public class DriversController {
      * Also calculates average points per race.
      */
     @GetMapping("/{id}/evolution")
-    public List<Map<String, Object>> getDriverEvolution(@PathVariable int id) {
-        String sql = """
-                SELECT ra.year,
-                       ROUND(CAST(AVG(NULLIF(r.grid, 0)) AS NUMERIC), 0) as avg_grid,
-                       ROUND(CAST(AVG(NULLIF(r.position, 0)) AS NUMERIC), 0) as avg_finish,
-                       SUM(r.points) as total_points,
-                       ROUND(CAST(SUM(r.points) / CAST(COUNT(*) AS NUMERIC) AS NUMERIC), 2) as points_per_race,
-                       SUM(CASE WHEN r.position < r.grid THEN 1 ELSE 0 END) as positions_gained_count
-                FROM results r
-                JOIN races ra ON r.race_id = ra.race_id
-                WHERE r.driver_id = ?
-                GROUP BY ra.year
-                ORDER BY ra.year ASC
-                """;
-        return jdbcTemplate.queryForList(sql, id);
+    public List<DriverEvolutionDTO> getDriverEvolution(@PathVariable int id) {
+        return profile(id).map(DriverProfileDTO::evolution).orElse(List.of());
     }
 
     // Breakdown of race outcomes (finished, accident, mechanical failure, etc.)
     @GetMapping("/{id}/status")
-    public List<Map<String, Object>> getDriverFinishingStatus(@PathVariable int id) {
-        String sql = """
-                SELECT
-                    CASE
-                        WHEN s.status IN ('Finished', '+1 Lap', '+2 Laps', '+3 Laps', '+4 Laps', '+5 Laps', '+6 Laps', '+7 Laps', '+8 Laps', '+9 Laps') THEN 'Finished'
-                        WHEN s.status LIKE 'Collision%' OR s.status = 'Accident' OR s.status = 'Spun off' THEN 'Accident'
-                        WHEN s.status LIKE 'Engine%' OR s.status LIKE 'Gearbox%' OR s.status LIKE 'Transmission%' OR s.status LIKE 'Hydraulics%' OR s.status LIKE 'Electrical%' THEN 'Mechanical'
-                        ELSE 'Other'
-                    END as status_group,
-                    COUNT(*) as count
-                FROM results r
-                JOIN status s ON r.status_id = s.status_id
-                WHERE r.driver_id = ?
-                GROUP BY status_group
-                ORDER BY count DESC
-                """;
-        return jdbcTemplate.queryForList(sql, id);
+    public List<FinishingStatusDTO> getDriverFinishingStatus(@PathVariable int id) {
+        return profile(id).map(DriverProfileDTO::status).orElse(List.of());
     }
 
     /**
@@ -263,60 +189,24 @@ public class DriversController {
      * Includes race/qualifying head-to-head counts.
      */
     @GetMapping("/{id}/teammates")
-    public List<Map<String, Object>> getTeammateBattles(@PathVariable int id) {
-        String sql = """
-                SELECT
-                    ra.year,
-                    count(distinct r1.race_id) as races_with_teammate,
-                    SUM(CASE WHEN r1.position < r2.position THEN 1 ELSE 0 END) as race_ahead,
-                    SUM(CASE WHEN r1.position > r2.position THEN 1 ELSE 0 END) as race_behind,
-                    SUM(CASE WHEN r1.grid < r2.grid THEN 1 ELSE 0 END) as quali_ahead,
-                    SUM(CASE WHEN r1.grid > r2.grid THEN 1 ELSE 0 END) as quali_behind
-                FROM results r1
-                JOIN results r2 ON r1.race_id = r2.race_id AND r1.constructor_id = r2.constructor_id AND r1.driver_id != r2.driver_id
-                JOIN races ra ON r1.race_id = ra.race_id
-                WHERE r1.driver_id = ?
-                  AND r1.position IS NOT NULL AND r2.position IS NOT NULL
-                  AND r1.grid IS NOT NULL AND r2.grid IS NOT NULL
-                GROUP BY ra.year
-                ORDER BY ra.year ASC
-                """;
-        return jdbcTemplate.queryForList(sql, id);
+    public List<TeammateSeasonDTO> getTeammateBattles(@PathVariable int id) {
+        return profile(id).map(DriverProfileDTO::teammates).orElse(List.of());
     }
 
     // Cumulative points/races over time to visualize career growth
     @GetMapping("/{id}/trajectory")
-    public List<Map<String, Object>> getCareerTrajectory(@PathVariable int id) {
-        String sql = """
-                SELECT
-                    ra.year,
-                    MAX(ra.round) as round,
-                    SUM(r.points) as season_points,
-                    SUM(SUM(r.points)) OVER (ORDER BY ra.year) as cumulative_points,
-                    COUNT(*) as season_races,
-                    SUM(COUNT(*)) OVER (ORDER BY ra.year) as cumulative_races
-                FROM results r
-                JOIN races ra ON r.race_id = ra.race_id
-                WHERE r.driver_id = ?
-                GROUP BY ra.year
-                ORDER BY ra.year ASC
-                """;
-        return jdbcTemplate.queryForList(sql, id);
+    public List<CareerTrajectoryDTO> getCareerTrajectory(@PathVariable int id) {
+        return profile(id).map(DriverProfileDTO::trajectory).orElse(List.of());
     }
 
     // Histogram data showing frequency of each finishing position (P1, P2, P3...)
     @GetMapping("/{id}/positions")
-    public List<Map<String, Object>> getFinishingPositions(@PathVariable int id) {
-        String sql = """
-                SELECT
-                    r.position,
-                    COUNT(*) as count
-                FROM results r
-                WHERE r.driver_id = ?
-                  AND r.position IS NOT NULL
-                GROUP BY r.position
-                ORDER BY r.position ASC
-                """;
-        return jdbcTemplate.queryForList(sql, id);
+    public List<PositionCountDTO> getFinishingPositions(@PathVariable int id) {
+        return profile(id).map(DriverProfileDTO::positions).orElse(List.of());
+    }
+
+    // An unknown driver has no rows in any view
+    private Optional<DriverProfileDTO> profile(int id) {
+        return Optional.ofNullable(driverProfileService.profile(id));
     }
 }
@@ -0,0 +1,172 @@
+package com.f1pedia.controller;
+
+import com.f1pedia.config.ReplicaRead;
+import com.f1pedia.web.Bulkhead;
+import com.f1pedia.web.Deadline;
+import com.f1pedia.web.ResultExporter;
+import com.f1pedia.web.ResultExporter.Format;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk downloads for notebooks: flat, one row per record, ids next to names,
+ * as CSV ({@code format=csv}, default) or Parquet ({@code format=parquet}).
+ * Filters are optional; without them the whole table is exported. Downloads
+ * hold a connection for as long as the client reads, so they have their own
+ * bulkhead rather than taking slots from analytics, and a deadline of their
+ * own ({@code f1pedia.deadline.handlers[ExportController]}) long enough for a
+ * full lap-time export but not for a client that stops reading.
+ */
+@RestController
+@RequestMapping("/api/export")
+@ReplicaRead
+@Deadline
+@Bulkhead(Bulkhead.EXPORT)
+public class ExportController {
+
+    @Autowired
+    private ResultExporter resultExporter;
+
+    // Race results, season by season and round by round
+    @GetMapping("/results")
+    public void exportResults(@RequestParam(required = false) Integer season,
+            @RequestParam(defaultValue = "csv") String format, HttpServletResponse response) throws IOException {
+        Filter filter = new Filter(null, season);
+        String sql = """
+                SELECT ra.year as season, ra.round, r.race_id, ra.name as race, ra.date,
+                       ra.circuit_id, ci.name as circuit,
+                       r.driver_id, d.code as driver_code, d.forename || ' ' || d.surname as driver,
+                       r.constructor_id, c.name as constructor,
+                       r.number, r.grid, r.position, r.position_order, r.points, r.laps,
+                       r.milliseconds, r.fastest_lap, r.rank as fastest_lap_rank, r.fastest_lap_time,
+                       s.status
+                FROM results r
+                JOIN races ra ON r.race_id = ra.race_id
+                JOIN circuits ci ON ra.circuit_id = ci.circuit_id
+                JOIN drivers d ON r.driver_id = d.driver_id
+                JOIN constructors c ON r.constructor_id = c.constructor_id
+                LEFT JOIN status s ON r.status_id = s.status_id
+                """ + filter.where("r.race_id") + """
+                ORDER BY ra.year, ra.round, r.position_order
+                """;
+        resultExporter.export(response, format(format), "results" + filter.suffix(), sql, filter.args());
+    }
+
+    // The largest table (~600k rows), hence only ids and no joined names
+    // beyond the driver code
+    @GetMapping("/lap-times")
+    public void exportLapTimes(@RequestParam(required = false) Integer raceId,
+            @RequestParam(required = false) Integer season,
+            @RequestParam(defaultValue = "csv") String format, HttpServletResponse response) throws IOException {
+        Filter filter = new Filter(raceId, season);
+        String sql = """
+                SELECT ra.year as season, ra.round, lt.race_id, lt.driver_id, d.code as driver_code,
+                       lt.lap, lt.position, lt.milliseconds
+                FROM lap_times lt
+                JOIN races ra ON lt.race_id = ra.race_id
+                JOIN drivers d ON lt.driver_id = d.driver_id
+                """ + filter.where("lt.race_id") + """
+                ORDER BY ra.year, ra.round, lt.lap, lt.position
+                """;
+        resultExporter.export(response, format(format), "lap-times" + filter.suffix(), sql, filter.args());
+    }
+
+    @GetMapping("/pit-stops")
+    public void exportPitStops(@RequestParam(required = false) Integer raceId,
+            @RequestParam(required = false) Integer season,
+            @RequestParam(defaultValue = "csv") String format, HttpServletResponse response) throws IOException {
+        Filter filter = new Filter(raceId, season);
+        String sql = """
+                SELECT ra.year as season, ra.round, ps.race_id, ra.name as race,
+                       ps.driver_id, d.code as driver_code, d.forename || ' ' || d.surname as driver,
+                       ps.stop, ps.lap, ps.time, ps.duration, ps.milliseconds
+                FROM pit_stops ps
+                JOIN races ra ON ps.race_id = ra.race_id
+                JOIN drivers d ON ps.driver_id = d.driver_id
+                """ + filter.where("ps.race_id") + """
+                ORDER BY ra.year, ra.round, ps.lap, ps.stop
+                """;
+        resultExporter.export(response, format(format), "pit-stops" + filter.suffix(), sql, filter.args());
+    }
+
+    // Championship standings after every round
+    @GetMapping("/driver-standings")
+    public void exportDriverStandings(@RequestParam(required = false) Integer season,
+            @RequestParam(defaultValue = "csv") String format, HttpServletResponse response) throws IOException {
+        Filter filter = new Filter(null, season);
+        String sql = """
+                SELECT ra.year as season, ra.round, ds.race_id, ra.name as race,
+                       ds.driver_id, d.code as driver_code, d.forename || ' ' || d.surname as driver,
+                       ds.points, ds.position, ds.wins
+                FROM driver_standings ds
+                JOIN races ra ON ds.race_id = ra.race_id
+                JOIN drivers d ON ds.driver_id = d.driver_id
+                """ + filter.where("ds.race_id") + """
+                ORDER BY ra.year, ra.round, ds.position
+                """;
+        resultExporter.export(response, format(format), "driver-standings" + filter.suffix(), sql,
+                filter.args());
+    }
+
+    @GetMapping("/constructor-standings")
+    public void exportConstructorStandings(@RequestParam(required = false) Integer season,
+            @RequestParam(defaultValue = "csv") String format, HttpServletResponse response) throws IOException {
+        Filter filter = new Filter(null, season);
+        String sql = """
+                SELECT ra.year as season, ra.round, cs.race_id, ra.name as race,
+                       cs.constructor_id, c.name as constructor, cs.points, cs.position, cs.wins
+                FROM constructor_standings cs
+                JOIN races ra ON cs.race_id = ra.race_id
+                JOIN constructors c ON cs.constructor_id = c.constructor_id
+                """ + filter.where("cs.race_id") + """
+                ORDER BY ra.year, ra.round, cs.position
+                """;
+        resultExporter.export(response, format(format), "constructor-standings" + filter.suffix(), sql,
+                filter.args());
+    }
+
+    private static Format format(String format) {
+        return switch (format.toLowerCase()) {
+            case "csv" -> Format.CSV;
+            case "parquet" -> Format.PARQUET;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be csv or parquet");
+        };
+    }
+
+    /** Optional race or season filter; the season column is always {@code ra.year}. */
+    private record Filter(Integer raceId, Integer season) {
+
+        String where(String raceColumn) {
+            List<String> conditions = new ArrayList<>();
+            if (raceId != null) {
+                conditions.add(raceColumn + " = ?");
+            }
+            if (season != null) {
+                conditions.add("ra.year = ?");
+            }
+            return conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + "\n";
+        }
+
+        Object[] args() {
+            List<Object> args = new ArrayList<>();
+            if (raceId != null) {
+                args.add(raceId);
+            }
+            if (season != null) {
+                args.add(season);
+            }
+            return args.toArray();
+        }
+
+        String suffix() {
+            return (season != null ? "-" + season : "") + (raceId != null ? "-race-" + raceId : "");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.f1pedia.controller;
+
+import com.f1pedia.config.ReplicaRead;
+import com.f1pedia.graphql.F1Schema;
+import com.f1pedia.graphql.GraphQLExecutor;
+import com.f1pedia.web.Bulkhead;
+import com.f1pedia.web.Deadline;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/graphql")
+@ReplicaRead
+@Bulkhead(Bulkhead.HEAVY)
+@Deadline
+/**
+ * GraphQL over HTTP: one request fetches a nested slice of drivers,
+ * constructors, races, results, standings and aggregates. Responses carry
+ * the query's estimated cost and the number of batched loads in
+ * {@code extensions}; rejected queries get 400 and errors only.
+ */
+public class GraphQLController {
+
+    public record GraphQLRequest(String query, String operationName, Map<String, Object> variables) {
+    }
+
+    @Autowired
+    private GraphQLExecutor graphQLExecutor;
+
+    @Autowired
+    private F1Schema f1Schema;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> post(@RequestBody GraphQLRequest request) {
+        return respond(graphQLExecutor.execute(request.query(), request.operationName(), request.variables()));
+    }
+
+    /** Example: {@code ?query={races(season:2021){name results(limit:3){driver{code}}}}} */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> get(
+            @RequestParam String query,
+            @RequestParam(required = false) String operationName,
+            @RequestParam(required = false) String variables) {
+        Map<String, Object> parsed = null;
+        if (variables != null && !variables.isBlank()) {
+            try {
+                parsed = objectMapper.readValue(variables, new TypeReference<>() {
+                });
+            } catch (JsonProcessingException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "variables must be a JSON object", e);
+            }
+        }
+        return respond(graphQLExecutor.execute(query, operationName, parsed));
+    }
+
+    // The schema in SDL, in place of introspection
+    @GetMapping(value = "/schema", produces = MediaType.TEXT_PLAIN_VALUE)
+    public String schema() {
+        return f1Schema.schema().toSdl();
+    }
+
+    private static ResponseEntity<Map<String, Object>> respond(Map<String, Object> response) {
+        return ResponseEntity.status(response.containsKey("data") ? HttpStatus.OK : HttpStatus.BAD_REQUEST)
+                .body(response);
+    }
+}
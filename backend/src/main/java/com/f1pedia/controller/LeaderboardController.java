@@ -0,0 +1,63 @@
+package com.f1pedia.controller;
+
+import com.f1pedia.config.ReplicaRead;
+import com.f1pedia.dto.LeaderboardEntryDTO;
+import com.f1pedia.service.MetricRankIndex;
+import com.f1pedia.service.RatingService.Subject;
+import com.f1pedia.web.Bulkhead;
+import com.f1pedia.web.Coalesced;
+import com.f1pedia.web.Deadline;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/leaderboards")
+@Coalesced
+@ReplicaRead
+@Bulkhead(Bulkhead.LOOKUP)
+@Deadline
+/**
+ * All-time and per-season leaderboards for drivers and constructors.
+ * Served from the in-memory rank index, so any metric and season costs the
+ * same as the first page of the default one.
+ */
+public class LeaderboardController {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private MetricRankIndex metricRankIndex;
+
+    // Metric names accepted by the leaderboard endpoint
+    @GetMapping
+    public List<String> getMetrics() {
+        return MetricRankIndex.METRICS;
+    }
+
+    /**
+     * Top entries on one metric.
+     *
+     * @param subject drivers or constructors
+     * @param metric  one of the names returned by {@code /api/leaderboards}
+     * @param season  optional season; all-time when omitted
+     * @param limit   maximum number of rows (capped at 100)
+     */
+    @GetMapping("/{subject}/{metric}")
+    public List<LeaderboardEntryDTO> getLeaderboard(@PathVariable String subject, @PathVariable String metric,
+            @RequestParam(required = false) Integer season,
+            @RequestParam(defaultValue = "10") int limit) {
+        Subject kind = switch (subject) {
+            case "drivers" -> Subject.DRIVER;
+            case "constructors" -> Subject.CONSTRUCTOR;
+            default -> throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown subject " + subject);
+        };
+        if (!MetricRankIndex.METRICS.contains(metric)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown metric " + metric);
+        }
+        return metricRankIndex.top(kind, metric, season, Math.max(1, Math.min(MAX_LIMIT, limit)));
+    }
+}
@@ -0,0 +1,78 @@
+package com.f1pedia.controller;
+
+import com.f1pedia.service.ResultsQueryEngine;
+import com.f1pedia.web.Bulkhead;
+import com.f1pedia.web.ClusterCached;
+import com.f1pedia.web.Coalesced;
+import com.f1pedia.web.Deadline;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+@RestController
+@RequestMapping("/api/analytics/query")
+@ClusterCached
+@Coalesced
+@Bulkhead(Bulkhead.HEAVY)
+@Deadline
+/**
+ * Ad-hoc analytics over race results: filters, group-by dimensions and
+ * aggregates chosen by the caller, answered by the in-memory query engine
+ * so new charts need neither controller code nor per-request database time.
+ */
+public class QueryController {
+
+    @Autowired
+    private ResultsQueryEngine resultsQueryEngine;
+
+    /**
+     * Example: {@code ?groupBy=driver&agg=sum:win,sum:points&seasonFrom=2010&orderBy=sum_win&limit=10}
+     *
+     * @param groupBy dimensions, see {@code /api/analytics/query/schema}
+     * @param agg     {@code count} or {@code function:field}
+     * @param status  status category filter
+     * @param order   asc or desc (default)
+     */
+    @GetMapping
+    public Map<String, Object> query(
+            @RequestParam(defaultValue = "") List<String> groupBy,
+            @RequestParam(defaultValue = "count") List<String> agg,
+            @RequestParam(required = false) Integer seasonFrom,
+            @RequestParam(required = false) Integer seasonTo,
+            @RequestParam(required = false) Integer driver,
+            @RequestParam(required = false) Integer constructor,
+            @RequestParam(required = false) Integer circuit,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String orderBy,
+            @RequestParam(defaultValue = "desc") String order,
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            ResultsQueryEngine.Filter filter = new ResultsQueryEngine.Filter(seasonFrom, seasonTo, driver,
+                    constructor, circuit, status);
+            return resultsQueryEngine.query(filter, groupBy.stream().filter(g -> !g.isBlank()).toList(), agg,
+                    orderBy, order.equalsIgnoreCase("asc"), limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (CancellationException e) {
+            // The scan stopped at the request deadline
+            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, e.getMessage(), e);
+        }
+    }
+
+    // Names accepted by the query endpoint
+    @GetMapping("/schema")
+    public Map<String, Object> schema() {
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put("dimensions", ResultsQueryEngine.DIMENSIONS);
+        schema.put("fields", ResultsQueryEngine.FIELDS);
+        schema.put("functions", ResultsQueryEngine.FUNCTIONS);
+        schema.put("statusCategories", ResultsQueryEngine.STATUS_CATEGORIES);
+        return schema;
+    }
+}
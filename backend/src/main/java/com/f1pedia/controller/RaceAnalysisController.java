@@ -1,24 +1,29 @@
 package com.f1pedia.controller;
 
-import com.f1pedia.domain.LapTime;
+import com.f1pedia.config.ReplicaRead;
 import com.f1pedia.domain.PitStop;
 import com.f1pedia.domain.Qualifying;
 import com.f1pedia.domain.Result;
-import com.f1pedia.repository.LapTimeRepository;
 import com.f1pedia.repository.PitStopRepository;
 import com.f1pedia.repository.QualifyingRepository;
 import com.f1pedia.repository.ResultRepository;
+import com.f1pedia.web.Bulkhead;
+import com.f1pedia.web.JsonResultStreamer;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/races")
+@ReplicaRead
+@Bulkhead(Bulkhead.LOOKUP)
 public class RaceAnalysisController {
 
     @Autowired
-    private LapTimeRepository lapTimeRepository;
+    private JsonResultStreamer jsonResultStreamer;
 
     @Autowired
     private PitStopRepository pitStopRepository;
@@ -26,14 +31,32 @@ public class RaceAnalysisController {
     @Autowired
     private QualifyingRepository qualifyingRepository;
 
+    // A full race is ~20 drivers x 60+ laps, so rows are streamed in the
+    // shape of the LapTime entity rather than loaded and serialised
     @GetMapping("/{raceId}/lap-times")
-    public List<LapTime> getLapTimes(@PathVariable Integer raceId) {
-        return lapTimeRepository.findByIdRaceIdOrderByIdLapAsc(raceId);
+    @Bulkhead(Bulkhead.HEAVY)
+    public void getLapTimes(@PathVariable Integer raceId, HttpServletResponse response) throws IOException {
+        String sql = """
+                SELECT lt.race_id AS "id.raceId", lt.driver_id AS "id.driverId", lt.lap AS "id.lap",
+                       lt.position, lt.time, lt.milliseconds,
+                """ + RaceController.raceColumns("race.") + """
+                       , d.driver_id AS "driver.driverId", d.driver_ref AS "driver.driverRef",
+                       d.number AS "driver.number", d.code AS "driver.code", d.forename AS "driver.forename",
+                       d.surname AS "driver.surname", d.dob AS "driver.dob",
+                       d.nationality AS "driver.nationality", d.url AS "driver.url"
+                FROM lap_times lt
+                JOIN races ra ON lt.race_id = ra.race_id
+                LEFT JOIN circuits ci ON ra.circuit_id = ci.circuit_id
+                JOIN drivers d ON lt.driver_id = d.driver_id
+                WHERE lt.race_id = ?
+                ORDER BY lt.lap, lt.position
+                """;
+        jsonResultStreamer.stream(response, sql, raceId);
     }
 
     @GetMapping("/{raceId}/pit-stops")
     public List<PitStop> getPitStops(@PathVariable Integer raceId) {
-        return pitStopRepository.findByRaceIdOrderByStopAsc(raceId);
+        return pitStopRepository.findByRaceIdOrderByStopAscLapAscDriverIdAsc(raceId);
     }
 
     @GetMapping("/{raceId}/qualifying")
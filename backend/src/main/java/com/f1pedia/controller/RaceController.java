@@ -1,32 +1,71 @@
 package com.f1pedia.controller;
 
+import com.f1pedia.config.ReplicaRead;
 import com.f1pedia.domain.Race;
 import com.f1pedia.repository.RaceRepository;
+import com.f1pedia.web.Bulkhead;
+import com.f1pedia.web.JsonResultStreamer;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/races")
+@ReplicaRead
+@Bulkhead(Bulkhead.LOOKUP)
 /**
  * REST controller for managing Race-related operations.
  * Provides endpoints to retrieve race data by season, id, or all races.
  */
 public class RaceController {
 
+    // Race rows with their circuit, for streaming; see raceColumns
+    static final String RACE_FROM = """
+            FROM races ra
+            LEFT JOIN circuits ci ON ra.circuit_id = ci.circuit_id
+            """;
+
     @Autowired
     private RaceRepository raceRepository;
 
+    @Autowired
+    private JsonResultStreamer jsonResultStreamer;
+
+    /**
+     * Select list producing the JSON shape of the {@link Race} entity (circuit
+     * nested) from {@code races ra} joined to {@code circuits ci}.
+     *
+     * @param prefix label prefix for nesting the race inside another object,
+     *               e.g. {@code "race."}
+     */
+    static String raceColumns(String prefix) {
+        return """
+                ra.race_id AS "%1$sraceId", ra.year AS "%1$syear", ra.round AS "%1$sround",
+                ci.circuit_id AS "%1$scircuit.circuitId", ci.circuit_ref AS "%1$scircuit.circuitRef",
+                ci.name AS "%1$scircuit.name", ci.location AS "%1$scircuit.location",
+                ci.country AS "%1$scircuit.country", ci.lat AS "%1$scircuit.lat", ci.lng AS "%1$scircuit.lng",
+                ci.alt AS "%1$scircuit.alt", ci.url AS "%1$scircuit.url",
+                ra.name AS "%1$sname", ra.date AS "%1$sdate", ra.time AS "%1$stime", ra.url AS "%1$surl",
+                ra.fp1_date AS "%1$sfp1Date", ra.fp1_time AS "%1$sfp1Time",
+                ra.fp2_date AS "%1$sfp2Date", ra.fp2_time AS "%1$sfp2Time",
+                ra.fp3_date AS "%1$sfp3Date", ra.fp3_time AS "%1$sfp3Time",
+                ra.quali_date AS "%1$squaliDate", ra.quali_time AS "%1$squaliTime",
+                ra.sprint_date AS "%1$ssprintDate", ra.sprint_time AS "%1$ssprintTime"
+                """.formatted(prefix);
+    }
+
     /**
      * Retrieve all races.
      *
      * @return List of all races
      */
     @GetMapping
-    public List<Race> getAllRaces() {
-        return raceRepository.findAll();
+    @Bulkhead(Bulkhead.HEAVY)
+    public void getAllRaces(HttpServletResponse response) throws IOException {
+        jsonResultStreamer.stream(response, "SELECT " + raceColumns("") + RACE_FROM + "ORDER BY ra.race_id");
     }
 
     /**
@@ -36,8 +75,10 @@ public class RaceController {
      * @return List of races for the given season
      */
     @GetMapping("/season/{year}")
-    public List<Race> getRacesBySeason(@PathVariable Integer year) {
-        return raceRepository.findByYear(year);
+    @Bulkhead(Bulkhead.HEAVY)
+    public void getRacesBySeason(@PathVariable Integer year, HttpServletResponse response) throws IOException {
+        jsonResultStreamer.stream(response,
+                "SELECT " + raceColumns("") + RACE_FROM + "WHERE ra.year = ? ORDER BY ra.race_id", year);
     }
 
     /**
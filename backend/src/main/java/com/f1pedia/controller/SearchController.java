@@ -0,0 +1,43 @@
+package com.f1pedia.controller;
+
+import com.f1pedia.config.ReplicaRead;
+import com.f1pedia.service.SearchIndexService;
+import com.f1pedia.web.Bulkhead;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search")
+@ReplicaRead
+@Bulkhead(Bulkhead.LOOKUP)
+/**
+ * Autocomplete across drivers, constructors and circuits.
+ * Backed by the in-memory trigram index, so it tolerates typos and never
+ * touches the database after the index is built.
+ */
+public class SearchController {
+
+    private static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    /**
+     * Ranked search results.
+     *
+     * @param q     the text typed so far
+     * @param type  optional filter: driver, constructor or circuit
+     * @param limit maximum number of results (capped at 50)
+     * @return results with type, id, label, detail and score
+     */
+    @GetMapping
+    public List<Map<String, Object>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "10") int limit) {
+        return searchIndexService.search(q, type, Math.max(1, Math.min(MAX_LIMIT, limit)));
+    }
+}
@@ -0,0 +1,25 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Row of {@code /api/drivers/{id}/trajectory}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record CareerTrajectoryDTO(int year,
+                                  int round,
+                                  double seasonPoints,
+                                  double cumulativePoints,
+                                  int seasonRaces,
+                                  int cumulativeRaces) {
+
+    public static final RowMapper<CareerTrajectoryDTO> MAPPER = (rs, rowNum) -> new CareerTrajectoryDTO(
+            rs.getInt("year"),
+            rs.getInt("round"),
+            rs.getDouble("season_points"),
+            rs.getDouble("cumulative_points"),
+            rs.getInt("season_races"),
+            rs.getInt("cumulative_races"));
+}
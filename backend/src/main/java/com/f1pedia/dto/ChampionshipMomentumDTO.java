@@ -0,0 +1,29 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Row of {@code /api/analytics/championship-momentum}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record ChampionshipMomentumDTO(String driver,
+                                      String code,
+                                      double seasonAvgPoints,
+                                      int totalRaces,
+                                      double totalPoints,
+                                      int lastRound,
+                                      String trend,
+                                      double momentum) {
+
+    public static final RowMapper<ChampionshipMomentumDTO> MAPPER = (rs, rowNum) -> new ChampionshipMomentumDTO(
+            rs.getString("driver"),
+            rs.getString("code"),
+            rs.getDouble("season_avg_points"),
+            rs.getInt("total_races"),
+            rs.getDouble("total_points"),
+            rs.getInt("last_round"),
+            rs.getString("trend"),
+            rs.getDouble("momentum"));
+}
@@ -0,0 +1,19 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Most successful constructors at a circuit, for {@code /api/circuits/{id}/stats}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record CircuitConstructorWinsDTO(String constructor,
+                                        int constructorId,
+                                        int wins) {
+
+    public static final RowMapper<CircuitConstructorWinsDTO> MAPPER = (rs, rowNum) -> new CircuitConstructorWinsDTO(
+            rs.getString("constructor"),
+            rs.getInt("constructor_id"),
+            rs.getInt("wins"));
+}
@@ -0,0 +1,19 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Most successful drivers at a circuit, for {@code /api/circuits/{id}/stats}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record CircuitDriverWinsDTO(String driver,
+                                   int driverId,
+                                   int wins) {
+
+    public static final RowMapper<CircuitDriverWinsDTO> MAPPER = (rs, rowNum) -> new CircuitDriverWinsDTO(
+            rs.getString("driver"),
+            rs.getInt("driver_id"),
+            rs.getInt("wins"));
+}
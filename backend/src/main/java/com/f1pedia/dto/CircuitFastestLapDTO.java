@@ -0,0 +1,21 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Fastest race laps at a circuit, for {@code /api/circuits/{id}/stats}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record CircuitFastestLapDTO(String driver,
+                                   int year,
+                                   String fastestLapTime,
+                                   String fastestLapSpeed) {
+
+    public static final RowMapper<CircuitFastestLapDTO> MAPPER = (rs, rowNum) -> new CircuitFastestLapDTO(
+            rs.getString("driver"),
+            rs.getInt("year"),
+            rs.getString("fastest_lap_time"),
+            rs.getString("fastest_lap_speed"));
+}
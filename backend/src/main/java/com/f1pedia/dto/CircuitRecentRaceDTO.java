@@ -0,0 +1,25 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDate;
+
+/**
+ * Recent winners at a circuit, for {@code /api/circuits/{id}/stats}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record CircuitRecentRaceDTO(int year,
+                                   String name,
+                                   LocalDate date,
+                                   String winner,
+                                   String team) {
+
+    public static final RowMapper<CircuitRecentRaceDTO> MAPPER = (rs, rowNum) -> new CircuitRecentRaceDTO(
+            rs.getInt("year"),
+            rs.getString("name"),
+            rs.getObject("date", LocalDate.class),
+            rs.getString("winner"),
+            rs.getString("team"));
+}
@@ -0,0 +1,15 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * Row of {@code /api/analytics/circuit-reliability}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record CircuitReliabilityDTO(String circuit,
+                                    String country,
+                                    int totalEntries,
+                                    int dnfs,
+                                    double dnfRate) {
+}
@@ -0,0 +1,27 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Row of {@code /api/circuits/with-stats}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record CircuitWithStatsDTO(int circuitId,
+                                  String name,
+                                  String location,
+                                  String country,
+                                  int totalRaces,
+                                  Integer firstRace,
+                                  Integer lastRace) {
+
+    public static final RowMapper<CircuitWithStatsDTO> MAPPER = (rs, rowNum) -> new CircuitWithStatsDTO(
+            rs.getInt("circuit_id"),
+            rs.getString("name"),
+            rs.getString("location"),
+            rs.getString("country"),
+            rs.getInt("total_races"),
+            Columns.intOrNull(rs, "first_race"),
+            Columns.intOrNull(rs, "last_race"));
+}
@@ -0,0 +1,24 @@
+package com.f1pedia.dto;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Nullable column reads for the row mappers: primitives where the query
+ * guarantees a value, boxed (and null for SQL NULL) where it does not.
+ */
+final class Columns {
+
+    private Columns() {
+    }
+
+    static Integer intOrNull(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    static Double doubleOrNull(ResultSet rs, String column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? null : value;
+    }
+}
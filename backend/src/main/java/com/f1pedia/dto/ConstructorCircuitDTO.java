@@ -0,0 +1,25 @@
+package com.f1pedia.dto;
+
+/**
+ * A constructor's record at one circuit, for
+ * {@code /api/constructors/{id}/circuits}. The frontend reads both
+ * {@code circuit} and {@code name}, and both {@code points} and
+ * {@code totalPoints}.
+ */
+public record ConstructorCircuitDTO(Integer circuitId,
+                                    String circuit,
+                                    String name,
+                                    String location,
+                                    String country,
+                                    long races,
+                                    double points,
+                                    long wins,
+                                    long podiums,
+                                    int firstYear,
+                                    int lastYear,
+                                    Object bestFinish,
+                                    double avgGrid,
+                                    double avgFinish,
+                                    double totalPoints,
+                                    long dnfs) {
+}
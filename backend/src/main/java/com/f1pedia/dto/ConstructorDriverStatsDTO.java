@@ -0,0 +1,43 @@
+package com.f1pedia.dto;
+
+import com.f1pedia.domain.Driver;
+
+/**
+ * A driver's record while driving for one constructor, for
+ * {@code /api/constructors/{id}/driver-stats}.
+ */
+public record ConstructorDriverStatsDTO(Integer driverId,
+                                        String forename,
+                                        String surname,
+                                        String code,
+                                        Integer number,
+                                        String nationality,
+                                        double totalPoints,
+                                        long wins,
+                                        long podiums,
+                                        long races,
+                                        int firstYear,
+                                        int lastYear,
+                                        String yearsActive) {
+
+    // Row of ResultRepository.findDriverStatsByConstructorId
+    public static ConstructorDriverStatsDTO of(Object[] row) {
+        Driver driver = (Driver) row[0];
+        int firstYear = ((Number) row[4]).intValue();
+        int lastYear = ((Number) row[5]).intValue();
+        return new ConstructorDriverStatsDTO(
+                driver.getDriverId(),
+                driver.getForename(),
+                driver.getSurname(),
+                driver.getCode(),
+                driver.getNumber(),
+                driver.getNationality(),
+                ((Number) row[2]).doubleValue(),
+                ((Number) row[1]).longValue(),
+                ((Number) row[6]).longValue(),
+                ((Number) row[3]).longValue(),
+                firstYear,
+                lastYear,
+                firstYear == lastYear ? String.valueOf(firstYear) : firstYear + "-" + lastYear);
+    }
+}
@@ -0,0 +1,25 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Row of {@code /api/analytics/constructor-momentum}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record ConstructorMomentumDTO(String constructor,
+                                     int year,
+                                     double totalPoints,
+                                     int wins,
+                                     int podiums,
+                                     Double avgFinish) {
+
+    public static final RowMapper<ConstructorMomentumDTO> MAPPER = (rs, rowNum) -> new ConstructorMomentumDTO(
+            rs.getString("constructor"),
+            rs.getInt("year"),
+            rs.getDouble("total_points"),
+            rs.getInt("wins"),
+            rs.getInt("podiums"),
+            Columns.doubleOrNull(rs, "avg_finish"));
+}
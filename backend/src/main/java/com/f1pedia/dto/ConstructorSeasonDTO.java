@@ -0,0 +1,18 @@
+package com.f1pedia.dto;
+
+import java.util.Map;
+
+/**
+ * One season of a constructor, for {@code /api/constructors/{id}/seasons}.
+ * {@code bestFinish} is "N/A" when no car was classified.
+ */
+public record ConstructorSeasonDTO(int year,
+                                   double points,
+                                   long wins,
+                                   long podiums,
+                                   long races,
+                                   Object bestFinish,
+                                   double avgGrid,
+                                   long dnfs,
+                                   Map<String, Double> driverPoints) {
+}
@@ -0,0 +1,26 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Constructor standings after one round, for
+ * {@code /api/analytics/constructor-championship}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record ConstructorStandingProgressDTO(String constructor,
+                                             int round,
+                                             String race,
+                                             double points,
+                                             int position,
+                                             int wins) {
+
+    public static final RowMapper<ConstructorStandingProgressDTO> MAPPER = (rs, rowNum) -> new ConstructorStandingProgressDTO(
+            rs.getString("constructor"),
+            rs.getInt("round"),
+            rs.getString("race"),
+            rs.getDouble("points"),
+            rs.getInt("position"),
+            rs.getInt("wins"));
+}
@@ -0,0 +1,12 @@
+package com.f1pedia.dto;
+
+/**
+ * Row of {@code /api/analytics/dnf-causes}.
+ */
+public record DnfCauseDTO(String status, int count) {
+
+    // Row of ResultRepository.findDNFCauseCounts: status, count
+    public static DnfCauseDTO of(Object[] row) {
+        return new DnfCauseDTO((String) row[0], ((Number) row[1]).intValue());
+    }
+}
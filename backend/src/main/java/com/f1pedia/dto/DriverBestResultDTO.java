@@ -0,0 +1,23 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * One of a driver's best results, for {@code /api/drivers/{id}/career}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record DriverBestResultDTO(String race,
+                                  int year,
+                                  String team,
+                                  int position,
+                                  double points) {
+
+    public static final RowMapper<DriverBestResultDTO> MAPPER = (rs, rowNum) -> new DriverBestResultDTO(
+            rs.getString("race"),
+            rs.getInt("year"),
+            rs.getString("team"),
+            rs.getInt("position"),
+            rs.getDouble("points"));
+}
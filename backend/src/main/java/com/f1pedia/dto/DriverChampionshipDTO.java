@@ -0,0 +1,21 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Final standing of one season, for {@code /api/drivers/{id}/championships}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record DriverChampionshipDTO(int year,
+                                    double points,
+                                    int position,
+                                    int wins) {
+
+    public static final RowMapper<DriverChampionshipDTO> MAPPER = (rs, rowNum) -> new DriverChampionshipDTO(
+            rs.getInt("year"),
+            rs.getDouble("points"),
+            rs.getInt("position"),
+            rs.getInt("wins"));
+}
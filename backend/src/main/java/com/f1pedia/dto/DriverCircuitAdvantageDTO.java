@@ -0,0 +1,18 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * Row of {@code /api/analytics/driver-circuit-advantage}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record DriverCircuitAdvantageDTO(String driver,
+                                        String circuit,
+                                        String country,
+                                        int races,
+                                        int wins,
+                                        int podiums,
+                                        double avgFinish,
+                                        double totalPoints) {
+}
@@ -0,0 +1,17 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * Row of {@code /api/drivers/{id}/circuits}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record DriverCircuitPerformanceDTO(String circuit,
+                                          String country,
+                                          int races,
+                                          double avgFinish,
+                                          int wins,
+                                          int podiums,
+                                          double totalPoints) {
+}
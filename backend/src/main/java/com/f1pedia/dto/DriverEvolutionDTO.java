@@ -0,0 +1,25 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Row of {@code /api/drivers/{id}/evolution}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record DriverEvolutionDTO(int year,
+                                 Double avgGrid,
+                                 Double avgFinish,
+                                 double totalPoints,
+                                 double pointsPerRace,
+                                 int positionsGainedCount) {
+
+    public static final RowMapper<DriverEvolutionDTO> MAPPER = (rs, rowNum) -> new DriverEvolutionDTO(
+            rs.getInt("year"),
+            Columns.doubleOrNull(rs, "avg_grid"),
+            Columns.doubleOrNull(rs, "avg_finish"),
+            rs.getDouble("total_points"),
+            rs.getDouble("points_per_race"),
+            rs.getInt("positions_gained_count"));
+}
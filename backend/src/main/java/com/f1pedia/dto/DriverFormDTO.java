@@ -0,0 +1,31 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Row of {@code /api/analytics/driver-form}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record DriverFormDTO(String driver,
+                            int racesAnalyzed,
+                            int wins,
+                            int podiums,
+                            double avgFinish,
+                            double avgPoints,
+                            Double avgPositionsGained,
+                            double totalPoints,
+                            double winRate) {
+
+    public static final RowMapper<DriverFormDTO> MAPPER = (rs, rowNum) -> new DriverFormDTO(
+            rs.getString("driver"),
+            rs.getInt("races_analyzed"),
+            rs.getInt("wins"),
+            rs.getInt("podiums"),
+            rs.getDouble("avg_finish"),
+            rs.getDouble("avg_points"),
+            Columns.doubleOrNull(rs, "avg_positions_gained"),
+            rs.getDouble("total_points"),
+            rs.getDouble("win_rate"));
+}
@@ -0,0 +1,23 @@
+package com.f1pedia.dto;
+
+import com.f1pedia.domain.Driver;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the driver page shows, for {@code /api/drivers/{id}/profile}:
+ * the driver plus the bodies of its {@code career}, {@code championships},
+ * {@code circuits}, {@code evolution}, {@code status}, {@code teammates},
+ * {@code trajectory} and {@code positions} sub-endpoints.
+ */
+public record DriverProfileDTO(Driver driver,
+                               Map<String, Object> career,
+                               List<DriverChampionshipDTO> championships,
+                               List<DriverCircuitPerformanceDTO> circuits,
+                               List<DriverEvolutionDTO> evolution,
+                               List<FinishingStatusDTO> status,
+                               List<TeammateSeasonDTO> teammates,
+                               List<CareerTrajectoryDTO> trajectory,
+                               List<PositionCountDTO> positions) {
+}
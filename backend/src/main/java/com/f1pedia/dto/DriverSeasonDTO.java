@@ -0,0 +1,29 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * One season of a driver's career, for {@code /api/drivers/{id}/career}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record DriverSeasonDTO(int year,
+                              String team,
+                              int races,
+                              double points,
+                              int wins,
+                              int podiums,
+                              int poles,
+                              Integer championshipPosition) {
+
+    public static final RowMapper<DriverSeasonDTO> MAPPER = (rs, rowNum) -> new DriverSeasonDTO(
+            rs.getInt("year"),
+            rs.getString("team"),
+            rs.getInt("races"),
+            rs.getDouble("points"),
+            rs.getInt("wins"),
+            rs.getInt("podiums"),
+            rs.getInt("poles"),
+            Columns.intOrNull(rs, "championship_position"));
+}
@@ -0,0 +1,38 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Row of {@code /api/drivers/stats}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record DriverStatsDTO(@JsonProperty("driverId") int driverId,
+                             String name,
+                             String code,
+                             String nationality,
+                             int races,
+                             int wins,
+                             int poles,
+                             int podiums,
+                             double winRate,
+                             double poleRate,
+                             double dnfRate,
+                             int seasons) {
+
+    public static final RowMapper<DriverStatsDTO> MAPPER = (rs, rowNum) -> new DriverStatsDTO(
+            rs.getInt("driverId"),
+            rs.getString("name"),
+            rs.getString("code"),
+            rs.getString("nationality"),
+            rs.getInt("races"),
+            rs.getInt("wins"),
+            rs.getInt("poles"),
+            rs.getInt("podiums"),
+            rs.getDouble("win_rate"),
+            rs.getDouble("pole_rate"),
+            rs.getDouble("dnf_rate"),
+            rs.getInt("seasons"));
+}
@@ -0,0 +1,29 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * A team in a driver's career, for {@code /api/drivers/{id}/career}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record DriverTeamDTO(int constructorId,
+                            String name,
+                            String nationality,
+                            int fromYear,
+                            int toYear,
+                            int races,
+                            double points,
+                            int wins) {
+
+    public static final RowMapper<DriverTeamDTO> MAPPER = (rs, rowNum) -> new DriverTeamDTO(
+            rs.getInt("constructor_id"),
+            rs.getString("name"),
+            rs.getString("nationality"),
+            rs.getInt("from_year"),
+            rs.getInt("to_year"),
+            rs.getInt("races"),
+            rs.getDouble("points"),
+            rs.getInt("wins"));
+}
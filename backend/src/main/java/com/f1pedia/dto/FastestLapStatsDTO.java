@@ -0,0 +1,23 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Row of {@code /api/analytics/fastest-laps}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record FastestLapStatsDTO(String driver,
+                                 int fastestLaps,
+                                 int flWithWin,
+                                 int flWithPodium,
+                                 double totalPoints) {
+
+    public static final RowMapper<FastestLapStatsDTO> MAPPER = (rs, rowNum) -> new FastestLapStatsDTO(
+            rs.getString("driver"),
+            rs.getInt("fastest_laps"),
+            rs.getInt("fl_with_win"),
+            rs.getInt("fl_with_podium"),
+            rs.getDouble("total_points"));
+}
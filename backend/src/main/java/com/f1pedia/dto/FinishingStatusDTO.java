@@ -0,0 +1,17 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Row of {@code /api/drivers/{id}/status}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record FinishingStatusDTO(String statusGroup,
+                                 int count) {
+
+    public static final RowMapper<FinishingStatusDTO> MAPPER = (rs, rowNum) -> new FinishingStatusDTO(
+            rs.getString("status_group"),
+            rs.getInt("count"));
+}
@@ -0,0 +1,27 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Row of {@code /api/analytics/grid-performance}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record GridPerformanceDTO(String driver,
+                                 int races,
+                                 double avgGrid,
+                                 double avgFinish,
+                                 double avgPositionsGained,
+                                 int racesGained,
+                                 int racesLost) {
+
+    public static final RowMapper<GridPerformanceDTO> MAPPER = (rs, rowNum) -> new GridPerformanceDTO(
+            rs.getString("driver"),
+            rs.getInt("races"),
+            rs.getDouble("avg_grid"),
+            rs.getDouble("avg_finish"),
+            rs.getDouble("avg_positions_gained"),
+            rs.getInt("races_gained"),
+            rs.getInt("races_lost"));
+}
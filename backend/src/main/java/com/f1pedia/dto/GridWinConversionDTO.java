@@ -0,0 +1,25 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Row of {@code /api/analytics/grid-win-conversion}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record GridWinConversionDTO(int grid,
+                                   int races,
+                                   int wins,
+                                   double winRate,
+                                   int podiums,
+                                   double podiumRate) {
+
+    public static final RowMapper<GridWinConversionDTO> MAPPER = (rs, rowNum) -> new GridWinConversionDTO(
+            rs.getInt("grid"),
+            rs.getInt("races"),
+            rs.getInt("wins"),
+            rs.getDouble("win_rate"),
+            rs.getInt("podiums"),
+            rs.getDouble("podium_rate"));
+}
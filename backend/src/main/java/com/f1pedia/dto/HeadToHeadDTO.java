@@ -0,0 +1,31 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Row of {@code /api/analytics/head-to-head}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record HeadToHeadDTO(String driver1,
+                            String driver2,
+                            int sharedRaces,
+                            int driver1Ahead,
+                            int driver2Ahead,
+                            double driver1Points,
+                            double driver2Points,
+                            int driver1Wins,
+                            int driver2Wins) {
+
+    public static final RowMapper<HeadToHeadDTO> MAPPER = (rs, rowNum) -> new HeadToHeadDTO(
+            rs.getString("driver1"),
+            rs.getString("driver2"),
+            rs.getInt("shared_races"),
+            rs.getInt("driver1_ahead"),
+            rs.getInt("driver2_ahead"),
+            rs.getDouble("driver1_points"),
+            rs.getDouble("driver2_points"),
+            rs.getInt("driver1_wins"),
+            rs.getInt("driver2_wins"));
+}
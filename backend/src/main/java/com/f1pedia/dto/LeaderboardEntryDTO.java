@@ -0,0 +1,10 @@
+package com.f1pedia.dto;
+
+/**
+ * Row of {@code /api/leaderboards}.
+ */
+public record LeaderboardEntryDTO(int rank,
+                                  int id,
+                                  String name,
+                                  double value) {
+}
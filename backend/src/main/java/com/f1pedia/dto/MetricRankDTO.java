@@ -0,0 +1,12 @@
+package com.f1pedia.dto;
+
+/**
+ * Where a driver or constructor stands on one metric: competition rank among
+ * {@code of} ranked entries, and the percentage of them it ties or beats.
+ */
+public record MetricRankDTO(String metric,
+                            double value,
+                            int rank,
+                            int of,
+                            double percentile) {
+}
@@ -0,0 +1,14 @@
+package com.f1pedia.dto;
+
+/**
+ * Circuit returned by the spatial queries under {@code /api/circuits}, with
+ * its great-circle distance from the query point (null for bounding boxes).
+ */
+public record NearbyCircuitDTO(int circuitId,
+                               String name,
+                               String location,
+                               String country,
+                               double lat,
+                               double lng,
+                               Double distanceKm) {
+}
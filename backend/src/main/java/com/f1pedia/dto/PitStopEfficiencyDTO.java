@@ -0,0 +1,13 @@
+package com.f1pedia.dto;
+
+/**
+ * Row of {@code /api/analytics/pit-stops}.
+ */
+public record PitStopEfficiencyDTO(String driver, double avgPitMs, double avgPitSec) {
+
+    // Row of the PitStopRepository efficiency queries: driver, avg_pit_ms
+    public static PitStopEfficiencyDTO of(Object[] row) {
+        double avgPitMs = ((Number) row[1]).doubleValue();
+        return new PitStopEfficiencyDTO((String) row[0], avgPitMs, avgPitMs / 1000.0);
+    }
+}
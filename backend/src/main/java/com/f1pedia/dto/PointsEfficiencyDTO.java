@@ -0,0 +1,27 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Row of {@code /api/analytics/points-efficiency}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record PointsEfficiencyDTO(String driver,
+                                  String team,
+                                  int races,
+                                  double totalPoints,
+                                  double pointsPerRace,
+                                  int pointsFinishes,
+                                  double pointsRate) {
+
+    public static final RowMapper<PointsEfficiencyDTO> MAPPER = (rs, rowNum) -> new PointsEfficiencyDTO(
+            rs.getString("driver"),
+            rs.getString("team"),
+            rs.getInt("races"),
+            rs.getDouble("total_points"),
+            rs.getDouble("points_per_race"),
+            rs.getInt("points_finishes"),
+            rs.getDouble("points_rate"));
+}
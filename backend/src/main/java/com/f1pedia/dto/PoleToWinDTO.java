@@ -0,0 +1,21 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Row of {@code /api/analytics/pole-to-win}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record PoleToWinDTO(String driver,
+                           int poles,
+                           int winsFromPole,
+                           double conversionRate) {
+
+    public static final RowMapper<PoleToWinDTO> MAPPER = (rs, rowNum) -> new PoleToWinDTO(
+            rs.getString("driver"),
+            rs.getInt("poles"),
+            rs.getInt("wins_from_pole"),
+            rs.getDouble("conversion_rate"));
+}
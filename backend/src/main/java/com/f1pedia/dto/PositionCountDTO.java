@@ -0,0 +1,17 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Row of {@code /api/drivers/{id}/positions}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record PositionCountDTO(int position,
+                               int count) {
+
+    public static final RowMapper<PositionCountDTO> MAPPER = (rs, rowNum) -> new PositionCountDTO(
+            rs.getInt("position"),
+            rs.getInt("count"));
+}
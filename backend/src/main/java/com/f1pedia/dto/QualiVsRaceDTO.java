@@ -0,0 +1,16 @@
+package com.f1pedia.dto;
+
+/**
+ * Row of {@code /api/analytics/quali-vs-race}.
+ */
+public record QualiVsRaceDTO(String race, Integer qualiPos, Integer racePos, Integer delta) {
+
+    // Row of QualifyingRepository.findQualiVsRaceByDriver: race, quali, race and delta positions
+    public static QualiVsRaceDTO of(Object[] row) {
+        return new QualiVsRaceDTO((String) row[0], intOrNull(row[1]), intOrNull(row[2]), intOrNull(row[3]));
+    }
+
+    private static Integer intOrNull(Object value) {
+        return value != null ? ((Number) value).intValue() : null;
+    }
+}
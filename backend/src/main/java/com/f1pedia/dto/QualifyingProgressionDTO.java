@@ -0,0 +1,29 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Row of {@code /api/analytics/qualifying-progression}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record QualifyingProgressionDTO(String driver,
+                                       String team,
+                                       int sessions,
+                                       int q1Attempts,
+                                       int madeQ2,
+                                       int madeQ3,
+                                       double q3Rate,
+                                       int poles) {
+
+    public static final RowMapper<QualifyingProgressionDTO> MAPPER = (rs, rowNum) -> new QualifyingProgressionDTO(
+            rs.getString("driver"),
+            rs.getString("team"),
+            rs.getInt("sessions"),
+            rs.getInt("q1_attempts"),
+            rs.getInt("made_q2"),
+            rs.getInt("made_q3"),
+            rs.getDouble("q3_rate"),
+            rs.getInt("poles"));
+}
@@ -0,0 +1,16 @@
+package com.f1pedia.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Elo-style rating of a driver or constructor, either current or as of a
+ * date. {@code rank} is only set for current ratings of established entries.
+ */
+public record RatingDTO(int id,
+                        String name,
+                        int races,
+                        double rating,
+                        double peak,
+                        LocalDate peakDate,
+                        Integer rank) {
+}
@@ -0,0 +1,11 @@
+package com.f1pedia.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Rating of a driver or constructor right after one race.
+ */
+public record RatingPointDTO(int raceId,
+                             LocalDate date,
+                             double rating) {
+}
@@ -0,0 +1,21 @@
+package com.f1pedia.dto;
+
+import java.util.List;
+
+/**
+ * Driver and constructor results summed over the circuits of a region, for
+ * {@code /api/circuits/region-performance}.
+ */
+public record RegionPerformanceDTO(List<NearbyCircuitDTO> circuits,
+                                   int races,
+                                   List<Entry> drivers,
+                                   List<Entry> constructors) {
+
+    public record Entry(int id,
+                        String name,
+                        int races,
+                        int wins,
+                        int podiums,
+                        double points) {
+    }
+}
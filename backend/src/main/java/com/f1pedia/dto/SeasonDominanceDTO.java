@@ -0,0 +1,29 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Row of {@code /api/analytics/season-dominance}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record SeasonDominanceDTO(String driver,
+                                 String code,
+                                 double totalPoints,
+                                 int wins,
+                                 int podiums,
+                                 int races,
+                                 Double pointsShare,
+                                 Double winRate) {
+
+    public static final RowMapper<SeasonDominanceDTO> MAPPER = (rs, rowNum) -> new SeasonDominanceDTO(
+            rs.getString("driver"),
+            rs.getString("code"),
+            rs.getDouble("total_points"),
+            rs.getInt("wins"),
+            rs.getInt("podiums"),
+            rs.getInt("races"),
+            Columns.doubleOrNull(rs, "points_share"),
+            Columns.doubleOrNull(rs, "win_rate"));
+}
@@ -0,0 +1,25 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Qualifying head-to-head of a teammate pair, for {@code /api/analytics/teammate-battles}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record TeammateBattleDTO(String team,
+                                String driver1,
+                                String driver2,
+                                int headToHeads,
+                                int driver1Wins,
+                                int driver2Wins) {
+
+    public static final RowMapper<TeammateBattleDTO> MAPPER = (rs, rowNum) -> new TeammateBattleDTO(
+            rs.getString("team"),
+            rs.getString("driver1"),
+            rs.getString("driver2"),
+            rs.getInt("head_to_heads"),
+            rs.getInt("driver1_wins"),
+            rs.getInt("driver2_wins"));
+}
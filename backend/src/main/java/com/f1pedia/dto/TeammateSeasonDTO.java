@@ -0,0 +1,25 @@
+package com.f1pedia.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Row of {@code /api/drivers/{id}/teammates}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record TeammateSeasonDTO(int year,
+                                int racesWithTeammate,
+                                int raceAhead,
+                                int raceBehind,
+                                int qualiAhead,
+                                int qualiBehind) {
+
+    public static final RowMapper<TeammateSeasonDTO> MAPPER = (rs, rowNum) -> new TeammateSeasonDTO(
+            rs.getInt("year"),
+            rs.getInt("races_with_teammate"),
+            rs.getInt("race_ahead"),
+            rs.getInt("race_behind"),
+            rs.getInt("quali_ahead"),
+            rs.getInt("quali_behind"));
+}
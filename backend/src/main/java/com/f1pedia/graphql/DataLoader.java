@@ -0,0 +1,83 @@
+package com.f1pedia.graphql;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Per-request batching loader: resolvers {@link #load} keys and get a
+ * {@link Pending} back; the executor dispatches once all siblings at a level
+ * have asked, so the batch function sees every key at once (one
+ * {@code IN (...)} query instead of one per parent). Loaded values are kept
+ * for the rest of the request, so repeated keys are not loaded again. A
+ * failed batch fails only its own keys; they are tried again if asked for
+ * later.
+ */
+public final class DataLoader<K, V> {
+
+    /** A value that is available once its loader has been dispatched. */
+    public static final class Pending<V> {
+
+        private final Supplier<V> value;
+
+        private Pending(Supplier<V> value) {
+            this.value = value;
+        }
+
+        public V get() {
+            return value.get();
+        }
+
+        /** This value transformed by {@code function} once it is available. */
+        public <R> Pending<R> map(Function<? super V, ? extends R> function) {
+            return new Pending<>(() -> function.apply(get()));
+        }
+    }
+
+    private final Function<Collection<K>, Map<K, V>> batch;
+    private final Map<K, V> values = new HashMap<>();
+    private final Map<K, RuntimeException> failures = new HashMap<>();
+    private final Set<K> queue = new LinkedHashSet<>();
+    private int batches;
+
+    public DataLoader(Function<Collection<K>, Map<K, V>> batch) {
+        this.batch = batch;
+    }
+
+    public Pending<V> load(K key) {
+        if (!values.containsKey(key)) {
+            queue.add(key);
+        }
+        return new Pending<>(() -> {
+            RuntimeException failure = failures.get(key);
+            if (failure != null) {
+                throw failure;
+            }
+            return values.get(key);
+        });
+    }
+
+    /** Loads the queued keys in one batch; false if there were none. */
+    boolean dispatch() {
+        if (queue.isEmpty()) {
+            return false;
+        }
+        List<K> keys = new ArrayList<>(queue);
+        queue.clear();
+        batches++;
+        try {
+            Map<K, V> loaded = batch.apply(keys);
+            for (K key : keys) {
+                values.put(key, loaded.get(key));
+                failures.remove(key);
+            }
+        } catch (RuntimeException e) {
+            keys.forEach(key -> failures.put(key, e));
+        }
+        return true;
+    }
+
+    int batches() {
+        return batches;
+    }
+}
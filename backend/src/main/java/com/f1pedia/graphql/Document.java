@@ -0,0 +1,55 @@
+package com.f1pedia.graphql;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parsed GraphQL request document, as produced by {@link GraphQLParser}.
+ * Argument and default values are plain Java values (Integer, Double,
+ * String, Boolean, null, List, Map), with {@link Variable} and
+ * {@link EnumValue} marking the two kinds that need the schema to resolve.
+ */
+public record Document(List<Operation> operations, Map<String, Fragment> fragments) {
+
+    public record Operation(String type, String name, List<VariableDefinition> variables,
+            List<Selection> selections, Location location) {
+    }
+
+    public record VariableDefinition(String name, String type, Object defaultValue, boolean hasDefault) {
+    }
+
+    public record Fragment(String name, String typeCondition, List<Selection> selections, Location location) {
+    }
+
+    public sealed interface Selection permits Field, FragmentSpread, InlineFragment {
+
+        List<Directive> directives();
+    }
+
+    public record Field(String alias, String name, Map<String, Object> arguments, List<Directive> directives,
+            List<Selection> selections, Location location) implements Selection {
+
+        public String responseKey() {
+            return alias != null ? alias : name;
+        }
+    }
+
+    public record FragmentSpread(String name, List<Directive> directives, Location location) implements Selection {
+    }
+
+    public record InlineFragment(String typeCondition, List<Directive> directives, List<Selection> selections,
+            Location location) implements Selection {
+    }
+
+    public record Directive(String name, Map<String, Object> arguments) {
+    }
+
+    public record Variable(String name) {
+    }
+
+    public record EnumValue(String name) {
+    }
+
+    public record Location(int line, int column) {
+    }
+}
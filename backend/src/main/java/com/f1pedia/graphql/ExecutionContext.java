@@ -0,0 +1,63 @@
+package com.f1pedia.graphql;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * State of one GraphQL request: coerced variables, the request's
+ * {@link DataLoader}s and the errors collected so far.
+ */
+public final class ExecutionContext {
+
+    private final Map<String, Object> variables;
+    private final Map<String, DataLoader<?, ?>> loaders = new LinkedHashMap<>();
+    private final List<Map<String, Object>> errors = new ArrayList<>();
+
+    ExecutionContext(Map<String, Object> variables) {
+        this.variables = variables;
+    }
+
+    public Map<String, Object> variables() {
+        return variables;
+    }
+
+    /**
+     * The request's loader named {@code name}, created on first use. Loaders
+     * whose batch depends on arguments include them in the name.
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> DataLoader<K, V> loader(String name, Function<Collection<K>, Map<K, V>> batch) {
+        return (DataLoader<K, V>) loaders.computeIfAbsent(name, n -> new DataLoader<>(batch));
+    }
+
+    /** Runs every loader with queued keys, until none are left. */
+    void dispatch() {
+        boolean dispatched;
+        do {
+            dispatched = false;
+            for (DataLoader<?, ?> loader : List.copyOf(loaders.values())) {
+                dispatched |= loader.dispatch();
+            }
+        } while (dispatched);
+    }
+
+    int batches() {
+        return loaders.values().stream().mapToInt(DataLoader::batches).sum();
+    }
+
+    void error(String message, Document.Location location, List<Object> path) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("message", message);
+        if (location != null) {
+            error.put("locations", List.of(Map.of("line", location.line(), "column", location.column())));
+        }
+        if (path != null) {
+            error.put("path", path);
+        }
+        errors.add(error);
+    }
+
+    List<Map<String, Object>> errors() {
+        return errors;
+    }
+}
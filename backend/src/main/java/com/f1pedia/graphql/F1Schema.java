@@ -0,0 +1,498 @@
+package com.f1pedia.graphql;
+
+import com.f1pedia.graphql.GraphSchema.ObjectType;
+import com.f1pedia.graphql.GraphSchema.Resolver;
+import com.f1pedia.service.ResultsCube;
+import com.f1pedia.service.ResultsCube.Cell;
+import com.f1pedia.service.ResultsCube.Dimension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The F1 schema served at {@code /graphql}: drivers, constructors, circuits,
+ * seasons, races, results, standings and {@link ResultsCube} aggregates.
+ * <p>
+ * Every relation is resolved through a per-request {@link DataLoader}, so a
+ * level of the query costs one {@code IN (...)} query however many parents
+ * it has. Rows are the column maps JdbcTemplate returns; scalar fields read
+ * their column.
+ */
+@Component
+public class F1Schema {
+
+    private static final int IN_CHUNK = 1000;
+
+    private static final String DRIVERS_SQL = "SELECT * FROM drivers WHERE driver_id IN ({keys})";
+
+    private static final String CONSTRUCTORS_SQL = "SELECT * FROM constructors WHERE constructor_id IN ({keys})";
+
+    private static final String CIRCUITS_SQL = "SELECT * FROM circuits WHERE circuit_id IN ({keys})";
+
+    private static final String SEASONS_SQL = "SELECT * FROM seasons WHERE year IN ({keys})";
+
+    private static final String RACES_SQL = """
+            SELECT * FROM races
+            WHERE {key} IN ({keys})
+            ORDER BY year, round
+            """;
+
+    private static final String RESULTS_SQL = """
+            SELECT r.result_id, r.race_id, r.driver_id, r.constructor_id, r.number, r.grid, r.position,
+                   r.position_text, r.position_order, r.points, r.laps, r.time, r.milliseconds,
+                   r.fastest_lap, r.rank, r.fastest_lap_time, r.fastest_lap_speed, s.status
+            FROM results r
+            JOIN races ra ON r.race_id = ra.race_id
+            LEFT JOIN status s ON r.status_id = s.status_id
+            WHERE r.{key} IN ({keys}){season}
+            ORDER BY ra.year, ra.round, r.position_order
+            """;
+
+    private static final String STANDINGS_SQL = """
+            SELECT * FROM {table}
+            WHERE race_id IN ({keys})
+            ORDER BY position
+            """;
+
+    // Standings after the last round of each season that has any
+    private static final String FINAL_STANDINGS_SQL = """
+            SELECT s.*, ra.year
+            FROM {table} s
+            JOIN races ra ON s.race_id = ra.race_id
+            JOIN (SELECT r.year, MAX(r.round) AS round
+                  FROM races r
+                  WHERE r.race_id IN (SELECT race_id FROM {table})
+                  GROUP BY r.year) f ON f.year = ra.year AND f.round = ra.round
+            WHERE {key} IN ({keys}){champions}
+            ORDER BY ra.year, s.position
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ResultsCube resultsCube;
+
+    @Autowired
+    private GraphQLProperties properties;
+
+    private final GraphSchema schema = build();
+
+    public GraphSchema schema() {
+        return schema;
+    }
+
+    private GraphSchema build() {
+        GraphSchema schema = new GraphSchema();
+        schema.enumType("Dimension", "Grouping dimension of an aggregate",
+                List.of("DRIVER", "CONSTRUCTOR", "SEASON", "CIRCUIT"));
+        schema.enumType("Metric", "Aggregate measure to order by", List.of("POINTS", "WINS", "PODIUMS", "POLES",
+                "ENTRIES", "DNFS"));
+
+        ObjectType query = schema.type("Query", null);
+        query.field("driver", "Driver", (source, args, context) -> driver(context, args.get("id")))
+                .argument("id", "ID!").cost(1);
+        query.field("drivers", "[Driver!]!", (source, args, context) -> page(
+                "SELECT * FROM drivers WHERE 1 = 1",
+                filter("nationality = ?", args.get("nationality")),
+                filter("driver_id IN (SELECT r.driver_id FROM results r JOIN races ra ON r.race_id = ra.race_id"
+                        + " WHERE ra.year = ?)", args.get("season")),
+                "driver_id", args))
+                .argument("nationality", "String").argument("season", "Int")
+                .argument("limit", "Int", 50).argument("offset", "Int", 0).cost(1);
+        query.field("constructor", "Constructor", (source, args, context) -> constructor(context, args.get("id")))
+                .argument("id", "ID!").cost(1);
+        query.field("constructors", "[Constructor!]!", (source, args, context) -> page(
+                "SELECT * FROM constructors WHERE 1 = 1",
+                filter("nationality = ?", args.get("nationality")),
+                filter("constructor_id IN (SELECT r.constructor_id FROM results r"
+                        + " JOIN races ra ON r.race_id = ra.race_id WHERE ra.year = ?)", args.get("season")),
+                "constructor_id", args))
+                .argument("nationality", "String").argument("season", "Int")
+                .argument("limit", "Int", 50).argument("offset", "Int", 0).cost(1);
+        query.field("circuit", "Circuit", (source, args, context) -> circuit(context, args.get("id")))
+                .argument("id", "ID!").cost(1);
+        query.field("circuits", "[Circuit!]!", (source, args, context) -> page(
+                "SELECT * FROM circuits WHERE 1 = 1",
+                filter("country = ?", args.get("country")), null, "circuit_id", args))
+                .argument("country", "String").argument("limit", "Int", 50).argument("offset", "Int", 0).cost(1);
+        query.field("race", "Race", (source, args, context) -> race(context, args.get("id")))
+                .argument("id", "ID!").cost(1);
+        query.field("races", "[Race!]!", (source, args, context) -> page(
+                "SELECT * FROM races WHERE 1 = 1",
+                filter("year = ?", args.get("season")),
+                filter("circuit_id = ?", args.get("circuitId")), "year, round", args))
+                .argument("season", "Int").argument("circuitId", "ID")
+                .argument("limit", "Int", 50).argument("offset", "Int", 0).cost(1);
+        query.field("season", "Season", (source, args, context) -> season(context, args.get("year")))
+                .argument("year", "Int!").cost(1);
+        query.field("seasons", "[Season!]!", (source, args, context) -> page(
+                "SELECT * FROM seasons WHERE 1 = 1", null, null, "year DESC", args))
+                .argument("limit", "Int", 50).argument("offset", "Int", 0).cost(1);
+        query.field("aggregates", "[Aggregate!]!", (source, args, context) -> aggregates(args))
+                .argument("groupBy", "[Dimension!]!")
+                .argument("driverId", "ID").argument("constructorId", "ID")
+                .argument("season", "Int").argument("circuitId", "ID")
+                .argument("orderBy", "Metric", "POINTS").argument("limit", "Int", 50)
+                .describe("Results rolled up to the groupBy dimensions, within the given slice").cost(1);
+
+        ObjectType driver = schema.type("Driver", null);
+        driver.field("id", "ID!", column("driver_id"));
+        driver.field("ref", "String", column("driver_ref"));
+        driver.field("number", "Int", column("number"));
+        driver.field("code", "String", column("code"));
+        driver.field("forename", "String", column("forename"));
+        driver.field("surname", "String", column("surname"));
+        driver.field("name", "String", (source, args, context) -> row(source).get("forename") + " "
+                + row(source).get("surname"));
+        driver.field("dob", "String", column("dob"));
+        driver.field("nationality", "String", column("nationality"));
+        driver.field("url", "String", column("url"));
+        driver.field("results", "[Result!]!", (source, args, context) -> results(context, "driver_id",
+                row(source).get("driver_id"), args))
+                .argument("season", "Int").argument("limit", "Int", 100).cost(1);
+        driver.field("championships", "[Int!]!", (source, args, context) -> championships(context,
+                "driver_standings", "driver_id", row(source).get("driver_id")))
+                .describe("Seasons won").cost(1);
+        driver.field("totals", "Aggregate", (source, args, context) -> total(Dimension.DRIVER,
+                row(source).get("driver_id"))).cost(1);
+
+        ObjectType constructor = schema.type("Constructor", null);
+        constructor.field("id", "ID!", column("constructor_id"));
+        constructor.field("ref", "String", column("constructor_ref"));
+        constructor.field("name", "String", column("name"));
+        constructor.field("nationality", "String", column("nationality"));
+        constructor.field("url", "String", column("url"));
+        constructor.field("results", "[Result!]!", (source, args, context) -> results(context, "constructor_id",
+                row(source).get("constructor_id"), args))
+                .argument("season", "Int").argument("limit", "Int", 100).cost(1);
+        constructor.field("championships", "[Int!]!", (source, args, context) -> championships(context,
+                "constructor_standings", "constructor_id", row(source).get("constructor_id")))
+                .describe("Seasons won").cost(1);
+        constructor.field("totals", "Aggregate", (source, args, context) -> total(Dimension.CONSTRUCTOR,
+                row(source).get("constructor_id"))).cost(1);
+
+        ObjectType circuit = schema.type("Circuit", null);
+        circuit.field("id", "ID!", column("circuit_id"));
+        circuit.field("ref", "String", column("circuit_ref"));
+        circuit.field("name", "String", column("name"));
+        circuit.field("location", "String", column("location"));
+        circuit.field("country", "String", column("country"));
+        circuit.field("lat", "Float", column("lat"));
+        circuit.field("lng", "Float", column("lng"));
+        circuit.field("alt", "Int", column("alt"));
+        circuit.field("url", "String", column("url"));
+        circuit.field("races", "[Race!]!", (source, args, context) -> limited(many(context, "racesByCircuit",
+                keys -> in(RACES_SQL.replace("{key}", "circuit_id"), keys), "circuit_id",
+                row(source).get("circuit_id")), args))
+                .argument("limit", "Int").cost(1).size(30);
+
+        ObjectType season = schema.type("Season", null);
+        season.field("year", "Int!", column("year"));
+        season.field("url", "String", column("url"));
+        season.field("races", "[Race!]!", (source, args, context) -> many(context, "racesBySeason",
+                keys -> in(RACES_SQL.replace("{key}", "year"), keys), "year", row(source).get("year")))
+                .cost(1).size(20);
+        season.field("driverStandings", "[DriverStanding!]!", (source, args, context) -> finalStandings(context,
+                "driver_standings", row(source).get("year")))
+                .describe("Standings after the season's last round").cost(1).size(25);
+        season.field("constructorStandings", "[ConstructorStanding!]!", (source, args, context) ->
+                finalStandings(context, "constructor_standings", row(source).get("year")))
+                .describe("Standings after the season's last round").cost(1).size(12);
+
+        ObjectType race = schema.type("Race", null);
+        race.field("id", "ID!", column("race_id"));
+        race.field("season", "Int!", column("year"));
+        race.field("round", "Int", column("round"));
+        race.field("name", "String", column("name"));
+        race.field("date", "String", column("date"));
+        race.field("time", "String", column("time"));
+        race.field("url", "String", column("url"));
+        race.field("circuit", "Circuit", (source, args, context) -> circuit(context, row(source).get("circuit_id")))
+                .cost(1);
+        race.field("sessions", "[Session!]!", (source, args, context) -> sessions(row(source)))
+                .describe("Scheduled sessions of the weekend, where known").size(6);
+        race.field("results", "[Result!]!", (source, args, context) -> results(context, "race_id",
+                row(source).get("race_id"), args))
+                .argument("limit", "Int").cost(1).size(25);
+        race.field("driverStandings", "[DriverStanding!]!", (source, args, context) -> standings(context,
+                "driver_standings", row(source).get("race_id")))
+                .describe("Standings after this race").cost(1).size(25);
+        race.field("constructorStandings", "[ConstructorStanding!]!", (source, args, context) -> standings(context,
+                "constructor_standings", row(source).get("race_id")))
+                .describe("Standings after this race").cost(1).size(12);
+
+        ObjectType session = schema.type("Session", null);
+        session.field("name", "String!", column("name"));
+        session.field("date", "String", column("date"));
+        session.field("time", "String", column("time"));
+
+        ObjectType result = schema.type("Result", null);
+        result.field("id", "ID!", column("result_id"));
+        result.field("race", "Race", (source, args, context) -> race(context, row(source).get("race_id"))).cost(1);
+        result.field("driver", "Driver", (source, args, context) -> driver(context, row(source).get("driver_id")))
+                .cost(1);
+        result.field("constructor", "Constructor", (source, args, context) -> constructor(context,
+                row(source).get("constructor_id"))).cost(1);
+        result.field("number", "Int", column("number"));
+        result.field("grid", "Int", column("grid"));
+        result.field("position", "Int", column("position"));
+        result.field("positionText", "String", column("position_text"));
+        result.field("positionOrder", "Int", column("position_order"));
+        result.field("points", "Float", column("points"));
+        result.field("laps", "Int", column("laps"));
+        result.field("time", "String", column("time"));
+        result.field("milliseconds", "Int", column("milliseconds"));
+        result.field("fastestLap", "Int", column("fastest_lap"));
+        result.field("fastestLapRank", "Int", column("rank"));
+        result.field("fastestLapTime", "String", column("fastest_lap_time"));
+        result.field("fastestLapSpeed", "String", column("fastest_lap_speed"));
+        result.field("status", "String", column("status"));
+
+        ObjectType driverStanding = schema.type("DriverStanding", null);
+        driverStanding.field("race", "Race", (source, args, context) -> race(context, row(source).get("race_id")))
+                .cost(1);
+        driverStanding.field("driver", "Driver", (source, args, context) -> driver(context,
+                row(source).get("driver_id"))).cost(1);
+        standingColumns(driverStanding);
+
+        ObjectType constructorStanding = schema.type("ConstructorStanding", null);
+        constructorStanding.field("race", "Race", (source, args, context) -> race(context,
+                row(source).get("race_id"))).cost(1);
+        constructorStanding.field("constructor", "Constructor", (source, args, context) -> constructor(context,
+                row(source).get("constructor_id"))).cost(1);
+        standingColumns(constructorStanding);
+
+        ObjectType aggregate = schema.type("Aggregate", "Result measures summed over a slice of the results");
+        aggregate.field("driver", "Driver", (source, args, context) -> driver(context, cell(source).driverId()))
+                .describe("Set when grouped by DRIVER").cost(1);
+        aggregate.field("constructor", "Constructor", (source, args, context) -> constructor(context,
+                cell(source).constructorId())).describe("Set when grouped by CONSTRUCTOR").cost(1);
+        aggregate.field("season", "Season", (source, args, context) -> season(context, cell(source).season()))
+                .describe("Set when grouped by SEASON").cost(1);
+        aggregate.field("circuit", "Circuit", (source, args, context) -> circuit(context,
+                cell(source).circuitId())).describe("Set when grouped by CIRCUIT").cost(1);
+        aggregate.field("entries", "Int!", (source, args, context) -> cell(source).entries());
+        aggregate.field("classified", "Int!", (source, args, context) -> cell(source).classified());
+        aggregate.field("wins", "Int!", (source, args, context) -> cell(source).wins());
+        aggregate.field("podiums", "Int!", (source, args, context) -> cell(source).podiums());
+        aggregate.field("poles", "Int!", (source, args, context) -> cell(source).poles());
+        aggregate.field("dnfs", "Int!", (source, args, context) -> cell(source).dnfs());
+        aggregate.field("points", "Float!", (source, args, context) -> cell(source).points());
+        aggregate.field("avgFinish", "Float", (source, args, context) -> cell(source).avgFinish());
+        aggregate.field("avgGrid", "Float", (source, args, context) -> cell(source).avgGrid());
+        aggregate.field("bestFinish", "Int", (source, args, context) -> cell(source).bestFinish());
+        aggregate.field("firstSeason", "Int!", (source, args, context) -> cell(source).firstSeason());
+        aggregate.field("lastSeason", "Int!", (source, args, context) -> cell(source).lastSeason());
+        return schema;
+    }
+
+    private static void standingColumns(ObjectType type) {
+        type.field("points", "Float", column("points"));
+        type.field("position", "Int", column("position"));
+        type.field("positionText", "String", column("position_text"));
+        type.field("wins", "Int", column("wins"));
+    }
+
+    // Loaders by primary key
+
+    private Object driver(ExecutionContext context, Object id) {
+        return one(context, "driver", DRIVERS_SQL, "driver_id", id);
+    }
+
+    private Object constructor(ExecutionContext context, Object id) {
+        return one(context, "constructor", CONSTRUCTORS_SQL, "constructor_id", id);
+    }
+
+    private Object circuit(ExecutionContext context, Object id) {
+        return one(context, "circuit", CIRCUITS_SQL, "circuit_id", id);
+    }
+
+    private Object race(ExecutionContext context, Object id) {
+        return one(context, "race", RACES_SQL.replace("{key}", "race_id"), "race_id", id);
+    }
+
+    private Object season(ExecutionContext context, Object year) {
+        return one(context, "season", SEASONS_SQL, "year", year);
+    }
+
+    private Object one(ExecutionContext context, String name, String sql, String idColumn, Object id) {
+        if (id == null) {
+            return null;
+        }
+        DataLoader<Integer, Map<String, Object>> loader = context.loader(name, keys -> {
+            Map<Integer, Map<String, Object>> rows = new HashMap<>();
+            in(sql, keys).forEach(row -> rows.put(key(row, idColumn), row));
+            return rows;
+        });
+        return loader.load(((Number) id).intValue());
+    }
+
+    // Loaders of the rows belonging to a parent
+
+    private DataLoader.Pending<List<Map<String, Object>>> many(ExecutionContext context, String name,
+            Function<Collection<Integer>, List<Map<String, Object>>> query, String keyColumn, Object key) {
+        DataLoader<Integer, List<Map<String, Object>>> loader = context.loader(name, keys -> {
+            Map<Integer, List<Map<String, Object>>> rows = new HashMap<>();
+            query.apply(keys).forEach(row -> rows.computeIfAbsent(key(row, keyColumn), k -> new ArrayList<>())
+                    .add(row));
+            return rows;
+        });
+        return loader.load(((Number) key).intValue()).map(rows -> rows != null ? rows : List.of());
+    }
+
+    private Object results(ExecutionContext context, String keyColumn, Object key, Map<String, Object> args) {
+        Integer season = (Integer) args.get("season");
+        String sql = RESULTS_SQL.replace("{key}", keyColumn)
+                .replace("{season}", season != null ? " AND ra.year = ?" : "");
+        return limited(many(context, "resultsBy:" + keyColumn + ":" + season,
+                keys -> season != null ? in(sql, keys, season) : in(sql, keys), keyColumn, key), args);
+    }
+
+    private Object standings(ExecutionContext context, String table, Object raceId) {
+        return many(context, table + "ByRace", keys -> in(STANDINGS_SQL.replace("{table}", table), keys),
+                "race_id", raceId);
+    }
+
+    private Object finalStandings(ExecutionContext context, String table, Object year) {
+        String sql = FINAL_STANDINGS_SQL.replace("{table}", table).replace("{key}", "ra.year")
+                .replace("{champions}", "");
+        return many(context, table + "BySeason", keys -> in(sql, keys), "year", year);
+    }
+
+    private Object championships(ExecutionContext context, String table, String keyColumn, Object id) {
+        String sql = FINAL_STANDINGS_SQL.replace("{table}", table).replace("{key}", "s." + keyColumn)
+                .replace("{champions}", " AND s.position = 1");
+        return many(context, table + "Champions", keys -> in(sql, keys), keyColumn, id)
+                .map(rows -> rows.stream().map(row -> row.get("year")).toList());
+    }
+
+    private DataLoader.Pending<List<Map<String, Object>>> limited(
+            DataLoader.Pending<List<Map<String, Object>>> rows, Map<String, Object> args) {
+        if (args.get("limit") == null) {
+            return rows;
+        }
+        int limit = limit(args);
+        return rows.map(list -> list.size() > limit ? list.subList(0, limit) : list);
+    }
+
+    // Runs sql once per chunk of keys, with {keys} replaced by the chunk's
+    // placeholders; trailing arguments follow the keys
+    private List<Map<String, Object>> in(String sql, Collection<Integer> keys, Object... trailing) {
+        List<Integer> all = new ArrayList<>(keys);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += IN_CHUNK) {
+            List<Integer> chunk = all.subList(from, Math.min(all.size(), from + IN_CHUNK));
+            List<Object> params = new ArrayList<>(chunk);
+            params.addAll(Arrays.asList(trailing));
+            rows.addAll(jdbcTemplate.queryForList(
+                    sql.replace("{keys}", String.join(", ", Collections.nCopies(chunk.size(), "?"))),
+                    params.toArray()));
+        }
+        return rows;
+    }
+
+    // Root lists
+
+    private record Filter(String condition, Object value) {
+    }
+
+    private static Filter filter(String condition, Object value) {
+        return value != null ? new Filter(condition, value) : null;
+    }
+
+    private List<Map<String, Object>> page(String select, Filter first, Filter second, String orderBy,
+            Map<String, Object> args) {
+        StringBuilder sql = new StringBuilder(select);
+        List<Object> params = new ArrayList<>();
+        for (Filter filter : new Filter[] { first, second }) {
+            if (filter != null) {
+                sql.append(" AND ").append(filter.condition());
+                params.add(filter.value());
+            }
+        }
+        sql.append(" ORDER BY ").append(orderBy).append(" LIMIT ? OFFSET ?");
+        params.add(limit(args));
+        params.add(Math.max(0, (Integer) args.get("offset")));
+        return jdbcTemplate.queryForList(sql.toString(), params.toArray());
+    }
+
+    private int limit(Map<String, Object> args) {
+        return Math.max(0, Math.min((Integer) args.get("limit"), properties.getMaxPageSize()));
+    }
+
+    // Aggregates
+
+    private List<Cell> aggregates(Map<String, Object> args) {
+        Map<Dimension, Integer> fixed = new EnumMap<>(Dimension.class);
+        putIfPresent(fixed, Dimension.DRIVER, args.get("driverId"));
+        putIfPresent(fixed, Dimension.CONSTRUCTOR, args.get("constructorId"));
+        putIfPresent(fixed, Dimension.SEASON, args.get("season"));
+        putIfPresent(fixed, Dimension.CIRCUIT, args.get("circuitId"));
+        @SuppressWarnings("unchecked")
+        Dimension[] groupBy = ((List<String>) args.get("groupBy")).stream().distinct().map(Dimension::valueOf)
+                .toArray(Dimension[]::new);
+        ToDoubleFunction<Cell> metric = switch ((String) args.get("orderBy")) {
+            case "WINS" -> Cell::wins;
+            case "PODIUMS" -> Cell::podiums;
+            case "POLES" -> Cell::poles;
+            case "ENTRIES" -> Cell::entries;
+            case "DNFS" -> Cell::dnfs;
+            default -> Cell::points;
+        };
+        return resultsCube.rollUp(fixed, groupBy).stream()
+                .sorted(Comparator.comparingDouble(metric).reversed())
+                .limit(limit(args))
+                .toList();
+    }
+
+    private static void putIfPresent(Map<Dimension, Integer> fixed, Dimension dimension, Object value) {
+        if (value != null) {
+            fixed.put(dimension, (Integer) value);
+        }
+    }
+
+    private Cell total(Dimension dimension, Object id) {
+        Collection<Cell> cells = resultsCube.rollUp(dimension, ((Number) id).intValue());
+        return cells.isEmpty() ? null : cells.iterator().next();
+    }
+
+    private static List<Map<String, Object>> sessions(Map<String, Object> race) {
+        List<Map<String, Object>> sessions = new ArrayList<>();
+        String[][] columns = { { "FP1", "fp1" }, { "FP2", "fp2" }, { "FP3", "fp3" }, { "Qualifying", "quali" },
+                { "Sprint", "sprint" }, { "Race", null } };
+        for (String[] session : columns) {
+            String prefix = session[1] != null ? session[1] + "_" : "";
+            Object date = race.get(prefix + "date");
+            if (date != null) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("name", session[0]);
+                row.put("date", date);
+                row.put("time", race.get(prefix + "time"));
+                sessions.add(row);
+            }
+        }
+        return sessions;
+    }
+
+    private static Resolver column(String column) {
+        return (source, args, context) -> row(source).get(column);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> row(Object source) {
+        return (Map<String, Object>) source;
+    }
+
+    private static Cell cell(Object source) {
+        return (Cell) source;
+    }
+
+    private static Integer key(Map<String, Object> row, String column) {
+        return ((Number) row.get(column)).intValue();
+    }
+}
@@ -0,0 +1,23 @@
+package com.f1pedia.graphql;
+
+/**
+ * A request error: syntax, validation, cost or argument problems found
+ * before or while executing, reported in the response's {@code errors}.
+ */
+public class GraphQLException extends RuntimeException {
+
+    private final Document.Location location;
+
+    public GraphQLException(String message, Document.Location location) {
+        super(message);
+        this.location = location;
+    }
+
+    public GraphQLException(String message) {
+        this(message, null);
+    }
+
+    public Document.Location getLocation() {
+        return location;
+    }
+}
@@ -0,0 +1,402 @@
+package com.f1pedia.graphql;
+
+import com.f1pedia.graphql.Document.*;
+import com.f1pedia.graphql.GraphSchema.FieldDefinition;
+import com.f1pedia.graphql.GraphSchema.ObjectType;
+import com.f1pedia.graphql.GraphSchema.TypeRef;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Runs GraphQL queries against the {@link F1Schema}.
+ * <p>
+ * Before anything executes the operation is validated and its cost estimated:
+ * each field costs its own cost plus that of its selections, times the
+ * expected list size (or its {@code limit}), so the estimate tracks the
+ * number of objects loaded. Queries over {@code f1pedia.graphql.max-cost} or
+ * nested deeper than {@code max-depth} are rejected unexecuted, as are
+ * documents whose fragments expand more than {@code max-fragment-spreads}
+ * times.
+ * <p>
+ * Execution is breadth-first per field: a field is resolved for every parent
+ * at its level, the {@link DataLoader}s are dispatched once, and only then
+ * does execution descend into the children of all parents together. So
+ * {@code races { results { driver } }} costs one query per level, not one
+ * per race and result.
+ * <p>
+ * Metrics: graphql.requests{outcome=ok|partial|rejected}, graphql.cost.
+ */
+@Component
+@EnableConfigurationProperties(GraphQLProperties.class)
+public class GraphQLExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(GraphQLExecutor.class);
+
+    @Autowired
+    private F1Schema f1Schema;
+
+    @Autowired
+    private GraphQLProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Executes a request; the result is the response body, errors included. */
+    public Map<String, Object> execute(String query, String operationName, Map<String, Object> variables) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        GraphSchema schema = f1Schema.schema();
+        Execution execution;
+        long cost;
+        try {
+            Document document = GraphQLParser.parse(query, properties.getMaxDepth());
+            Operation operation = operation(document, operationName);
+            ExecutionContext context = new ExecutionContext(
+                    variables(schema, operation, variables != null ? variables : Map.of()));
+            execution = new Execution(schema, document, operation, context);
+            cost = execution.cost(schema.queryType(), operation.selections(), 1, new ArrayDeque<>());
+            if (cost > properties.getMaxCost()) {
+                throw new GraphQLException("Query cost " + cost + " exceeds the limit of " + properties.getMaxCost()
+                        + "; add or lower limit arguments, or select fewer nested lists", operation.location());
+            }
+        } catch (GraphQLException e) {
+            ExecutionContext errors = new ExecutionContext(Map.of());
+            errors.error(e.getMessage(), e.getLocation(), null);
+            response.put("errors", errors.errors());
+            count("rejected");
+            return response;
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        execution.execute(schema.queryType(), execution.operation.selections(),
+                List.of(new Target(null, data, List.of())));
+        ExecutionContext context = execution.context;
+        if (!context.errors().isEmpty()) {
+            response.put("errors", context.errors());
+        }
+        response.put("data", data);
+        response.put("extensions", Map.of("cost", cost, "maxCost", properties.getMaxCost(),
+                "batches", context.batches()));
+        count(context.errors().isEmpty() ? "ok" : "partial");
+        DistributionSummary.builder("graphql.cost").register(meterRegistry).record(cost);
+        return response;
+    }
+
+    private static Operation operation(Document document, String operationName) {
+        List<Operation> operations = document.operations();
+        Operation operation;
+        if (operationName != null && !operationName.isEmpty()) {
+            operation = operations.stream().filter(op -> operationName.equals(op.name())).findFirst()
+                    .orElseThrow(() -> new GraphQLException("Unknown operation " + operationName));
+        } else if (operations.size() == 1) {
+            operation = operations.get(0);
+        } else {
+            throw new GraphQLException(operations.isEmpty() ? "No operation in document"
+                    : "Document has several operations; operationName is required");
+        }
+        if (!operation.type().equals("query")) {
+            throw new GraphQLException("Only queries are supported, not " + operation.type() + "s",
+                    operation.location());
+        }
+        return operation;
+    }
+
+    private static Map<String, Object> variables(GraphSchema schema, Operation operation,
+            Map<String, Object> provided) {
+        Map<String, Object> variables = new HashMap<>();
+        for (VariableDefinition definition : operation.variables()) {
+            TypeRef type = TypeRef.parse(definition.type());
+            if (!schema.isLeaf(type.name())) {
+                throw new GraphQLException("Variable $" + definition.name() + " has unknown input type "
+                        + definition.type(), operation.location());
+            }
+            Object value = provided.containsKey(definition.name()) ? provided.get(definition.name())
+                    : definition.defaultValue();
+            variables.put(definition.name(), schema.coerce(type, value, Map.of(), "Variable $" + definition.name(),
+                    operation.location()));
+        }
+        return variables;
+    }
+
+    private void count(String outcome) {
+        Counter.builder("graphql.requests").tag("outcome", outcome).register(meterRegistry).increment();
+    }
+
+    /** A parent object at the current level and the response map its fields go into. */
+    private record Target(Object source, Map<String, Object> out, List<Object> path) {
+    }
+
+    private final class Execution {
+
+        private final GraphSchema schema;
+        private final Document document;
+        private final Operation operation;
+        private final ExecutionContext context;
+        private int spreads;
+
+        Execution(GraphSchema schema, Document document, Operation operation, ExecutionContext context) {
+            this.schema = schema;
+            this.document = document;
+            this.operation = operation;
+            this.context = context;
+        }
+
+        // Validates the selections on one object of {@code type} and returns
+        // their estimated cost
+        long cost(ObjectType type, List<Selection> selections, int depth, Deque<String> fragments) {
+            if (depth > properties.getMaxDepth()) {
+                throw new GraphQLException("Query is nested deeper than " + properties.getMaxDepth() + " levels",
+                        operation.location());
+            }
+            long total = 0;
+            for (Map.Entry<String, List<Field>> entry : collect(type, selections, fragments, true).entrySet()) {
+                List<Field> same = entry.getValue();
+                Field field = same.get(0);
+                for (Field other : same) {
+                    if (!other.name().equals(field.name()) || !other.arguments().equals(field.arguments())) {
+                        throw new GraphQLException("Fields \"" + entry.getKey()
+                                + "\" conflict; use different aliases", other.location());
+                    }
+                }
+                if (field.name().equals("__typename")) {
+                    continue;
+                }
+                FieldDefinition definition = definition(type, field);
+                Map<String, Object> arguments = arguments(definition, field);
+                ObjectType child = schema.objectType(definition.type().name());
+                List<Selection> merged = merged(same);
+                long multiplier = definition.type().list() ? size(definition, arguments) : 1;
+                if (child == null) {
+                    if (!merged.isEmpty()) {
+                        throw new GraphQLException("Field \"" + field.name() + "\" of type "
+                                + definition.type() + " must not have a selection", field.location());
+                    }
+                    total += definition.cost() * multiplier;
+                } else {
+                    if (merged.isEmpty()) {
+                        throw new GraphQLException("Field \"" + field.name() + "\" of type "
+                                + definition.type() + " must have a selection of subfields", field.location());
+                    }
+                    total += multiplier * (definition.cost() + cost(child, merged, depth + 1, fragments));
+                }
+            }
+            return total;
+        }
+
+        void execute(ObjectType type, List<Selection> selections, List<Target> targets) {
+            for (Map.Entry<String, List<Field>> entry : collect(type, selections, new ArrayDeque<>(), false)
+                    .entrySet()) {
+                String key = entry.getKey();
+                Field field = entry.getValue().get(0);
+                if (field.name().equals("__typename")) {
+                    targets.forEach(target -> target.out.put(key, type.name()));
+                    continue;
+                }
+                FieldDefinition definition = type.field(field.name());
+                Map<String, Object> arguments = arguments(definition, field);
+
+                Object[] values = new Object[targets.size()];
+                for (int i = 0; i < targets.size(); i++) {
+                    try {
+                        values[i] = definition.resolver().resolve(targets.get(i).source, arguments, context);
+                    } catch (RuntimeException e) {
+                        fieldError(e, field, path(targets.get(i), key));
+                    }
+                }
+                context.dispatch();
+
+                ObjectType child = schema.objectType(definition.type().name());
+                List<Target> children = new ArrayList<>();
+                for (int i = 0; i < targets.size(); i++) {
+                    Target target = targets.get(i);
+                    List<Object> path = path(target, key);
+                    try {
+                        Object value = values[i] instanceof DataLoader.Pending<?> pending ? pending.get() : values[i];
+                        target.out.put(key, complete(definition, field, value, path, child, children));
+                    } catch (RuntimeException e) {
+                        target.out.put(key, null);
+                        fieldError(e, field, path);
+                    }
+                }
+                if (child != null && !children.isEmpty()) {
+                    execute(child, merged(entry.getValue()), children);
+                }
+            }
+        }
+
+        private Object complete(FieldDefinition definition, Field field, Object value, List<Object> path,
+                ObjectType child, List<Target> children) {
+            TypeRef type = definition.type();
+            if (value == null) {
+                if (type.nonNull()) {
+                    context.error("Cannot return null for non-null field " + field.name(), field.location(), path);
+                }
+                return null;
+            }
+            if (!type.list()) {
+                return child != null ? object(value, path, children) : serialize(type.name(), value);
+            }
+            List<Object> items = new ArrayList<>();
+            int index = 0;
+            for (Object item : (Collection<?>) value) {
+                List<Object> itemPath = new ArrayList<>(path);
+                itemPath.add(index++);
+                items.add(item == null ? null
+                        : child != null ? object(item, itemPath, children) : serialize(type.name(), item));
+            }
+            return items;
+        }
+
+        private Map<String, Object> object(Object source, List<Object> path, List<Target> children) {
+            Map<String, Object> out = new LinkedHashMap<>();
+            children.add(new Target(source, out, path));
+            return out;
+        }
+
+        private void fieldError(RuntimeException e, Field field, List<Object> path) {
+            if (!(e instanceof GraphQLException)) {
+                log.warn("GraphQL field {} at {} failed", field.name(), path, e);
+            }
+            context.error(e instanceof GraphQLException ? e.getMessage() : "Internal error resolving "
+                    + field.name(), field.location(), path);
+        }
+
+        private FieldDefinition definition(ObjectType type, Field field) {
+            FieldDefinition definition = type.field(field.name());
+            if (definition == null) {
+                throw new GraphQLException("Cannot query field \"" + field.name() + "\" on type \""
+                        + type.name() + "\"", field.location());
+            }
+            return definition;
+        }
+
+        private Map<String, Object> arguments(FieldDefinition definition, Field field) {
+            for (String name : field.arguments().keySet()) {
+                if (!definition.arguments().containsKey(name)) {
+                    throw new GraphQLException("Unknown argument \"" + name + "\" on field \"" + field.name()
+                            + "\"", field.location());
+                }
+            }
+            Map<String, Object> arguments = new HashMap<>();
+            for (GraphSchema.Argument argument : definition.arguments().values()) {
+                Object value = field.arguments().containsKey(argument.name())
+                        ? field.arguments().get(argument.name()) : argument.defaultValue();
+                if (value instanceof Variable variable && !context.variables().containsKey(variable.name())) {
+                    throw new GraphQLException("Variable $" + variable.name() + " is not defined",
+                            field.location());
+                }
+                arguments.put(argument.name(), schema.coerce(argument.type(), value, context.variables(),
+                        "Argument \"" + argument.name() + "\" of \"" + field.name() + "\"", field.location()));
+            }
+            return arguments;
+        }
+
+        private int size(FieldDefinition definition, Map<String, Object> arguments) {
+            Object limit = arguments.get("limit");
+            return limit instanceof Integer value ? Math.max(0, Math.min(value, properties.getMaxPageSize()))
+                    : definition.size();
+        }
+
+        // Fields by response key, in document order, after fragments and
+        // @skip/@include
+        private Map<String, List<Field>> collect(ObjectType type, List<Selection> selections,
+                Deque<String> fragments, boolean validate) {
+            Map<String, List<Field>> fields = new LinkedHashMap<>();
+            collect(type, selections, fragments, validate, fields);
+            return fields;
+        }
+
+        private void collect(ObjectType type, List<Selection> selections, Deque<String> fragments,
+                boolean validate, Map<String, List<Field>> fields) {
+            for (Selection selection : selections) {
+                if (!included(selection.directives())) {
+                    continue;
+                }
+                if (selection instanceof Field field) {
+                    fields.computeIfAbsent(field.responseKey(), key -> new ArrayList<>()).add(field);
+                } else if (selection instanceof InlineFragment inline) {
+                    if (applies(type, inline.typeCondition(), inline.location(), validate)) {
+                        collect(type, inline.selections(), fragments, validate, fields);
+                    }
+                } else if (selection instanceof FragmentSpread spread) {
+                    Fragment fragment = document.fragments().get(spread.name());
+                    if (fragment == null) {
+                        throw new GraphQLException("Unknown fragment " + spread.name(), spread.location());
+                    }
+                    if (fragments.contains(spread.name())) {
+                        throw new GraphQLException("Fragment " + spread.name() + " spreads itself",
+                                spread.location());
+                    }
+                    if (applies(type, fragment.typeCondition(), spread.location(), validate)) {
+                        // Fragments spreading others several times multiply out
+                        if (validate && ++spreads > properties.getMaxFragmentSpreads()) {
+                            throw new GraphQLException("Query expands more than "
+                                    + properties.getMaxFragmentSpreads() + " fragment spreads", spread.location());
+                        }
+                        fragments.push(spread.name());
+                        collect(type, fragment.selections(), fragments, validate, fields);
+                        fragments.pop();
+                    }
+                }
+            }
+        }
+
+        // Every type here is a concrete object type, so a condition either
+        // names the current type or can never match
+        private boolean applies(ObjectType type, String typeCondition, Location location, boolean validate) {
+            if (typeCondition == null || typeCondition.equals(type.name())) {
+                return true;
+            }
+            if (validate) {
+                throw new GraphQLException("Fragment on " + typeCondition + " cannot apply to " + type.name(),
+                        location);
+            }
+            return false;
+        }
+
+        private boolean included(List<Directive> directives) {
+            for (Directive directive : directives) {
+                if (!directive.name().equals("skip") && !directive.name().equals("include")) {
+                    throw new GraphQLException("Unknown directive @" + directive.name());
+                }
+                Object condition = schema.coerce(TypeRef.parse("Boolean!"), directive.arguments().get("if"),
+                        context.variables(), "Argument \"if\" of @" + directive.name(), null);
+                if (directive.name().equals("skip") == (Boolean) condition) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static List<Selection> merged(List<Field> fields) {
+            if (fields.size() == 1) {
+                return fields.get(0).selections();
+            }
+            List<Selection> merged = new ArrayList<>();
+            fields.forEach(field -> merged.addAll(field.selections()));
+            return merged;
+        }
+
+        private static List<Object> path(Target target, String key) {
+            List<Object> path = new ArrayList<>(target.path);
+            path.add(key);
+            return path;
+        }
+    }
+
+    private static Object serialize(String type, Object value) {
+        return switch (type) {
+            case "Int" -> ((Number) value).intValue();
+            case "Float" -> ((Number) value).doubleValue();
+            case "Boolean" -> value;
+            default -> value.toString();
+        };
+    }
+}
@@ -0,0 +1,437 @@
+package com.f1pedia.graphql;
+
+import com.f1pedia.graphql.Document.*;
+
+import java.util.*;
+
+/**
+ * Recursive-descent parser for GraphQL executable documents: operations with
+ * variables, fields with aliases and arguments, fragments, inline fragments
+ * and directives. Type system definitions are not accepted; the schema lives
+ * in code ({@link F1Schema}).
+ * <p>
+ * Selection sets, list and object values and list types may each nest at
+ * most {@code maxDepth} levels, inline fragments included, so a hostile
+ * document is rejected before the recursion can exhaust the stack.
+ */
+public final class GraphQLParser {
+
+    private enum Kind { PUNCTUATOR, NAME, INT, FLOAT, STRING, END }
+
+    private record Token(Kind kind, String text, Location location) {
+    }
+
+    private final String source;
+    private final int maxDepth;
+    private int selectionDepth;
+    private int valueDepth;
+    private int pos;
+    private int line = 1;
+    private int lineStart;
+    private Token token;
+
+    private GraphQLParser(String source, int maxDepth) {
+        this.source = source;
+        this.maxDepth = maxDepth;
+        advance();
+    }
+
+    public static Document parse(String source, int maxDepth) {
+        if (source == null || source.isBlank()) {
+            throw new GraphQLException("Missing query");
+        }
+        return new GraphQLParser(source, maxDepth).document();
+    }
+
+    private Document document() {
+        List<Operation> operations = new ArrayList<>();
+        Map<String, Fragment> fragments = new LinkedHashMap<>();
+        do {
+            if (peek("{")) {
+                Location location = token.location;
+                operations.add(new Operation("query", null, List.of(), selectionSet(), location));
+            } else if (peekName("fragment")) {
+                Fragment fragment = fragment();
+                if (fragments.put(fragment.name(), fragment) != null) {
+                    throw new GraphQLException("Duplicate fragment " + fragment.name(), fragment.location());
+                }
+            } else if (peekName("query") || peekName("mutation") || peekName("subscription")) {
+                operations.add(operation());
+            } else {
+                throw unexpected();
+            }
+        } while (token.kind != Kind.END);
+        return new Document(operations, fragments);
+    }
+
+    private Operation operation() {
+        Location location = token.location;
+        String type = name();
+        String name = token.kind == Kind.NAME ? name() : null;
+        List<VariableDefinition> variables = new ArrayList<>();
+        if (skip("(")) {
+            while (!skip(")")) {
+                expect("$");
+                String variable = name();
+                expect(":");
+                String variableType = type();
+                boolean hasDefault = skip("=");
+                Object defaultValue = hasDefault ? value(true) : null;
+                variables.add(new VariableDefinition(variable, variableType, defaultValue, hasDefault));
+            }
+        }
+        directives();
+        return new Operation(type, name, variables, selectionSet(), location);
+    }
+
+    private Fragment fragment() {
+        Location location = token.location;
+        name();
+        String name = name();
+        if (name.equals("on")) {
+            throw new GraphQLException("Fragment name cannot be 'on'", location);
+        }
+        expectName("on");
+        String typeCondition = name();
+        directives();
+        return new Fragment(name, typeCondition, selectionSet(), location);
+    }
+
+    private List<Selection> selectionSet() {
+        Location location = token.location;
+        expect("{");
+        selectionDepth = nest(selectionDepth, location);
+        List<Selection> selections = new ArrayList<>();
+        while (!skip("}")) {
+            selections.add(selection());
+        }
+        selectionDepth--;
+        return selections;
+    }
+
+    private Selection selection() {
+        Location location = token.location;
+        if (skip("...")) {
+            if (peekName("on") || peek("{") || peek("@")) {
+                String typeCondition = null;
+                if (peekName("on")) {
+                    name();
+                    typeCondition = name();
+                }
+                return new InlineFragment(typeCondition, directives(), selectionSet(), location);
+            }
+            return new FragmentSpread(name(), directives(), location);
+        }
+        String alias = null;
+        String name = name();
+        if (skip(":")) {
+            alias = name;
+            name = name();
+        }
+        Map<String, Object> arguments = peek("(") ? arguments(false) : Map.of();
+        List<Directive> directives = directives();
+        List<Selection> selections = peek("{") ? selectionSet() : List.of();
+        return new Field(alias, name, arguments, directives, selections, location);
+    }
+
+    private Map<String, Object> arguments(boolean constant) {
+        expect("(");
+        Map<String, Object> arguments = new LinkedHashMap<>();
+        while (!skip(")")) {
+            Location location = token.location;
+            String name = name();
+            expect(":");
+            if (arguments.containsKey(name)) {
+                throw new GraphQLException("Duplicate argument " + name, location);
+            }
+            arguments.put(name, value(constant));
+        }
+        return arguments;
+    }
+
+    private List<Directive> directives() {
+        List<Directive> directives = new ArrayList<>();
+        while (skip("@")) {
+            String name = name();
+            directives.add(new Directive(name, peek("(") ? arguments(false) : Map.of()));
+        }
+        return directives;
+    }
+
+    // Type references are kept as written, e.g. "[Int!]!"
+    private String type() {
+        Location location = token.location;
+        if (skip("[")) {
+            valueDepth = nest(valueDepth, location);
+            String item = type();
+            expect("]");
+            valueDepth--;
+            return "[" + item + "]" + (skip("!") ? "!" : "");
+        }
+        return name() + (skip("!") ? "!" : "");
+    }
+
+    private Object value(boolean constant) {
+        Token current = token;
+        switch (current.kind) {
+            case INT -> {
+                advance();
+                try {
+                    return Integer.parseInt(current.text);
+                } catch (NumberFormatException e) {
+                    throw new GraphQLException("Int out of range: " + current.text, current.location);
+                }
+            }
+            case FLOAT -> {
+                advance();
+                return Double.parseDouble(current.text);
+            }
+            case STRING -> {
+                advance();
+                return current.text;
+            }
+            case NAME -> {
+                advance();
+                return switch (current.text) {
+                    case "true" -> true;
+                    case "false" -> false;
+                    case "null" -> null;
+                    default -> new EnumValue(current.text);
+                };
+            }
+            default -> {
+            }
+        }
+        if (skip("$")) {
+            if (constant) {
+                throw new GraphQLException("Variables are not allowed here", current.location);
+            }
+            return new Variable(name());
+        }
+        if (skip("[")) {
+            valueDepth = nest(valueDepth, current.location);
+            List<Object> list = new ArrayList<>();
+            while (!skip("]")) {
+                list.add(value(constant));
+            }
+            valueDepth--;
+            return list;
+        }
+        if (skip("{")) {
+            valueDepth = nest(valueDepth, current.location);
+            Map<String, Object> object = new LinkedHashMap<>();
+            while (!skip("}")) {
+                String name = name();
+                expect(":");
+                object.put(name, value(constant));
+            }
+            valueDepth--;
+            return object;
+        }
+        throw unexpected();
+    }
+
+    // One level deeper than depth, unless that is over the limit
+    private int nest(int depth, Location location) {
+        if (depth >= maxDepth) {
+            throw new GraphQLException("Query is nested deeper than " + maxDepth + " levels", location);
+        }
+        return depth + 1;
+    }
+
+    private boolean peek(String punctuator) {
+        return token.kind == Kind.PUNCTUATOR && token.text.equals(punctuator);
+    }
+
+    private boolean peekName(String name) {
+        return token.kind == Kind.NAME && token.text.equals(name);
+    }
+
+    private boolean skip(String punctuator) {
+        if (peek(punctuator)) {
+            advance();
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String punctuator) {
+        if (!skip(punctuator)) {
+            throw new GraphQLException("Expected " + punctuator + ", found " + describe(token), token.location);
+        }
+    }
+
+    private void expectName(String name) {
+        if (!peekName(name)) {
+            throw new GraphQLException("Expected " + name + ", found " + describe(token), token.location);
+        }
+        advance();
+    }
+
+    private String name() {
+        if (token.kind != Kind.NAME) {
+            throw new GraphQLException("Expected name, found " + describe(token), token.location);
+        }
+        String name = token.text;
+        advance();
+        return name;
+    }
+
+    private GraphQLException unexpected() {
+        return new GraphQLException("Unexpected " + describe(token), token.location);
+    }
+
+    private static String describe(Token token) {
+        return token.kind == Kind.END ? "end of document" : "'" + token.text + "'";
+    }
+
+    // Lexer: whitespace, commas and comments are insignificant
+
+    private void advance() {
+        while (pos < source.length()) {
+            char c = source.charAt(pos);
+            if (c == '\n') {
+                newLine(pos + 1);
+            } else if (c == '#') {
+                while (pos < source.length() && source.charAt(pos) != '\n') {
+                    pos++;
+                }
+                continue;
+            } else if (!(c == ' ' || c == '\t' || c == '\r' || c == ',' || c == '\uFEFF')) {
+                break;
+            }
+            pos++;
+        }
+        Location location = new Location(line, pos - lineStart + 1);
+        if (pos >= source.length()) {
+            token = new Token(Kind.END, "", location);
+            return;
+        }
+        char c = source.charAt(pos);
+        if (source.startsWith("...", pos)) {
+            pos += 3;
+            token = new Token(Kind.PUNCTUATOR, "...", location);
+        } else if ("!$&()/:=@[]{}|".indexOf(c) >= 0) {
+            pos++;
+            token = new Token(Kind.PUNCTUATOR, String.valueOf(c), location);
+        } else if (c == '_' || Character.isLetter(c) && c < 128) {
+            int start = pos;
+            while (pos < source.length() && isNameChar(source.charAt(pos))) {
+                pos++;
+            }
+            token = new Token(Kind.NAME, source.substring(start, pos), location);
+        } else if (c == '-' || Character.isDigit(c)) {
+            token = number(location);
+        } else if (source.startsWith("\"\"\"", pos)) {
+            token = blockString(location);
+        } else if (c == '"') {
+            token = string(location);
+        } else {
+            throw new GraphQLException("Unexpected character '" + c + "'", location);
+        }
+    }
+
+    private Token number(Location location) {
+        int start = pos;
+        boolean isFloat = false;
+        if (source.charAt(pos) == '-') {
+            pos++;
+        }
+        pos = digits(location);
+        if (pos < source.length() && source.charAt(pos) == '.') {
+            isFloat = true;
+            pos++;
+            pos = digits(location);
+        }
+        if (pos < source.length() && (source.charAt(pos) == 'e' || source.charAt(pos) == 'E')) {
+            isFloat = true;
+            pos++;
+            if (pos < source.length() && (source.charAt(pos) == '+' || source.charAt(pos) == '-')) {
+                pos++;
+            }
+            pos = digits(location);
+        }
+        return new Token(isFloat ? Kind.FLOAT : Kind.INT, source.substring(start, pos), location);
+    }
+
+    private int digits(Location location) {
+        int start = pos;
+        int end = pos;
+        while (end < source.length() && Character.isDigit(source.charAt(end))) {
+            end++;
+        }
+        if (end == start) {
+            throw new GraphQLException("Invalid number", location);
+        }
+        return end;
+    }
+
+    private Token string(Location location) {
+        StringBuilder value = new StringBuilder();
+        pos++;
+        while (true) {
+            if (pos >= source.length() || source.charAt(pos) == '\n') {
+                throw new GraphQLException("Unterminated string", location);
+            }
+            char c = source.charAt(pos++);
+            if (c == '"') {
+                return new Token(Kind.STRING, value.toString(), location);
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (pos >= source.length()) {
+                throw new GraphQLException("Unterminated string", location);
+            }
+            char escaped = source.charAt(pos++);
+            switch (escaped) {
+                case '"', '\\', '/' -> value.append(escaped);
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'u' -> {
+                    if (pos + 4 > source.length()) {
+                        throw new GraphQLException("Invalid unicode escape", location);
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(source.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw new GraphQLException("Invalid unicode escape", location);
+                    }
+                    pos += 4;
+                }
+                default -> throw new GraphQLException("Invalid escape \\" + escaped, location);
+            }
+        }
+    }
+
+    // Block strings keep their content verbatim apart from escaped quotes;
+    // they only occur as argument values here, so indentation is not stripped
+    private Token blockString(Location location) {
+        int end = source.indexOf("\"\"\"", pos + 3);
+        while (end > 0 && source.charAt(end - 1) == '\\') {
+            end = source.indexOf("\"\"\"", end + 3);
+        }
+        if (end < 0) {
+            throw new GraphQLException("Unterminated block string", location);
+        }
+        String raw = source.substring(pos + 3, end);
+        for (int i = raw.indexOf('\n'); i >= 0; i = raw.indexOf('\n', i + 1)) {
+            newLine(pos + 3 + i + 1);
+        }
+        pos = end + 3;
+        return new Token(Kind.STRING, raw.replace("\\\"\"\"", "\"\"\""), location);
+    }
+
+    private void newLine(int start) {
+        line++;
+        lineStart = start;
+    }
+
+    private static boolean isNameChar(char c) {
+        return c == '_' || (c < 128 && Character.isLetterOrDigit(c));
+    }
+}
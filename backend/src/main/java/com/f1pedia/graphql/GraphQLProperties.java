@@ -0,0 +1,27 @@
+package com.f1pedia.graphql;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits for {@code /graphql} ({@code f1pedia.graphql.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "f1pedia.graphql")
+public class GraphQLProperties {
+
+    /** Highest estimated cost, roughly the objects loaded, a query may have. */
+    private long maxCost = 10000;
+
+    /**
+     * Deepest nesting of object fields. The parser applies it to every
+     * selection set, list and object value as well.
+     */
+    private int maxDepth = 8;
+
+    /** Fragment spreads a query may expand, counting every time one is reached. */
+    private int maxFragmentSpreads = 1000;
+
+    /** Upper bound for every {@code limit} argument. */
+    private int maxPageSize = 500;
+}
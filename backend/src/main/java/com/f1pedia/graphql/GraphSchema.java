@@ -0,0 +1,255 @@
+package com.f1pedia.graphql;
+
+import java.util.*;
+
+/**
+ * Code-first GraphQL schema: object types with resolver-backed fields,
+ * enums and the built-in scalars. Knows how to coerce argument values and
+ * renders itself as SDL for {@code /graphql/schema}.
+ * <p>
+ * Every field carries a cost (work per resolution, 0 for plain columns) and,
+ * for lists, an expected size; {@link GraphQLExecutor} multiplies them out to
+ * reject oversized queries before running them. A {@code limit} argument, if
+ * the field has one, replaces the expected size.
+ */
+public final class GraphSchema {
+
+    private static final Set<String> SCALARS = Set.of("Int", "Float", "String", "Boolean", "ID");
+
+    /** Produces a field's value; may return a {@link DataLoader.Pending} to batch with its siblings. */
+    @FunctionalInterface
+    public interface Resolver {
+        Object resolve(Object source, Map<String, Object> arguments, ExecutionContext context);
+    }
+
+    /** A type reference such as {@code [Result!]!}; lists are never nested here. */
+    public record TypeRef(String name, boolean list, boolean nonNull, boolean itemNonNull) {
+
+        static TypeRef parse(String text) {
+            boolean nonNull = text.endsWith("!");
+            String inner = nonNull ? text.substring(0, text.length() - 1) : text;
+            if (inner.startsWith("[") && inner.endsWith("]")) {
+                String item = inner.substring(1, inner.length() - 1);
+                boolean itemNonNull = item.endsWith("!");
+                return new TypeRef(itemNonNull ? item.substring(0, item.length() - 1) : item, true, nonNull,
+                        itemNonNull);
+            }
+            return new TypeRef(inner, false, nonNull, false);
+        }
+
+        @Override
+        public String toString() {
+            String item = name + (list && itemNonNull ? "!" : "");
+            return (list ? "[" + item + "]" : item) + (nonNull ? "!" : "");
+        }
+    }
+
+    public record Argument(String name, TypeRef type, Object defaultValue) {
+    }
+
+    public static final class FieldDefinition {
+
+        private final String name;
+        private final TypeRef type;
+        private final Resolver resolver;
+        private final Map<String, Argument> arguments = new LinkedHashMap<>();
+        private String description;
+        private int cost;
+        private int size = 1;
+
+        FieldDefinition(String name, TypeRef type, Resolver resolver) {
+            this.name = name;
+            this.type = type;
+            this.resolver = resolver;
+        }
+
+        public FieldDefinition argument(String name, String type) {
+            return argument(name, type, null);
+        }
+
+        public FieldDefinition argument(String name, String type, Object defaultValue) {
+            arguments.put(name, new Argument(name, TypeRef.parse(type), defaultValue));
+            return this;
+        }
+
+        public FieldDefinition describe(String description) {
+            this.description = description;
+            return this;
+        }
+
+        /** Work of one resolution, roughly the objects it loads. */
+        public FieldDefinition cost(int cost) {
+            this.cost = cost;
+            return this;
+        }
+
+        /** Expected items of a list field without a limit argument. */
+        public FieldDefinition size(int size) {
+            this.size = size;
+            return this;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public TypeRef type() {
+            return type;
+        }
+
+        public Resolver resolver() {
+            return resolver;
+        }
+
+        public Map<String, Argument> arguments() {
+            return arguments;
+        }
+
+        public int cost() {
+            return cost;
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+
+    public static final class ObjectType {
+
+        private final String name;
+        private final String description;
+        private final Map<String, FieldDefinition> fields = new LinkedHashMap<>();
+
+        ObjectType(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        public FieldDefinition field(String name, String type, Resolver resolver) {
+            FieldDefinition field = new FieldDefinition(name, TypeRef.parse(type), resolver);
+            fields.put(name, field);
+            return field;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public FieldDefinition field(String name) {
+            return fields.get(name);
+        }
+    }
+
+    private record EnumType(String name, String description, List<String> values) {
+    }
+
+    private final Map<String, ObjectType> types = new LinkedHashMap<>();
+    private final Map<String, EnumType> enums = new LinkedHashMap<>();
+
+    public ObjectType type(String name, String description) {
+        return types.computeIfAbsent(name, n -> new ObjectType(n, description));
+    }
+
+    public void enumType(String name, String description, List<String> values) {
+        enums.put(name, new EnumType(name, description, values));
+    }
+
+    public ObjectType queryType() {
+        return types.get("Query");
+    }
+
+    /** The object type named, or null for scalars and enums. */
+    public ObjectType objectType(String name) {
+        return types.get(name);
+    }
+
+    /**
+     * Coerces a literal or variable value to {@code type}: resolves variables,
+     * wraps single values into lists and checks scalars, enums and nullness.
+     * IDs are numeric in this schema and coerce to Integer.
+     */
+    public Object coerce(TypeRef type, Object value, Map<String, Object> variables, String what,
+            Document.Location location) {
+        if (value instanceof Document.Variable variable) {
+            value = variables.get(variable.name());
+        }
+        if (value == null) {
+            if (type.nonNull()) {
+                throw new GraphQLException(what + " must not be null", location);
+            }
+            return null;
+        }
+        if (type.list()) {
+            TypeRef item = new TypeRef(type.name(), false, type.itemNonNull(), false);
+            List<Object> items = new ArrayList<>();
+            for (Object element : value instanceof List<?> list ? list : List.of(value)) {
+                items.add(coerce(item, element, variables, what, location));
+            }
+            return items;
+        }
+        EnumType enumType = enums.get(type.name());
+        if (enumType != null) {
+            String name = value instanceof Document.EnumValue literal ? literal.name()
+                    : value instanceof String string ? string : null;
+            if (name == null || !enumType.values().contains(name)) {
+                throw new GraphQLException(what + " must be one of " + enumType.values(), location);
+            }
+            return name;
+        }
+        Object coerced = switch (type.name()) {
+            case "Int" -> value instanceof Integer ? value
+                    : value instanceof Long l && l == l.intValue() ? l.intValue() : null;
+            case "Float" -> value instanceof Number number && !(value instanceof Double d && d.isNaN())
+                    ? number.doubleValue() : null;
+            case "String" -> value instanceof String ? value : null;
+            case "Boolean" -> value instanceof Boolean ? value : null;
+            case "ID" -> value instanceof Integer ? value : value instanceof String s && s.matches("-?\\d{1,9}")
+                    ? Integer.valueOf(s) : null;
+            default -> throw new GraphQLException("Unknown input type " + type.name(), location);
+        };
+        if (coerced == null) {
+            throw new GraphQLException(what + " must be " + type.name(), location);
+        }
+        return coerced;
+    }
+
+    public boolean isLeaf(String typeName) {
+        return SCALARS.contains(typeName) || enums.containsKey(typeName);
+    }
+
+    /** The schema in GraphQL SDL, with descriptions. */
+    public String toSdl() {
+        StringBuilder sdl = new StringBuilder();
+        for (EnumType enumType : enums.values()) {
+            describe(sdl, enumType.description(), "");
+            sdl.append("enum ").append(enumType.name()).append(" {\n");
+            enumType.values().forEach(value -> sdl.append("  ").append(value).append('\n'));
+            sdl.append("}\n\n");
+        }
+        for (ObjectType type : types.values()) {
+            describe(sdl, type.description, "");
+            sdl.append("type ").append(type.name).append(" {\n");
+            for (FieldDefinition field : type.fields.values()) {
+                describe(sdl, field.description, "  ");
+                sdl.append("  ").append(field.name);
+                if (!field.arguments.isEmpty()) {
+                    StringJoiner arguments = new StringJoiner(", ", "(", ")");
+                    for (Argument argument : field.arguments.values()) {
+                        arguments.add(argument.name() + ": " + argument.type()
+                                + (argument.defaultValue() != null ? " = " + argument.defaultValue() : ""));
+                    }
+                    sdl.append(arguments);
+                }
+                sdl.append(": ").append(field.type).append('\n');
+            }
+            sdl.append("}\n\n");
+        }
+        return sdl.toString().stripTrailing() + "\n";
+    }
+
+    private static void describe(StringBuilder sdl, String description, String indent) {
+        if (description != null) {
+            sdl.append(indent).append("\"").append(description.replace("\"", "\\\"")).append("\"\n");
+        }
+    }
+}
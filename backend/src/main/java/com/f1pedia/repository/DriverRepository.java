@@ -34,6 +34,6 @@ public interface DriverRepository extends JpaRepository<Driver, Integer> {
      * @param constructorId The ID of the constructor
      * @return List of drivers for that team
      */
-    @org.springframework.data.jpa.repository.Query("SELECT DISTINCT r.driver FROM Result r WHERE r.constructor.constructorId = :constructorId")
+    @org.springframework.data.jpa.repository.Query("SELECT DISTINCT d FROM Result r JOIN r.driver d WHERE r.constructor.constructorId = :constructorId ORDER BY d.driverId")
     java.util.List<Driver> findDriversByConstructorId(Integer constructorId);
 }
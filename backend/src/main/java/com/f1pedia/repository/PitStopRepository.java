@@ -11,7 +11,7 @@ import java.util.List;
 @Repository
 public interface PitStopRepository extends JpaRepository<PitStop, PitStopId> {
 
-        List<PitStop> findByRaceIdOrderByStopAsc(Integer raceId);
+        List<PitStop> findByRaceIdOrderByStopAscLapAscDriverIdAsc(Integer raceId);
 
         @Query(value = "SELECT d.surname as driver, AVG(ps.milliseconds) as avg_pit_ms " +
                         "FROM pit_stops ps " +
@@ -0,0 +1,174 @@
+package com.f1pedia.service;
+
+import com.f1pedia.web.ClusterCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * Drops what a database change makes stale from the in-memory caches and
+ * engines, per table and as narrowly as the change allows: single races where
+ * the change names them, whole seasons otherwise, everything when neither is
+ * known (TRUNCATE, or after missed notifications).
+ * <p>
+ * Standings, qualifying, sprint and constructor results are read per request
+ * and not cached anywhere yet.
+ * <p>
+ * In cluster mode the shared {@link ClusterCache} is invalidated as well.
+ * Every instance receives the same notification and invalidates it, so the
+ * cluster is cleared even when one instance missed the notification.
+ * <p>
+ * Metrics: cache.invalidation{table}.
+ */
+@Component
+public class CacheInvalidator {
+
+    /**
+     * One changed statement as sent by {@code etl/notify_triggers.sql};
+     * {@code races} and {@code seasons} are null when unknown.
+     */
+    public record Change(String table, String op, Set<Integer> races, Set<Integer> seasons) {
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidator.class);
+
+    @Autowired
+    private LapTimeAnalyticsService lapTimeAnalyticsService;
+
+    @Autowired
+    private PitStrategyService pitStrategyService;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private ChampionshipSimulationService championshipSimulationService;
+
+    @Autowired
+    private MetricRankIndex metricRankIndex;
+
+    @Autowired
+    private ResultsCube resultsCube;
+
+    @Autowired
+    private ResultsQueryEngine resultsQueryEngine;
+
+    @Autowired
+    private CircuitSpatialIndex circuitSpatialIndex;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ReferenceNames referenceNames;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private ClusterCache clusterCache;
+
+    public void apply(Change change) {
+        log.debug("Invalidating for {} {} races={} seasons={}", change.op(), change.table(), change.races(),
+                change.seasons());
+        switch (change.table()) {
+            case "results" -> {
+                each(change, lapTimeAnalyticsService::evictRace, lapTimeAnalyticsService::evictSeason,
+                        lapTimeAnalyticsService::evictAll);
+                each(change, pitStrategyService::evictRace, pitStrategyService::evictSeason,
+                        pitStrategyService::evictAll);
+                if (change.races() != null) {
+                    ratingService.racesChanged(change.races());
+                } else {
+                    ratingService.evict();
+                }
+                resultsAggregatesChanged();
+            }
+            case "races" -> {
+                // Season caches hold the race list itself; a race moving
+                // season shows up under both years
+                if (change.seasons() != null) {
+                    for (int season : change.seasons()) {
+                        lapTimeAnalyticsService.evictSeason(season);
+                        pitStrategyService.evictSeason(season);
+                    }
+                } else {
+                    lapTimeAnalyticsService.evictAll();
+                    pitStrategyService.evictAll();
+                }
+                ratingService.evict();
+                resultsAggregatesChanged();
+            }
+            case "pit_stops" -> each(change, pitStrategyService::evictRace, pitStrategyService::evictSeason,
+                    pitStrategyService::evictAll);
+            case "lap_times" -> each(change, lapTimeAnalyticsService::evictRace,
+                    lapTimeAnalyticsService::evictSeason, lapTimeAnalyticsService::evictAll);
+            case "drivers", "constructors", "circuits" -> {
+                referenceNames.evict();
+                championshipSimulationService.evict();
+                searchIndexService.evict();
+                resultsCube.evict();
+                resultsQueryEngine.evict();
+                if (change.table().equals("circuits")) {
+                    circuitSpatialIndex.evict();
+                }
+            }
+            case "status" -> {
+                metricRankIndex.evict();
+                resultsCube.evict();
+                resultsQueryEngine.evict();
+            }
+            default -> {
+                // Not cached
+            }
+        }
+        clusterWide();
+        Counter.builder("cache.invalidation")
+                .tag("table", change.table())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /** Drops every cache, e.g. after notifications may have been missed. */
+    public void evictAll() {
+        lapTimeAnalyticsService.evictAll();
+        pitStrategyService.evictAll();
+        ratingService.evict();
+        referenceNames.evict();
+        resultsAggregatesChanged();
+        clusterWide();
+        log.info("Evicted all cached data");
+    }
+
+    // Engines aggregating over all results; rebuilt lazily on next use
+    private void resultsAggregatesChanged() {
+        championshipSimulationService.evict();
+        metricRankIndex.evict();
+        resultsCube.evict();
+        resultsQueryEngine.evict();
+        circuitSpatialIndex.evict();
+        searchIndexService.evict();
+    }
+
+    private void clusterWide() {
+        if (clusterCache != null) {
+            clusterCache.invalidate();
+        }
+    }
+
+    private static void each(Change change, IntConsumer perRace, IntConsumer perSeason, Runnable all) {
+        if (change.races() != null) {
+            change.races().forEach(perRace::accept);
+        } else if (change.seasons() != null) {
+            change.seasons().forEach(perSeason::accept);
+        } else {
+            all.run();
+        }
+    }
+}
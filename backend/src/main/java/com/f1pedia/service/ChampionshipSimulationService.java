@@ -0,0 +1,444 @@
+package com.f1pedia.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo projection of the latest season's championships.
+ * Each remaining race is sampled from every driver's recent finishing
+ * positions, and whole seasons are replayed in parallel to estimate title odds
+ * for drivers and constructors.
+ * <p>
+ * The season model (standings, points system, form samples) is loaded once
+ * per form window and kept until results change; only the sampling runs per
+ * request. Models load outside the cache lock, so windows load in parallel
+ * and an eviction never waits for a load; requests for a window being loaded
+ * wait for that load. A load overtaken by an eviction is served to the
+ * requests that waited for it but not kept.
+ */
+@Service
+public class ChampionshipSimulationService {
+
+    private static final int MIN_SIMULATIONS = 1_000;
+    private static final int MAX_SIMULATIONS = 2_000_000;
+    private static final int CHUNK_SIZE = 8_192;
+    private static final int MAX_FORM_WINDOW = 100;
+    // Form windows whose models are kept; callers rarely use more than a few
+    private static final int MAX_CACHED_MODELS = 8;
+
+    // Used when the season has no classified results to derive the points system from
+    private static final double[] DEFAULT_POINTS = { 25, 18, 15, 12, 10, 8, 6, 4, 2, 1 };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Loaded or loading models by form window; eviction drops loads in flight too
+    private final Map<Integer, CompletableFuture<SeasonModel>> models = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, CompletableFuture<SeasonModel>> eldest) {
+            return size() > MAX_CACHED_MODELS;
+        }
+    };
+
+    /**
+     * Simulates the remainder of the latest season.
+     *
+     * @param simulations number of seasons to simulate
+     * @param formWindow  number of most recent results per driver that make up
+     *                    their finishing distribution
+     * @return title probabilities per driver and constructor plus throughput
+     *         figures
+     */
+    public Map<String, Object> simulate(int simulations, int formWindow) {
+        int runs = Math.max(MIN_SIMULATIONS, Math.min(MAX_SIMULATIONS, simulations));
+        int window = Math.max(1, Math.min(MAX_FORM_WINDOW, formWindow));
+
+        SeasonModel model = model(window);
+
+        long start = System.nanoTime();
+        ChunkResult total = IntStream.range(0, (runs + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                .parallel()
+                .mapToObj(chunk -> runChunk(model, Math.min(CHUNK_SIZE, runs - chunk * CHUNK_SIZE)))
+                .reduce(ChunkResult::merge)
+                .orElseGet(() -> new ChunkResult(model.driverCount, model.constructorCount));
+        long elapsedNanos = System.nanoTime() - start;
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("season", model.season);
+        response.put("completedRounds", model.completedRounds);
+        response.put("remainingRounds", model.remainingRounds);
+        response.put("formWindow", window);
+        response.put("simulations", runs);
+        response.put("elapsedMs", Math.round(elapsedNanos / 1_000_000.0 * 100.0) / 100.0);
+        response.put("seasonsPerSecond", elapsedNanos > 0 ? Math.round(runs * 1_000_000_000.0 / elapsedNanos) : 0);
+        response.put("drivers", driverOdds(model, total, runs));
+        response.put("constructors", constructorOdds(model, total, runs));
+        return response;
+    }
+
+    // Drops the loaded models, e.g. after new results were loaded
+    public void evict() {
+        synchronized (models) {
+            models.clear();
+        }
+    }
+
+    private SeasonModel model(int window) {
+        CompletableFuture<SeasonModel> model;
+        boolean load = false;
+        synchronized (models) {
+            model = models.get(window);
+            if (model == null) {
+                model = new CompletableFuture<>();
+                models.put(window, model);
+                load = true;
+            }
+        }
+        if (load) {
+            try {
+                model.complete(loadModel(window));
+            } catch (RuntimeException e) {
+                synchronized (models) {
+                    models.remove(window, model);
+                }
+                model.completeExceptionally(e);
+            }
+        }
+        try {
+            return model.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Replays `runs` seasons on the calling worker thread; all scratch arrays are
+    // allocated once up front so the per-race loop allocates nothing.
+    private static ChunkResult runChunk(SeasonModel model, int runs) {
+        ThreadLocalRandom rng = ThreadLocalRandom.current();
+        int drivers = model.driverCount;
+        int places = Math.min(drivers, model.pointsByPlace.length);
+
+        ChunkResult result = new ChunkResult(drivers, model.constructorCount);
+        if (drivers == 0) {
+            return result;
+        }
+        double[] points = new double[drivers];
+        double[] constructorPoints = new double[model.constructorCount];
+        double[] score = new double[drivers];
+        boolean[] retired = new boolean[drivers];
+        int[] order = new int[drivers];
+
+        for (int run = 0; run < runs; run++) {
+            System.arraycopy(model.currentPoints, 0, points, 0, drivers);
+
+            for (int race = 0; race < model.remainingRounds; race++) {
+                for (int d = 0; d < drivers; d++) {
+                    int sample = model.sampleOffset[d] + rng.nextInt(model.sampleCount[d]);
+                    score[d] = model.sampleFinish[sample] + rng.nextDouble();
+                    retired[d] = model.sampleRetired[sample];
+                    order[d] = d;
+                }
+                // Insertion sort: grids are ~20 cars, so this beats any general-purpose sort
+                for (int i = 1; i < drivers; i++) {
+                    int d = order[i];
+                    double s = score[d];
+                    int j = i - 1;
+                    while (j >= 0 && score[order[j]] > s) {
+                        order[j + 1] = order[j];
+                        j--;
+                    }
+                    order[j + 1] = d;
+                }
+                for (int place = 0; place < places; place++) {
+                    int d = order[place];
+                    if (!retired[d]) {
+                        points[d] += model.pointsByPlace[place];
+                    }
+                }
+            }
+
+            System.arraycopy(model.constructorCurrentPoints, 0, constructorPoints, 0, model.constructorCount);
+            int leader = 0;
+            for (int d = 0; d < drivers; d++) {
+                constructorPoints[model.driverConstructor[d]] += points[d] - model.currentPoints[d];
+                result.driverPoints[d] += points[d];
+                if (points[d] > points[leader]) {
+                    leader = d;
+                }
+            }
+            result.driverTitles[leader]++;
+
+            int constructorLeader = 0;
+            for (int c = 0; c < model.constructorCount; c++) {
+                result.constructorPoints[c] += constructorPoints[c];
+                if (constructorPoints[c] > constructorPoints[constructorLeader]) {
+                    constructorLeader = c;
+                }
+            }
+            result.constructorTitles[constructorLeader]++;
+        }
+        return result;
+    }
+
+    private SeasonModel loadModel(int window) {
+        Integer latest = jdbcTemplate.queryForObject("SELECT MAX(year) FROM races", Integer.class);
+        int season = latest != null ? latest : java.time.Year.now().getValue();
+
+        String roundsSql = """
+                SELECT COUNT(*) as total_rounds,
+                       COUNT(CASE WHEN EXISTS (SELECT 1 FROM results r WHERE r.race_id = ra.race_id) THEN 1 END) as completed_rounds
+                FROM races ra
+                WHERE ra.year = ?
+                """;
+        Map<String, Object> rounds = jdbcTemplate.queryForMap(roundsSql, season);
+        int totalRounds = ((Number) rounds.get("total_rounds")).intValue();
+        int completedRounds = ((Number) rounds.get("completed_rounds")).intValue();
+
+        // One row per driver of the season, carrying the team of their latest
+        // entry; ra.round is selected because H2 requires DISTINCT ON's
+        // ORDER BY columns in the select list (Postgres does not mind)
+        String entriesSql = """
+                SELECT DISTINCT ON (r.driver_id)
+                       r.driver_id,
+                       d.forename || ' ' || d.surname as driver,
+                       d.code,
+                       r.constructor_id,
+                       c.name as constructor,
+                       SUM(COALESCE(r.points, 0)) OVER (PARTITION BY r.driver_id) as points,
+                       ra.round
+                FROM results r
+                JOIN races ra ON r.race_id = ra.race_id
+                JOIN drivers d ON r.driver_id = d.driver_id
+                JOIN constructors c ON r.constructor_id = c.constructor_id
+                WHERE ra.year = ?
+                ORDER BY r.driver_id, ra.round DESC
+                """;
+        List<Map<String, Object>> entries = jdbcTemplate.queryForList(entriesSql, season);
+
+        String constructorPointsSql = """
+                SELECT r.constructor_id, SUM(COALESCE(r.points, 0)) as points
+                FROM results r
+                JOIN races ra ON r.race_id = ra.race_id
+                WHERE ra.year = ?
+                GROUP BY r.constructor_id
+                """;
+        Map<Integer, Double> constructorSeasonPoints = new HashMap<>();
+        jdbcTemplate.query(constructorPointsSql, rs -> {
+            constructorSeasonPoints.put(rs.getInt("constructor_id"), rs.getDouble("points"));
+        }, season);
+
+        // Most frequent award per classified place gives the season's points system
+        String pointsSql = """
+                SELECT r.position_order, MODE() WITHIN GROUP (ORDER BY r.points) as points
+                FROM results r
+                JOIN races ra ON r.race_id = ra.race_id
+                WHERE ra.year = ? AND r.position IS NOT NULL
+                GROUP BY r.position_order
+                ORDER BY r.position_order
+                """;
+        List<Double> awarded = new ArrayList<>();
+        jdbcTemplate.query(pointsSql, rs -> {
+            double points = rs.getDouble("points");
+            if (points > 0 && rs.getInt("position_order") == awarded.size() + 1) {
+                awarded.add(points);
+            }
+        }, season);
+
+        SeasonModel model = new SeasonModel();
+        model.season = season;
+        model.completedRounds = completedRounds;
+        model.remainingRounds = Math.max(0, totalRounds - completedRounds);
+        model.pointsByPlace = awarded.isEmpty() ? DEFAULT_POINTS
+                : awarded.stream().mapToDouble(Double::doubleValue).toArray();
+
+        int drivers = entries.size();
+        model.driverCount = drivers;
+        model.driverIds = new int[drivers];
+        model.driverNames = new String[drivers];
+        model.driverCodes = new String[drivers];
+        model.currentPoints = new double[drivers];
+        model.driverConstructor = new int[drivers];
+
+        Map<Integer, Integer> constructorIndex = new LinkedHashMap<>();
+        List<String> constructorNames = new ArrayList<>();
+        Map<Integer, Integer> driverIndex = new HashMap<>();
+        for (int i = 0; i < drivers; i++) {
+            Map<String, Object> entry = entries.get(i);
+            int driverId = ((Number) entry.get("driver_id")).intValue();
+            int constructorId = ((Number) entry.get("constructor_id")).intValue();
+            model.driverIds[i] = driverId;
+            model.driverNames[i] = (String) entry.get("driver");
+            model.driverCodes[i] = (String) entry.get("code");
+            model.currentPoints[i] = ((Number) entry.get("points")).doubleValue();
+            Integer index = constructorIndex.get(constructorId);
+            if (index == null) {
+                index = constructorIndex.size();
+                constructorIndex.put(constructorId, index);
+                constructorNames.add((String) entry.get("constructor"));
+            }
+            model.driverConstructor[i] = index;
+            driverIndex.put(driverId, i);
+        }
+
+        model.constructorCount = constructorIndex.size();
+        model.constructorIds = constructorIndex.keySet().stream().mapToInt(Integer::intValue).toArray();
+        model.constructorNames = constructorNames.toArray(new String[0]);
+        model.constructorCurrentPoints = new double[model.constructorCount];
+        constructorIndex.forEach((constructorId, index) -> model.constructorCurrentPoints[index] = constructorSeasonPoints
+                .getOrDefault(constructorId, 0.0));
+
+        loadForm(model, driverIndex, season, window);
+        return model;
+    }
+
+    // Flattens each driver's last `window` finishes into one contiguous sample array
+    private void loadForm(SeasonModel model, Map<Integer, Integer> driverIndex, int season, int window) {
+        String formSql = """
+                WITH recent_results AS (
+                    SELECT r.driver_id,
+                           r.position_order,
+                           r.position,
+                           ROW_NUMBER() OVER (PARTITION BY r.driver_id ORDER BY ra.year DESC, ra.round DESC) as race_num
+                    FROM results r
+                    JOIN races ra ON r.race_id = ra.race_id
+                    WHERE r.driver_id IN (
+                        SELECT r2.driver_id FROM results r2
+                        JOIN races ra2 ON r2.race_id = ra2.race_id
+                        WHERE ra2.year = ?
+                    )
+                )
+                SELECT driver_id, position_order, position
+                FROM recent_results
+                WHERE race_num <= ?
+                ORDER BY driver_id
+                """;
+        List<List<int[]>> samples = new ArrayList<>();
+        for (int i = 0; i < model.driverCount; i++) {
+            samples.add(new ArrayList<>());
+        }
+        jdbcTemplate.query(formSql, rs -> {
+            Integer index = driverIndex.get(rs.getInt("driver_id"));
+            if (index != null) {
+                int retired = rs.getObject("position") == null ? 1 : 0;
+                samples.get(index).add(new int[] { rs.getInt("position_order"), retired });
+            }
+        }, season, window);
+
+        int total = samples.stream().mapToInt(List::size).sum() + model.driverCount;
+        model.sampleOffset = new int[model.driverCount];
+        model.sampleCount = new int[model.driverCount];
+        model.sampleFinish = new int[total];
+        model.sampleRetired = new boolean[total];
+
+        int cursor = 0;
+        for (int d = 0; d < model.driverCount; d++) {
+            List<int[]> driverSamples = samples.get(d);
+            model.sampleOffset[d] = cursor;
+            if (driverSamples.isEmpty()) {
+                // No history: treat the driver as a back-marker that still finishes
+                model.sampleFinish[cursor++] = model.driverCount;
+            }
+            for (int[] sample : driverSamples) {
+                model.sampleFinish[cursor] = sample[0];
+                model.sampleRetired[cursor] = sample[1] == 1;
+                cursor++;
+            }
+            model.sampleCount[d] = cursor - model.sampleOffset[d];
+        }
+    }
+
+    private List<Map<String, Object>> driverOdds(SeasonModel model, ChunkResult total, int runs) {
+        List<Map<String, Object>> drivers = new ArrayList<>();
+        for (int d = 0; d < model.driverCount; d++) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("driverId", model.driverIds[d]);
+            map.put("driver", model.driverNames[d]);
+            map.put("code", model.driverCodes[d]);
+            map.put("team", model.constructorNames[model.driverConstructor[d]]);
+            map.put("currentPoints", model.currentPoints[d]);
+            map.put("expectedPoints", Math.round(total.driverPoints[d] / runs * 10.0) / 10.0);
+            map.put("titleProbability", Math.round(100.0 * total.driverTitles[d] / runs * 100.0) / 100.0);
+            drivers.add(map);
+        }
+        drivers.sort(Comparator.comparingDouble((Map<String, Object> m) -> (Double) m.get("titleProbability"))
+                .thenComparingDouble(m -> (Double) m.get("expectedPoints"))
+                .reversed());
+        return drivers;
+    }
+
+    private List<Map<String, Object>> constructorOdds(SeasonModel model, ChunkResult total, int runs) {
+        List<Map<String, Object>> constructors = new ArrayList<>();
+        for (int c = 0; c < model.constructorCount; c++) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("constructorId", model.constructorIds[c]);
+            map.put("constructor", model.constructorNames[c]);
+            map.put("currentPoints", model.constructorCurrentPoints[c]);
+            map.put("expectedPoints", Math.round(total.constructorPoints[c] / runs * 10.0) / 10.0);
+            map.put("titleProbability", Math.round(100.0 * total.constructorTitles[c] / runs * 100.0) / 100.0);
+            constructors.add(map);
+        }
+        constructors.sort(Comparator.comparingDouble((Map<String, Object> m) -> (Double) m.get("titleProbability"))
+                .thenComparingDouble(m -> (Double) m.get("expectedPoints"))
+                .reversed());
+        return constructors;
+    }
+
+    // Immutable inputs shared read-only by all simulation workers
+    private static final class SeasonModel {
+        int season;
+        int completedRounds;
+        int remainingRounds;
+        double[] pointsByPlace;
+
+        int driverCount;
+        int[] driverIds;
+        String[] driverNames;
+        String[] driverCodes;
+        double[] currentPoints;
+        int[] driverConstructor;
+
+        int constructorCount;
+        int[] constructorIds;
+        String[] constructorNames;
+        double[] constructorCurrentPoints;
+
+        int[] sampleOffset;
+        int[] sampleCount;
+        int[] sampleFinish;
+        boolean[] sampleRetired;
+    }
+
+    // Per-chunk tallies, merged after the parallel run
+    private static final class ChunkResult {
+        final long[] driverTitles;
+        final long[] constructorTitles;
+        final double[] driverPoints;
+        final double[] constructorPoints;
+
+        ChunkResult(int drivers, int constructors) {
+            driverTitles = new long[drivers];
+            constructorTitles = new long[constructors];
+            driverPoints = new double[drivers];
+            constructorPoints = new double[constructors];
+        }
+
+        ChunkResult merge(ChunkResult other) {
+            for (int i = 0; i < driverTitles.length; i++) {
+                driverTitles[i] += other.driverTitles[i];
+                driverPoints[i] += other.driverPoints[i];
+            }
+            for (int i = 0; i < constructorTitles.length; i++) {
+                constructorTitles[i] += other.constructorTitles[i];
+                constructorPoints[i] += other.constructorPoints[i];
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package com.f1pedia.service;
+
+import com.f1pedia.domain.Circuit;
+import com.f1pedia.dto.NearbyCircuitDTO;
+import com.f1pedia.dto.RegionPerformanceDTO;
+import com.f1pedia.repository.CircuitRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * In-memory spatial index over circuit coordinates.
+ * <p>
+ * Circuits are stored as unit vectors on the sphere in a 3-d k-d tree, where
+ * straight-line (chord) distance orders points exactly like great-circle
+ * distance, so nearest and radius queries need no special cases at the poles
+ * or the antimeridian. Bounding boxes are answered from a latitude-sorted
+ * array. Each circuit also carries its pre-aggregated driver and constructor
+ * results, so region statistics sum a few rows per circuit instead of
+ * scanning results. Circuits without coordinates keep their results (for
+ * {@link #constructorByCountry(int)}) but are left out of the spatial
+ * structures, and the build logs them.
+ */
+@Service
+public class CircuitSpatialIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitSpatialIndex.class);
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    @Autowired
+    private CircuitRepository circuitRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReferenceNames referenceNames;
+
+    private final LazyValue<Index> index = new LazyValue<>(this::build);
+
+    /** The {@code limit} circuits closest to the point, nearest first. */
+    public List<NearbyCircuitDTO> nearest(double lat, double lng, int limit) {
+        Index idx = index.get();
+        double[] query = unitVector(lat, lng);
+        // Max-heap on chord distance keeps the best `limit` candidates
+        PriorityQueue<double[]> best = new PriorityQueue<>((a, b) -> Double.compare(b[1], a[1]));
+        idx.nearest(0, idx.tree.length, 0, query, limit, best);
+        List<double[]> hits = new ArrayList<>(best);
+        hits.sort(Comparator.comparingDouble(hit -> hit[1]));
+        List<NearbyCircuitDTO> results = new ArrayList<>(hits.size());
+        for (double[] hit : hits) {
+            results.add(idx.dto((int) hit[0], chordToKm(Math.sqrt(hit[1]))));
+        }
+        return results;
+    }
+
+    /** Circuits within {@code radiusKm} of the point, nearest first. */
+    public List<NearbyCircuitDTO> within(double lat, double lng, double radiusKm) {
+        Index idx = index.get();
+        double[] query = unitVector(lat, lng);
+        double chord = kmToChord(radiusKm);
+        List<double[]> hits = new ArrayList<>();
+        idx.within(0, idx.tree.length, 0, query, chord * chord, hits);
+        hits.sort(Comparator.comparingDouble(hit -> hit[1]));
+        List<NearbyCircuitDTO> results = new ArrayList<>(hits.size());
+        for (double[] hit : hits) {
+            results.add(idx.dto((int) hit[0], chordToKm(Math.sqrt(hit[1]))));
+        }
+        return results;
+    }
+
+    /**
+     * Circuits inside a latitude/longitude box, north to south. A box with
+     * {@code minLng > maxLng} crosses the antimeridian.
+     */
+    public List<NearbyCircuitDTO> inBox(double minLat, double minLng, double maxLat, double maxLng) {
+        Index idx = index.get();
+        List<NearbyCircuitDTO> results = new ArrayList<>();
+        for (int i = idx.firstAtOrAboveLat(minLat); i < idx.byLat.length && idx.lats[idx.byLat[i]] <= maxLat; i++) {
+            int circuit = idx.byLat[i];
+            double lng = idx.lngs[circuit];
+            boolean inside = minLng <= maxLng ? lng >= minLng && lng <= maxLng : lng >= minLng || lng <= maxLng;
+            if (inside) {
+                results.add(idx.dto(circuit, null));
+            }
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    /**
+     * Sums the per-circuit results of the given circuits, best first. The
+     * circuits may come from an index that has been rebuilt since; ones the
+     * current index no longer has add nothing.
+     */
+    public RegionPerformanceDTO performance(List<NearbyCircuitDTO> circuits, int limit) {
+        Index idx = index.get();
+        Map<Integer, Totals> drivers = new HashMap<>();
+        Map<Integer, Totals> constructors = new HashMap<>();
+        int races = 0;
+        for (NearbyCircuitDTO circuit : circuits) {
+            Integer i = idx.positions.get(circuit.circuitId());
+            if (i == null) {
+                continue;
+            }
+            races += idx.raceCounts[i];
+            idx.drivers[i].addTo(drivers);
+            idx.constructors[i].addTo(constructors);
+        }
+        return new RegionPerformanceDTO(circuits, races, ranked(drivers, referenceNames::driver, limit),
+                ranked(constructors, referenceNames::constructor, limit));
+    }
+
+    /**
+     * Per-country totals for one constructor, from the pre-aggregated
+     * per-circuit results: {points, races, wins} by circuit country.
+     */
+    public Map<String, double[]> constructorByCountry(int constructorId) {
+        Index idx = index.get();
+        Map<String, double[]> byCountry = new HashMap<>();
+        for (int i = 0; i < idx.size; i++) {
+            String country = idx.circuits[i].getCountry();
+            int row = country == null ? -1 : idx.constructors[i].find(constructorId);
+            if (row >= 0) {
+                Stats stats = idx.constructors[i];
+                double[] totals = byCountry.computeIfAbsent(country, k -> new double[3]);
+                totals[0] += stats.points[row];
+                totals[1] += stats.races[row];
+                totals[2] += stats.wins[row];
+            }
+        }
+        return byCountry;
+    }
+
+    // Rebuilds the index on next access
+    public void evict() {
+        index.evict();
+    }
+
+    private static List<RegionPerformanceDTO.Entry> ranked(Map<Integer, Totals> totals, IntFunction<String> names,
+            int limit) {
+        return totals.entrySet().stream()
+                .sorted(Comparator.comparingDouble((Map.Entry<Integer, Totals> e) -> e.getValue().points)
+                        .thenComparingInt(e -> e.getValue().wins).reversed())
+                .limit(limit)
+                .map(e -> new RegionPerformanceDTO.Entry(e.getKey(), names.apply(e.getKey()), e.getValue().races,
+                        e.getValue().wins, e.getValue().podiums, Math.round(e.getValue().points * 10.0) / 10.0))
+                .toList();
+    }
+
+    private Index build() {
+        Index idx = new Index(circuitRepository.findAll());
+        if (idx.tree.length < idx.size) {
+            log.warn("{} circuits have no coordinates and are left out of spatial queries: {}",
+                    idx.size - idx.tree.length, Arrays.stream(idx.circuits)
+                            .filter(c -> c.getLat() == null || c.getLng() == null)
+                            .map(Circuit::getCircuitId).toList());
+        }
+
+        jdbcTemplate.query("SELECT circuit_id, COUNT(*) as races FROM races GROUP BY circuit_id", rs -> {
+            Integer i = idx.positions.get(rs.getInt("circuit_id"));
+            if (i != null) {
+                idx.raceCounts[i] = rs.getInt("races");
+            }
+        });
+        loadStats(idx, idx.drivers, "driver_id");
+        loadStats(idx, idx.constructors, "constructor_id");
+        return idx;
+    }
+
+    // One row per (circuit, driver) or (circuit, constructor)
+    private void loadStats(Index idx, Stats[] target, String entityColumn) {
+        String sql = """
+                SELECT ra.circuit_id,
+                       r.%1$s as entity_id,
+                       COUNT(DISTINCT r.race_id) as races,
+                       SUM(CASE WHEN r.position = 1 THEN 1 ELSE 0 END) as wins,
+                       SUM(CASE WHEN r.position <= 3 THEN 1 ELSE 0 END) as podiums,
+                       SUM(COALESCE(r.points, 0)) as points
+                FROM results r
+                JOIN races ra ON r.race_id = ra.race_id
+                GROUP BY ra.circuit_id, r.%1$s
+                ORDER BY ra.circuit_id, r.%1$s
+                """.formatted(entityColumn);
+        for (int i = 0; i < target.length; i++) {
+            target[i] = new Stats();
+        }
+        jdbcTemplate.query(sql, rs -> {
+            Integer i = idx.positions.get(rs.getInt("circuit_id"));
+            if (i != null) {
+                target[i].add(rs.getInt("entity_id"), rs.getInt("races"), rs.getInt("wins"), rs.getInt("podiums"),
+                        rs.getDouble("points"));
+            }
+        });
+        for (Stats stats : target) {
+            stats.trim();
+        }
+    }
+
+    static double[] unitVector(double lat, double lng) {
+        double phi = Math.toRadians(lat);
+        double lambda = Math.toRadians(lng);
+        return new double[] { Math.cos(phi) * Math.cos(lambda), Math.cos(phi) * Math.sin(lambda), Math.sin(phi) };
+    }
+
+    static double chordToKm(double chord) {
+        return Math.round(2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, chord / 2)) * 10.0) / 10.0;
+    }
+
+    static double kmToChord(double km) {
+        return 2 * Math.sin(Math.min(Math.PI / 2, km / (2 * EARTH_RADIUS_KM)));
+    }
+
+    private static final class Totals {
+        int races;
+        int wins;
+        int podiums;
+        double points;
+    }
+
+    // Per-circuit results, sorted by entity id
+    private static final class Stats {
+        int size;
+        int[] ids = new int[16];
+        int[] races = new int[16];
+        int[] wins = new int[16];
+        int[] podiums = new int[16];
+        double[] points = new double[16];
+
+        void add(int id, int raceCount, int winCount, int podiumCount, double pointTotal) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                races = Arrays.copyOf(races, size * 2);
+                wins = Arrays.copyOf(wins, size * 2);
+                podiums = Arrays.copyOf(podiums, size * 2);
+                points = Arrays.copyOf(points, size * 2);
+            }
+            ids[size] = id;
+            races[size] = raceCount;
+            wins[size] = winCount;
+            podiums[size] = podiumCount;
+            points[size] = pointTotal;
+            size++;
+        }
+
+        void trim() {
+            ids = Arrays.copyOf(ids, size);
+            races = Arrays.copyOf(races, size);
+            wins = Arrays.copyOf(wins, size);
+            podiums = Arrays.copyOf(podiums, size);
+            points = Arrays.copyOf(points, size);
+        }
+
+        int find(int id) {
+            return Arrays.binarySearch(ids, 0, size, id);
+        }
+
+        void addTo(Map<Integer, Totals> totals) {
+            for (int row = 0; row < size; row++) {
+                Totals t = totals.computeIfAbsent(ids[row], k -> new Totals());
+                t.races += races[row];
+                t.wins += wins[row];
+                t.podiums += podiums[row];
+                t.points += points[row];
+            }
+        }
+    }
+
+    private static final class Index {
+        final int size;
+        final Circuit[] circuits;
+        final Map<Integer, Integer> positions = new HashMap<>();
+        final double[] lats;
+        final double[] lngs;
+        final double[][] points;
+        // k-d tree laid out in place: the median of each range is its node
+        final int[] tree;
+        final int[] byLat;
+        final int[] raceCounts;
+        final Stats[] drivers;
+        final Stats[] constructors;
+
+        Index(List<Circuit> list) {
+            size = list.size();
+            circuits = list.toArray(new Circuit[0]);
+            lats = new double[size];
+            lngs = new double[size];
+            points = new double[size][];
+            raceCounts = new int[size];
+            drivers = new Stats[size];
+            constructors = new Stats[size];
+            List<Integer> located = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                positions.put(circuits[i].getCircuitId(), i);
+                if (circuits[i].getLat() != null && circuits[i].getLng() != null) {
+                    lats[i] = circuits[i].getLat();
+                    lngs[i] = circuits[i].getLng();
+                    points[i] = unitVector(lats[i], lngs[i]);
+                    located.add(i);
+                }
+            }
+            // The tree and the latitude order only hold circuits with coordinates
+            Integer[] order = located.toArray(new Integer[0]);
+            build(order, 0, order.length, 0);
+            tree = Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+
+            Integer[] sorted = order.clone();
+            Arrays.sort(sorted, Comparator.comparingDouble(i -> lats[i]));
+            byLat = Arrays.stream(sorted).mapToInt(Integer::intValue).toArray();
+        }
+
+        private void build(Integer[] order, int lo, int hi, int axis) {
+            if (lo >= hi) {
+                return;
+            }
+            Arrays.sort(order, lo, hi, Comparator.comparingDouble(i -> points[i][axis]));
+            int mid = (lo + hi) >>> 1;
+            build(order, lo, mid, (axis + 1) % 3);
+            build(order, mid + 1, hi, (axis + 1) % 3);
+        }
+
+        void nearest(int lo, int hi, int axis, double[] query, int limit, PriorityQueue<double[]> best) {
+            if (lo >= hi || limit <= 0) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            int circuit = tree[mid];
+            double distance = squaredDistance(points[circuit], query);
+            if (best.size() < limit) {
+                best.add(new double[] { circuit, distance });
+            } else if (distance < best.peek()[1]) {
+                best.poll();
+                best.add(new double[] { circuit, distance });
+            }
+            double diff = query[axis] - points[circuit][axis];
+            int next = (axis + 1) % 3;
+            if (diff < 0) {
+                nearest(lo, mid, next, query, limit, best);
+                if (best.size() < limit || diff * diff < best.peek()[1]) {
+                    nearest(mid + 1, hi, next, query, limit, best);
+                }
+            } else {
+                nearest(mid + 1, hi, next, query, limit, best);
+                if (best.size() < limit || diff * diff < best.peek()[1]) {
+                    nearest(lo, mid, next, query, limit, best);
+                }
+            }
+        }
+
+        void within(int lo, int hi, int axis, double[] query, double maxSquared, List<double[]> hits) {
+            if (lo >= hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            int circuit = tree[mid];
+            double distance = squaredDistance(points[circuit], query);
+            if (distance <= maxSquared) {
+                hits.add(new double[] { circuit, distance });
+            }
+            double diff = query[axis] - points[circuit][axis];
+            int next = (axis + 1) % 3;
+            if (diff <= 0 || diff * diff <= maxSquared) {
+                within(lo, mid, next, query, maxSquared, hits);
+            }
+            if (diff >= 0 || diff * diff <= maxSquared) {
+                within(mid + 1, hi, next, query, maxSquared, hits);
+            }
+        }
+
+        int firstAtOrAboveLat(double lat) {
+            int lo = 0;
+            int hi = byLat.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (lats[byLat[mid]] < lat) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        NearbyCircuitDTO dto(int i, Double distanceKm) {
+            Circuit c = circuits[i];
+            return new NearbyCircuitDTO(c.getCircuitId(), c.getName(), c.getLocation(), c.getCountry(), lats[i],
+                    lngs[i], distanceKm);
+        }
+
+        private static double squaredDistance(double[] a, double[] b) {
+            double dx = a[0] - b[0];
+            double dy = a[1] - b[1];
+            double dz = a[2] - b[2];
+            return dx * dx + dy * dy + dz * dz;
+        }
+    }
+}
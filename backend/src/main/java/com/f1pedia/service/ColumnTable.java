@@ -0,0 +1,222 @@
+package com.f1pedia.service;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only columnar table over primitive buffers, as mapped from a
+ * {@link DatasetSnapshot}. Integers and doubles are stored unboxed (null is
+ * {@link #NULL_INT} / NaN); strings are dictionary encoded, so repeated values
+ * such as nationalities or status texts are stored once.
+ * <p>
+ * Column names are the CSV headers, e.g. {@code results.raceId}.
+ */
+public final class ColumnTable {
+
+    public static final int NULL_INT = Integer.MIN_VALUE;
+
+    public enum Type {
+        INT, DOUBLE, STRING
+    }
+
+    private final String name;
+    private final int rows;
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+
+    ColumnTable(String name, int rows, List<Column> columns) {
+        this.name = name;
+        this.rows = rows;
+        for (Column column : columns) {
+            this.columns.put(column.name, column);
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public Iterable<Column> columns() {
+        return columns.values();
+    }
+
+    public Column column(String column) {
+        Column c = columns.get(column);
+        if (c == null) {
+            throw new IllegalArgumentException("No column " + name + "." + column);
+        }
+        return c;
+    }
+
+    public IntColumn ints(String column) {
+        return (IntColumn) column(column);
+    }
+
+    // Numeric columns whose values happen to be whole numbers are stored as
+    // INT, so double reads accept either
+    public Column doubles(String column) {
+        Column c = column(column);
+        if (c.type() == Type.STRING) {
+            throw new IllegalArgumentException(name + "." + column + " is not numeric");
+        }
+        return c;
+    }
+
+    public StringColumn strings(String column) {
+        return (StringColumn) column(column);
+    }
+
+    public abstract static sealed class Column permits IntColumn, DoubleColumn, StringColumn {
+        final String name;
+
+        Column(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public abstract Type type();
+
+        public abstract boolean isNull(int row);
+
+        public double getDouble(int row) {
+            throw new UnsupportedOperationException(name + " is not numeric");
+        }
+
+        /** Boxed value for generic consumers; null for SQL NULL. */
+        public abstract Object value(int row);
+    }
+
+    public static final class IntColumn extends Column {
+        private final IntBuffer values;
+
+        IntColumn(String name, IntBuffer values) {
+            super(name);
+            this.values = values;
+        }
+
+        @Override
+        public Type type() {
+            return Type.INT;
+        }
+
+        public int get(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        public boolean isNull(int row) {
+            return values.get(row) == NULL_INT;
+        }
+
+        @Override
+        public double getDouble(int row) {
+            int value = values.get(row);
+            return value == NULL_INT ? Double.NaN : value;
+        }
+
+        @Override
+        public Object value(int row) {
+            int value = values.get(row);
+            return value == NULL_INT ? null : value;
+        }
+    }
+
+    public static final class DoubleColumn extends Column {
+        private final DoubleBuffer values;
+
+        DoubleColumn(String name, DoubleBuffer values) {
+            super(name);
+            this.values = values;
+        }
+
+        @Override
+        public Type type() {
+            return Type.DOUBLE;
+        }
+
+        @Override
+        public boolean isNull(int row) {
+            return Double.isNaN(values.get(row));
+        }
+
+        @Override
+        public double getDouble(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        public Object value(int row) {
+            double value = values.get(row);
+            return Double.isNaN(value) ? null : value;
+        }
+    }
+
+    /**
+     * Dictionary-encoded strings: one code per row (-1 for null) into a UTF-8
+     * dictionary. Entries are decoded on first access and cached.
+     */
+    public static final class StringColumn extends Column {
+        private final IntBuffer codes;
+        private final IntBuffer offsets;
+        private final ByteBuffer utf8;
+        private final String[] decoded;
+
+        StringColumn(String name, IntBuffer codes, IntBuffer offsets, ByteBuffer utf8) {
+            super(name);
+            this.codes = codes;
+            this.offsets = offsets;
+            this.utf8 = utf8;
+            this.decoded = new String[offsets.limit() - 1];
+        }
+
+        @Override
+        public Type type() {
+            return Type.STRING;
+        }
+
+        public int code(int row) {
+            return codes.get(row);
+        }
+
+        public int dictionarySize() {
+            return decoded.length;
+        }
+
+        public String get(int row) {
+            int code = codes.get(row);
+            return code < 0 ? null : entry(code);
+        }
+
+        public String entry(int code) {
+            String value = decoded[code];
+            if (value == null) {
+                int start = offsets.get(code);
+                byte[] bytes = new byte[offsets.get(code + 1) - start];
+                utf8.get(start, bytes);
+                decoded[code] = value = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return value;
+        }
+
+        @Override
+        public boolean isNull(int row) {
+            return codes.get(row) < 0;
+        }
+
+        @Override
+        public Object value(int row) {
+            return get(row);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.f1pedia.service;
+
+import com.f1pedia.service.ColumnTable.Type;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses the Ergast CSVs in {@code F1/} into typed columns.
+ * <p>
+ * The file is memory mapped and scanned once, recording each field as a byte
+ * span; numbers are then parsed straight from those bytes, and only string
+ * values that are new to a column's dictionary are materialised. Column types
+ * follow the export's conventions: quoted values are strings, unquoted
+ * {@code \N} (or an empty field) is null, and unquoted columns are INT when
+ * every value fits an int, otherwise DOUBLE.
+ */
+public final class CsvTableReader {
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L,
+            100_000_000_000_000L, 1_000_000_000_000_000L };
+
+    private CsvTableReader() {
+    }
+
+    /** Parsed table, before it is written to a snapshot. */
+    public record Table(String name, int rows, List<Column> columns) {
+    }
+
+    /**
+     * One parsed column: {@code ints} for INT, {@code doubles} for DOUBLE,
+     * {@code codes} into {@code dictionary} (-1 for null) for STRING.
+     */
+    public record Column(String name, Type type, int[] ints, double[] doubles, List<String> dictionary, int[] codes) {
+    }
+
+    public static Table read(Path file) throws IOException {
+        String fileName = file.getFileName().toString();
+        String name = fileName.endsWith(".csv") ? fileName.substring(0, fileName.length() - 4) : fileName;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return parse(name, bytes);
+        }
+    }
+
+    static Table parse(String name, ByteBuffer bytes) {
+        Spans spans = new Spans();
+        int limit = bytes.limit();
+        int pos = 0;
+        int field = 0;
+        int columnCount = -1;
+        while (pos < limit) {
+            int start = pos;
+            boolean quoted = bytes.get(pos) == '"';
+            boolean escaped = false;
+            int end;
+            if (quoted) {
+                pos++;
+                while (true) {
+                    if (pos >= limit) {
+                        throw new IllegalArgumentException("Unterminated quote in " + name + ".csv");
+                    }
+                    if (bytes.get(pos) == '"') {
+                        if (pos + 1 < limit && bytes.get(pos + 1) == '"') {
+                            escaped = true;
+                            pos += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    pos++;
+                }
+                start++;
+                end = pos++;
+            } else {
+                while (pos < limit && bytes.get(pos) != ',' && bytes.get(pos) != '\n' && bytes.get(pos) != '\r') {
+                    pos++;
+                }
+                end = pos;
+            }
+            spans.add(start, end, quoted, escaped);
+            field++;
+
+            byte delimiter = pos < limit ? bytes.get(pos) : (byte) '\n';
+            pos++;
+            if (delimiter == '\r' && pos < limit && bytes.get(pos) == '\n') {
+                pos++;
+            }
+            if (delimiter != ',') {
+                if (columnCount < 0) {
+                    columnCount = field;
+                } else if (field != columnCount) {
+                    throw new IllegalArgumentException(
+                            name + ".csv row " + (spans.size / columnCount) + " has " + field + " fields, expected "
+                                    + columnCount);
+                }
+                field = 0;
+                // Skip blank lines (e.g. a trailing newline)
+                while (pos < limit && (bytes.get(pos) == '\n' || bytes.get(pos) == '\r')) {
+                    pos++;
+                }
+            }
+        }
+        if (columnCount <= 0) {
+            throw new IllegalArgumentException(name + ".csv is empty");
+        }
+
+        int rows = spans.size / columnCount - 1;
+        List<Column> columns = new ArrayList<>(columnCount);
+        for (int c = 0; c < columnCount; c++) {
+            columns.add(column(bytes, spans, c, columnCount, rows));
+        }
+        return new Table(name, rows, columns);
+    }
+
+    private static Column column(ByteBuffer bytes, Spans spans, int c, int columnCount, int rows) {
+        String header = text(bytes, spans, c);
+        Type type = Type.INT;
+        for (int row = 0; row < rows && type != Type.STRING; row++) {
+            int span = (row + 1) * columnCount + c;
+            if (spans.quoted[span]) {
+                type = Type.STRING;
+            } else if (!isNull(bytes, spans, span) && type == Type.INT && parseInt(bytes, spans, span) == null) {
+                type = parseDouble(bytes, spans, span) != null ? Type.DOUBLE : Type.STRING;
+            } else if (type == Type.DOUBLE && !isNull(bytes, spans, span) && parseDouble(bytes, spans, span) == null) {
+                type = Type.STRING;
+            }
+        }
+
+        switch (type) {
+            case INT -> {
+                int[] ints = new int[rows];
+                for (int row = 0; row < rows; row++) {
+                    int span = (row + 1) * columnCount + c;
+                    ints[row] = isNull(bytes, spans, span) ? ColumnTable.NULL_INT : parseInt(bytes, spans, span);
+                }
+                return new Column(header, type, ints, null, null, null);
+            }
+            case DOUBLE -> {
+                double[] doubles = new double[rows];
+                for (int row = 0; row < rows; row++) {
+                    int span = (row + 1) * columnCount + c;
+                    doubles[row] = isNull(bytes, spans, span) ? Double.NaN : parseDouble(bytes, spans, span);
+                }
+                return new Column(header, type, null, doubles, null, null);
+            }
+            default -> {
+                Map<String, Integer> codesByValue = new HashMap<>();
+                List<String> dictionary = new ArrayList<>();
+                int[] codes = new int[rows];
+                for (int row = 0; row < rows; row++) {
+                    int span = (row + 1) * columnCount + c;
+                    if (!spans.quoted[span] && isNull(bytes, spans, span)) {
+                        codes[row] = -1;
+                        continue;
+                    }
+                    String value = text(bytes, spans, span);
+                    Integer code = codesByValue.get(value);
+                    if (code == null) {
+                        code = dictionary.size();
+                        codesByValue.put(value, code);
+                        dictionary.add(value);
+                    }
+                    codes[row] = code;
+                }
+                return new Column(header, type, null, null, dictionary, codes);
+            }
+        }
+    }
+
+    private static boolean isNull(ByteBuffer bytes, Spans spans, int span) {
+        int start = spans.starts[span];
+        int length = spans.ends[span] - start;
+        return length == 0 || (length == 2 && bytes.get(start) == '\\' && bytes.get(start + 1) == 'N');
+    }
+
+    private static String text(ByteBuffer bytes, Spans spans, int span) {
+        int start = spans.starts[span];
+        byte[] raw = new byte[spans.ends[span] - start];
+        bytes.get(start, raw);
+        String value = new String(raw, StandardCharsets.UTF_8);
+        return spans.escaped[span] ? value.replace("\"\"", "\"") : value;
+    }
+
+    private static Integer parseInt(ByteBuffer bytes, Spans spans, int span) {
+        int pos = spans.starts[span];
+        int end = spans.ends[span];
+        boolean negative = bytes.get(pos) == '-';
+        if (negative) {
+            pos++;
+        }
+        if (pos == end || end - pos > 10) {
+            return null;
+        }
+        long value = 0;
+        for (; pos < end; pos++) {
+            int digit = bytes.get(pos) - '0';
+            if (digit < 0 || digit > 9) {
+                return null;
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        return value > Integer.MAX_VALUE || value <= ColumnTable.NULL_INT ? null : (int) value;
+    }
+
+    // Plain decimals ("144.968", "-37.8497") are parsed from the bytes; an
+    // integer mantissa divided by an exact power of ten rounds the same way
+    // as Double.parseDouble. Anything else falls back to it.
+    private static Double parseDouble(ByteBuffer bytes, Spans spans, int span) {
+        int start = spans.starts[span];
+        int end = spans.ends[span];
+        int pos = start;
+        boolean negative = bytes.get(pos) == '-';
+        if (negative) {
+            pos++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; pos < end; pos++) {
+            byte b = bytes.get(pos);
+            if (b == '.' && scale < 0) {
+                scale = 0;
+            } else if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else {
+                return slowParseDouble(bytes, start, end);
+            }
+        }
+        if (digits == 0 || digits > 15) {
+            return digits == 0 ? null : slowParseDouble(bytes, start, end);
+        }
+        double value = scale > 0 ? mantissa / (double) POWERS_OF_TEN[scale] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private static Double slowParseDouble(ByteBuffer bytes, int start, int end) {
+        byte[] raw = new byte[end - start];
+        bytes.get(start, raw);
+        try {
+            double value = Double.parseDouble(new String(raw, StandardCharsets.US_ASCII));
+            return Double.isFinite(value) ? value : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Growable parallel arrays of field spans, row-major
+    private static final class Spans {
+        int size;
+        int[] starts = new int[1024];
+        int[] ends = new int[1024];
+        boolean[] quoted = new boolean[1024];
+        boolean[] escaped = new boolean[1024];
+
+        void add(int start, int end, boolean isQuoted, boolean isEscaped) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                quoted = Arrays.copyOf(quoted, size * 2);
+                escaped = Arrays.copyOf(escaped, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            quoted[size] = isQuoted;
+            escaped[size] = isEscaped;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.f1pedia.service;
+
+import com.f1pedia.service.ColumnTable.Type;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary columnar snapshot of the {@code F1/} tables.
+ * <p>
+ * Layout (little endian, every section 8-byte aligned):
+ * <pre>
+ * header   int magic "F1SN", int version, int tableCount
+ * table    string name, int rows, int columnCount, columns...
+ * column   string name, int type, then by type:
+ *            INT     int[rows]               (NULL_INT for null)
+ *            DOUBLE  double[rows]            (NaN for null)
+ *            STRING  int dictionarySize, int[dictionarySize + 1] offsets,
+ *                    byte[] utf8, int[rows] codes (-1 for null)
+ * string   int length, byte[length] utf8
+ * </pre>
+ * Reading maps the file and wraps each section as a typed buffer view, so a
+ * snapshot is usable as soon as the header has been walked; nothing is
+ * parsed or copied onto the heap. A snapshot with another version is
+ * rejected and rebuilt from the CSVs by {@link F1Dataset}.
+ */
+public final class DatasetSnapshot {
+
+    public static final int MAGIC = 0x4E533146; // "F1SN" read as little endian
+    public static final int VERSION = 1;
+
+    private DatasetSnapshot() {
+    }
+
+    /** Writes the tables to {@code target}, replacing it atomically. */
+    public static void write(List<CsvTableReader.Table> tables, Path target) throws IOException {
+        ByteBuffer buffer = encode(tables);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Maps a snapshot file read-only; the mapping outlives the channel. */
+    public static Map<String, ColumnTable> map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(mapped);
+        }
+    }
+
+    public static ByteBuffer encode(List<CsvTableReader.Table> tables) {
+        int size = 12;
+        for (CsvTableReader.Table table : tables) {
+            size = align(size + stringSize(table.name()) + 8);
+            for (CsvTableReader.Column column : table.columns()) {
+                size = align(size + stringSize(column.name()) + 4);
+                size += switch (column.type()) {
+                    case INT -> align(4 * table.rows());
+                    case DOUBLE -> 8 * table.rows();
+                    case STRING -> align(4 + 4 * (column.dictionary().size() + 1))
+                            + align(utf8Size(column.dictionary())) + align(4 * table.rows());
+                };
+            }
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(VERSION).putInt(tables.size());
+        for (CsvTableReader.Table table : tables) {
+            putString(out, table.name());
+            out.putInt(table.rows()).putInt(table.columns().size());
+            pad(out);
+            for (CsvTableReader.Column column : table.columns()) {
+                putString(out, column.name());
+                out.putInt(column.type().ordinal());
+                pad(out);
+                switch (column.type()) {
+                    case INT -> putInts(out, column.ints());
+                    case DOUBLE -> {
+                        out.asDoubleBuffer().put(column.doubles());
+                        out.position(out.position() + 8 * column.doubles().length);
+                    }
+                    case STRING -> {
+                        List<byte[]> entries = new ArrayList<>(column.dictionary().size());
+                        for (String entry : column.dictionary()) {
+                            entries.add(entry.getBytes(StandardCharsets.UTF_8));
+                        }
+                        out.putInt(entries.size());
+                        int offset = 0;
+                        out.putInt(offset);
+                        for (byte[] entry : entries) {
+                            offset += entry.length;
+                            out.putInt(offset);
+                        }
+                        pad(out);
+                        for (byte[] entry : entries) {
+                            out.put(entry);
+                        }
+                        pad(out);
+                        putInts(out, column.codes());
+                    }
+                }
+                pad(out);
+            }
+        }
+        return out.flip();
+    }
+
+    public static Map<String, ColumnTable> read(ByteBuffer buffer) {
+        ByteBuffer in = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (in.remaining() < 12 || in.getInt() != MAGIC) {
+            throw new IllegalStateException("Not a dataset snapshot");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IllegalStateException("Snapshot version " + version + ", expected " + VERSION);
+        }
+        int tableCount = in.getInt();
+        Map<String, ColumnTable> tables = new LinkedHashMap<>();
+        for (int t = 0; t < tableCount; t++) {
+            String name = getString(in);
+            int rows = in.getInt();
+            int columnCount = in.getInt();
+            skipPad(in);
+            List<ColumnTable.Column> columns = new ArrayList<>(columnCount);
+            for (int c = 0; c < columnCount; c++) {
+                String columnName = getString(in);
+                Type type = Type.values()[in.getInt()];
+                skipPad(in);
+                switch (type) {
+                    case INT -> columns.add(new ColumnTable.IntColumn(columnName, slice(in, 4 * rows).asIntBuffer()));
+                    case DOUBLE -> columns.add(
+                            new ColumnTable.DoubleColumn(columnName, slice(in, 8 * rows).asDoubleBuffer()));
+                    case STRING -> {
+                        int dictionarySize = in.getInt();
+                        var offsets = slice(in, 4 * (dictionarySize + 1)).asIntBuffer();
+                        skipPad(in);
+                        ByteBuffer utf8 = slice(in, offsets.get(dictionarySize));
+                        skipPad(in);
+                        var codes = slice(in, 4 * rows).asIntBuffer();
+                        columns.add(new ColumnTable.StringColumn(columnName, codes, offsets, utf8));
+                    }
+                }
+                skipPad(in);
+            }
+            tables.put(name, new ColumnTable(name, rows, columns));
+        }
+        return tables;
+    }
+
+    // Read-only view of the next length bytes, advancing the position
+    private static ByteBuffer slice(ByteBuffer in, int length) {
+        ByteBuffer view = in.slice(in.position(), length).asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        in.position(in.position() + length);
+        return view;
+    }
+
+    private static void putInts(ByteBuffer out, int[] values) {
+        out.asIntBuffer().put(values);
+        out.position(out.position() + 4 * values.length);
+    }
+
+    private static int stringSize(String value) {
+        return 4 + value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static int utf8Size(List<String> values) {
+        int size = 0;
+        for (String value : values) {
+            size += value.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return size;
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putInt(bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int align(int position) {
+        return (position + 7) & ~7;
+    }
+
+    private static void pad(ByteBuffer out) {
+        out.position(align(out.position()));
+    }
+
+    private static void skipPad(ByteBuffer in) {
+        in.position(align(in.position()));
+    }
+}
@@ -0,0 +1,367 @@
+package com.f1pedia.service;
+
+import com.f1pedia.domain.Driver;
+import com.f1pedia.dto.*;
+import com.f1pedia.repository.DriverRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * The driver page in one go: reads the driver's results once, with race,
+ * circuit, constructor, status, final championship standing and teammate
+ * results alongside, and derives the career, championships, circuits,
+ * evolution, status, teammates, trajectory and positions views in a single
+ * pass over the rows. The {@code /api/drivers/{id}/*} sub-endpoints serve
+ * the same views from here. Rows tied on a view's sort order keep race order.
+ */
+@Service
+public class DriverProfileService {
+
+    // One row per result and teammate in that car's team; results without a
+    // teammate appear once with null teammate columns
+    private static final String PROFILE_SQL = """
+            SELECT r.result_id, r.race_id, ra.year, ra.round, ra.name as race,
+                   ra.circuit_id, ci.name as circuit, ci.country,
+                   r.constructor_id, c.name as team, c.nationality as team_nationality,
+                   r.grid, r.position, r.points, r.rank, s.status,
+                   ds.points as final_points, ds.position as final_position, ds.wins as final_wins,
+                   tm.grid as teammate_grid, tm.position as teammate_position
+            FROM results r
+            JOIN races ra ON r.race_id = ra.race_id
+            JOIN circuits ci ON ra.circuit_id = ci.circuit_id
+            JOIN constructors c ON r.constructor_id = c.constructor_id
+            LEFT JOIN status s ON r.status_id = s.status_id
+            LEFT JOIN driver_standings ds ON ds.driver_id = r.driver_id
+                AND ds.race_id = (SELECT MAX(race_id) FROM races WHERE year = ra.year)
+            LEFT JOIN results tm ON tm.race_id = r.race_id AND tm.constructor_id = r.constructor_id
+                AND tm.driver_id != r.driver_id
+            WHERE r.driver_id = ?
+            ORDER BY ra.year, ra.round, r.result_id
+            """;
+
+    private static final Set<String> FINISHED = Set.of("Finished", "+1 Lap", "+2 Laps", "+3 Laps", "+4 Laps",
+            "+5 Laps", "+6 Laps", "+7 Laps", "+8 Laps", "+9 Laps");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private MetricRankIndex metricRankIndex;
+
+    /** Null if there is no such driver. */
+    public DriverProfileDTO profile(int driverId) {
+        Optional<Driver> driver = driverRepository.findById(driverId);
+        if (driver.isEmpty()) {
+            return null;
+        }
+        Profile profile = new Profile();
+        jdbcTemplate.query(PROFILE_SQL, profile::row, driverId);
+        return profile.build(driver.get(), metricRankIndex.ranks(RatingService.Subject.DRIVER, driverId, null));
+    }
+
+    /** Running totals of every view; fed row by row, then built once. */
+    private static final class Profile {
+
+        private long lastResultId = -1;
+        private long races, wins, podiums, poles, fastestLaps;
+        private Double totalPoints;
+        private final SortedMap<Integer, Season> seasons = new TreeMap<>();
+        private final Map<Integer, Team> teams = new LinkedHashMap<>();
+        private final Map<Integer, CircuitTotals> circuits = new LinkedHashMap<>();
+        private final Map<String, Integer> statusGroups = new LinkedHashMap<>();
+        private final SortedMap<Integer, Integer> positions = new TreeMap<>();
+        private final List<DriverBestResultDTO> classified = new ArrayList<>();
+
+        void row(ResultSet rs) throws SQLException {
+            int year = rs.getInt("year");
+            Season season = seasons.computeIfAbsent(year, Season::new);
+            Integer grid = integer(rs, "grid");
+            Integer position = integer(rs, "position");
+
+            // Teammate pairs come one per row
+            Integer teammateGrid = integer(rs, "teammate_grid");
+            Integer teammatePosition = integer(rs, "teammate_position");
+            if (grid != null && position != null && teammateGrid != null && teammatePosition != null) {
+                season.racesWithTeammate.add(rs.getInt("race_id"));
+                season.raceAhead += position < teammatePosition ? 1 : 0;
+                season.raceBehind += position > teammatePosition ? 1 : 0;
+                season.qualiAhead += grid < teammateGrid ? 1 : 0;
+                season.qualiBehind += grid > teammateGrid ? 1 : 0;
+            }
+
+            // Everything else once per result
+            long resultId = rs.getLong("result_id");
+            if (resultId == lastResultId) {
+                return;
+            }
+            lastResultId = resultId;
+            Double points = number(rs, "points");
+            double pointsOrZero = points != null ? points : 0;
+            boolean win = position != null && position == 1;
+            boolean podium = position != null && position <= 3;
+            boolean pole = grid != null && grid == 1;
+            String team = rs.getString("team");
+
+            races++;
+            wins += win ? 1 : 0;
+            podiums += podium ? 1 : 0;
+            poles += pole ? 1 : 0;
+            Integer rank = integer(rs, "rank");
+            fastestLaps += rank != null && rank == 1 ? 1 : 0;
+            if (points != null) {
+                totalPoints = (totalPoints != null ? totalPoints : 0) + points;
+            }
+
+            season.add(rs.getInt("round"), grid, position, points);
+            season.finalStanding(rs);
+            SeasonTeam seasonTeam = season.teams.computeIfAbsent(team, name -> new SeasonTeam());
+            seasonTeam.races++;
+            seasonTeam.points += pointsOrZero;
+            seasonTeam.wins += win ? 1 : 0;
+            seasonTeam.podiums += podium ? 1 : 0;
+            seasonTeam.poles += pole ? 1 : 0;
+
+            String teamNationality = rs.getString("team_nationality");
+            Team constructor = teams.computeIfAbsent(rs.getInt("constructor_id"),
+                    id -> new Team(id, team, teamNationality, year));
+            constructor.toYear = year;
+            constructor.races++;
+            constructor.points += pointsOrZero;
+            constructor.wins += win ? 1 : 0;
+
+            if (position != null) {
+                String circuitName = rs.getString("circuit");
+                String country = rs.getString("country");
+                CircuitTotals circuit = circuits.computeIfAbsent(rs.getInt("circuit_id"),
+                        id -> new CircuitTotals(circuitName, country));
+                circuit.classified++;
+                circuit.positionSum += position;
+                circuit.wins += win ? 1 : 0;
+                circuit.podiums += podium ? 1 : 0;
+                circuit.points += pointsOrZero;
+
+                positions.merge(position, 1, Integer::sum);
+                classified.add(new DriverBestResultDTO(rs.getString("race"), year, team, position, pointsOrZero));
+            }
+
+            String status = rs.getString("status");
+            if (status != null) {
+                statusGroups.merge(statusGroup(status), 1, Integer::sum);
+            }
+        }
+
+        DriverProfileDTO build(Driver driver, Map<String, MetricRankDTO> ranks) {
+            Map<String, Object> career = new HashMap<>();
+            career.put("driverId", driver.getDriverId());
+            career.put("forename", driver.getForename());
+            career.put("surname", driver.getSurname());
+            career.put("code", driver.getCode());
+            career.put("nationality", driver.getNationality());
+            career.put("dob", driver.getDob());
+            career.put("url", driver.getUrl());
+            career.put("races", races);
+            career.put("total_points", totalPoints);
+            career.put("wins", wins);
+            career.put("podiums", podiums);
+            career.put("poles", poles);
+            career.put("fastest_laps", fastestLaps);
+            career.put("first_year", seasons.isEmpty() ? null : seasons.firstKey());
+            career.put("last_year", seasons.isEmpty() ? null : seasons.lastKey());
+
+            List<DriverTeamDTO> teamList = teams.values().stream()
+                    .sorted(Comparator.comparingInt((Team team) -> team.fromYear).reversed())
+                    .map(team -> new DriverTeamDTO(team.constructorId, team.name, team.nationality, team.fromYear,
+                            team.toYear, team.races, team.points, team.wins))
+                    .toList();
+            career.put("teams", teamList);
+
+            List<DriverSeasonDTO> seasonList = new ArrayList<>();
+            for (Season season : seasons.values()) {
+                season.teams.forEach((name, team) -> seasonList.add(new DriverSeasonDTO(season.year, name,
+                        team.races, team.points, team.wins, team.podiums, team.poles, season.finalPosition)));
+            }
+            seasonList.sort(Comparator.comparingInt(DriverSeasonDTO::year).reversed());
+            career.put("seasons", seasonList);
+
+            career.put("bestResults", classified.stream()
+                    .sorted(Comparator.comparingDouble(DriverBestResultDTO::points).reversed()
+                            .thenComparingInt(DriverBestResultDTO::position))
+                    .limit(10)
+                    .toList());
+            career.put("ranks", ranks);
+
+            List<DriverChampionshipDTO> championships = new ArrayList<>();
+            List<DriverEvolutionDTO> evolution = new ArrayList<>();
+            List<TeammateSeasonDTO> teammates = new ArrayList<>();
+            List<CareerTrajectoryDTO> trajectory = new ArrayList<>();
+            double cumulativePoints = 0;
+            int cumulativeRaces = 0;
+            for (Season season : seasons.values()) {
+                if (season.finalPosition != null) {
+                    championships.add(new DriverChampionshipDTO(season.year, season.finalPoints,
+                            season.finalPosition, season.finalWins));
+                }
+                evolution.add(new DriverEvolutionDTO(season.year, round(season.gridSum, season.gridCount),
+                        round(season.positionSum, season.positionCount), season.points,
+                        BigDecimal.valueOf(season.points / season.races).setScale(2, RoundingMode.HALF_UP)
+                                .doubleValue(),
+                        season.positionsGained));
+                if (!season.racesWithTeammate.isEmpty()) {
+                    teammates.add(new TeammateSeasonDTO(season.year, season.racesWithTeammate.size(),
+                            season.raceAhead, season.raceBehind, season.qualiAhead, season.qualiBehind));
+                }
+                cumulativePoints += season.points;
+                cumulativeRaces += season.races;
+                trajectory.add(new CareerTrajectoryDTO(season.year, season.maxRound, season.points,
+                        cumulativePoints, season.races, cumulativeRaces));
+            }
+            Collections.reverse(championships);
+
+            List<DriverCircuitPerformanceDTO> circuitList = circuits.values().stream()
+                    .filter(circuit -> circuit.classified >= 2)
+                    .map(circuit -> new DriverCircuitPerformanceDTO(circuit.name, circuit.country,
+                            circuit.classified,
+                            Math.round((double) circuit.positionSum / circuit.classified * 100.0) / 100.0,
+                            circuit.wins, circuit.podiums, circuit.points))
+                    .sorted(Comparator.comparingDouble(DriverCircuitPerformanceDTO::avgFinish))
+                    .toList();
+
+            List<FinishingStatusDTO> status = statusGroups.entrySet().stream()
+                    .map(group -> new FinishingStatusDTO(group.getKey(), group.getValue()))
+                    .sorted(Comparator.comparingInt(FinishingStatusDTO::count).reversed())
+                    .toList();
+
+            List<PositionCountDTO> positionCounts = positions.entrySet().stream()
+                    .map(count -> new PositionCountDTO(count.getKey(), count.getValue()))
+                    .toList();
+
+            return new DriverProfileDTO(driver, career, championships, circuitList, evolution, status, teammates,
+                    trajectory, positionCounts);
+        }
+
+        // Lapped finishers count as finished; retirements grouped by cause
+        private static String statusGroup(String status) {
+            if (FINISHED.contains(status)) {
+                return "Finished";
+            }
+            if (status.startsWith("Collision") || status.equals("Accident") || status.equals("Spun off")) {
+                return "Accident";
+            }
+            if (status.startsWith("Engine") || status.startsWith("Gearbox") || status.startsWith("Transmission")
+                    || status.startsWith("Hydraulics") || status.startsWith("Electrical")) {
+                return "Mechanical";
+            }
+            return "Other";
+        }
+
+        // ROUND(AVG(x), 0) as Postgres computes it: exact mean, half away from zero
+        private static Double round(long sum, int count) {
+            return count == 0 ? null : BigDecimal.valueOf(sum)
+                    .divide(BigDecimal.valueOf(count), 0, RoundingMode.HALF_UP).doubleValue();
+        }
+    }
+
+    private static final class Season {
+
+        final int year;
+        int races, maxRound, positionsGained;
+        double points;
+        long gridSum, positionSum;
+        int gridCount, positionCount;
+        Integer finalPosition;
+        double finalPoints;
+        int finalWins;
+        int raceAhead, raceBehind, qualiAhead, qualiBehind;
+        final Set<Integer> racesWithTeammate = new HashSet<>();
+        // By team name, as the career endpoint groups them
+        final Map<String, SeasonTeam> teams = new LinkedHashMap<>();
+
+        Season(int year) {
+            this.year = year;
+        }
+
+        void add(int round, Integer grid, Integer position, Double points) {
+            races++;
+            maxRound = Math.max(maxRound, round);
+            this.points += points != null ? points : 0;
+            // NULLIF(x, 0): pit lane starts and unclassified rows are not averaged
+            if (grid != null && grid != 0) {
+                gridSum += grid;
+                gridCount++;
+            }
+            if (position != null && position != 0) {
+                positionSum += position;
+                positionCount++;
+            }
+            if (grid != null && position != null && position < grid) {
+                positionsGained++;
+            }
+        }
+
+        void finalStanding(ResultSet rs) throws SQLException {
+            Integer position = integer(rs, "final_position");
+            if (position != null) {
+                finalPosition = position;
+                finalPoints = rs.getDouble("final_points");
+                finalWins = rs.getInt("final_wins");
+            }
+        }
+    }
+
+    private static final class Team {
+
+        final int constructorId;
+        final String name;
+        final String nationality;
+        final int fromYear;
+        int toYear, races, wins;
+        double points;
+
+        Team(int constructorId, String name, String nationality, int year) {
+            this.constructorId = constructorId;
+            this.name = name;
+            this.nationality = nationality;
+            this.fromYear = year;
+        }
+    }
+
+    private static final class SeasonTeam {
+
+        int races, wins, podiums, poles;
+        double points;
+    }
+
+    private static final class CircuitTotals {
+
+        final String name;
+        final String country;
+        int classified, wins, podiums;
+        long positionSum;
+        double points;
+
+        CircuitTotals(String name, String country) {
+            this.name = name;
+            this.country = country;
+        }
+    }
+
+    private static Integer integer(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Double number(ResultSet rs, String column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? null : value;
+    }
+}
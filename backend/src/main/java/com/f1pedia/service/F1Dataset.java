@@ -0,0 +1,145 @@
+package com.f1pedia.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * The {@code F1/} CSV tables as {@link ColumnTable}s, read by the
+ * {@code embedded} profile's {@link com.f1pedia.config.EmbeddedDatabaseLoader
+ * EmbeddedDatabaseLoader} to fill its database; other profiles serve from
+ * Postgres and do not load the dataset at all.
+ * <p>
+ * The snapshot file is memory mapped if it is at least as new
+ * as every CSV (or the CSVs are not shipped at all). Otherwise the CSVs are
+ * parsed once, written to a fresh snapshot and that is mapped, so only the
+ * first boot after the data changes pays for parsing. If the snapshot cannot
+ * be written the encoded tables are kept on the heap instead.
+ */
+@Service
+@Profile("embedded")
+public class F1Dataset {
+
+    private static final Logger log = LoggerFactory.getLogger(F1Dataset.class);
+
+    @Value("${f1pedia.dataset.csv-dir:../F1}")
+    private String csvDirectory;
+
+    @Value("${f1pedia.dataset.snapshot:../F1/f1pedia.snapshot}")
+    private String snapshotFile;
+
+    private volatile Map<String, ColumnTable> tables;
+
+    private volatile String stamp;
+
+    public ColumnTable table(String name) {
+        ColumnTable table = tables().get(name);
+        if (table == null) {
+            throw new IllegalArgumentException("No table " + name + " in the dataset");
+        }
+        return table;
+    }
+
+    /**
+     * Identifies the snapshot the tables are mapped from (size and
+     * modification time), so derived stores can tell whether they already
+     * hold this data; null when the tables are kept on the heap.
+     */
+    public String stamp() {
+        tables();
+        return stamp;
+    }
+
+    public Map<String, ColumnTable> tables() {
+        Map<String, ColumnTable> loaded = tables;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = tables;
+                if (loaded == null) {
+                    tables = loaded = load();
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private Map<String, ColumnTable> load() {
+        long started = System.nanoTime();
+        Path csvDir = Path.of(csvDirectory);
+        Path snapshot = Path.of(snapshotFile);
+        try {
+            List<Path> csvs = csvFiles(csvDir);
+            if (isFresh(snapshot, csvs)) {
+                try {
+                    Map<String, ColumnTable> mapped = DatasetSnapshot.map(snapshot);
+                    stamp = stampOf(snapshot);
+                    log.info("Mapped dataset snapshot {} ({} tables) in {} ms", snapshot, mapped.size(),
+                            (System.nanoTime() - started) / 1_000_000);
+                    return mapped;
+                } catch (IllegalStateException e) {
+                    log.info("Rebuilding dataset snapshot {}: {}", snapshot, e.getMessage());
+                }
+            }
+            if (csvs.isEmpty()) {
+                throw new IllegalStateException("No dataset snapshot at " + snapshot + " and no CSVs in " + csvDir);
+            }
+
+            List<CsvTableReader.Table> parsed = new ArrayList<>(csvs.size());
+            for (Path csv : csvs) {
+                parsed.add(CsvTableReader.read(csv));
+            }
+            Map<String, ColumnTable> loaded;
+            try {
+                DatasetSnapshot.write(parsed, snapshot);
+                loaded = DatasetSnapshot.map(snapshot);
+                stamp = stampOf(snapshot);
+            } catch (IOException e) {
+                log.warn("Could not write dataset snapshot {}, keeping it on the heap: {}", snapshot, e.getMessage());
+                loaded = DatasetSnapshot.read(DatasetSnapshot.encode(parsed));
+            }
+            log.info("Loaded {} tables from {} in {} ms", loaded.size(), csvDir,
+                    (System.nanoTime() - started) / 1_000_000);
+            return loaded;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load the dataset from " + csvDirectory, e);
+        }
+    }
+
+    private static List<Path> csvFiles(Path csvDir) throws IOException {
+        if (!Files.isDirectory(csvDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(csvDir)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".csv")).sorted().toList();
+        }
+    }
+
+    private static String stampOf(Path snapshot) throws IOException {
+        return Files.size(snapshot) + "@" + Files.getLastModifiedTime(snapshot).toMillis();
+    }
+
+    private static boolean isFresh(Path snapshot, List<Path> csvs) throws IOException {
+        if (!Files.isRegularFile(snapshot)) {
+            return false;
+        }
+        FileTime written = Files.getLastModifiedTime(snapshot);
+        for (Path csv : csvs) {
+            if (Files.getLastModifiedTime(csv).compareTo(written) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
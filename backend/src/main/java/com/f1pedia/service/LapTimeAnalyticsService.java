@@ -0,0 +1,271 @@
+package com.f1pedia.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Lap-time analytics computed in memory.
+ * Lap times are loaded once per race into {@link RaceLapMatrix} instances; the
+ * consistency, pace-gap and stint views are then derived in Java instead of
+ * running STDDEV/AVG scans over `lap_times` on every request. Per-race matrices
+ * and per-season results are cached in bounded LRUs until evicted; races
+ * without lap data are remembered as such instead of being queried again.
+ */
+@Service
+public class LapTimeAnalyticsService {
+
+    private static final int MIN_CONSISTENCY_LAPS = 100;
+    private static final int MIN_PACE_RACES = 5;
+    private static final int LIMIT = 20;
+    private static final int MAX_CACHED_RACES = 256;
+    private static final int MAX_CACHED_SEASONS = 16;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReferenceNames referenceNames;
+
+    // Empty for races known to have no lap data
+    private final LruCache<Integer, Optional<RaceLapMatrix>> raceCache = new LruCache<>(MAX_CACHED_RACES);
+    private final LruCache<Integer, List<RaceLapMatrix>> seasonCache = new LruCache<>(MAX_CACHED_SEASONS);
+    private final LruCache<Integer, List<Map<String, Object>>> consistencyCache = new LruCache<>(MAX_CACHED_SEASONS);
+    private final LruCache<Integer, List<Map<String, Object>>> paceGapCache = new LruCache<>(MAX_CACHED_SEASONS);
+
+    /**
+     * Returns the lap matrix of a race, loading it on first access.
+     *
+     * @param raceId the race ID
+     * @return the matrix, or null if the race has no lap data
+     */
+    public RaceLapMatrix getRace(int raceId) {
+        return raceCache.computeIfAbsent(raceId, id -> loadMatrices("ra.race_id = ?", id).stream().findFirst())
+                .orElse(null);
+    }
+
+    // All races of a season that have lap data, loaded with a single lap_times scan
+    public List<RaceLapMatrix> getSeason(int season) {
+        return seasonCache.computeIfAbsent(season, year -> {
+            long racesAt = raceCache.generation();
+            List<RaceLapMatrix> loaded = loadMatrices("ra.year = ?", year);
+            loaded.forEach(matrix -> raceCache.put(matrix.raceId(), Optional.of(matrix), racesAt));
+            return List.copyOf(loaded);
+        });
+    }
+
+    /**
+     * Lap time standard deviation per driver over a season, counting only races
+     * the driver finished and excluding outlier laps.
+     */
+    public List<Map<String, Object>> getLapConsistency(int season) {
+        return consistencyCache.computeIfAbsent(season, year -> {
+            Map<Long, RunningStats> byDriverTeam = new HashMap<>();
+            for (RaceLapMatrix race : getSeason(year)) {
+                for (int row = 0; row < race.drivers(); row++) {
+                    if (race.finished(row)) {
+                        byDriverTeam.computeIfAbsent(key(race.driverId(row), race.constructorId(row)),
+                                k -> new RunningStats()).merge(race.racingLapStats(row));
+                    }
+                }
+            }
+
+            List<Map<String, Object>> rows = new ArrayList<>();
+            byDriverTeam.forEach((key, stats) -> {
+                if (stats.count() > MIN_CONSISTENCY_LAPS) {
+                    Map<String, Object> map = driverTeamRow(key);
+                    map.put("deviation", round3(stats.stddev() / 1000));
+                    map.put("avg_lap_time", round3(stats.mean() / 1000));
+                    rows.add(map);
+                }
+            });
+            rows.sort(Comparator.comparingDouble(m -> (Double) m.get("deviation")));
+            return List.copyOf(rows.subList(0, Math.min(LIMIT, rows.size())));
+        });
+    }
+
+    /**
+     * Average gap per lap to the race winner's pace, over the races of a season
+     * the driver finished.
+     */
+    public List<Map<String, Object>> getRacePaceGap(int season) {
+        return paceGapCache.computeIfAbsent(season, year -> {
+            Map<Long, RunningStats> byDriverTeam = new HashMap<>();
+            for (RaceLapMatrix race : getSeason(year)) {
+                int winner = race.winnerRow();
+                if (winner < 0) {
+                    continue;
+                }
+                RunningStats winnerPace = race.racingLapStats(winner);
+                if (winnerPace.count() == 0) {
+                    continue;
+                }
+                for (int row = 0; row < race.drivers(); row++) {
+                    if (!race.finished(row)) {
+                        continue;
+                    }
+                    RunningStats pace = race.racingLapStats(row);
+                    if (pace.count() > 0) {
+                        byDriverTeam.computeIfAbsent(key(race.driverId(row), race.constructorId(row)),
+                                k -> new RunningStats()).add(pace.mean() - winnerPace.mean());
+                    }
+                }
+            }
+
+            List<Map<String, Object>> rows = new ArrayList<>();
+            byDriverTeam.forEach((key, gaps) -> {
+                if (gaps.count() >= MIN_PACE_RACES) {
+                    Map<String, Object> map = driverTeamRow(key);
+                    map.put("avg_gap_to_winner", round3(gaps.mean() / 1000));
+                    rows.add(map);
+                }
+            });
+            rows.sort(Comparator.comparingDouble(m -> (Double) m.get("avg_gap_to_winner")));
+            return List.copyOf(rows.subList(0, Math.min(LIMIT, rows.size())));
+        });
+    }
+
+    /**
+     * Splits every driver's race into stints at their individual slow laps (pit
+     * in/out laps, incidents). Laps where most of the field is slow are treated
+     * as neutralised and do not end a stint.
+     */
+    public List<Map<String, Object>> getRaceStints(int raceId) {
+        RaceLapMatrix race = getRace(raceId);
+        if (race == null) {
+            return List.of();
+        }
+        List<Map<String, Object>> drivers = new ArrayList<>();
+        for (int row = 0; row < race.drivers(); row++) {
+            List<Map<String, Object>> stints = new ArrayList<>();
+            RunningStats stats = null;
+            int start = 0;
+            int end = 0;
+            for (int lap = 1; lap <= race.laps(); lap++) {
+                int ms = race.lapMillis(row, lap);
+                if (ms == 0) {
+                    continue;
+                }
+                if (race.isRacingLap(row, lap)) {
+                    if (stats == null) {
+                        stats = new RunningStats();
+                        start = lap;
+                    }
+                    stats.add(ms);
+                    end = lap;
+                } else if (stats != null && !race.isNeutralisedLap(lap)) {
+                    stints.add(stintRow(stints.size() + 1, start, end, stats));
+                    stats = null;
+                }
+            }
+            if (stats != null) {
+                stints.add(stintRow(stints.size() + 1, start, end, stats));
+            }
+
+            Map<String, Object> map = driverTeamRow(key(race.driverId(row), race.constructorId(row)));
+            map.put("driverId", race.driverId(row));
+            map.put("finishPosition", race.finishPosition(row) > 0 ? race.finishPosition(row) : null);
+            map.put("stints", stints);
+            drivers.add(map);
+        }
+        drivers.sort(Comparator.comparingInt(m -> m.get("finishPosition") != null
+                ? (Integer) m.get("finishPosition")
+                : Integer.MAX_VALUE));
+        return drivers;
+    }
+
+    // Drops a race and every season-level result derived from it
+    public void evictRace(int raceId) {
+        Optional<RaceLapMatrix> removed = raceCache.remove(raceId);
+        seasonCache.removeIf((season, races) -> {
+            boolean affected = races.stream().anyMatch(race -> race.raceId() == raceId);
+            if (affected) {
+                consistencyCache.remove(season);
+                paceGapCache.remove(season);
+            }
+            return affected;
+        });
+        if (removed == null || removed.isEmpty()) {
+            // Unknown race (e.g. newly inserted): season membership may have changed
+            consistencyCache.clear();
+            paceGapCache.clear();
+            seasonCache.clear();
+        }
+    }
+
+    public void evictSeason(int season) {
+        List<RaceLapMatrix> races = seasonCache.remove(season);
+        if (races != null) {
+            races.forEach(race -> raceCache.remove(race.raceId()));
+        }
+        consistencyCache.remove(season);
+        paceGapCache.remove(season);
+    }
+
+    public void evictAll() {
+        raceCache.clear();
+        seasonCache.clear();
+        consistencyCache.clear();
+        paceGapCache.clear();
+    }
+
+    private Map<String, Object> stintRow(int number, int start, int end, RunningStats stats) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("stint", number);
+        map.put("startLap", start);
+        map.put("endLap", end);
+        map.put("laps", stats.count());
+        map.put("avgLapTime", round3(stats.mean() / 1000));
+        map.put("deviation", round3(stats.stddev() / 1000));
+        return map;
+    }
+
+    private List<RaceLapMatrix> loadMatrices(String where, int arg) {
+        Map<Integer, Map<Integer, int[]>> entries = new HashMap<>();
+        String entriesSql = "SELECT res.race_id, res.driver_id, res.constructor_id, res.status_id, res.position "
+                + "FROM results res JOIN races ra ON res.race_id = ra.race_id WHERE " + where;
+        jdbcTemplate.query(entriesSql, rs -> {
+            entries.computeIfAbsent(rs.getInt("race_id"), k -> new HashMap<>())
+                    .put(rs.getInt("driver_id"), new int[] {
+                            rs.getInt("constructor_id"), rs.getInt("status_id"), rs.getInt("position") });
+        }, arg);
+
+        List<RaceLapMatrix> matrices = new ArrayList<>();
+        RaceLapMatrix.Builder[] current = new RaceLapMatrix.Builder[1];
+        String lapsSql = "SELECT lt.race_id, lt.driver_id, lt.lap, lt.position, lt.milliseconds "
+                + "FROM lap_times lt JOIN races ra ON lt.race_id = ra.race_id WHERE " + where
+                + " ORDER BY lt.race_id, lt.driver_id, lt.lap";
+        jdbcTemplate.query(lapsSql, rs -> {
+            int raceId = rs.getInt("race_id");
+            if (current[0] == null || current[0].raceId() != raceId) {
+                if (current[0] != null) {
+                    matrices.add(current[0].build(entries.getOrDefault(current[0].raceId(), Map.of())));
+                }
+                current[0] = new RaceLapMatrix.Builder(raceId);
+            }
+            current[0].add(rs.getInt("driver_id"), rs.getInt("lap"), rs.getInt("position"),
+                    rs.getInt("milliseconds"));
+        }, arg);
+        if (current[0] != null) {
+            matrices.add(current[0].build(entries.getOrDefault(current[0].raceId(), Map.of())));
+        }
+        return matrices;
+    }
+
+    private Map<String, Object> driverTeamRow(long key) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("driver", referenceNames.driver((int) (key >>> 32)));
+        map.put("constructor", referenceNames.constructor((int) key));
+        return map;
+    }
+
+    private static long key(int driverId, int constructorId) {
+        return ((long) driverId << 32) | (constructorId & 0xffffffffL);
+    }
+
+    private static double round3(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
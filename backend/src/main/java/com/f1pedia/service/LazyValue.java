@@ -0,0 +1,62 @@
+package com.f1pedia.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * A value built on first use and dropped by {@link #evict()}, for the
+ * in-memory engines that hold one index over the whole dataset. Builds run
+ * under the holder's lock, so concurrent first callers share one build.
+ * <p>
+ * Every eviction starts a new generation without taking the lock. A build
+ * (or update) that started in an older generation is handed to its callers
+ * but not kept, so an invalidation that arrives mid-build is never lost: the
+ * next call builds again from data that includes the change.
+ */
+final class LazyValue<T> {
+
+    private record Entry<T>(long generation, T value) {
+    }
+
+    private final Supplier<T> builder;
+
+    private final AtomicReference<Entry<T>> entry = new AtomicReference<>(new Entry<>(0, null));
+
+    LazyValue(Supplier<T> builder) {
+        this.builder = builder;
+    }
+
+    T get() {
+        T value = entry.get().value();
+        if (value != null) {
+            return value;
+        }
+        synchronized (this) {
+            Entry<T> current = entry.get();
+            if (current.value() != null) {
+                return current.value();
+            }
+            value = builder.get();
+            entry.compareAndSet(current, new Entry<>(current.generation(), value));
+            return value;
+        }
+    }
+
+    /**
+     * Replaces a built value with {@code update} applied to it (null drops it);
+     * does nothing if there is no value yet, or if it is evicted meanwhile.
+     */
+    void update(UnaryOperator<T> update) {
+        synchronized (this) {
+            Entry<T> current = entry.get();
+            if (current.value() != null) {
+                entry.compareAndSet(current, new Entry<>(current.generation(), update.apply(current.value())));
+            }
+        }
+    }
+
+    void evict() {
+        entry.updateAndGet(current -> new Entry<>(current.generation() + 1, null));
+    }
+}
@@ -0,0 +1,101 @@
+package com.f1pedia.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, thread-safe LRU map for the in-memory engines' per-race and
+ * per-season caches. Loads run outside the lock, so a slow load does not
+ * block hits on other keys; two callers missing the same key may both load
+ * it, and the later result is kept. Every remove, removeIf and clear bumps a
+ * generation, and a load that started before one is returned to its caller
+ * but not cached, so an eviction is never overwritten with what it evicted.
+ */
+final class LruCache<K, V> {
+
+    private final Map<K, V> entries;
+    private long generation;
+
+    LruCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    V get(K key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        long loadedAt;
+        synchronized (entries) {
+            V value = entries.get(key);
+            if (value != null) {
+                return value;
+            }
+            loadedAt = generation;
+        }
+        V value = loader.apply(key);
+        put(key, value, loadedAt);
+        return value;
+    }
+
+    /**
+     * @return the current generation, to pass to {@link #put(Object, Object, long)}
+     *         for a value loaded after reading it
+     */
+    long generation() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    void put(K key, V value) {
+        synchronized (entries) {
+            entries.put(key, value);
+        }
+    }
+
+    // Caches a value only if nothing was evicted since it started loading
+    void put(K key, V value, long loadedAt) {
+        synchronized (entries) {
+            if (generation == loadedAt) {
+                entries.put(key, value);
+            }
+        }
+    }
+
+    V remove(K key) {
+        synchronized (entries) {
+            generation++;
+            return entries.remove(key);
+        }
+    }
+
+    void removeIf(BiPredicate<? super K, ? super V> predicate) {
+        synchronized (entries) {
+            generation++;
+            entries.entrySet().removeIf(entry -> predicate.test(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    void clear() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
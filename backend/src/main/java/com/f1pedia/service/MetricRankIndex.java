@@ -0,0 +1,239 @@
+package com.f1pedia.service;
+
+import com.f1pedia.dto.LeaderboardEntryDTO;
+import com.f1pedia.dto.MetricRankDTO;
+import com.f1pedia.service.RatingService.Subject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Rank, percentile and top-K lookups per metric for drivers and constructors,
+ * all-time and per season.
+ * <p>
+ * One grouped query yields per-season totals, which are rolled up to
+ * all-time in memory. Each (subject, season, metric) then keeps its values as
+ * a sorted primitive array, best first, so a rank is one binary search and a
+ * top-K is a prefix. Rates use starts as the denominator, as
+ * {@code /api/drivers/stats} does, and are only ranked once an entry has
+ * enough starts. A constructor starts several cars per race but wins and
+ * takes pole at most once, so its win and pole rates are per race instead;
+ * its podium and DNF rates stay per car.
+ */
+@Service
+public class MetricRankIndex {
+
+    public static final List<String> METRICS = List.of("races", "wins", "podiums", "poles", "fastest_laps",
+            "points", "win_rate", "podium_rate", "pole_rate", "dnf_rate");
+
+    // The only metric where lower is better
+    private static final int DNF_RATE = METRICS.indexOf("dnf_rate");
+
+    // Starts needed before rates are ranked; /api/drivers/stats uses 20 all-time
+    private static final int MIN_STARTS_ALL_TIME = 20;
+    private static final int MIN_STARTS_SEASON = 5;
+
+    // Scope key for all-time figures
+    private static final int ALL_TIME = 0;
+
+    private static final String TOTALS_SQL = """
+            SELECT r.%s as id,
+                   ra.year,
+                   COUNT(*) as starts,
+                   COUNT(DISTINCT r.race_id) as races,
+                   COUNT(DISTINCT CASE WHEN r.position = 1 THEN r.race_id END) as wins,
+                   COUNT(CASE WHEN r.position <= 3 THEN 1 END) as podiums,
+                   COUNT(DISTINCT CASE WHEN r.grid = 1 THEN r.race_id END) as poles,
+                   COUNT(CASE WHEN r.rank = 1 THEN 1 END) as fastest_laps,
+                   COUNT(CASE WHEN s.status != 'Finished' AND s.status NOT LIKE '+%%' THEN 1 END) as dnfs,
+                   COALESCE(SUM(r.points), 0) as points
+            FROM results r
+            JOIN races ra ON r.race_id = ra.race_id
+            JOIN status s ON r.status_id = s.status_id
+            GROUP BY r.%s, ra.year
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReferenceNames referenceNames;
+
+    private volatile Index index;
+
+    /**
+     * Every metric on which the entry is ranked, in {@link #METRICS} order.
+     *
+     * @param season a season, or null for all-time
+     */
+    public Map<String, MetricRankDTO> ranks(Subject subject, int id, Integer season) {
+        Scope scope = index().scope(subject, season);
+        Map<String, MetricRankDTO> ranks = new LinkedHashMap<>();
+        if (scope != null) {
+            for (int metric = 0; metric < METRICS.size(); metric++) {
+                MetricRankDTO rank = scope.rank(metric, id);
+                if (rank != null) {
+                    ranks.put(rank.metric(), rank);
+                }
+            }
+        }
+        return ranks;
+    }
+
+    /**
+     * Best {@code limit} entries on a metric, ties sharing a rank.
+     *
+     * @throws IllegalArgumentException for a metric not in {@link #METRICS}
+     */
+    public List<LeaderboardEntryDTO> top(Subject subject, String metric, Integer season, int limit) {
+        int m = metricIndex(metric);
+        Scope scope = index().scope(subject, season);
+        if (scope == null) {
+            return List.of();
+        }
+        int[] ids = scope.ids[m];
+        double[] scores = scope.scores[m];
+        List<LeaderboardEntryDTO> board = new ArrayList<>();
+        int rank = 0;
+        for (int i = 0; i < Math.min(limit, ids.length); i++) {
+            if (i == 0 || scores[i] != scores[i - 1]) {
+                rank = i + 1;
+            }
+            String name = subject == Subject.DRIVER ? referenceNames.driver(ids[i])
+                    : referenceNames.constructor(ids[i]);
+            board.add(new LeaderboardEntryDTO(rank, ids[i], name, scope.values.get(ids[i])[m]));
+        }
+        return board;
+    }
+
+    // Rebuilds the index on next access
+    public void evict() {
+        index = null;
+    }
+
+    private static int metricIndex(String metric) {
+        int m = METRICS.indexOf(metric);
+        if (m < 0) {
+            throw new IllegalArgumentException("Unknown metric " + metric + ", expected one of " + METRICS);
+        }
+        return m;
+    }
+
+    private Index index() {
+        Index idx = index;
+        if (idx == null) {
+            synchronized (this) {
+                idx = index;
+                if (idx == null) {
+                    index = idx = new Index(build("driver_id", false), build("constructor_id", true));
+                }
+            }
+        }
+        return idx;
+    }
+
+    private Map<Integer, Scope> build(String idColumn, boolean ratesPerRace) {
+        // season -> id -> {starts, races, wins, podiums, poles, fastest laps, dnfs, points}
+        Map<Integer, Map<Integer, double[]>> totals = new HashMap<>();
+        jdbcTemplate.query(TOTALS_SQL.formatted(idColumn, idColumn), rs -> {
+            double[] row = {
+                    rs.getInt("starts"), rs.getInt("races"), rs.getInt("wins"), rs.getInt("podiums"),
+                    rs.getInt("poles"), rs.getInt("fastest_laps"), rs.getInt("dnfs"), rs.getDouble("points") };
+            int id = rs.getInt("id");
+            totals.computeIfAbsent(rs.getInt("year"), year -> new HashMap<>()).put(id, row);
+            double[] career = totals.computeIfAbsent(ALL_TIME, year -> new HashMap<>())
+                    .computeIfAbsent(id, key -> new double[row.length]);
+            for (int i = 0; i < row.length; i++) {
+                career[i] += row[i];
+            }
+        });
+
+        Map<Integer, Scope> scopes = new HashMap<>();
+        totals.forEach((season, rows) -> scopes.put(season,
+                new Scope(rows, season == ALL_TIME ? MIN_STARTS_ALL_TIME : MIN_STARTS_SEASON, ratesPerRace)));
+        return scopes;
+    }
+
+    private record Index(Map<Integer, Scope> drivers, Map<Integer, Scope> constructors) {
+
+        Scope scope(Subject subject, Integer season) {
+            return (subject == Subject.DRIVER ? drivers : constructors).get(season == null ? ALL_TIME : season);
+        }
+    }
+
+    /**
+     * Metric values of one season (or all-time) plus, per metric, entry ids
+     * and scores sorted best first. Scores are negated values for metrics
+     * where lower is better, so every array sorts descending.
+     */
+    private static final class Scope {
+
+        final Map<Integer, double[]> values = new HashMap<>();
+        final int[][] ids = new int[METRICS.size()][];
+        final double[][] scores = new double[METRICS.size()][];
+
+        Scope(Map<Integer, double[]> totals, int minStarts, boolean ratesPerRace) {
+            totals.forEach((id, t) -> {
+                double starts = t[0];
+                // Wins and poles happen at most once per race
+                double onceARace = ratesPerRace ? t[1] : starts;
+                boolean rated = starts >= minStarts;
+                values.put(id, new double[] {
+                        t[1], t[2], t[3], t[4], t[5], Math.round(t[7] * 100.0) / 100.0,
+                        rated ? percent(t[2], onceARace) : Double.NaN,
+                        rated ? percent(t[3], starts) : Double.NaN,
+                        rated ? percent(t[4], onceARace) : Double.NaN,
+                        rated ? percent(t[6], starts) : Double.NaN });
+            });
+            for (int m = 0; m < METRICS.size(); m++) {
+                final int metric = m;
+                int[] sorted = values.entrySet().stream()
+                        .filter(entry -> !Double.isNaN(entry.getValue()[metric]))
+                        .sorted(Comparator.comparingDouble(
+                                (Map.Entry<Integer, double[]> entry) -> score(metric, entry.getValue()[metric]))
+                                .reversed()
+                                .thenComparing(Map.Entry::getKey))
+                        .mapToInt(Map.Entry::getKey)
+                        .toArray();
+                ids[m] = sorted;
+                scores[m] = new double[sorted.length];
+                for (int i = 0; i < sorted.length; i++) {
+                    scores[m][i] = score(m, values.get(sorted[i])[m]);
+                }
+            }
+        }
+
+        MetricRankDTO rank(int metric, int id) {
+            double[] row = values.get(id);
+            if (row == null || Double.isNaN(row[metric])) {
+                return null;
+            }
+            double score = score(metric, row[metric]);
+            double[] sorted = scores[metric];
+            // Entries strictly better than this one
+            int lo = 0;
+            int hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid] > score) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            int n = sorted.length;
+            double percentile = Math.round(1000.0 * (n - lo) / n) / 10.0;
+            return new MetricRankDTO(METRICS.get(metric), row[metric], lo + 1, n, percentile);
+        }
+
+        private static double score(int metric, double value) {
+            return metric == DNF_RATE ? -value : value;
+        }
+
+        private static double percent(double count, double starts) {
+            return Math.round(10000.0 * count / starts) / 100.0;
+        }
+    }
+}
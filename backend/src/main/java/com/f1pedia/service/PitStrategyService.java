@@ -0,0 +1,389 @@
+package com.f1pedia.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Pit-stop strategy engine.
+ * Each season's pit stops are joined with results and lap times once into
+ * {@link RacePitStrategy} structures (stints, positions gained or lost per
+ * stop, undercuts); every strategy endpoint is then answered from memory.
+ * Seasons are kept in a bounded LRU, and the race-to-season lookup and the
+ * stop-count breakdown are cached alongside them until evicted.
+ */
+@Service
+public class PitStrategyService {
+
+    // Stop-count breakdown by circuit only covers the current era of racing
+    private static final int STOP_COUNTS_FROM_YEAR = 2018;
+    // Stops longer than this are penalties or repairs, not crew performance
+    private static final int MAX_STOP_MILLIS = 50_000;
+    private static final int MIN_TEAM_STOPS = 10;
+    private static final int MAX_CACHED_SEASONS = 16;
+    private static final int MAX_CACHED_RACES = 2048;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LapTimeAnalyticsService lapTimeAnalyticsService;
+
+    @Autowired
+    private ReferenceNames referenceNames;
+
+    private final LruCache<Integer, List<RacePitStrategy>> seasonCache = new LruCache<>(MAX_CACHED_SEASONS);
+    private final LruCache<Integer, Integer> raceSeasons = new LruCache<>(MAX_CACHED_RACES);
+
+    // Circuit -> stop count -> entries, since STOP_COUNTS_FROM_YEAR
+    private final LazyValue<Map<Integer, TreeMap<Integer, Integer>>> stopCounts =
+            new LazyValue<>(this::loadStopCounts);
+
+    public List<RacePitStrategy> getSeason(int season) {
+        return seasonCache.computeIfAbsent(season, this::loadSeason);
+    }
+
+    /**
+     * @param raceId the race ID
+     * @return the race's strategy, or null if the race does not exist
+     */
+    public RacePitStrategy getRace(int raceId) {
+        Integer season = raceSeasons.get(raceId);
+        if (season == null) {
+            List<Integer> years = jdbcTemplate.queryForList("SELECT year FROM races WHERE race_id = ?",
+                    Integer.class, raceId);
+            if (years.isEmpty() || years.get(0) == null) {
+                return null;
+            }
+            season = years.get(0);
+            raceSeasons.put(raceId, season);
+        }
+        return getSeason(season).stream()
+                .filter(race -> race.raceId() == raceId)
+                .findFirst()
+                .orElse(null);
+    }
+
+    // Share of 1-stop, 2-stop, ... races per circuit since STOP_COUNTS_FROM_YEAR
+    public List<Map<String, Object>> getStopCountsByCircuit(Integer circuitId) {
+        Map<Integer, TreeMap<Integer, Integer>> byCircuit = stopCounts.get();
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        byCircuit.forEach((circuit, counts) -> {
+            if (circuitId != null && circuit.intValue() != circuitId) {
+                return;
+            }
+            int total = counts.values().stream().mapToInt(Integer::intValue).sum();
+            counts.forEach((stops, count) -> {
+                Map<String, Object> map = new LinkedHashMap<>();
+                map.put("circuit", referenceNames.circuit(circuit));
+                map.put("stops", stops);
+                map.put("count", count);
+                map.put("percentage", round(100.0 * count / total, 1));
+                rows.add(map);
+            });
+        });
+        rows.sort(Comparator.comparing((Map<String, Object> m) -> String.valueOf(m.get("circuit")))
+                .thenComparingInt(m -> (Integer) m.get("stops")));
+        return rows;
+    }
+
+    // Win and podium rates of classified finishers grouped by number of stops
+    public List<Map<String, Object>> getWinningStrategyStats(int season) {
+        TreeMap<Integer, int[]> byStops = new TreeMap<>();
+        for (RacePitStrategy race : getSeason(season)) {
+            int[] maxStop = maxStopPerEntry(race);
+            for (int e = 0; e < race.entries(); e++) {
+                int position = race.position(e);
+                if (position == 0) {
+                    continue;
+                }
+                int[] counts = byStops.computeIfAbsent(maxStop[e], k -> new int[3]);
+                counts[0]++;
+                if (position == 1) {
+                    counts[1]++;
+                }
+                if (position <= 3) {
+                    counts[2]++;
+                }
+            }
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        byStops.forEach((stops, counts) -> {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("stops", stops);
+            map.put("total_finishers", counts[0]);
+            map.put("wins", counts[1]);
+            map.put("win_rate", round(100.0 * counts[1] / counts[0], 2));
+            map.put("podiums", counts[2]);
+            map.put("podium_rate", round(100.0 * counts[2] / counts[0], 2));
+            rows.add(map);
+        });
+        return rows;
+    }
+
+    // Average and best stationary-plus-pit-lane time per constructor
+    public List<Map<String, Object>> getTeamEfficiency(int season) {
+        Map<Integer, RunningStats> byConstructor = new HashMap<>();
+        Map<Integer, Integer> fastest = new HashMap<>();
+        for (RacePitStrategy race : getSeason(season)) {
+            for (int s = 0; s < race.stops(); s++) {
+                int ms = race.stopMillis(s);
+                if (ms <= 0 || ms >= MAX_STOP_MILLIS) {
+                    continue;
+                }
+                int constructorId = race.constructorId(race.stopEntry(s));
+                byConstructor.computeIfAbsent(constructorId, k -> new RunningStats()).add(ms);
+                fastest.merge(constructorId, ms, Math::min);
+            }
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        byConstructor.forEach((constructorId, stats) -> {
+            if (stats.count() > MIN_TEAM_STOPS) {
+                Map<String, Object> map = new LinkedHashMap<>();
+                map.put("constructor", referenceNames.constructor(constructorId));
+                map.put("avg_duration", round(stats.mean() / 1000, 3));
+                map.put("min_duration", fastest.get(constructorId) / 1000.0);
+                map.put("total_stops", stats.count());
+                rows.add(map);
+            }
+        });
+        rows.sort(Comparator.comparingDouble(m -> (Double) m.get("avg_duration")));
+        return rows;
+    }
+
+    /**
+     * Full strategy breakdown of one race: every driver's stops with positions
+     * gained or lost, their stints between stops, and the undercuts attempted.
+     */
+    public Map<String, Object> getRaceStrategy(int raceId) {
+        RacePitStrategy race = getRace(raceId);
+        if (race == null) {
+            return null;
+        }
+        RaceLapMatrix laps = race.laps();
+
+        List<Map<String, Object>> drivers = new ArrayList<>();
+        for (int e = 0; e < race.entries(); e++) {
+            List<Map<String, Object>> stops = new ArrayList<>();
+            List<Map<String, Object>> stints = new ArrayList<>();
+            int row = laps != null ? laps.rowOf(race.driverId(e)) : -1;
+            int stintStart = 1;
+            int first = race.firstStop(e);
+            for (int s = first; s >= 0 && s < first + race.stopCount(e); s++) {
+                Map<String, Object> stop = new LinkedHashMap<>();
+                stop.put("stop", race.stopNumber(s));
+                stop.put("lap", race.stopLap(s));
+                stop.put("duration", race.stopMillis(s) / 1000.0);
+                stop.put("positionBefore", nullIfZero(race.positionBefore(s)));
+                stop.put("positionAfter", nullIfZero(race.positionAfter(s)));
+                stop.put("positionsGained", race.positionBefore(s) > 0 && race.positionAfter(s) > 0
+                        ? race.positionBefore(s) - race.positionAfter(s)
+                        : null);
+                stops.add(stop);
+
+                if (row >= 0) {
+                    stints.add(stintRow(laps, row, stints.size() + 1, stintStart, race.stopLap(s)));
+                }
+                stintStart = race.stopLap(s) + 1;
+            }
+            if (row >= 0) {
+                int lastLap = lastCompletedLap(laps, row);
+                if (lastLap >= stintStart) {
+                    stints.add(stintRow(laps, row, stints.size() + 1, stintStart, lastLap));
+                }
+            }
+
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("driverId", race.driverId(e));
+            map.put("driver", referenceNames.driver(race.driverId(e)));
+            map.put("constructor", referenceNames.constructor(race.constructorId(e)));
+            map.put("position", nullIfZero(race.position(e)));
+            map.put("stops", stops);
+            map.put("stints", stints);
+            drivers.add(map);
+        }
+
+        List<Map<String, Object>> undercuts = new ArrayList<>();
+        for (int u = 0; u < race.undercuts(); u++) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("lap", race.undercutLap(u));
+            map.put("attacker", referenceNames.driver(race.driverId(race.undercutAttacker(u))));
+            map.put("defender", referenceNames.driver(race.driverId(race.undercutDefender(u))));
+            map.put("successful", race.undercutSuccess(u));
+            undercuts.add(map);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("raceId", race.raceId());
+        response.put("year", race.year());
+        response.put("circuit", referenceNames.circuit(race.circuitId()));
+        response.put("drivers", drivers);
+        response.put("undercuts", undercuts);
+        return response;
+    }
+
+    // Undercut attempts and conversions per driver over a season
+    public List<Map<String, Object>> getUndercutStats(int season) {
+        Map<Long, int[]> byDriverTeam = new HashMap<>();
+        for (RacePitStrategy race : getSeason(season)) {
+            for (int u = 0; u < race.undercuts(); u++) {
+                int attacker = race.undercutAttacker(u);
+                long key = ((long) race.driverId(attacker) << 32) | race.constructorId(attacker);
+                int[] counts = byDriverTeam.computeIfAbsent(key, k -> new int[2]);
+                counts[0]++;
+                if (race.undercutSuccess(u)) {
+                    counts[1]++;
+                }
+            }
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        byDriverTeam.forEach((key, counts) -> {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("driver", referenceNames.driver((int) (key >>> 32)));
+            map.put("constructor", referenceNames.constructor((int) (long) key));
+            map.put("attempts", counts[0]);
+            map.put("successful", counts[1]);
+            map.put("success_rate", round(100.0 * counts[1] / counts[0], 1));
+            rows.add(map);
+        });
+        rows.sort(Comparator.comparingInt((Map<String, Object> m) -> (Integer) m.get("successful"))
+                .thenComparingInt(m -> (Integer) m.get("attempts"))
+                .reversed());
+        return rows;
+    }
+
+    public void evictSeason(int season) {
+        seasonCache.remove(season);
+        raceSeasons.removeIf((race, year) -> year == season);
+        stopCounts.evict();
+    }
+
+    public void evictRace(int raceId) {
+        seasonCache.removeIf((season, races) -> races.stream().anyMatch(race -> race.raceId() == raceId));
+        raceSeasons.remove(raceId);
+        stopCounts.evict();
+    }
+
+    public void evictAll() {
+        seasonCache.clear();
+        raceSeasons.clear();
+        stopCounts.evict();
+    }
+
+    private Map<Integer, TreeMap<Integer, Integer>> loadStopCounts() {
+        Integer latest = jdbcTemplate.queryForObject("SELECT MAX(year) FROM races", Integer.class);
+        Map<Integer, TreeMap<Integer, Integer>> byCircuit = new HashMap<>();
+        for (int year = STOP_COUNTS_FROM_YEAR; latest != null && year <= latest; year++) {
+            for (RacePitStrategy race : getSeason(year)) {
+                for (int stops : maxStopPerEntry(race)) {
+                    if (stops > 0) {
+                        byCircuit.computeIfAbsent(race.circuitId(), k -> new TreeMap<>()).merge(stops, 1,
+                                Integer::sum);
+                    }
+                }
+            }
+        }
+        return byCircuit;
+    }
+
+    private List<RacePitStrategy> loadSeason(int season) {
+        Map<Integer, Integer> raceCircuits = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT race_id, circuit_id FROM races WHERE year = ? ORDER BY round", rs -> {
+            raceCircuits.put(rs.getInt("race_id"), rs.getInt("circuit_id"));
+        }, season);
+
+        Map<Integer, List<int[]>> entries = new HashMap<>();
+        String entriesSql = """
+                SELECT res.race_id, res.driver_id, res.constructor_id, res.position
+                FROM results res
+                JOIN races ra ON res.race_id = ra.race_id
+                WHERE ra.year = ?
+                ORDER BY res.race_id, res.position_order
+                """;
+        jdbcTemplate.query(entriesSql, rs -> {
+            entries.computeIfAbsent(rs.getInt("race_id"), k -> new ArrayList<>()).add(new int[] {
+                    rs.getInt("driver_id"), rs.getInt("constructor_id"), rs.getInt("position") });
+        }, season);
+
+        Map<Integer, List<int[]>> stops = new HashMap<>();
+        String stopsSql = """
+                SELECT ps.race_id, ps.driver_id, ps.stop, ps.lap, ps.milliseconds
+                FROM pit_stops ps
+                JOIN races ra ON ps.race_id = ra.race_id
+                WHERE ra.year = ?
+                ORDER BY ps.race_id, ps.driver_id, ps.stop
+                """;
+        jdbcTemplate.query(stopsSql, rs -> {
+            stops.computeIfAbsent(rs.getInt("race_id"), k -> new ArrayList<>()).add(new int[] {
+                    rs.getInt("driver_id"), rs.getInt("stop"), rs.getInt("lap"), rs.getInt("milliseconds") });
+        }, season);
+
+        // Lap positions are only needed to evaluate stops, so seasons without pit
+        // data skip the lap_times load entirely
+        Map<Integer, RaceLapMatrix> laps = new HashMap<>();
+        if (!stops.isEmpty()) {
+            lapTimeAnalyticsService.getSeason(season).forEach(matrix -> laps.put(matrix.raceId(), matrix));
+        }
+
+        List<RacePitStrategy> races = new ArrayList<>();
+        raceCircuits.forEach((raceId, circuitId) -> {
+            raceSeasons.put(raceId, season);
+            if (entries.containsKey(raceId)) {
+                races.add(RacePitStrategy.build(raceId, season, circuitId, entries.get(raceId),
+                        stops.getOrDefault(raceId, List.of()), laps.get(raceId)));
+            }
+        });
+        return List.copyOf(races);
+    }
+
+    // Highest stop number per entry, mirroring MAX(stop) over pit_stops
+    private static int[] maxStopPerEntry(RacePitStrategy race) {
+        int[] maxStop = new int[race.entries()];
+        for (int s = 0; s < race.stops(); s++) {
+            int e = race.stopEntry(s);
+            maxStop[e] = Math.max(maxStop[e], race.stopNumber(s));
+        }
+        return maxStop;
+    }
+
+    private static Map<String, Object> stintRow(RaceLapMatrix laps, int row, int number, int start, int end) {
+        RunningStats stats = new RunningStats();
+        for (int lap = start; lap <= Math.min(end, laps.laps()); lap++) {
+            if (laps.isRacingLap(row, lap)) {
+                stats.add(laps.lapMillis(row, lap));
+            }
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("stint", number);
+        map.put("startLap", start);
+        map.put("endLap", end);
+        map.put("laps", end - start + 1);
+        map.put("avgLapTime", stats.count() > 0 ? round(stats.mean() / 1000, 3) : null);
+        map.put("deviation", stats.count() > 1 ? round(stats.stddev() / 1000, 3) : null);
+        return map;
+    }
+
+    private static int lastCompletedLap(RaceLapMatrix laps, int row) {
+        for (int lap = laps.laps(); lap >= 1; lap--) {
+            if (laps.lapMillis(row, lap) > 0) {
+                return lap;
+            }
+        }
+        return 0;
+    }
+
+    private static Integer nullIfZero(int value) {
+        return value > 0 ? value : null;
+    }
+
+    private static double round(double value, int decimals) {
+        double scale = Math.pow(10, decimals);
+        return Math.round(value * scale) / scale;
+    }
+}
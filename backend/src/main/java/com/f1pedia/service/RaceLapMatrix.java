@@ -0,0 +1,227 @@
+package com.f1pedia.service;
+
+import java.util.Arrays;
+
+/**
+ * Lap times of a single race held as flat primitive matrices: one row per
+ * driver, one column per lap. A lap time of 0 means the driver did not complete
+ * that lap. Each row also carries the driver's entry from `results` so the
+ * analytics can filter and group without going back to the database.
+ */
+public final class RaceLapMatrix {
+
+    // Laps slower than this multiple of the race median are treated as outliers
+    // (pit in/out laps, safety car periods, incidents)
+    static final double OUTLIER_FACTOR = 1.15;
+
+    private static final int STATUS_FINISHED = 1;
+
+    private final int raceId;
+    private final int laps;
+    private final int[] driverIds;
+    private final int[] constructorIds;
+    private final int[] statusIds;
+    private final int[] finishPositions;
+    private final int[] millis;
+    private final int[] positions;
+    private final int outlierThreshold;
+    private final boolean[] neutralised;
+
+    RaceLapMatrix(int raceId, int laps, int[] driverIds, int[] constructorIds, int[] statusIds,
+            int[] finishPositions, int[] millis, int[] positions) {
+        this.raceId = raceId;
+        this.laps = laps;
+        this.driverIds = driverIds;
+        this.constructorIds = constructorIds;
+        this.statusIds = statusIds;
+        this.finishPositions = finishPositions;
+        this.millis = millis;
+        this.positions = positions;
+        this.outlierThreshold = (int) (medianLap(millis) * OUTLIER_FACTOR);
+        this.neutralised = neutralisedLaps();
+    }
+
+    // A lap on which most of the field is slow is a safety car / red flag lap,
+    // not an individual driver's pit stop or incident
+    private boolean[] neutralisedLaps() {
+        boolean[] flags = new boolean[laps];
+        for (int lap = 0; lap < laps; lap++) {
+            int running = 0;
+            int slow = 0;
+            for (int row = 0; row < driverIds.length; row++) {
+                int ms = millis[row * laps + lap];
+                if (ms > 0) {
+                    running++;
+                    if (ms > outlierThreshold) {
+                        slow++;
+                    }
+                }
+            }
+            flags[lap] = running > 0 && slow * 2 > running;
+        }
+        return flags;
+    }
+
+    private static int medianLap(int[] millis) {
+        int[] completed = Arrays.stream(millis).filter(ms -> ms > 0).toArray();
+        if (completed.length == 0) {
+            return Integer.MAX_VALUE;
+        }
+        Arrays.sort(completed);
+        return completed[completed.length / 2];
+    }
+
+    public int raceId() {
+        return raceId;
+    }
+
+    public int laps() {
+        return laps;
+    }
+
+    public int drivers() {
+        return driverIds.length;
+    }
+
+    public int driverId(int row) {
+        return driverIds[row];
+    }
+
+    public int constructorId(int row) {
+        return constructorIds[row];
+    }
+
+    public int finishPosition(int row) {
+        return finishPositions[row];
+    }
+
+    public boolean finished(int row) {
+        return statusIds[row] == STATUS_FINISHED;
+    }
+
+    // Lap is 1-based, as in `lap_times`
+    public int lapMillis(int row, int lap) {
+        return millis[row * laps + lap - 1];
+    }
+
+    public int lapPosition(int row, int lap) {
+        return positions[row * laps + lap - 1];
+    }
+
+    public int outlierThreshold() {
+        return outlierThreshold;
+    }
+
+    public boolean isRacingLap(int row, int lap) {
+        int ms = lapMillis(row, lap);
+        return ms > 0 && ms <= outlierThreshold;
+    }
+
+    public boolean isNeutralisedLap(int lap) {
+        return neutralised[lap - 1];
+    }
+
+    public int rowOf(int driverId) {
+        for (int row = 0; row < driverIds.length; row++) {
+            if (driverIds[row] == driverId) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    public int winnerRow() {
+        for (int row = 0; row < finishPositions.length; row++) {
+            if (finishPositions[row] == 1) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    // Welford statistics over the driver's racing laps (outliers excluded)
+    public RunningStats racingLapStats(int row) {
+        RunningStats stats = new RunningStats();
+        int base = row * laps;
+        for (int i = 0; i < laps; i++) {
+            int ms = millis[base + i];
+            if (ms > 0 && ms <= outlierThreshold) {
+                stats.add(ms);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Accumulates the rows of one race while its lap_times are streamed in
+     * (race_id, driver_id, lap) order.
+     */
+    static final class Builder {
+        private final int raceId;
+        private int size;
+        private int[] driver = new int[2048];
+        private int[] lap = new int[2048];
+        private int[] position = new int[2048];
+        private int[] ms = new int[2048];
+
+        Builder(int raceId) {
+            this.raceId = raceId;
+        }
+
+        int raceId() {
+            return raceId;
+        }
+
+        void add(int driverId, int lapNumber, int lapPosition, int lapMillis) {
+            if (size == driver.length) {
+                int capacity = size * 2;
+                driver = Arrays.copyOf(driver, capacity);
+                lap = Arrays.copyOf(lap, capacity);
+                position = Arrays.copyOf(position, capacity);
+                ms = Arrays.copyOf(ms, capacity);
+            }
+            driver[size] = driverId;
+            lap[size] = lapNumber;
+            position[size] = lapPosition;
+            ms[size] = lapMillis;
+            size++;
+        }
+
+        /**
+         * @param entries driver_id -> {constructor_id, status_id, position} from
+         *                `results` for this race
+         */
+        RaceLapMatrix build(java.util.Map<Integer, int[]> entries) {
+            int[] driverIds = Arrays.stream(driver, 0, size).distinct().sorted().toArray();
+            int maxLap = 0;
+            for (int i = 0; i < size; i++) {
+                maxLap = Math.max(maxLap, lap[i]);
+            }
+            int rows = driverIds.length;
+            int[] millis = new int[rows * maxLap];
+            int[] positions = new int[rows * maxLap];
+            for (int i = 0; i < size; i++) {
+                if (lap[i] < 1) {
+                    continue;
+                }
+                int row = Arrays.binarySearch(driverIds, driver[i]);
+                millis[row * maxLap + lap[i] - 1] = ms[i];
+                positions[row * maxLap + lap[i] - 1] = position[i];
+            }
+
+            int[] constructorIds = new int[rows];
+            int[] statusIds = new int[rows];
+            int[] finishPositions = new int[rows];
+            for (int row = 0; row < rows; row++) {
+                int[] entry = entries.get(driverIds[row]);
+                if (entry != null) {
+                    constructorIds[row] = entry[0];
+                    statusIds[row] = entry[1];
+                    finishPositions[row] = entry[2];
+                }
+            }
+            return new RaceLapMatrix(raceId, maxLap, driverIds, constructorIds, statusIds, finishPositions,
+                    millis, positions);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.f1pedia.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pit-stop strategy of a single race, derived once from `pit_stops`,
+ * `results` and the race's {@link RaceLapMatrix}, and kept as parallel
+ * primitive arrays.
+ * <p>
+ * Entries are the race's `results` rows; stops reference an entry by index and
+ * are ordered by (entry, stop). Undercuts are pairs of entries where the
+ * attacker stopped first and came out ahead of the car that was directly in
+ * front of them before the stops.
+ */
+public final class RacePitStrategy {
+
+    // A rival must pit within this many laps of the attacker for an undercut
+    static final int UNDERCUT_WINDOW = 3;
+
+    private final int raceId;
+    private final int year;
+    private final int circuitId;
+
+    private final int[] entryDriverIds;
+    private final int[] entryConstructorIds;
+    private final int[] entryPositions;
+    private final int[] entryStopCount;
+    private final int[] entryFirstStop;
+
+    private final int[] stopEntry;
+    private final int[] stopNumber;
+    private final int[] stopLap;
+    private final int[] stopMillis;
+    private final int[] stopPositionBefore;
+    private final int[] stopPositionAfter;
+
+    private final int[] undercutAttacker;
+    private final int[] undercutDefender;
+    private final int[] undercutLap;
+    private final boolean[] undercutSuccess;
+
+    private final RaceLapMatrix laps;
+
+    private RacePitStrategy(int raceId, int year, int circuitId, int[] entryDriverIds, int[] entryConstructorIds,
+            int[] entryPositions, int[] stopEntry, int[] stopNumber, int[] stopLap, int[] stopMillis,
+            RaceLapMatrix laps) {
+        this.raceId = raceId;
+        this.year = year;
+        this.circuitId = circuitId;
+        this.entryDriverIds = entryDriverIds;
+        this.entryConstructorIds = entryConstructorIds;
+        this.entryPositions = entryPositions;
+        this.stopEntry = stopEntry;
+        this.stopNumber = stopNumber;
+        this.stopLap = stopLap;
+        this.stopMillis = stopMillis;
+        this.laps = laps;
+
+        int entries = entryDriverIds.length;
+        int stops = stopEntry.length;
+        entryStopCount = new int[entries];
+        entryFirstStop = new int[entries];
+        Arrays.fill(entryFirstStop, -1);
+        for (int s = 0; s < stops; s++) {
+            int e = stopEntry[s];
+            entryStopCount[e]++;
+            if (entryFirstStop[e] < 0) {
+                entryFirstStop[e] = s;
+            }
+        }
+
+        stopPositionBefore = new int[stops];
+        stopPositionAfter = new int[stops];
+        int[] lapRow = new int[entries];
+        for (int e = 0; e < entries; e++) {
+            lapRow[e] = laps != null ? laps.rowOf(entryDriverIds[e]) : -1;
+        }
+        for (int s = 0; s < stops; s++) {
+            int row = lapRow[stopEntry[s]];
+            stopPositionBefore[s] = positionAt(row, stopLap[s] - 1);
+            stopPositionAfter[s] = positionAt(row, stopLap[s] + 1);
+        }
+
+        // Undercuts: attacker stops on lap L while running directly behind the
+        // defender, who stops within the window; success if the attacker is ahead
+        // once both out-laps are done.
+        int[] attacker = new int[stops];
+        int[] defender = new int[stops];
+        int[] lap = new int[stops];
+        boolean[] success = new boolean[stops];
+        int found = 0;
+        for (int s = 0; s < stops; s++) {
+            int before = stopPositionBefore[s];
+            if (before <= 1) {
+                continue;
+            }
+            int attackerRow = lapRow[stopEntry[s]];
+            for (int other = 0; other < stops; other++) {
+                int otherLap = stopLap[other];
+                if (otherLap <= stopLap[s] || otherLap > stopLap[s] + UNDERCUT_WINDOW) {
+                    continue;
+                }
+                int defenderRow = lapRow[stopEntry[other]];
+                if (positionAt(defenderRow, stopLap[s] - 1) != before - 1) {
+                    continue;
+                }
+                int attackerAfter = positionAt(attackerRow, otherLap + 1);
+                int defenderAfter = positionAt(defenderRow, otherLap + 1);
+                if (attackerAfter == 0 || defenderAfter == 0) {
+                    continue;
+                }
+                attacker[found] = stopEntry[s];
+                defender[found] = stopEntry[other];
+                lap[found] = stopLap[s];
+                success[found] = attackerAfter < defenderAfter;
+                found++;
+                break;
+            }
+        }
+        undercutAttacker = Arrays.copyOf(attacker, found);
+        undercutDefender = Arrays.copyOf(defender, found);
+        undercutLap = Arrays.copyOf(lap, found);
+        undercutSuccess = Arrays.copyOf(success, found);
+    }
+
+    // Running position at the end of a lap, 0 if unknown
+    private int positionAt(int row, int lap) {
+        if (laps == null || row < 0 || lap < 1 || lap > laps.laps()) {
+            return 0;
+        }
+        return laps.lapPosition(row, lap);
+    }
+
+    /**
+     * @param entries results rows as {driver_id, constructor_id, position (0 if
+     *                unclassified)}
+     * @param stops   pit stops as {driver_id, stop, lap, milliseconds}, ordered
+     *                by driver then stop
+     * @param laps    lap matrix of the race, or null when it has no lap data
+     */
+    static RacePitStrategy build(int raceId, int year, int circuitId, List<int[]> entries, List<int[]> stops,
+            RaceLapMatrix laps) {
+        int[] driverIds = new int[entries.size()];
+        int[] constructorIds = new int[entries.size()];
+        int[] positions = new int[entries.size()];
+        for (int e = 0; e < entries.size(); e++) {
+            int[] entry = entries.get(e);
+            driverIds[e] = entry[0];
+            constructorIds[e] = entry[1];
+            positions[e] = entry[2];
+        }
+
+        int[] stopEntry = new int[stops.size()];
+        int[] stopNumber = new int[stops.size()];
+        int[] stopLap = new int[stops.size()];
+        int[] stopMillis = new int[stops.size()];
+        int kept = 0;
+        for (int[] stop : stops) {
+            int entry = indexOf(driverIds, stop[0]);
+            if (entry < 0) {
+                continue;
+            }
+            stopEntry[kept] = entry;
+            stopNumber[kept] = stop[1];
+            stopLap[kept] = stop[2];
+            stopMillis[kept] = stop[3];
+            kept++;
+        }
+        return new RacePitStrategy(raceId, year, circuitId, driverIds, constructorIds, positions,
+                Arrays.copyOf(stopEntry, kept), Arrays.copyOf(stopNumber, kept), Arrays.copyOf(stopLap, kept),
+                Arrays.copyOf(stopMillis, kept), laps);
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int raceId() {
+        return raceId;
+    }
+
+    public int year() {
+        return year;
+    }
+
+    public int circuitId() {
+        return circuitId;
+    }
+
+    public RaceLapMatrix laps() {
+        return laps;
+    }
+
+    public int entries() {
+        return entryDriverIds.length;
+    }
+
+    public int driverId(int entry) {
+        return entryDriverIds[entry];
+    }
+
+    public int constructorId(int entry) {
+        return entryConstructorIds[entry];
+    }
+
+    // Classified finishing position, 0 if not classified
+    public int position(int entry) {
+        return entryPositions[entry];
+    }
+
+    public int stopCount(int entry) {
+        return entryStopCount[entry];
+    }
+
+    // Index of the entry's first stop, -1 if it never stopped
+    public int firstStop(int entry) {
+        return entryFirstStop[entry];
+    }
+
+    public int stops() {
+        return stopEntry.length;
+    }
+
+    public int stopEntry(int stop) {
+        return stopEntry[stop];
+    }
+
+    public int stopNumber(int stop) {
+        return stopNumber[stop];
+    }
+
+    public int stopLap(int stop) {
+        return stopLap[stop];
+    }
+
+    public int stopMillis(int stop) {
+        return stopMillis[stop];
+    }
+
+    public int positionBefore(int stop) {
+        return stopPositionBefore[stop];
+    }
+
+    public int positionAfter(int stop) {
+        return stopPositionAfter[stop];
+    }
+
+    public int undercuts() {
+        return undercutAttacker.length;
+    }
+
+    public int undercutAttacker(int undercut) {
+        return undercutAttacker[undercut];
+    }
+
+    public int undercutDefender(int undercut) {
+        return undercutDefender[undercut];
+    }
+
+    public int undercutLap(int undercut) {
+        return undercutLap[undercut];
+    }
+
+    public boolean undercutSuccess(int undercut) {
+        return undercutSuccess[undercut];
+    }
+}
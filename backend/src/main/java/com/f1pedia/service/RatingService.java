@@ -0,0 +1,418 @@
+package com.f1pedia.service;
+
+import com.f1pedia.dto.RatingDTO;
+import com.f1pedia.dto.RatingPointDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Elo-style ratings for drivers and constructors, computed race by race in
+ * date order from `results`.
+ * <p>
+ * A race is scored as every pair of starters playing one game that the better
+ * finisher wins, in {@code position_order}, which ranks retirements and
+ * disqualifications behind the classified cars. Entries that never started
+ * (did not qualify, withdrew) are left out, and a driver who shared cars in a
+ * race counts once, with their best finish. K is shared over the field, so one race moves a
+ * rating by at most K whatever the grid size. Constructors are ordered by
+ * their best car. Every entry keeps its full history in compact parallel
+ * arrays (race ordinal, rating, running peak), so rating-at-date and peak
+ * lookups are binary searches and rank lookups search pre-sorted leaderboards.
+ * {@link #racesChanged(Collection)} applies only the races after the last one
+ * processed and replays history only when an older race appears, one is
+ * removed or a rated race was edited.
+ */
+@Service
+public class RatingService {
+
+    public enum Subject { DRIVER, CONSTRUCTOR }
+
+    public static final double INITIAL_RATING = 1500.0;
+    private static final double K = 32.0;
+    // Ratings need a season or so to settle; newer entries stay off leaderboards
+    private static final int PROVISIONAL_RACES = 10;
+    // The current leaderboard only lists entries that raced recently
+    private static final int ACTIVE_RACES = 30;
+
+    private static final String STARTED = """
+            NOT EXISTS (SELECT 1 FROM status s WHERE s.status_id = r.status_id
+                        AND s.status IN ('Did not qualify', 'Did not prequalify', 'Withdrew', 'Did not start'))""";
+
+    private static final String RESULTS_SQL = """
+            SELECT r.race_id, ra.date, r.driver_id, r.constructor_id
+            FROM results r
+            JOIN races ra ON r.race_id = ra.race_id
+            WHERE (ra.date > ? OR (ra.date = ? AND r.race_id > ?)) AND %s
+            ORDER BY ra.date, r.race_id, r.position_order
+            """.formatted(STARTED);
+
+    private static final String RACE_COUNT_SQL = "SELECT COUNT(DISTINCT r.race_id) FROM results r WHERE " + STARTED;
+
+    private static final LocalDate BEFORE_FIRST_RACE = LocalDate.of(1900, 1, 1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReferenceNames referenceNames;
+
+    private final LazyValue<State> state = new LazyValue<>(this::build);
+
+    /**
+     * Rating of one driver or constructor, current when {@code date} is null,
+     * otherwise after the last race on or before that date. Null if the entry
+     * had not raced by then.
+     */
+    public RatingDTO rating(Subject subject, int id, LocalDate date) {
+        State s = state.get();
+        Ladder ladder = s.ladder(subject);
+        History history = ladder.histories.get(id);
+        if (history == null) {
+            return null;
+        }
+        if (date == null) {
+            return dto(s, subject, id, history, history.size - 1, ladder.rank(id, s.raceDays.length));
+        }
+        int at = history.lastAtOrBefore(s.lastRaceOnOrBefore(date));
+        return at < 0 ? null : dto(s, subject, id, history, at, null);
+    }
+
+    /** Rating after each race of the entry's career, oldest first. */
+    public List<RatingPointDTO> history(Subject subject, int id) {
+        State s = state.get();
+        History history = s.ladder(subject).histories.get(id);
+        if (history == null) {
+            return List.of();
+        }
+        List<RatingPointDTO> points = new ArrayList<>(history.size);
+        for (int i = 0; i < history.size; i++) {
+            points.add(new RatingPointDTO(s.raceIds[history.races[i]], s.date(history.races[i]),
+                    round(history.ratings[i])));
+        }
+        return points;
+    }
+
+    /**
+     * Highest rated entries: by current rating among those that raced
+     * recently, or by career peak across all eras.
+     */
+    public List<RatingDTO> leaderboard(Subject subject, boolean byPeak, int limit) {
+        State s = state.get();
+        Ladder ladder = s.ladder(subject);
+        int[] order = byPeak ? ladder.byPeak : ladder.byRating;
+        List<RatingDTO> board = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, order.length); i++) {
+            History history = ladder.histories.get(order[i]);
+            board.add(dto(s, subject, order[i], history, history.size - 1, i + 1));
+        }
+        return board;
+    }
+
+    /**
+     * Reacts to changed results of the given races: races not processed yet
+     * are appended to the current ratings right away, an edit to one already
+     * rated replays everything on next use. Nothing is built if no rating was
+     * asked for yet.
+     */
+    public void racesChanged(Collection<Integer> raceIds) {
+        state.update(current -> {
+            for (int raceId : current.raceIds) {
+                if (raceIds.contains(raceId)) {
+                    return null;
+                }
+            }
+            return advance(current);
+        });
+    }
+
+    // Drops everything; the next query replays all races
+    public void evict() {
+        state.evict();
+    }
+
+    private State build() {
+        return State.EMPTY.apply(load(BEFORE_FIRST_RACE, 0));
+    }
+
+    private State advance(State current) {
+        int lastRace = current.raceIds.length - 1;
+        List<Race> races = lastRace < 0 ? load(BEFORE_FIRST_RACE, 0)
+                : load(current.date(lastRace), current.raceIds[lastRace]);
+        Integer total = jdbcTemplate.queryForObject(RACE_COUNT_SQL, Integer.class);
+        if (total == null || total != current.raceIds.length + races.size()) {
+            // A race was inserted before the last one processed, or removed
+            return build();
+        }
+        return races.isEmpty() ? current : current.apply(races);
+    }
+
+    private List<Race> load(LocalDate afterDate, int afterRaceId) {
+        List<Race> races = new ArrayList<>();
+        int[] raceId = { -1 };
+        List<Integer> drivers = new ArrayList<>();
+        List<Integer> constructors = new ArrayList<>();
+        LocalDate[] date = new LocalDate[1];
+        Runnable flush = () -> {
+            if (raceId[0] >= 0) {
+                races.add(new Race(raceId[0], (int) date[0].toEpochDay(), toArray(drivers), toArray(constructors)));
+            }
+            drivers.clear();
+            constructors.clear();
+        };
+        Date after = Date.valueOf(afterDate);
+        jdbcTemplate.query(RESULTS_SQL, rs -> {
+            int id = rs.getInt("race_id");
+            if (id != raceId[0]) {
+                flush.run();
+                raceId[0] = id;
+                date[0] = rs.getObject("date", LocalDate.class);
+            }
+            // Rows come in finishing order, so a shared drive's first car and a
+            // team's first car are their best
+            int driver = rs.getInt("driver_id");
+            if (!drivers.contains(driver)) {
+                drivers.add(driver);
+            }
+            int constructor = rs.getInt("constructor_id");
+            if (!constructors.contains(constructor)) {
+                constructors.add(constructor);
+            }
+        }, after, after, afterRaceId);
+        flush.run();
+        return races;
+    }
+
+    private RatingDTO dto(State s, Subject subject, int id, History history, int at, Integer rank) {
+        String name = subject == Subject.DRIVER ? referenceNames.driver(id) : referenceNames.constructor(id);
+        int peak = history.peakAt[at];
+        return new RatingDTO(id, name, at + 1, round(history.ratings[at]), round(history.ratings[peak]),
+                s.date(history.races[peak]), rank);
+    }
+
+    private static double round(float rating) {
+        return Math.round(rating * 10.0) / 10.0;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private record Race(int raceId, int day, int[] drivers, int[] constructors) {
+    }
+
+    /** Immutable snapshot: race chronology plus both ladders. */
+    private record State(int[] raceIds, int[] raceDays, Ladder drivers, Ladder constructors) {
+
+        static final State EMPTY = new State(new int[0], new int[0], Ladder.EMPTY, Ladder.EMPTY);
+
+        State apply(List<Race> races) {
+            int first = raceIds.length;
+            int[] ids = Arrays.copyOf(raceIds, first + races.size());
+            int[] days = Arrays.copyOf(raceDays, first + races.size());
+            List<int[]> driverOrders = new ArrayList<>(races.size());
+            List<int[]> constructorOrders = new ArrayList<>(races.size());
+            for (int i = 0; i < races.size(); i++) {
+                Race race = races.get(i);
+                ids[first + i] = race.raceId();
+                days[first + i] = race.day();
+                driverOrders.add(race.drivers());
+                constructorOrders.add(race.constructors());
+            }
+            return new State(ids, days, drivers.apply(driverOrders, first, ids.length),
+                    constructors.apply(constructorOrders, first, ids.length));
+        }
+
+        Ladder ladder(Subject subject) {
+            return subject == Subject.DRIVER ? drivers : constructors;
+        }
+
+        LocalDate date(int race) {
+            return LocalDate.ofEpochDay(raceDays[race]);
+        }
+
+        // Ordinal of the last race held on or before the date, -1 if none
+        int lastRaceOnOrBefore(LocalDate date) {
+            long day = date.toEpochDay();
+            int lo = 0;
+            int hi = raceDays.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (raceDays[mid] <= day) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo - 1;
+        }
+    }
+
+    /**
+     * Histories of one kind of entry plus leaderboards sorted once per batch.
+     * Published ladders are never modified; {@link #apply} copies the
+     * histories it touches.
+     */
+    private static final class Ladder {
+
+        static final Ladder EMPTY = new Ladder(Map.of(), 0);
+
+        final Map<Integer, History> histories;
+        final int[] byRating;
+        final float[] ratings;
+        final int[] byPeak;
+
+        Ladder(Map<Integer, History> histories, int raceCount) {
+            this.histories = histories;
+            List<Integer> active = new ArrayList<>();
+            List<Integer> established = new ArrayList<>();
+            for (Map.Entry<Integer, History> entry : histories.entrySet()) {
+                History history = entry.getValue();
+                if (history.size >= PROVISIONAL_RACES) {
+                    established.add(entry.getKey());
+                    if (isActive(history, raceCount)) {
+                        active.add(entry.getKey());
+                    }
+                }
+            }
+            active.sort((a, b) -> Float.compare(histories.get(b).rating(), histories.get(a).rating()));
+            established.sort((a, b) -> Float.compare(histories.get(b).peak(), histories.get(a).peak()));
+            this.byRating = toArray(active);
+            this.byPeak = toArray(established);
+            this.ratings = new float[byRating.length];
+            for (int i = 0; i < byRating.length; i++) {
+                ratings[i] = histories.get(byRating[i]).rating();
+            }
+        }
+
+        Ladder apply(List<int[]> orders, int firstRace, int raceCount) {
+            Map<Integer, History> next = new HashMap<>(histories);
+            Set<Integer> copied = new HashSet<>();
+            for (int r = 0; r < orders.size(); r++) {
+                int[] order = orders.get(r);
+                int n = order.length;
+                double[] before = new double[n];
+                for (int i = 0; i < n; i++) {
+                    History history = next.get(order[i]);
+                    before[i] = history == null ? INITIAL_RATING : history.rating();
+                }
+                // Every pair is one game won by the better finisher
+                double[] after = before.clone();
+                double k = n > 1 ? K / (n - 1) : 0.0;
+                for (int i = 0; i < n; i++) {
+                    for (int j = i + 1; j < n; j++) {
+                        double expected = 1.0 / (1.0 + Math.pow(10.0, (before[j] - before[i]) / 400.0));
+                        double change = k * (1.0 - expected);
+                        after[i] += change;
+                        after[j] -= change;
+                    }
+                }
+                for (int i = 0; i < n; i++) {
+                    History history = next.get(order[i]);
+                    if (copied.add(order[i])) {
+                        history = history == null ? new History() : history.copy();
+                        next.put(order[i], history);
+                    }
+                    history.append(firstRace + r, after[i]);
+                }
+            }
+            return new Ladder(next, raceCount);
+        }
+
+        // Position on the current leaderboard, null if not listed there
+        Integer rank(int id, int raceCount) {
+            History history = histories.get(id);
+            if (history.size < PROVISIONAL_RACES || !isActive(history, raceCount)) {
+                return null;
+            }
+            float rating = history.rating();
+            int lo = 0;
+            int hi = ratings.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (ratings[mid] > rating) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo + 1;
+        }
+
+        private static boolean isActive(History history, int raceCount) {
+            return history.races[history.size - 1] >= raceCount - ACTIVE_RACES;
+        }
+    }
+
+    /**
+     * One entry's career as parallel arrays: race ordinal, rating after that
+     * race, and the index of the highest rating so far.
+     */
+    private static final class History {
+
+        int size;
+        int[] races;
+        float[] ratings;
+        int[] peakAt;
+
+        History() {
+            this(16);
+        }
+
+        private History(int capacity) {
+            races = new int[capacity];
+            ratings = new float[capacity];
+            peakAt = new int[capacity];
+        }
+
+        History copy() {
+            History copy = new History(0);
+            int capacity = size + Math.max(16, size / 2);
+            copy.size = size;
+            copy.races = Arrays.copyOf(races, capacity);
+            copy.ratings = Arrays.copyOf(ratings, capacity);
+            copy.peakAt = Arrays.copyOf(peakAt, capacity);
+            return copy;
+        }
+
+        float rating() {
+            return ratings[size - 1];
+        }
+
+        float peak() {
+            return ratings[peakAt[size - 1]];
+        }
+
+        void append(int race, double rating) {
+            if (size == races.length) {
+                int capacity = size + Math.max(16, size / 2);
+                races = Arrays.copyOf(races, capacity);
+                ratings = Arrays.copyOf(ratings, capacity);
+                peakAt = Arrays.copyOf(peakAt, capacity);
+            }
+            races[size] = race;
+            ratings[size] = (float) rating;
+            peakAt[size] = size == 0 || ratings[size] > ratings[peakAt[size - 1]] ? size : peakAt[size - 1];
+            size++;
+        }
+
+        // Index of the last race on or before the given ordinal, -1 if none
+        int lastAtOrBefore(int race) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (races[mid] <= race) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo - 1;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.f1pedia.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Small id -> display name lookups shared by the in-memory engines, so their
+ * responses can carry names without joining `drivers`, `constructors` and
+ * `circuits` on every query. Loaded lazily on first use.
+ */
+@Component
+public class ReferenceNames {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Map<Integer, String> drivers;
+    private volatile Map<Integer, String> constructors;
+    private volatile Map<Integer, String> circuits;
+
+    public String driver(int driverId) {
+        Map<Integer, String> names = drivers;
+        if (names == null) {
+            drivers = names = load("SELECT driver_id as id, forename || ' ' || surname as name FROM drivers");
+        }
+        return names.get(driverId);
+    }
+
+    public String constructor(int constructorId) {
+        Map<Integer, String> names = constructors;
+        if (names == null) {
+            constructors = names = load("SELECT constructor_id as id, name FROM constructors");
+        }
+        return names.get(constructorId);
+    }
+
+    public String circuit(int circuitId) {
+        Map<Integer, String> names = circuits;
+        if (names == null) {
+            circuits = names = load("SELECT circuit_id as id, name FROM circuits");
+        }
+        return names.get(circuitId);
+    }
+
+    // Forces a reload on next access, e.g. after reference data was edited
+    public void evict() {
+        drivers = null;
+        constructors = null;
+        circuits = null;
+    }
+
+    private Map<Integer, String> load(String sql) {
+        Map<Integer, String> names = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            names.put(rs.getInt("id"), rs.getString("name"));
+        });
+        return names;
+    }
+}
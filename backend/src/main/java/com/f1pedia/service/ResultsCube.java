@@ -0,0 +1,336 @@
+package com.f1pedia.service;
+
+import com.f1pedia.domain.Circuit;
+import com.f1pedia.domain.Driver;
+import com.f1pedia.repository.CircuitRepository;
+import com.f1pedia.repository.DriverRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Pre-aggregated cube of race results at driver x constructor x season x
+ * circuit grain.
+ * <p>
+ * One grouped query fills the base cells with additive measures (entries,
+ * classified finishes, wins, podiums, poles, DNFs, points, position and grid
+ * sums) plus the best finish. Any slice is then rolled up in memory: fixed
+ * dimensions pick the smallest posting list of cells, and the cells are summed
+ * into one {@link Cell} per combination of the group-by dimensions. Per-circuit
+ * and per-season endpoints read the cube instead of scanning `results`.
+ * <p>
+ * Rows without a status are kept (as entries that are not DNFs), since most
+ * readers count every result; the old circuit-reliability query inner joined
+ * `status` and skipped them, which differs only where status_id is null.
+ */
+@Service
+public class ResultsCube {
+
+    public enum Dimension { DRIVER, CONSTRUCTOR, SEASON, CIRCUIT }
+
+    private static final String CELLS_SQL = """
+            SELECT r.driver_id, r.constructor_id, ra.year, ra.circuit_id,
+                   COUNT(*) as entries,
+                   COUNT(r.position) as classified,
+                   COUNT(CASE WHEN r.position = 1 THEN 1 END) as wins,
+                   COUNT(CASE WHEN r.position <= 3 THEN 1 END) as podiums,
+                   COUNT(CASE WHEN r.grid = 1 THEN 1 END) as poles,
+                   COUNT(CASE WHEN s.status != 'Finished' AND s.status NOT LIKE '+%' THEN 1 END) as dnfs,
+                   COALESCE(SUM(r.points), 0) as points,
+                   COALESCE(SUM(CASE WHEN r.position IS NOT NULL THEN r.points END), 0) as classified_points,
+                   COALESCE(SUM(r.position), 0) as position_sum,
+                   COALESCE(SUM(r.grid), 0) as grid_sum,
+                   COUNT(r.grid) as grid_count,
+                   MIN(r.position) as best_finish
+            FROM results r
+            JOIN races ra ON r.race_id = ra.race_id
+            LEFT JOIN status s ON r.status_id = s.status_id
+            GROUP BY r.driver_id, r.constructor_id, ra.year, ra.circuit_id
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CircuitRepository circuitRepository;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    private final LazyValue<Cells> cells = new LazyValue<>(this::build);
+
+    /**
+     * Rolls the cells matching the fixed dimensions up to the group-by grain.
+     * Dimensions that are neither fixed nor grouped are summed away.
+     *
+     * @param fixed   dimension values to slice on, e.g. {@code Map.of(DRIVER, 1)}
+     * @param groupBy dimensions kept in the result; none for a single total
+     */
+    public Collection<Cell> rollUp(Map<Dimension, Integer> fixed, Dimension... groupBy) {
+        Cells c = cells.get();
+        int[] candidates = null;
+        for (Map.Entry<Dimension, Integer> slice : fixed.entrySet()) {
+            int[] posting = c.postings.get(slice.getKey()).getOrDefault(slice.getValue(), new int[0]);
+            if (candidates == null || posting.length < candidates.length) {
+                candidates = posting;
+            }
+        }
+
+        Map<List<Integer>, Cell> groups = new HashMap<>();
+        int count = candidates != null ? candidates.length : c.size;
+        for (int i = 0; i < count; i++) {
+            int cell = candidates != null ? candidates[i] : i;
+            if (!matches(c, cell, fixed)) {
+                continue;
+            }
+            List<Integer> key = new ArrayList<>(groupBy.length);
+            for (Dimension dimension : groupBy) {
+                key.add(c.dimension(dimension)[cell]);
+            }
+            groups.computeIfAbsent(key, k -> new Cell(groupBy, k)).add(c, cell);
+        }
+        return groups.values();
+    }
+
+    /** Single-dimension convenience: one cell per value of {@code groupBy}. */
+    public Collection<Cell> rollUp(Dimension fixedDimension, int value, Dimension... groupBy) {
+        return rollUp(Map.of(fixedDimension, value), groupBy);
+    }
+
+    public Circuit circuit(int circuitId) {
+        return cells.get().circuits.get(circuitId);
+    }
+
+    public Driver driver(int driverId) {
+        return cells.get().drivers.get(driverId);
+    }
+
+    // Rebuilds the cube on next access, e.g. after new results were loaded
+    public void evict() {
+        cells.evict();
+    }
+
+    private static boolean matches(Cells c, int cell, Map<Dimension, Integer> fixed) {
+        for (Map.Entry<Dimension, Integer> slice : fixed.entrySet()) {
+            if (c.dimension(slice.getKey())[cell] != slice.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Cells build() {
+        Cells c = new Cells();
+        jdbcTemplate.query(CELLS_SQL, rs -> {
+            c.ensureCapacity();
+            int i = c.size++;
+            c.driver[i] = rs.getInt("driver_id");
+            c.constructor[i] = rs.getInt("constructor_id");
+            c.season[i] = rs.getInt("year");
+            c.circuit[i] = rs.getInt("circuit_id");
+            c.entries[i] = rs.getInt("entries");
+            c.classified[i] = rs.getInt("classified");
+            c.wins[i] = rs.getInt("wins");
+            c.podiums[i] = rs.getInt("podiums");
+            c.poles[i] = rs.getInt("poles");
+            c.dnfs[i] = rs.getInt("dnfs");
+            c.points[i] = rs.getDouble("points");
+            c.classifiedPoints[i] = rs.getDouble("classified_points");
+            c.positionSum[i] = rs.getLong("position_sum");
+            c.gridSum[i] = rs.getLong("grid_sum");
+            c.gridCount[i] = rs.getInt("grid_count");
+            int best = rs.getInt("best_finish");
+            c.bestFinish[i] = rs.wasNull() ? Integer.MAX_VALUE : best;
+        });
+        for (Dimension dimension : Dimension.values()) {
+            c.postings.put(dimension, postings(c.dimension(dimension), c.size));
+        }
+        for (Circuit circuit : circuitRepository.findAll()) {
+            c.circuits.put(circuit.getCircuitId(), circuit);
+        }
+        for (Driver driver : driverRepository.findAll()) {
+            c.drivers.put(driver.getDriverId(), driver);
+        }
+        return c;
+    }
+
+    // Cell indexes per dimension value
+    private static Map<Integer, int[]> postings(int[] values, int size) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            counts.merge(values[i], 1, Integer::sum);
+        }
+        Map<Integer, int[]> postings = new HashMap<>();
+        Map<Integer, Integer> filled = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            int[] posting = postings.computeIfAbsent(values[i], v -> new int[counts.get(v)]);
+            posting[filled.merge(values[i], 1, Integer::sum) - 1] = i;
+        }
+        return postings;
+    }
+
+    /** Base cells as parallel arrays, one entry per grouped row. */
+    private static final class Cells {
+        int size;
+        int[] driver = new int[0], constructor = new int[0], season = new int[0], circuit = new int[0];
+        int[] entries = new int[0], classified = new int[0], wins = new int[0], podiums = new int[0],
+                poles = new int[0], dnfs = new int[0], gridCount = new int[0], bestFinish = new int[0];
+        double[] points = new double[0], classifiedPoints = new double[0];
+        long[] positionSum = new long[0], gridSum = new long[0];
+        final Map<Dimension, Map<Integer, int[]>> postings = new EnumMap<>(Dimension.class);
+        final Map<Integer, Circuit> circuits = new HashMap<>();
+        final Map<Integer, Driver> drivers = new HashMap<>();
+
+        int[] dimension(Dimension dimension) {
+            return switch (dimension) {
+                case DRIVER -> driver;
+                case CONSTRUCTOR -> constructor;
+                case SEASON -> season;
+                case CIRCUIT -> circuit;
+            };
+        }
+
+        void ensureCapacity() {
+            if (size < driver.length) {
+                return;
+            }
+            int capacity = Math.max(1024, size * 2);
+            driver = Arrays.copyOf(driver, capacity);
+            constructor = Arrays.copyOf(constructor, capacity);
+            season = Arrays.copyOf(season, capacity);
+            circuit = Arrays.copyOf(circuit, capacity);
+            entries = Arrays.copyOf(entries, capacity);
+            classified = Arrays.copyOf(classified, capacity);
+            wins = Arrays.copyOf(wins, capacity);
+            podiums = Arrays.copyOf(podiums, capacity);
+            poles = Arrays.copyOf(poles, capacity);
+            dnfs = Arrays.copyOf(dnfs, capacity);
+            gridCount = Arrays.copyOf(gridCount, capacity);
+            bestFinish = Arrays.copyOf(bestFinish, capacity);
+            points = Arrays.copyOf(points, capacity);
+            classifiedPoints = Arrays.copyOf(classifiedPoints, capacity);
+            positionSum = Arrays.copyOf(positionSum, capacity);
+            gridSum = Arrays.copyOf(gridSum, capacity);
+        }
+    }
+
+    /**
+     * Measures rolled up for one combination of group-by values. Dimensions
+     * that were summed away read as null.
+     */
+    public static final class Cell {
+        private final Integer driverId, constructorId, season, circuitId;
+        private long entries, classified, wins, podiums, poles, dnfs, positionSum, gridSum, gridCount;
+        private double points, classifiedPoints;
+        private int bestFinish = Integer.MAX_VALUE;
+        private int firstSeason = Integer.MAX_VALUE, lastSeason = Integer.MIN_VALUE;
+
+        Cell(Dimension[] groupBy, List<Integer> key) {
+            Integer[] values = new Integer[Dimension.values().length];
+            for (int i = 0; i < groupBy.length; i++) {
+                values[groupBy[i].ordinal()] = key.get(i);
+            }
+            driverId = values[Dimension.DRIVER.ordinal()];
+            constructorId = values[Dimension.CONSTRUCTOR.ordinal()];
+            season = values[Dimension.SEASON.ordinal()];
+            circuitId = values[Dimension.CIRCUIT.ordinal()];
+        }
+
+        void add(Cells c, int i) {
+            entries += c.entries[i];
+            classified += c.classified[i];
+            wins += c.wins[i];
+            podiums += c.podiums[i];
+            poles += c.poles[i];
+            dnfs += c.dnfs[i];
+            positionSum += c.positionSum[i];
+            gridSum += c.gridSum[i];
+            gridCount += c.gridCount[i];
+            points += c.points[i];
+            classifiedPoints += c.classifiedPoints[i];
+            bestFinish = Math.min(bestFinish, c.bestFinish[i]);
+            firstSeason = Math.min(firstSeason, c.season[i]);
+            lastSeason = Math.max(lastSeason, c.season[i]);
+        }
+
+        public Integer driverId() {
+            return driverId;
+        }
+
+        public Integer constructorId() {
+            return constructorId;
+        }
+
+        public Integer season() {
+            return season;
+        }
+
+        public Integer circuitId() {
+            return circuitId;
+        }
+
+        /** Result rows, classified or not. */
+        public long entries() {
+            return entries;
+        }
+
+        /** Rows with a finishing position. */
+        public long classified() {
+            return classified;
+        }
+
+        /** Rows without a finishing position. */
+        public long unclassified() {
+            return entries - classified;
+        }
+
+        public long wins() {
+            return wins;
+        }
+
+        public long podiums() {
+            return podiums;
+        }
+
+        public long poles() {
+            return poles;
+        }
+
+        /** Rows whose status is neither Finished nor +n Laps. */
+        public long dnfs() {
+            return dnfs;
+        }
+
+        public double points() {
+            return points;
+        }
+
+        /** Points scored on classified rows only. */
+        public double classifiedPoints() {
+            return classifiedPoints;
+        }
+
+        /** Mean finishing position of classified rows, null if none. */
+        public Double avgFinish() {
+            return classified > 0 ? (double) positionSum / classified : null;
+        }
+
+        public Double avgGrid() {
+            return gridCount > 0 ? (double) gridSum / gridCount : null;
+        }
+
+        public Integer bestFinish() {
+            return bestFinish == Integer.MAX_VALUE ? null : bestFinish;
+        }
+
+        public int firstSeason() {
+            return firstSeason;
+        }
+
+        public int lastSeason() {
+            return lastSeason;
+        }
+    }
+}
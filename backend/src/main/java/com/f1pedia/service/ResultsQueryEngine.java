@@ -0,0 +1,610 @@
+package com.f1pedia.service;
+
+import com.f1pedia.web.QueryDeadlines;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Ad-hoc filter / group-by / aggregate queries over race results, executed in
+ * memory instead of the database.
+ * <p>
+ * Results are read from the database once (and again after
+ * {@link CacheInvalidator} reports a change to results, races or status) and
+ * denormalised into primitive arrays (season, circuit and
+ * status category resolved per row). A query scans fixed-size segments in
+ * parallel: a branch-free loop fills a selection vector, group keys are built
+ * one dimension at a time, and each aggregate is a tight loop over one column.
+ * Groups live in flat arrays indexed by key when the key space is small and
+ * in a hash table otherwise; per-segment partials are merged at the end.
+ * <p>
+ * Limits: at most {@value #MAX_GROUP_BY} group-by dimensions,
+ * {@value #MAX_AGGREGATES} aggregates and {@value #MAX_GROUPS} groups, and the
+ * scan stops when the request deadline passes.
+ */
+@Service
+public class ResultsQueryEngine {
+
+    public static final List<String> DIMENSIONS = List.of("season", "circuit", "driver", "constructor", "status",
+            "status_category", "grid", "position");
+    public static final List<String> FIELDS = List.of("points", "grid", "position", "position_order", "laps",
+            "win", "podium", "pole", "fastest_lap", "finished");
+    public static final List<String> FUNCTIONS = List.of("count", "sum", "avg", "min", "max");
+    public static final List<String> STATUS_CATEGORIES = List.of("finished", "accident", "mechanical",
+            "disqualified", "other");
+
+    private static final int MAX_GROUP_BY = 3;
+    private static final int MAX_AGGREGATES = 8;
+    private static final int MAX_GROUPS = 10_000;
+    private static final int MAX_LIMIT = 1_000;
+    private static final int SEGMENT_ROWS = 4_096;
+    // Key spaces up to this size are aggregated in flat arrays indexed by key
+    private static final int DENSE_GROUPS = 1 << 16;
+
+    // One row per result, season and circuit resolved from its race
+    private static final String FACTS_SQL = """
+            SELECT ra.year, ra.circuit_id, r.driver_id, r.constructor_id, r.status_id, r.grid, r.position,
+                   r.points, r.position_order, r.laps, r.rank
+            FROM results r
+            LEFT JOIN races ra ON ra.race_id = r.race_id
+            ORDER BY r.result_id
+            """;
+
+    private static final int ANY = -1;
+    private static final int COUNT = 0, SUM = 1, AVG = 2, MIN = 3, MAX = 4;
+
+    private static final Set<String> ACCIDENTS = Set.of("Accident", "Collision", "Collision damage", "Spun off",
+            "Fatal accident", "Damage", "Debris");
+    private static final Set<String> DISQUALIFICATIONS = Set.of("Disqualified", "Excluded", "Underweight");
+    private static final Set<String> OTHER_STATUSES = Set.of("Withdrew", "Not classified", "Did not qualify",
+            "Did not prequalify", "107% Rule", "Not restarted", "Retired", "Physical", "Injured", "Injury",
+            "Eye injury", "Illness", "Driver unwell", "Safety concerns");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QueryDeadlines queryDeadlines;
+
+    private final LazyValue<Facts> facts = new LazyValue<>(() -> new Facts(jdbcTemplate));
+
+    /**
+     * Row filters; null fields match everything.
+     *
+     * @param statusCategory one of {@link #STATUS_CATEGORIES}
+     */
+    public record Filter(Integer seasonFrom, Integer seasonTo, Integer driverId, Integer constructorId,
+                         Integer circuitId, String statusCategory) {
+    }
+
+    /**
+     * Runs one query.
+     *
+     * @param groupBy    names from {@link #DIMENSIONS}; empty for a single total
+     * @param aggregates {@code count} or {@code function:field}, e.g. {@code sum:points}
+     * @param orderBy    an aggregate alias ({@code sum_points}) or dimension;
+     *                   defaults to the first aggregate
+     * @throws IllegalArgumentException for unknown names or exceeded limits
+     */
+    public Map<String, Object> query(Filter filter, List<String> groupBy, List<String> aggregates, String orderBy,
+            boolean ascending, int limit) {
+        if (groupBy.size() > MAX_GROUP_BY) {
+            throw new IllegalArgumentException("At most " + MAX_GROUP_BY + " group-by dimensions");
+        }
+        if (aggregates.isEmpty() || aggregates.size() > MAX_AGGREGATES) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_AGGREGATES + " aggregates");
+        }
+        Facts f = facts.get();
+        Dimension[] dims = new Dimension[groupBy.size()];
+        long keySpace = 1;
+        for (int i = 0; i < dims.length; i++) {
+            int d = DIMENSIONS.indexOf(groupBy.get(i));
+            if (d < 0) {
+                throw new IllegalArgumentException("Unknown dimension " + groupBy.get(i) + ", expected one of "
+                        + DIMENSIONS);
+            }
+            dims[i] = f.dimensions[d];
+            keySpace *= dims[i].values.length;
+        }
+        Aggregate[] aggs = aggregates.stream().map(Aggregate::parse).toArray(Aggregate[]::new);
+        Scan scan = new Scan(f, compile(filter), dims, aggs, keySpace <= DENSE_GROUPS ? (int) keySpace : -1,
+                queryDeadlines.deadlineNanos());
+
+        long start = System.nanoTime();
+        int segments = (f.rows + SEGMENT_ROWS - 1) / SEGMENT_ROWS;
+        Groups groups = IntStream.range(0, segments)
+                .parallel()
+                .mapToObj(scan::segment)
+                .reduce(Groups::merge)
+                .orElseGet(scan::newGroups);
+
+        // Checked before any row map is built; driver x circuit x season alone
+        // is far larger than a chart can show
+        int groupCount = 0;
+        for (int slot = 0; slot < groups.size; slot++) {
+            groupCount += groups.rows[slot] > 0 ? 1 : 0;
+        }
+        if (groupCount > MAX_GROUPS) {
+            throw new IllegalArgumentException("Query produces " + groupCount + " groups, more than " + MAX_GROUPS
+                    + "; add filters or fewer group-by dimensions");
+        }
+        List<Map<String, Object>> rows = new ArrayList<>(groupCount);
+        long matched = 0;
+        for (int slot = 0; slot < groups.size; slot++) {
+            if (groups.rows[slot] > 0) {
+                matched += groups.rows[slot];
+                rows.add(row(dims, aggs, groups, slot));
+            }
+        }
+        String sortKey = orderBy != null ? orderBy : aggs[0].alias;
+        if (!rows.isEmpty() && !rows.get(0).containsKey(sortKey)) {
+            throw new IllegalArgumentException("Cannot order by " + sortKey);
+        }
+        Comparator<Map<String, Object>> order = (a, b) -> compare(a.get(sortKey), b.get(sortKey), ascending);
+        rows.sort(order);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("groupBy", groupBy);
+        response.put("aggregates", Arrays.stream(aggs).map(agg -> agg.alias).toList());
+        response.put("groups", rows.size());
+        response.put("matchedRows", matched);
+        response.put("scannedRows", f.rows);
+        response.put("elapsedMs", Math.round((System.nanoTime() - start) / 10_000.0) / 100.0);
+        response.put("rows", rows.subList(0, Math.min(rows.size(), Math.max(1, Math.min(MAX_LIMIT, limit)))));
+        return response;
+    }
+
+    // Reloads the columns on next query; called by CacheInvalidator
+    public void evict() {
+        facts.evict();
+    }
+
+    private int[] compile(Filter filter) {
+        int category = ANY;
+        if (filter.statusCategory() != null) {
+            category = STATUS_CATEGORIES.indexOf(filter.statusCategory());
+            if (category < 0) {
+                throw new IllegalArgumentException("Unknown status category " + filter.statusCategory()
+                        + ", expected one of " + STATUS_CATEGORIES);
+            }
+        }
+        return new int[] {
+                filter.seasonFrom() != null ? filter.seasonFrom() : Integer.MIN_VALUE + 1,
+                filter.seasonTo() != null ? filter.seasonTo() : Integer.MAX_VALUE,
+                filter.driverId() != null ? filter.driverId() : ANY,
+                filter.constructorId() != null ? filter.constructorId() : ANY,
+                filter.circuitId() != null ? filter.circuitId() : ANY,
+                category };
+    }
+
+    private static Map<String, Object> row(Dimension[] dims, Aggregate[] aggs, Groups groups, int slot) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        // Keys are mixed-radix numbers, last dimension least significant
+        long key = groups.key(slot);
+        int[] codes = new int[dims.length];
+        for (int d = dims.length - 1; d >= 0; d--) {
+            int cardinality = dims[d].values.length;
+            codes[d] = (int) (key % cardinality);
+            key /= cardinality;
+        }
+        for (int d = 0; d < dims.length; d++) {
+            int value = dims[d].values[codes[d]];
+            if (dims[d].entity) {
+                row.put(dims[d].name + "_id", value == ColumnTable.NULL_INT ? null : value);
+            }
+            row.put(dims[d].name, value == ColumnTable.NULL_INT ? null : dims[d].label.apply(value));
+        }
+        for (int a = 0; a < aggs.length; a++) {
+            row.put(aggs[a].alias, aggs[a].result(groups, a, slot));
+        }
+        return row;
+    }
+
+    // Nulls sort last either way
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int compare(Object a, Object b, boolean ascending) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : 1) : -1;
+        }
+        int c = a instanceof Number x && b instanceof Number y
+                ? Double.compare(x.doubleValue(), y.doubleValue())
+                : ((Comparable) a).compareTo(b);
+        return ascending ? c : -c;
+    }
+
+    static int statusCategory(String status) {
+        if (status == null) {
+            return STATUS_CATEGORIES.indexOf("other");
+        }
+        if (status.equals("Finished") || status.startsWith("+")) {
+            return STATUS_CATEGORIES.indexOf("finished");
+        }
+        if (ACCIDENTS.contains(status)) {
+            return STATUS_CATEGORIES.indexOf("accident");
+        }
+        if (DISQUALIFICATIONS.contains(status)) {
+            return STATUS_CATEGORIES.indexOf("disqualified");
+        }
+        return STATUS_CATEGORIES.indexOf(OTHER_STATUSES.contains(status) ? "other" : "mechanical");
+    }
+
+    /** One parsed aggregate; {@code field} is -1 for a plain row count. */
+    private static final class Aggregate {
+        final int function;
+        final int field;
+        final String alias;
+
+        private Aggregate(int function, int field, String alias) {
+            this.function = function;
+            this.field = field;
+            this.alias = alias;
+        }
+
+        static Aggregate parse(String spec) {
+            String[] parts = spec.trim().split(":", 2);
+            int function = FUNCTIONS.indexOf(parts[0]);
+            if (function < 0) {
+                throw new IllegalArgumentException("Unknown function " + parts[0] + ", expected one of " + FUNCTIONS);
+            }
+            if (parts.length == 1) {
+                if (function != COUNT) {
+                    throw new IllegalArgumentException(parts[0] + " needs a field, e.g. " + parts[0] + ":points");
+                }
+                return new Aggregate(COUNT, -1, "count");
+            }
+            int field = FIELDS.indexOf(parts[1]);
+            if (field < 0) {
+                throw new IllegalArgumentException("Unknown field " + parts[1] + ", expected one of " + FIELDS);
+            }
+            return new Aggregate(function, field, parts[0] + "_" + parts[1]);
+        }
+
+        Object result(Groups groups, int a, int slot) {
+            if (field < 0) {
+                return groups.rows[slot];
+            }
+            long count = groups.counts[a][slot];
+            if (function == COUNT) {
+                return count;
+            }
+            if (count == 0) {
+                return null;
+            }
+            double value = function == AVG ? groups.acc[a][slot] / count : groups.acc[a][slot];
+            return Math.round(value * 1000.0) / 1000.0;
+        }
+    }
+
+    /** Per-query state shared by the segment scans. */
+    private static final class Scan {
+        final Facts facts;
+        final int[] filter;
+        final Dimension[] dims;
+        final Aggregate[] aggs;
+        final int denseSize;
+        final Long deadline;
+
+        Scan(Facts facts, int[] filter, Dimension[] dims, Aggregate[] aggs, int denseSize, Long deadline) {
+            this.facts = facts;
+            this.filter = filter;
+            this.dims = dims;
+            this.aggs = aggs;
+            this.denseSize = denseSize;
+            this.deadline = deadline;
+        }
+
+        Groups newGroups() {
+            return new Groups(aggs, denseSize);
+        }
+
+        Groups segment(int segment) {
+            if (deadline != null && System.nanoTime() - deadline >= 0) {
+                throw new CancellationException("Query deadline exceeded");
+            }
+            int from = segment * SEGMENT_ROWS;
+            int to = Math.min(facts.rows, from + SEGMENT_ROWS);
+
+            // Selection vector: branch-free, every row is written, matches advance n
+            int seasonFrom = filter[0], seasonTo = filter[1];
+            int driver = filter[2], constructor = filter[3], circuit = filter[4], category = filter[5];
+            int[] season = facts.season, drivers = facts.driver, constructors = facts.constructor,
+                    circuits = facts.circuit, categories = facts.category;
+            int[] selection = new int[to - from];
+            int n = 0;
+            for (int row = from; row < to; row++) {
+                boolean keep = season[row] >= seasonFrom & season[row] <= seasonTo
+                        & (driver == ANY | drivers[row] == driver)
+                        & (constructor == ANY | constructors[row] == constructor)
+                        & (circuit == ANY | circuits[row] == circuit)
+                        & (category == ANY | categories[row] == category);
+                selection[n] = row;
+                n += keep ? 1 : 0;
+            }
+
+            long[] keys = new long[n];
+            for (Dimension dim : dims) {
+                int[] codes = dim.codes;
+                int cardinality = dim.values.length;
+                for (int i = 0; i < n; i++) {
+                    keys[i] = keys[i] * cardinality + codes[selection[i]];
+                }
+            }
+
+            Groups groups = newGroups();
+            int[] slots = groups.slots(keys, n);
+            long[] rows = groups.rows;
+            for (int i = 0; i < n; i++) {
+                rows[slots[i]]++;
+            }
+            for (int a = 0; a < aggs.length; a++) {
+                if (aggs[a].field >= 0) {
+                    accumulate(aggs[a].function, facts.fields[aggs[a].field], selection, slots, n,
+                            groups.acc[a], groups.counts[a]);
+                }
+            }
+            return groups;
+        }
+
+        private static void accumulate(int function, double[] values, int[] selection, int[] slots, int n,
+                double[] acc, long[] counts) {
+            switch (function) {
+                case MIN -> {
+                    for (int i = 0; i < n; i++) {
+                        double v = values[selection[i]];
+                        if (v == v) {
+                            acc[slots[i]] = Math.min(acc[slots[i]], v);
+                            counts[slots[i]]++;
+                        }
+                    }
+                }
+                case MAX -> {
+                    for (int i = 0; i < n; i++) {
+                        double v = values[selection[i]];
+                        if (v == v) {
+                            acc[slots[i]] = Math.max(acc[slots[i]], v);
+                            counts[slots[i]]++;
+                        }
+                    }
+                }
+                default -> {
+                    for (int i = 0; i < n; i++) {
+                        double v = values[selection[i]];
+                        if (v == v) {
+                            acc[slots[i]] += v;
+                            counts[slots[i]]++;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Aggregation state per group. Dense groups use the key as the slot;
+     * sparse groups assign slots on first sight and remember their keys.
+     */
+    private static final class Groups {
+        final Aggregate[] aggs;
+        final boolean dense;
+        final Map<Long, Integer> slotsByKey;
+        int size;
+        long[] keys;
+        long[] rows;
+        double[][] acc;
+        long[][] counts;
+
+        Groups(Aggregate[] aggs, int denseSize) {
+            this.aggs = aggs;
+            this.dense = denseSize >= 0;
+            this.slotsByKey = dense ? null : new HashMap<>();
+            int capacity = dense ? denseSize : 64;
+            this.size = dense ? denseSize : 0;
+            this.keys = dense ? null : new long[capacity];
+            this.rows = new long[capacity];
+            this.acc = new double[aggs.length][capacity];
+            this.counts = new long[aggs.length][capacity];
+            initialise(0, capacity);
+        }
+
+        long key(int slot) {
+            return dense ? slot : keys[slot];
+        }
+
+        int[] slots(long[] keys, int n) {
+            int[] slots = new int[n];
+            for (int i = 0; i < n; i++) {
+                slots[i] = dense ? (int) keys[i] : slot(keys[i]);
+            }
+            return slots;
+        }
+
+        int slot(long key) {
+            if (dense) {
+                return (int) key;
+            }
+            Integer slot = slotsByKey.get(key);
+            if (slot != null) {
+                return slot;
+            }
+            if (size == MAX_GROUPS) {
+                throw new IllegalArgumentException("Query produces more than " + MAX_GROUPS + " groups");
+            }
+            if (size == rows.length) {
+                grow();
+            }
+            keys[size] = key;
+            slotsByKey.put(key, size);
+            return size++;
+        }
+
+        Groups merge(Groups other) {
+            for (int s = 0; s < other.size; s++) {
+                if (other.rows[s] == 0) {
+                    continue;
+                }
+                int t = slot(other.key(s));
+                rows[t] += other.rows[s];
+                for (int a = 0; a < aggs.length; a++) {
+                    double value = other.acc[a][s];
+                    acc[a][t] = switch (aggs[a].function) {
+                        case MIN -> Math.min(acc[a][t], value);
+                        case MAX -> Math.max(acc[a][t], value);
+                        default -> acc[a][t] + value;
+                    };
+                    counts[a][t] += other.counts[a][s];
+                }
+            }
+            return this;
+        }
+
+        private void grow() {
+            int capacity = rows.length * 2;
+            int old = rows.length;
+            keys = Arrays.copyOf(keys, capacity);
+            rows = Arrays.copyOf(rows, capacity);
+            for (int a = 0; a < aggs.length; a++) {
+                acc[a] = Arrays.copyOf(acc[a], capacity);
+                counts[a] = Arrays.copyOf(counts[a], capacity);
+            }
+            initialise(old, capacity);
+        }
+
+        private void initialise(int from, int to) {
+            for (int a = 0; a < aggs.length; a++) {
+                if (aggs[a].function == MIN) {
+                    Arrays.fill(acc[a], from, to, Double.POSITIVE_INFINITY);
+                } else if (aggs[a].function == MAX) {
+                    Arrays.fill(acc[a], from, to, Double.NEGATIVE_INFINITY);
+                }
+            }
+        }
+    }
+
+    /**
+     * A group-by dimension: dense code per row plus the distinct raw values
+     * (sorted, nulls first) the codes stand for.
+     */
+    private static final class Dimension {
+        final String name;
+        final boolean entity;
+        final int[] codes;
+        final int[] values;
+        final IntFunction<Object> label;
+
+        Dimension(String name, boolean entity, int[] raw, IntFunction<Object> label) {
+            this.name = name;
+            this.entity = entity;
+            this.label = label;
+            this.values = Arrays.stream(raw).distinct().sorted().toArray();
+            this.codes = new int[raw.length];
+            for (int row = 0; row < raw.length; row++) {
+                codes[row] = Arrays.binarySearch(values, raw[row]);
+            }
+        }
+    }
+
+    /** Results joined with races and status, one primitive array per column. */
+    private static final class Facts {
+        final int rows;
+        final int[] season;
+        final int[] circuit;
+        final int[] driver;
+        final int[] constructor;
+        final int[] category;
+        final double[][] fields = new double[FIELDS.size()][];
+        final Dimension[] dimensions = new Dimension[DIMENSIONS.size()];
+
+        Facts(JdbcTemplate jdbc) {
+            Map<Integer, String> statuses = names(jdbc, "SELECT status_id, status FROM status");
+            Map<Integer, String> circuits = names(jdbc, "SELECT circuit_id, name FROM circuits");
+            Map<Integer, String> constructors = names(jdbc, "SELECT constructor_id, name FROM constructors");
+            Map<Integer, String> drivers = names(jdbc,
+                    "SELECT driver_id, forename || ' ' || surname FROM drivers");
+
+            // Sized from a count taken first; rows inserted in between are
+            // picked up by the reload their notification triggers
+            int capacity = jdbc.queryForObject("SELECT COUNT(*) FROM results", Integer.class);
+            // season, circuit, driver, constructor, status category, status, grid, position
+            int[][] ints = new int[8][capacity];
+            double[][] values = new double[FIELDS.size()][capacity];
+            int finished = STATUS_CATEGORIES.indexOf("finished");
+            int[] count = { 0 };
+            jdbc.query(FACTS_SQL, rs -> {
+                int row = count[0];
+                if (row == capacity) {
+                    return;
+                }
+                int status = rs.getInt(5);
+                int category = statusCategory(statuses.get(status));
+                int grid = intOrNull(rs, 6);
+                int position = intOrNull(rs, 7);
+                ints[0][row] = intOrNull(rs, 1);
+                ints[1][row] = intOrNull(rs, 2);
+                ints[2][row] = rs.getInt(3);
+                ints[3][row] = rs.getInt(4);
+                ints[4][row] = category;
+                ints[5][row] = status;
+                ints[6][row] = grid;
+                ints[7][row] = position;
+
+                values[0][row] = doubleOrNaN(rs, 8);
+                values[1][row] = grid == ColumnTable.NULL_INT ? Double.NaN : grid;
+                values[2][row] = position == ColumnTable.NULL_INT ? Double.NaN : position;
+                values[3][row] = doubleOrNaN(rs, 9);
+                values[4][row] = doubleOrNaN(rs, 10);
+                values[5][row] = position == 1 ? 1 : 0;
+                values[6][row] = position != ColumnTable.NULL_INT && position <= 3 ? 1 : 0;
+                values[7][row] = grid == 1 ? 1 : 0;
+                values[8][row] = intOrNull(rs, 11) == 1 ? 1 : 0;
+                values[9][row] = category == finished ? 1 : 0;
+                count[0]++;
+            });
+            rows = count[0];
+            season = Arrays.copyOf(ints[0], rows);
+            circuit = Arrays.copyOf(ints[1], rows);
+            driver = Arrays.copyOf(ints[2], rows);
+            constructor = Arrays.copyOf(ints[3], rows);
+            category = Arrays.copyOf(ints[4], rows);
+            int[] status = Arrays.copyOf(ints[5], rows);
+            int[] grid = Arrays.copyOf(ints[6], rows);
+            int[] position = Arrays.copyOf(ints[7], rows);
+            for (int f = 0; f < FIELDS.size(); f++) {
+                fields[f] = Arrays.copyOf(values[f], rows);
+            }
+
+            dimensions[0] = new Dimension("season", false, season, value -> value);
+            dimensions[1] = new Dimension("circuit", true, circuit, circuits::get);
+            dimensions[2] = new Dimension("driver", true, driver, drivers::get);
+            dimensions[3] = new Dimension("constructor", true, constructor, constructors::get);
+            dimensions[4] = new Dimension("status", false, status, statuses::get);
+            dimensions[5] = new Dimension("status_category", false, category, STATUS_CATEGORIES::get);
+            dimensions[6] = new Dimension("grid", false, grid, value -> value);
+            dimensions[7] = new Dimension("position", false, position, value -> value);
+        }
+
+        private static Map<Integer, String> names(JdbcTemplate jdbc, String sql) {
+            Map<Integer, String> names = new HashMap<>();
+            jdbc.query(sql, rs -> {
+                names.put(rs.getInt(1), rs.getString(2));
+            });
+            return names;
+        }
+
+        private static int intOrNull(ResultSet rs, int column) throws SQLException {
+            int value = rs.getInt(column);
+            return rs.wasNull() ? ColumnTable.NULL_INT : value;
+        }
+
+        private static double doubleOrNaN(ResultSet rs, int column) throws SQLException {
+            double value = rs.getDouble(column);
+            return rs.wasNull() ? Double.NaN : value;
+        }
+    }
+}
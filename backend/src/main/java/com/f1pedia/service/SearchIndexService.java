@@ -0,0 +1,367 @@
+package com.f1pedia.service;
+
+import com.f1pedia.domain.Circuit;
+import com.f1pedia.domain.Constructor;
+import com.f1pedia.domain.Driver;
+import com.f1pedia.repository.CircuitRepository;
+import com.f1pedia.repository.ConstructorRepository;
+import com.f1pedia.repository.DriverRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * In-memory trigram index over drivers, constructors and circuits.
+ * <p>
+ * Searchable text is folded to lowercase ASCII letters, digits and spaces, so
+ * every trigram maps to a slot in a fixed 37^3 postings table. Queries score
+ * documents by trigram overlap (typo tolerant), boost word-prefix and exact
+ * matches, and break ties by how often the driver / team / circuit appears in
+ * the results.
+ */
+@Service
+public class SearchIndexService {
+
+    public static final String DRIVER = "driver";
+    public static final String CONSTRUCTOR = "constructor";
+    public static final String CIRCUIT = "circuit";
+
+    private static final int ALPHABET = 37;
+    private static final double MIN_SIMILARITY = 0.25;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private ConstructorRepository constructorRepository;
+
+    @Autowired
+    private CircuitRepository circuitRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LazyValue<Index> index = new LazyValue<>(this::build);
+
+    /**
+     * Ranked autocomplete over all entity types.
+     *
+     * @param query free text, e.g. "hamiltn", "HAM", "monza"
+     * @param type  optional restriction to one entity type
+     * @param limit maximum number of results
+     */
+    public List<Map<String, Object>> search(String query, String type, int limit) {
+        Index idx = index.get();
+        String folded = fold(query);
+        if (folded.isBlank()) {
+            return List.of();
+        }
+
+        int[] queryTrigrams = trigrams(folded);
+        int[] shared = new int[idx.size];
+        for (int trigram : queryTrigrams) {
+            int[] postings = idx.postings[trigram];
+            if (postings != null) {
+                for (int doc : postings) {
+                    shared[doc]++;
+                }
+            }
+        }
+
+        String[] queryWords = folded.trim().split(" +");
+        double[] scores = new double[idx.size];
+        List<Integer> hits = new ArrayList<>();
+        for (int doc = 0; doc < idx.size; doc++) {
+            if (type != null && !type.equals(idx.types[doc])) {
+                continue;
+            }
+            double similarity = shared[doc] == 0 ? 0.0
+                    : (double) shared[doc] / (queryTrigrams.length + idx.trigramCounts[doc] - shared[doc]);
+            double boost = matchBoost(idx.texts[doc], idx.keys[doc], queryWords);
+            if (similarity < MIN_SIMILARITY && boost == 0.0) {
+                continue;
+            }
+            scores[doc] = similarity + boost + 0.1 * idx.popularity[doc];
+            hits.add(doc);
+        }
+
+        hits.sort((a, b) -> Double.compare(scores[b], scores[a]));
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, hits.size()); i++) {
+            int doc = hits.get(i);
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("type", idx.types[doc]);
+            map.put("id", idx.ids[doc]);
+            map.put("label", idx.labels[doc]);
+            map.put("detail", idx.details[doc]);
+            map.put("score", Math.round(scores[doc] * 1000.0) / 1000.0);
+            results.add(map);
+        }
+        return results;
+    }
+
+    /**
+     * Constructors whose name contains the given text (case and accent
+     * insensitive), answered from the index instead of an ILIKE scan: the
+     * candidates are the constructors posted under every whole-letter trigram
+     * of the text, which any containing name must have, and only those are
+     * checked. Text without such a trigram (words under three characters)
+     * falls back to checking every constructor, and text that folds to
+     * nothing (only punctuation, e.g. "&") is matched literally.
+     */
+    public List<Constructor> constructorsNamed(String search) {
+        Index idx = index.get();
+        String folded = fold(search).trim();
+        int[] grams = innerTrigrams(folded);
+        List<Constructor> matches = new ArrayList<>();
+        if (folded.isEmpty()) {
+            String literal = search.toLowerCase(Locale.ROOT);
+            for (Constructor constructor : idx.constructors) {
+                if (constructor.getName() != null
+                        && constructor.getName().toLowerCase(Locale.ROOT).contains(literal)) {
+                    matches.add(constructor);
+                }
+            }
+            return matches;
+        }
+        if (grams.length == 0) {
+            for (Constructor constructor : idx.constructors) {
+                if (fold(constructor.getName()).contains(folded)) {
+                    matches.add(constructor);
+                }
+            }
+            return matches;
+        }
+
+        int[] shared = new int[idx.size];
+        for (int gram : grams) {
+            int[] postings = idx.postings[gram];
+            if (postings == null) {
+                return matches;
+            }
+            for (int doc : postings) {
+                shared[doc]++;
+            }
+        }
+        for (int doc = 0; doc < idx.size; doc++) {
+            if (shared[doc] == grams.length && CONSTRUCTOR.equals(idx.types[doc])) {
+                Constructor constructor = idx.constructorsById.get(idx.ids[doc]);
+                if (fold(constructor.getName()).contains(folded)) {
+                    matches.add(constructor);
+                }
+            }
+        }
+        return matches;
+    }
+
+    // Rebuilds the index on next access
+    public void evict() {
+        index.evict();
+    }
+
+    // Word-prefix and exact-key matches outrank fuzzy trigram overlap
+    private static double matchBoost(String text, String[] keys, String[] queryWords) {
+        String query = String.join(" ", queryWords);
+        for (String key : keys) {
+            if (key.equals(query)) {
+                return 2.0;
+            }
+        }
+        if (text.startsWith(query)) {
+            return 1.0;
+        }
+        double boost = 0.0;
+        for (String word : queryWords) {
+            if (text.startsWith(word) || text.contains(" " + word)) {
+                boost += 0.5 / queryWords.length;
+            }
+        }
+        return boost;
+    }
+
+    private Index build() {
+        List<Driver> drivers = driverRepository.findAll();
+        List<Constructor> constructors = constructorRepository.findAll();
+        List<Circuit> circuits = circuitRepository.findAll();
+        Map<Integer, Long> driverEntries = counts("SELECT driver_id as id, COUNT(*) as n FROM results GROUP BY driver_id");
+        Map<Integer, Long> constructorEntries = counts(
+                "SELECT constructor_id as id, COUNT(*) as n FROM results GROUP BY constructor_id");
+        Map<Integer, Long> circuitRaces = counts("SELECT circuit_id as id, COUNT(*) as n FROM races GROUP BY circuit_id");
+
+        Index idx = new Index(drivers.size() + constructors.size() + circuits.size());
+        idx.constructors = constructors;
+        for (Driver d : drivers) {
+            String name = d.getForename() + " " + d.getSurname();
+            idx.add(DRIVER, d.getDriverId(), name, join(" - ", d.getCode(), d.getNationality()),
+                    driverEntries.getOrDefault(d.getDriverId(), 0L), name, d.getSurname(), d.getCode(),
+                    d.getDriverRef());
+        }
+        for (Constructor c : constructors) {
+            idx.constructorsById.put(c.getConstructorId(), c);
+            idx.add(CONSTRUCTOR, c.getConstructorId(), c.getName(), c.getNationality(),
+                    constructorEntries.getOrDefault(c.getConstructorId(), 0L), c.getName(), c.getConstructorRef());
+        }
+        for (Circuit c : circuits) {
+            idx.add(CIRCUIT, c.getCircuitId(), c.getName(), join(", ", c.getLocation(), c.getCountry()),
+                    circuitRaces.getOrDefault(c.getCircuitId(), 0L), c.getName(), c.getLocation(), c.getCountry());
+        }
+        idx.finish();
+        return idx;
+    }
+
+    private Map<Integer, Long> counts(String sql) {
+        Map<Integer, Long> counts = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            counts.put(rs.getInt("id"), rs.getLong("n"));
+        });
+        return counts;
+    }
+
+    private static String join(String separator, String... parts) {
+        StringJoiner joiner = new StringJoiner(separator);
+        for (String part : parts) {
+            if (part != null && !part.isBlank()) {
+                joiner.add(part);
+            }
+        }
+        return joiner.toString();
+    }
+
+    // Lowercase ASCII letters/digits; everything else (accents stripped first) becomes a space
+    static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(stripped.length());
+        for (int i = 0; i < stripped.length(); i++) {
+            char ch = Character.toLowerCase(stripped.charAt(i));
+            if ((ch >= 'a' && ch <= 'z') || (ch >= '0' && ch <= '9')) {
+                sb.append(ch);
+            } else if (Character.getType(ch) != Character.NON_SPACING_MARK) {
+                sb.append(' ');
+            }
+        }
+        return sb.toString();
+    }
+
+    // pg_trgm style: each word padded with two leading and one trailing space
+    static int[] trigrams(String folded) {
+        Set<Integer> grams = new LinkedHashSet<>();
+        for (String word : folded.trim().split(" +")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(code(padded.charAt(i)) * ALPHABET * ALPHABET
+                        + code(padded.charAt(i + 1)) * ALPHABET
+                        + code(padded.charAt(i + 2)));
+            }
+        }
+        return grams.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // Trigrams inside the words of a text, without word-boundary padding: a
+    // text that is a substring of another shares all of these with it
+    static int[] innerTrigrams(String folded) {
+        Set<Integer> grams = new LinkedHashSet<>();
+        for (String word : folded.split(" +")) {
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                grams.add(code(word.charAt(i)) * ALPHABET * ALPHABET
+                        + code(word.charAt(i + 1)) * ALPHABET
+                        + code(word.charAt(i + 2)));
+            }
+        }
+        return grams.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int code(char ch) {
+        if (ch >= 'a' && ch <= 'z') {
+            return ch - 'a' + 1;
+        }
+        if (ch >= '0' && ch <= '9') {
+            return ch - '0' + 27;
+        }
+        return 0;
+    }
+
+    private static final class Index {
+        int size;
+        final String[] types;
+        final int[] ids;
+        final String[] labels;
+        final String[] details;
+        final String[] texts;
+        final String[][] keys;
+        final int[] trigramCounts;
+        final double[] popularity;
+        final long[] rawPopularity;
+        final int[][] postings = new int[ALPHABET * ALPHABET * ALPHABET][];
+        final int[] postingSizes = new int[ALPHABET * ALPHABET * ALPHABET];
+        List<Constructor> constructors = List.of();
+        final Map<Integer, Constructor> constructorsById = new HashMap<>();
+
+        Index(int capacity) {
+            types = new String[capacity];
+            ids = new int[capacity];
+            labels = new String[capacity];
+            details = new String[capacity];
+            texts = new String[capacity];
+            keys = new String[capacity][];
+            trigramCounts = new int[capacity];
+            popularity = new double[capacity];
+            rawPopularity = new long[capacity];
+        }
+
+        void add(String type, int id, String label, String detail, long entries, String... fields) {
+            int doc = size++;
+            types[doc] = type;
+            ids[doc] = id;
+            labels[doc] = label;
+            details[doc] = detail;
+            rawPopularity[doc] = entries;
+
+            List<String> folded = new ArrayList<>();
+            for (String field : fields) {
+                String f = fold(field).trim();
+                if (!f.isEmpty()) {
+                    folded.add(f);
+                }
+            }
+            keys[doc] = folded.toArray(new String[0]);
+            texts[doc] = String.join(" ", folded);
+
+            int[] grams = trigrams(texts[doc]);
+            trigramCounts[doc] = grams.length;
+            for (int gram : grams) {
+                int[] list = postings[gram];
+                if (list == null) {
+                    list = postings[gram] = new int[4];
+                } else if (postingSizes[gram] == list.length) {
+                    list = postings[gram] = Arrays.copyOf(list, list.length * 2);
+                }
+                list[postingSizes[gram]++] = doc;
+            }
+        }
+
+        // Trims postings to size and normalises popularity to [0, 1] on a log scale
+        void finish() {
+            for (int gram = 0; gram < postings.length; gram++) {
+                if (postings[gram] != null) {
+                    postings[gram] = Arrays.copyOf(postings[gram], postingSizes[gram]);
+                }
+            }
+            long max = 1;
+            for (int doc = 0; doc < size; doc++) {
+                max = Math.max(max, rawPopularity[doc]);
+            }
+            for (int doc = 0; doc < size; doc++) {
+                popularity[doc] = Math.log1p(rawPopularity[doc]) / Math.log1p(max);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.f1pedia.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient concurrency limit on in-flight requests, in the style of Netflix's
+ * Gradient2.
+ * <p>
+ * Each completed request's latency is compared with the long-term average of
+ * the same handler, so cheap and expensive endpoints share one limit without
+ * the slow ones reading as congestion. While recent latency stays within
+ * {@code rtt-tolerance} of the baseline the limit grows by about its square
+ * root per estimate; as latency inflates, it shrinks in proportion (by at most
+ * half). Requests rejected or timed out downstream (503/504, pool timeouts)
+ * cut the limit multiplicatively, AIMD style. Requests beyond the limit are
+ * not queued: they are shed at once, so a burst fails fast instead of piling
+ * up threads waiting for pooled connections.
+ * <p>
+ * Priorities share the limit unequally: {@link Priority#LOW} requests are only
+ * admitted while total in-flight is below {@code heavy-share} of it, so heavy
+ * analytics are shed first and lookups keep the remainder.
+ * <p>
+ * Metrics: admission.limit (gauge), admission.inflight{priority} (gauge),
+ * admission.rejected{priority} (counter).
+ */
+@Component
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdaptiveLimiter {
+
+    public enum Priority { HIGH, LOW }
+
+    /** An admitted request; hand it back to {@link #release}. */
+    public record Permit(Priority priority, Object handler, long startNanos, int inFlight) {
+    }
+
+    // Samples per handler before its baseline is trusted
+    private static final int WARMUP_SAMPLES = 10;
+    // EMA weights: long-term baseline over ~600 samples, recent over ~10
+    private static final double LONG_WEIGHT = 2.0 / 601;
+    private static final double SHORT_WEIGHT = 2.0 / 11;
+
+    private final AdmissionProperties properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Priority, AtomicInteger> inFlightByPriority = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+    private final Map<Object, Rtt> rtts = new ConcurrentHashMap<>();
+    private volatile double limit;
+
+    public AdaptiveLimiter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limit = properties.getInitialLimit();
+        Gauge.builder("admission.limit", this, AdaptiveLimiter::limit).register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            AtomicInteger count = new AtomicInteger();
+            inFlightByPriority.put(priority, count);
+            String tag = priority.name().toLowerCase();
+            Gauge.builder("admission.inflight", count, AtomicInteger::get)
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+            rejected.put(priority, Counter.builder("admission.rejected").tag("priority", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * Admits a request if there is room for its priority.
+     *
+     * @param handler identifies the endpoint whose latency baseline applies
+     * @return the permit, or null if the request should be shed
+     */
+    public Permit tryAcquire(Priority priority, Object handler) {
+        double current = limit;
+        int allowed = priority == Priority.HIGH ? (int) current
+                : Math.max(1, (int) (current * properties.getHeavyShare()));
+        int admitted;
+        do {
+            admitted = inFlight.get();
+            if (admitted >= allowed) {
+                rejected.get(priority).increment();
+                return null;
+            }
+        } while (!inFlight.compareAndSet(admitted, admitted + 1));
+        inFlightByPriority.get(priority).incrementAndGet();
+        return new Permit(priority, handler, System.nanoTime(), admitted + 1);
+    }
+
+    /**
+     * @param dropped the request was rejected or timed out downstream, a sign
+     *                of overload rather than a latency sample
+     */
+    public void release(Permit permit, boolean dropped) {
+        long rtt = System.nanoTime() - permit.startNanos();
+        inFlight.decrementAndGet();
+        inFlightByPriority.get(permit.priority()).decrementAndGet();
+        if (dropped) {
+            synchronized (this) {
+                limit = clamp(limit * properties.getBackoffRatio());
+            }
+            return;
+        }
+        Rtt stats = rtts.computeIfAbsent(permit.handler(), handler -> new Rtt());
+        synchronized (this) {
+            if (!stats.add(rtt)) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0,
+                    properties.getRttTolerance() * stats.longTerm / stats.recent));
+            // Not limited by concurrency: growing the limit would only let it drift up unused
+            if (gradient == 1.0 && permit.inFlight() * 2 < limit) {
+                return;
+            }
+            double estimate = limit * gradient + Math.sqrt(limit);
+            double smoothing = properties.getSmoothing();
+            limit = clamp(limit * (1 - smoothing) + estimate * smoothing);
+        }
+    }
+
+    /**
+     * Hands back a permit whose request says nothing about the server's load,
+     * e.g. one rejected by its own full bulkhead: neither a latency sample nor
+     * a sign of overload.
+     */
+    public void cancel(Permit permit) {
+        inFlight.decrementAndGet();
+        inFlightByPriority.get(permit.priority()).decrementAndGet();
+    }
+
+    private double clamp(double value) {
+        return Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), value));
+    }
+
+    /** Long-term and recent latency averages of one handler; guarded by the limiter. */
+    private static final class Rtt {
+        double longTerm;
+        double recent;
+        int samples;
+
+        // True once there are enough samples to judge
+        boolean add(long rtt) {
+            if (samples++ == 0) {
+                longTerm = recent = rtt;
+                return false;
+            }
+            longTerm += (rtt - longTerm) * LONG_WEIGHT;
+            recent += (rtt - recent) * SHORT_WEIGHT;
+            // Baseline well above current latency, e.g. after a slow warm-up:
+            // let it converge down faster
+            if (longTerm > 2 * recent) {
+                longTerm *= 0.95;
+            }
+            return samples > WARMUP_SAMPLES;
+        }
+    }
+}
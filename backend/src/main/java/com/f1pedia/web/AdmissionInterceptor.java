@@ -0,0 +1,106 @@
+package com.f1pedia.web;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Puts every controller call through the {@link AdaptiveLimiter} before it
+ * reaches the bulkheads: {@link Bulkhead#HEAVY} and {@link Bulkhead#EXPORT}
+ * handlers at low priority, everything else at high. Shed requests get 503
+ * with Retry-After. Paths in {@code f1pedia.admission.exempt-paths} are not
+ * registered with it.
+ * <p>
+ * Requests a full bulkhead rejected do not count as overload: the bulkhead
+ * caps one kind of handler, so its 503 says that kind is busy, not that the
+ * server is, and backing off the shared limit for it would shed lookups
+ * because analytics queue. They are not latency samples either.
+ */
+@Component
+@ConditionalOnProperty(name = "f1pedia.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT = AdmissionInterceptor.class.getName() + ".permit";
+
+    @Autowired
+    private AdaptiveLimiter adaptiveLimiter;
+
+    @Autowired
+    private AdmissionProperties properties;
+
+    private final Map<Method, AdaptiveLimiter.Priority> priorities = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler) {
+        // The error page of an already counted (or shed) request is not a new request
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || request.getDispatcherType() == DispatcherType.ERROR) {
+            return true;
+        }
+        AdaptiveLimiter.Priority priority = priorities.computeIfAbsent(handlerMethod.getMethod(),
+                method -> priority(handlerMethod));
+        AdaptiveLimiter.Permit permit = adaptiveLimiter.tryAcquire(priority, handlerMethod.getMethod());
+        if (permit == null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds())));
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Server is at capacity, try again shortly");
+        }
+        request.setAttribute(PERMIT, permit);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT) instanceof AdaptiveLimiter.Permit permit) {
+            request.removeAttribute(PERMIT);
+            if (request.getAttribute(Bulkheads.REJECTED_ATTRIBUTE) != null) {
+                adaptiveLimiter.cancel(permit);
+            } else {
+                adaptiveLimiter.release(permit, overloaded(response.getStatus(), ex));
+            }
+        }
+    }
+
+    // Rejected downstream, past its deadline, or starved of a connection
+    private static boolean overloaded(int status, Throwable ex) {
+        if (status == HttpStatus.SERVICE_UNAVAILABLE.value() || status == HttpStatus.GATEWAY_TIMEOUT.value()) {
+            return true;
+        }
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof CannotGetJdbcConnectionException || t instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static AdaptiveLimiter.Priority priority(HandlerMethod handlerMethod) {
+        Bulkhead bulkhead = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), Bulkhead.class);
+        if (bulkhead == null) {
+            bulkhead = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), Bulkhead.class);
+        }
+        return bulkhead != null && (Bulkhead.HEAVY.equals(bulkhead.value())
+                || Bulkhead.EXPORT.equals(bulkhead.value()))
+                ? AdaptiveLimiter.Priority.LOW
+                : AdaptiveLimiter.Priority.HIGH;
+    }
+}
@@ -0,0 +1,48 @@
+package com.f1pedia.web;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adaptive admission control ({@code f1pedia.admission.*}); see
+ * {@link AdaptiveLimiter}.
+ */
+@Data
+@ConfigurationProperties(prefix = "f1pedia.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    /** Concurrent requests admitted before any latency has been measured. */
+    private int initialLimit = 20;
+
+    private int minLimit = 4;
+
+    private int maxLimit = 200;
+
+    /** Fraction of the limit {@link Bulkhead#HEAVY} handlers may occupy. */
+    private double heavyShare = 0.5;
+
+    /**
+     * Latency growth tolerated before the limit shrinks: the limit only
+     * drops once recent latency exceeds this multiple of the long-term
+     * baseline.
+     */
+    private double rttTolerance = 1.5;
+
+    /** Weight of each new limit estimate, smoothing out single slow requests. */
+    private double smoothing = 0.2;
+
+    /** Multiplier applied to the limit when a request timed out or was rejected downstream. */
+    private double backoffRatio = 0.9;
+
+    /** Sent as Retry-After on shed requests. */
+    private Duration retryAfter = Duration.ofSeconds(2);
+
+    /** Never limited, e.g. health checks. */
+    private List<String> exemptPaths = new ArrayList<>(List.of("/health", "/health.html", "/actuator/**"));
+}
@@ -0,0 +1,22 @@
+package com.f1pedia.web;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Index of a bake, written as {@code manifest.json} next to the files.
+ * {@code entries} is keyed by request path and query, e.g.
+ * {@code /api/analytics/grid-performance?season=2010}.
+ */
+public record BakeManifest(Instant bakedAt, int latestSeason, Map<String, Entry> entries) {
+
+    public static final String FILE = "manifest.json";
+
+    /**
+     * One response: {@code file} is relative to the bake directory, the
+     * {@code .gz} and {@code .br} variants sit next to it when their sizes are
+     * non-null, and {@code sha256} (of the uncompressed JSON) is the ETag.
+     */
+    public record Entry(String file, String sha256, long bytes, Long gzipBytes, Long brotliBytes) {
+    }
+}
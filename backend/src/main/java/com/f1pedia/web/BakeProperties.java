@@ -0,0 +1,29 @@
+package com.f1pedia.web;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Pre-rendered responses for historic data ({@code f1pedia.bake.*}). Setting
+ * {@code output} turns a run into a bake ({@link StaticBaker}); setting
+ * {@code directory} serves a previous bake ({@link BakedResponseInterceptor}).
+ */
+@Data
+@ConfigurationProperties(prefix = "f1pedia.bake")
+public class BakeProperties {
+
+    /** Where a bake run writes its files before the application exits. */
+    private Path output;
+
+    /** Baked files to serve instead of calling the controllers. */
+    private Path directory;
+
+    /** Requests the bake runs at once; heavy analytics share a bulkhead of 6. */
+    private int concurrency = 4;
+
+    /** Cache-Control max-age of baked responses. */
+    private Duration maxAge = Duration.ofDays(1);
+}
@@ -0,0 +1,114 @@
+package com.f1pedia.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Answers requests covered by a bake ({@code f1pedia.bake.directory}) from
+ * the baked files, before admission control and without touching a
+ * controller or the database. Picks the brotli or gzip variant the client
+ * accepts and uses the content hash as ETag, so revalidations get 304.
+ * Registered after Spring's CORS handling, so cross-origin callers see the
+ * same headers as from the controllers.
+ * <p>
+ * Metrics: bake.responses{encoding=br|gzip|identity|not-modified}.
+ */
+@Component
+@EnableConfigurationProperties(BakeProperties.class)
+@ConditionalOnProperty(name = "f1pedia.bake.directory")
+public class BakedResponseInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(BakedResponseInterceptor.class);
+
+    private final Path directory;
+    private final Map<String, BakeManifest.Entry> entries;
+    private final String cacheControl;
+    private final MeterRegistry meterRegistry;
+
+    public BakedResponseInterceptor(BakeProperties properties, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) throws IOException {
+        this.directory = properties.getDirectory();
+        this.meterRegistry = meterRegistry;
+        this.cacheControl = "public, max-age=" + properties.getMaxAge().toSeconds();
+        Path manifest = directory.resolve(BakeManifest.FILE);
+        if (Files.exists(manifest)) {
+            BakeManifest bake = objectMapper.readValue(manifest.toFile(), BakeManifest.class);
+            this.entries = bake.entries();
+            log.info("Serving {} baked responses from {} (baked {}, seasons before {})", entries.size(),
+                    directory, bake.bakedAt(), bake.latestSeason());
+        } else {
+            this.entries = Map.of();
+            log.warn("No {} in {}; serving everything live", BakeManifest.FILE, directory);
+        }
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler) throws IOException {
+        if (request.getDispatcherType() != DispatcherType.REQUEST
+                || !(request.getMethod().equals("GET") || request.getMethod().equals("HEAD"))) {
+            return true;
+        }
+        String query = request.getQueryString();
+        BakeManifest.Entry entry = entries.get(request.getRequestURI() + (query != null ? "?" + query : ""));
+        if (entry == null) {
+            return true;
+        }
+
+        String etag = "\"" + entry.sha256() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            count("not-modified");
+            return false;
+        }
+
+        String accepted = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        String encoding = "identity";
+        Path file = directory.resolve(entry.file());
+        long length = entry.bytes();
+        if (accepted != null && accepted.contains("br") && entry.brotliBytes() != null) {
+            encoding = "br";
+            file = directory.resolve(entry.file() + ".br");
+            length = entry.brotliBytes();
+        } else if (accepted != null && accepted.contains("gzip") && entry.gzipBytes() != null) {
+            encoding = "gzip";
+            file = directory.resolve(entry.file() + ".gz");
+            length = entry.gzipBytes();
+        }
+        if (!encoding.equals("identity")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLengthLong(length);
+        if (request.getMethod().equals("GET")) {
+            Files.copy(file, response.getOutputStream());
+        }
+        count(encoding);
+        return false;
+    }
+
+    private void count(String encoding) {
+        Counter.builder("bake.responses").tag("encoding", encoding).register(meterRegistry).increment();
+    }
+}
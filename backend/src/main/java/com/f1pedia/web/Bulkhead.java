@@ -0,0 +1,30 @@
+package com.f1pedia.web;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns a controller (or a single handler method, which takes precedence)
+ * to a bulkhead: a concurrency limit on the handlers that share it, so a burst
+ * of heavy analytics cannot take the connections point lookups need. Handlers
+ * that stream their response hold their connection for as long as the client
+ * reads and belong in {@link #HEAVY}, or in {@link #EXPORT} for downloads. See
+ * {@link Bulkheads}.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    /** Multi-table scans and aggregations. */
+    String HEAVY = "heavy";
+
+    /** Indexed single-entity and small-list reads. */
+    String LOOKUP = "lookup";
+
+    /** Bulk downloads, which hold a connection for the whole transfer. */
+    String EXPORT = "export";
+
+    String value();
+}
@@ -0,0 +1,36 @@
+package com.f1pedia.web;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs {@link Bulkhead} handlers inside their bulkhead. Ordered after
+ * {@link SingleFlightAspect} so coalesced callers wait on the leader instead of
+ * taking a slot of their own.
+ */
+@Aspect
+@Component
+@Order(3)
+@ConditionalOnProperty(name = "f1pedia.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadAspect {
+
+    @Autowired
+    private Bulkheads bulkheads;
+
+    @Around("@within(com.f1pedia.web.Bulkhead) || @annotation(com.f1pedia.web.Bulkhead)")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Bulkhead bulkhead = AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), Bulkhead.class);
+        if (bulkhead == null) {
+            bulkhead = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), Bulkhead.class);
+        }
+        return bulkheads.execute(bulkhead.value(), joinPoint::proceed);
+    }
+}
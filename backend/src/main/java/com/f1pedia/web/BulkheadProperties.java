@@ -0,0 +1,32 @@
+package com.f1pedia.web;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-bulkhead limits ({@code f1pedia.bulkhead.limits.<name>.*}). Each limit
+ * caps a bulkhead rather than reserving connections for it, so the limits of
+ * all bulkheads should add up to less than the Hikari pool size, leaving room
+ * for handlers without a bulkhead and for work outside requests.
+ */
+@Data
+@ConfigurationProperties(prefix = "f1pedia.bulkhead")
+public class BulkheadProperties {
+
+    private boolean enabled = true;
+
+    private Map<String, Limit> limits = new LinkedHashMap<>();
+
+    @Data
+    public static class Limit {
+        /** Handlers of this bulkhead allowed to run at once. */
+        private int maxConcurrent = 4;
+
+        /** How long a call may queue for a slot before it is rejected with 503. */
+        private Duration maxWait = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,112 @@
+package com.f1pedia.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrency limits per {@link Bulkhead}. A handler holds at most one pooled
+ * connection at a time, so capping how many handlers of a bulkhead run at once
+ * caps how many connections that bulkhead can take. This is a cap, not a
+ * reservation: handlers without a bulkhead and work outside requests (cache
+ * rebuilds after invalidations, static baking) draw on the same pool, so the
+ * limits are sized to sum to less than the pool and leave headroom for them.
+ * Calls queue (fairly) for a slot up to the bulkhead's max-wait and are then
+ * rejected with 503. A rejected request is marked with the
+ * {@link #REJECTED_ATTRIBUTE} request attribute, so admission control can
+ * tell one full bulkhead from a server-wide overload.
+ * <p>
+ * Metrics per bulkhead: bulkhead.queue.wait (timer), bulkhead.active and
+ * bulkhead.queued (gauges), bulkhead.rejected (counter).
+ */
+@Component
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class Bulkheads {
+
+    /**
+     * A computation that may throw, e.g. a proceeding AOP join point.
+     */
+    @FunctionalInterface
+    public interface Call {
+        Object run() throws Throwable;
+    }
+
+    /** Request attribute naming the bulkhead that rejected the request. */
+    public static final String REJECTED_ATTRIBUTE = Bulkheads.class.getName() + ".rejected";
+
+    private final Map<String, Partition> partitions = new HashMap<>();
+
+    public Bulkheads(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        properties.getLimits().forEach((name, limit) -> partitions.put(name, new Partition(name, limit, meterRegistry)));
+    }
+
+    /**
+     * Runs the call inside the named bulkhead; unknown names run unlimited.
+     */
+    public Object execute(String bulkhead, Call call) throws Throwable {
+        Partition partition = partitions.get(bulkhead);
+        if (partition == null) {
+            return call.run();
+        }
+        partition.acquire();
+        try {
+            return call.run();
+        } finally {
+            partition.semaphore.release();
+        }
+    }
+
+    private static final class Partition {
+        final String name;
+        final int maxConcurrent;
+        final long maxWaitNanos;
+        final Semaphore semaphore;
+        final Timer queueWait;
+        final Counter rejected;
+
+        Partition(String name, BulkheadProperties.Limit limit, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.maxConcurrent = limit.getMaxConcurrent();
+            this.maxWaitNanos = limit.getMaxWait().toNanos();
+            this.semaphore = new Semaphore(maxConcurrent, true);
+            this.queueWait = Timer.builder("bulkhead.queue.wait")
+                    .tag("bulkhead", name)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("bulkhead.rejected").tag("bulkhead", name).register(meterRegistry);
+            Gauge.builder("bulkhead.active", semaphore, s -> maxConcurrent - s.availablePermits())
+                    .tag("bulkhead", name)
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead.queued", semaphore, Semaphore::getQueueLength)
+                    .tag("bulkhead", name)
+                    .register(meterRegistry);
+        }
+
+        void acquire() throws InterruptedException {
+            long start = System.nanoTime();
+            boolean acquired = semaphore.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+            queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                rejected.increment();
+                RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+                if (attributes != null) {
+                    attributes.setAttribute(REJECTED_ATTRIBUTE, name, RequestAttributes.SCOPE_REQUEST);
+                }
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many concurrent " + name + " requests, try again shortly");
+            }
+        }
+    }
+}
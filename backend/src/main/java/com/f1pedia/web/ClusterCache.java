@@ -0,0 +1,129 @@
+package com.f1pedia.web;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Analytics results shared between backend instances through an embedded
+ * Hazelcast cluster (see {@code ClusterConfig}); no external cache service.
+ * <p>
+ * Results are kept as JSON in a distributed map partitioned over the live
+ * members, so a result is computed once per cluster and then read from the
+ * member owning its partition, or from the local near cache for hot keys.
+ * Near copies are dropped as soon as their entry changes. Every read
+ * deserialises its own object, so concurrent requests never share one.
+ * <p>
+ * Invalidation bumps a cluster-wide generation that is part of every key, then
+ * clears the map. A computation that started before an invalidation stores
+ * its result under the old generation, where no later read looks, so a slow
+ * computation cannot bring back data an ingest just replaced. The generation
+ * is a counter held by the cluster, so clocks of different hosts are never
+ * compared.
+ * <p>
+ * Metrics: cluster.cache.requests{result=hit|computed}, cluster.members
+ * (gauge), cluster.invalidations (counter).
+ */
+@Component
+@ConditionalOnProperty(name = "f1pedia.cluster.enabled", havingValue = "true")
+public class ClusterCache {
+
+    public static final String RESULTS = "f1pedia-results";
+    public static final String GENERATIONS = "f1pedia-generations";
+
+    private static final String GENERATION = "generation";
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterCache.class);
+
+    private final IMap<String, byte[]> results;
+    private final IMap<String, Long> generations;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public ClusterCache(HazelcastInstance hazelcast, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.results = hazelcast.getMap(RESULTS);
+        this.generations = hazelcast.getMap(GENERATIONS);
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("cluster.members", hazelcast, h -> h.getCluster().getMembers().size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Result for {@code key} from the cluster, or else computed here and
+     * stored for the others. When the cluster cannot be reached the result is
+     * computed and served without storing it.
+     */
+    public Object get(String key, JavaType type, SingleFlight.Call compute) throws Throwable {
+        String entry;
+        byte[] json;
+        try {
+            entry = generation() + ":" + key;
+            json = results.get(entry);
+        } catch (HazelcastException e) {
+            log.warn("Cluster cache unavailable, computing {} locally: {}", key, e.getMessage());
+            return compute.run();
+        }
+        if (json != null) {
+            try {
+                Object value = objectMapper.readValue(json, type);
+                count("hit");
+                return value;
+            } catch (IOException e) {
+                log.warn("Could not read cached {} as {}: {}", key, type, e.getMessage());
+            }
+        }
+
+        Object value = compute.run();
+        count("computed");
+        try {
+            results.set(entry, objectMapper.writeValueAsBytes(value));
+        } catch (HazelcastException e) {
+            log.warn("Could not store {} in the cluster cache: {}", key, e.getMessage());
+        }
+        return value;
+    }
+
+    /**
+     * Starts a new generation and clears every member's entries. Each
+     * instance calls this for the same database change; the extra bumps are
+     * harmless.
+     */
+    public void invalidate() {
+        generations.executeOnKey(GENERATION, new NextGeneration());
+        results.clear();
+        Counter.builder("cluster.invalidations").register(meterRegistry).increment();
+    }
+
+    private long generation() {
+        Long generation = generations.get(GENERATION);
+        return generation != null ? generation : 0;
+    }
+
+    /** Increments the generation on the member that owns it, so concurrent bumps all count. */
+    private static final class NextGeneration implements EntryProcessor<String, Long, Long> {
+        @Override
+        public Long process(Map.Entry<String, Long> entry) {
+            long next = entry.getValue() != null ? entry.getValue() + 1 : 1;
+            entry.setValue(next);
+            return next;
+        }
+    }
+
+    private void count(String result) {
+        Counter.builder("cluster.cache.requests").tag("result", result).register(meterRegistry).increment();
+    }
+}
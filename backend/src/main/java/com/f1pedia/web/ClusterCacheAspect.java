@@ -0,0 +1,56 @@
+package com.f1pedia.web;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletResponse;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves {@link ClusterCached} handlers from the {@link ClusterCache}. Ordered
+ * before {@link SingleFlightAspect}, so a hit skips coalescing and the
+ * bulkhead, while misses still go through both.
+ */
+@Aspect
+@Component
+@Order(0)
+@ConditionalOnProperty(name = "f1pedia.cluster.enabled", havingValue = "true")
+public class ClusterCacheAspect {
+
+    @Autowired
+    private ClusterCache clusterCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Jackson type of each handler's result, for reading entries back
+    private final Map<Method, JavaType> types = new ConcurrentHashMap<>();
+
+    @Around("@within(com.f1pedia.web.ClusterCached) || @annotation(com.f1pedia.web.ClusterCached)")
+    public Object cached(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Method method = signature.getMethod();
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class || ResponseEntity.class.isAssignableFrom(returnType)
+                || Arrays.stream(joinPoint.getArgs()).anyMatch(ServletResponse.class::isInstance)) {
+            return joinPoint.proceed();
+        }
+        JavaType type = types.computeIfAbsent(method,
+                m -> objectMapper.getTypeFactory().constructType(m.getGenericReturnType()));
+        String key = signature.getDeclaringType().getSimpleName() + "." + signature.getName()
+                + Arrays.deepToString(joinPoint.getArgs());
+        return clusterCache.get(key, type, joinPoint::proceed);
+    }
+}
@@ -0,0 +1,18 @@
+package com.f1pedia.web;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller (or a single handler method) whose results are shared
+ * between backend instances when clustered caching is enabled. Keys are the
+ * handler plus its arguments, as for {@link Coalesced}; see
+ * {@link ClusterCache}. Streaming handlers and ResponseEntity results are not
+ * cached.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ClusterCached {
+}
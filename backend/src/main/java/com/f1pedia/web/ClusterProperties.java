@@ -0,0 +1,50 @@
+package com.f1pedia.web;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clustered analytics cache ({@code f1pedia.cluster.*}). Every instance binds
+ * its member port on the private interface and lists the members to join,
+ * e.g. for three local JVMs {@code bind-interface=127.0.0.1} and
+ * {@code members=127.0.0.1}.
+ */
+@Data
+@ConfigurationProperties(prefix = "f1pedia.cluster")
+public class ClusterProperties {
+
+    private boolean enabled = false;
+
+    /** Members with another cluster name are refused. */
+    private String name = "f1pedia";
+
+    /**
+     * Address, or pattern such as {@code 10.0.*.*}, of the interface the
+     * member port binds to; nothing else is listened on. Required in cluster
+     * mode: members do not authenticate each other, so the port must only be
+     * reachable from the peers.
+     */
+    private String bindInterface;
+
+    /** Member port; the next free one is taken when instances share a host. */
+    private int port = 5701;
+
+    /** Members to join, as host or host:port; a bare host is tried on ports 5701-5703. */
+    private List<String> members = new ArrayList<>();
+
+    /** Entries each member keeps of its share of the cache. */
+    private int maxEntries = 2000;
+
+    /** How long a result is served; ingests invalidate earlier. */
+    private Duration ttl = Duration.ofHours(1);
+
+    /** Local copies of entries other members hold, least recently used dropped first. */
+    private int nearCacheEntries = 256;
+
+    /** Bounds how stale a near copy can get if an invalidation is lost. */
+    private Duration nearCacheTtl = Duration.ofSeconds(60);
+}
@@ -0,0 +1,16 @@
+package com.f1pedia.web;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller (or a single handler method) whose concurrent identical
+ * calls should share one execution. Calls are identical when they target the
+ * same handler with equal arguments; see {@link SingleFlight}.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+}
@@ -0,0 +1,69 @@
+package com.f1pedia.web;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Runs a query whose rows are consumed while they arrive, for responses that
+ * are written as they are read.
+ * <p>
+ * The query runs in a read-only transaction with a bounded fetch size: the
+ * PostgreSQL driver only uses a cursor when auto-commit is off, and otherwise
+ * buffers the whole result before the first row is returned.
+ */
+@Component
+public class CursorReader {
+
+    /** Row handler that may fail writing to the response. */
+    @FunctionalInterface
+    public interface Consumer {
+        void accept(ResultSet rs) throws SQLException, IOException;
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${f1pedia.streaming.fetch-size:500}")
+    private int fetchSize;
+
+    /**
+     * Hands the open result set to {@code consumer}, which iterates it. I/O
+     * errors of the consumer are rethrown as they were.
+     */
+    public void read(String sql, Object[] args, Consumer consumer) throws IOException {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        ResultSetExtractor<Void> extractor = rs -> {
+            try {
+                consumer.accept(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        };
+        try {
+            readOnly.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, new ArgumentPreparedStatementSetter(args), extractor));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.f1pedia.web;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a controller (or a single handler method) under a query deadline: SQL
+ * it issues through JdbcTemplate is cancelled server-side once the deadline
+ * passes. Durations come from {@code f1pedia.deadline.*}; see
+ * {@link QueryDeadlines}.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Deadline {
+}
@@ -0,0 +1,78 @@
+package com.f1pedia.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * Runs {@link Deadline} handlers inside a {@link QueryDeadlines} scope. Ordered
+ * outside {@link SingleFlightAspect}, so every request, coalesced or not, is
+ * bounded by its own deadline and its own X-Client-Timeout rather than the
+ * leader's; time spent queueing for a bulkhead slot counts towards it.
+ * <p>
+ * A streamed response that is already committed cannot become a 504 any
+ * more, and Spring would log the 504 and end the response as if it were
+ * complete. For those the original failure is rethrown instead: it reaches
+ * the container, which closes the connection without ending the response,
+ * so the client sees a truncated transfer.
+ */
+@Aspect
+@Component
+@Order(1)
+@ConditionalOnProperty(name = "f1pedia.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineAspect {
+
+    @Autowired
+    private QueryDeadlines queryDeadlines;
+
+    @Around("@within(com.f1pedia.web.Deadline) || @annotation(com.f1pedia.web.Deadline)")
+    public Object withDeadline(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String controller = signature.getDeclaringType().getSimpleName();
+        Duration timeout = queryDeadlines.timeoutFor(controller, signature.getName());
+        try {
+            return queryDeadlines.run(controller + "." + signature.getName(), timeout, clientTimeout(),
+                    joinPoint::proceed);
+        } catch (ResponseStatusException e) {
+            if (e.getStatusCode() == HttpStatus.GATEWAY_TIMEOUT && e.getCause() != null && responseCommitted()) {
+                throw e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static boolean responseCommitted() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && attributes.getResponse() != null && attributes.getResponse().isCommitted();
+    }
+
+    // Milliseconds advertised by the client, ignored when absent or malformed
+    private static Duration clientTimeout() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String header = request.getHeader(QueryDeadlines.CLIENT_TIMEOUT_HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            long millis = Long.parseLong(header.trim());
+            return millis > 0 ? Duration.ofMillis(millis) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
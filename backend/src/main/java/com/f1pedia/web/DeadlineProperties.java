@@ -0,0 +1,35 @@
+package com.f1pedia.web;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Query deadlines ({@code f1pedia.deadline.*}). Handler overrides are keyed
+ * by {@code Controller.method} or {@code Controller}, e.g.
+ * {@code f1pedia.deadline.handlers[DriversController.getDriverCareer]=10s}.
+ */
+@Data
+@ConfigurationProperties(prefix = "f1pedia.deadline")
+public class DeadlineProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Deadline of handlers without an override. Kept above the budget the
+     * frontend advertises, so for browser traffic the client's timeout is
+     * the one that binds and this only bounds clients that send none.
+     */
+    private Duration defaultTimeout = Duration.ofSeconds(25);
+
+    /**
+     * Subtracted from the client's advertised timeout, so statements are
+     * cancelled before the client gives up rather than after.
+     */
+    private Duration clientMargin = Duration.ofMillis(500);
+
+    private Map<String, Duration> handlers = new LinkedHashMap<>();
+}
@@ -0,0 +1,146 @@
+package com.f1pedia.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+
+/**
+ * Streams a query result to the response as a JSON array, one row at a time,
+ * without materialising the rows.
+ * <p>
+ * Rows are read through a {@link CursorReader} and every row is written
+ * straight into a {@link JsonGenerator} on the servlet output stream, so heap
+ * use per request does not depend on the number of rows.
+ * <p>
+ * Each column becomes a field named after its label. Labels containing dots
+ * nest, e.g. {@code "driver.surname"} writes {@code {"driver": {"surname": ...}}};
+ * columns sharing a prefix must be adjacent. This keeps streamed payloads in
+ * the same shape as the serialised entities they replace.
+ */
+@Component
+public class JsonResultStreamer {
+
+    @Autowired
+    private CursorReader cursorReader;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void stream(HttpServletResponse response, String sql, Object... args) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            json.writeStartArray();
+            cursorReader.read(sql, args, rs -> writeRows(rs, json));
+            json.writeEndArray();
+        }
+    }
+
+    private static void writeRows(ResultSet rs, JsonGenerator json) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        String[][] paths = new String[columns][];
+        int[] types = new int[columns];
+        for (int c = 0; c < columns; c++) {
+            paths[c] = meta.getColumnLabel(c + 1).split("\\.");
+            types[c] = meta.getColumnType(c + 1);
+        }
+
+        while (rs.next()) {
+            json.writeStartObject();
+            String[] open = new String[0];
+            for (int c = 0; c < columns; c++) {
+                String[] path = paths[c];
+                int shared = 0;
+                while (shared < open.length && shared < path.length - 1 && open[shared].equals(path[shared])) {
+                    shared++;
+                }
+                for (int depth = open.length; depth > shared; depth--) {
+                    json.writeEndObject();
+                }
+                for (int depth = shared; depth < path.length - 1; depth++) {
+                    json.writeObjectFieldStart(path[depth]);
+                }
+                open = Arrays.copyOf(path, path.length - 1);
+                json.writeFieldName(path[path.length - 1]);
+                writeValue(rs, c + 1, types[c], json);
+            }
+            for (int depth = open.length; depth > 0; depth--) {
+                json.writeEndObject();
+            }
+            json.writeEndObject();
+        }
+    }
+
+    // Numbers stay numbers; dates and times are written exactly as Jackson
+    // writes the java.time values of the entities (e.g. "14:00:00")
+    private static void writeValue(ResultSet rs, int column, int type, JsonGenerator json)
+            throws SQLException, IOException {
+        switch (type) {
+            case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> {
+                int value = rs.getInt(column);
+                if (rs.wasNull()) {
+                    json.writeNull();
+                } else {
+                    json.writeNumber(value);
+                }
+            }
+            case Types.BIGINT -> {
+                long value = rs.getLong(column);
+                if (rs.wasNull()) {
+                    json.writeNull();
+                } else {
+                    json.writeNumber(value);
+                }
+            }
+            case Types.DOUBLE, Types.FLOAT, Types.REAL -> {
+                double value = rs.getDouble(column);
+                if (rs.wasNull()) {
+                    json.writeNull();
+                } else {
+                    json.writeNumber(value);
+                }
+            }
+            case Types.NUMERIC, Types.DECIMAL -> json.writeNumber(rs.getBigDecimal(column));
+            case Types.BOOLEAN, Types.BIT -> {
+                boolean value = rs.getBoolean(column);
+                if (rs.wasNull()) {
+                    json.writeNull();
+                } else {
+                    json.writeBoolean(value);
+                }
+            }
+            case Types.DATE -> writeTemporal(json, rs.getObject(column, LocalDate.class),
+                    DateTimeFormatter.ISO_LOCAL_DATE);
+            case Types.TIME -> writeTemporal(json, rs.getObject(column, LocalTime.class),
+                    DateTimeFormatter.ISO_LOCAL_TIME);
+            case Types.TIMESTAMP -> writeTemporal(json, rs.getObject(column, LocalDateTime.class),
+                    DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            default -> json.writeString(rs.getString(column));
+        }
+    }
+
+    private static void writeTemporal(JsonGenerator json, TemporalAccessor value, DateTimeFormatter format)
+            throws IOException {
+        if (value == null) {
+            json.writeNull();
+        } else {
+            json.writeString(format.format(value));
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package com.f1pedia.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes result set rows as a Parquet file onto a stream, one row group at a
+ * time.
+ * <p>
+ * Rows are buffered per column until a row group is full, then written as one
+ * GZIP-compressed PLAIN data page per column and dropped, so memory is bounded
+ * by the row group size rather than the result size. Only the small footer
+ * (offsets and sizes per row group) is kept until {@link #finish()}. A writer
+ * that is abandoned without finishing leaves a file without footer, which
+ * readers reject instead of taking the rows so far for the whole result.
+ * <p>
+ * Every column is OPTIONAL. Integers map to INT32/INT64, floating point and
+ * numeric to DOUBLE, dates to INT32 DATE, times to INT32 TIME_MILLIS,
+ * timestamps to INT64 TIMESTAMP_MILLIS and everything else to UTF8 strings.
+ * The footer is Thrift compact protocol as in the Parquet format spec.
+ */
+public class ParquetResultWriter {
+
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+    // Parquet physical types, converted types and enums used below
+    private static final int BOOLEAN = 0, INT32 = 1, INT64 = 2, DOUBLE = 5, BYTE_ARRAY = 6;
+    private static final int UTF8 = 0, DATE = 6, TIME_MILLIS = 7, TIMESTAMP_MILLIS = 9;
+    private static final int OPTIONAL = 1, PLAIN = 0, RLE = 3, GZIP = 2, DATA_PAGE = 0;
+
+    // Flush a row group at this many rows or buffered bytes, whichever first
+    private static final int ROW_GROUP_ROWS = 64 * 1024;
+    private static final int ROW_GROUP_BYTES = 16 * 1024 * 1024;
+
+    private final CountingStream out;
+    private final Column[] columns;
+    private final List<RowGroup> rowGroups = new ArrayList<>();
+    private int rows;
+    private long totalRows;
+
+    public ParquetResultWriter(OutputStream out, ResultSetMetaData meta) throws SQLException, IOException {
+        this.out = new CountingStream(out);
+        columns = new Column[meta.getColumnCount()];
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = new Column(meta.getColumnLabel(c + 1), meta.getColumnType(c + 1));
+        }
+        this.out.write(MAGIC);
+    }
+
+    /** Appends the current row of {@code rs}. */
+    public void write(ResultSet rs) throws SQLException, IOException {
+        int buffered = 0;
+        for (int c = 0; c < columns.length; c++) {
+            columns[c].add(rs, c + 1);
+            buffered += columns[c].values.size();
+        }
+        rows++;
+        if (rows >= ROW_GROUP_ROWS || buffered >= ROW_GROUP_BYTES) {
+            flushRowGroup();
+        }
+    }
+
+    /**
+     * Writes the last row group and the footer, once every row was written;
+     * does not close the stream.
+     */
+    public void finish() throws IOException {
+        if (rows > 0) {
+            flushRowGroup();
+        }
+        byte[] footer = footer();
+        out.write(footer);
+        out.write(new byte[] { (byte) footer.length, (byte) (footer.length >>> 8),
+                (byte) (footer.length >>> 16), (byte) (footer.length >>> 24) });
+        out.write(MAGIC);
+        out.flush();
+    }
+
+    private void flushRowGroup() throws IOException {
+        ColumnChunk[] chunks = new ColumnChunk[columns.length];
+        long groupBytes = 0;
+        for (int c = 0; c < columns.length; c++) {
+            chunks[c] = columns[c].writePage(out, rows);
+            groupBytes += chunks[c].uncompressedSize;
+        }
+        rowGroups.add(new RowGroup(chunks, groupBytes, rows));
+        totalRows += rows;
+        rows = 0;
+    }
+
+    private byte[] footer() {
+        Thrift t = new Thrift();
+        t.structBegin();
+        t.i32(1, 1);
+        t.listBegin(2, Thrift.STRUCT, columns.length + 1);
+        t.structBegin();
+        t.string(4, "schema");
+        t.i32(5, columns.length);
+        t.structEnd();
+        for (Column column : columns) {
+            t.structBegin();
+            t.i32(1, column.type);
+            t.i32(3, OPTIONAL);
+            t.string(4, column.name);
+            if (column.convertedType >= 0) {
+                t.i32(6, column.convertedType);
+            }
+            t.structEnd();
+        }
+        t.i64(3, totalRows);
+        t.listBegin(4, Thrift.STRUCT, rowGroups.size());
+        for (RowGroup group : rowGroups) {
+            t.structBegin();
+            t.listBegin(1, Thrift.STRUCT, group.chunks.length);
+            for (int c = 0; c < group.chunks.length; c++) {
+                ColumnChunk chunk = group.chunks[c];
+                t.structBegin();
+                t.i64(2, chunk.offset);
+                t.structBegin(3);
+                t.i32(1, columns[c].type);
+                t.listBegin(2, Thrift.I32, 2);
+                t.listI32(PLAIN);
+                t.listI32(RLE);
+                t.listBegin(3, Thrift.BINARY, 1);
+                t.listString(columns[c].name);
+                t.i32(4, GZIP);
+                t.i64(5, chunk.values);
+                t.i64(6, chunk.uncompressedSize);
+                t.i64(7, chunk.compressedSize);
+                t.i64(9, chunk.offset);
+                t.structEnd();
+                t.structEnd();
+            }
+            t.i64(2, group.bytes);
+            t.i64(3, group.rows);
+            t.structEnd();
+        }
+        t.string(6, "f1pedia");
+        t.structEnd();
+        return t.bytes();
+    }
+
+    private record ColumnChunk(long offset, long values, long uncompressedSize, long compressedSize) {
+    }
+
+    private record RowGroup(ColumnChunk[] chunks, long bytes, long rows) {
+    }
+
+    /** One column of the current row group: definition levels plus PLAIN values. */
+    private static final class Column {
+
+        final String name;
+        final int sqlType;
+        final int type;
+        final int convertedType;
+        final ByteArrayOutputStream values = new ByteArrayOutputStream();
+        final ByteArrayOutputStream levels = new ByteArrayOutputStream();
+        // Current run of definition levels (1 = present, 0 = null)
+        int runLevel = -1;
+        int runLength;
+        // Booleans are bit-packed, least significant bit first
+        int bits;
+        int bitCount;
+
+        Column(String name, int sqlType) {
+            this.name = name;
+            this.sqlType = sqlType;
+            switch (sqlType) {
+                case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> {
+                    type = INT32;
+                    convertedType = -1;
+                }
+                case Types.BIGINT -> {
+                    type = INT64;
+                    convertedType = -1;
+                }
+                case Types.DOUBLE, Types.FLOAT, Types.REAL, Types.NUMERIC, Types.DECIMAL -> {
+                    type = DOUBLE;
+                    convertedType = -1;
+                }
+                case Types.BOOLEAN, Types.BIT -> {
+                    type = BOOLEAN;
+                    convertedType = -1;
+                }
+                case Types.DATE -> {
+                    type = INT32;
+                    convertedType = DATE;
+                }
+                case Types.TIME -> {
+                    type = INT32;
+                    convertedType = TIME_MILLIS;
+                }
+                case Types.TIMESTAMP -> {
+                    type = INT64;
+                    convertedType = TIMESTAMP_MILLIS;
+                }
+                default -> {
+                    type = BYTE_ARRAY;
+                    convertedType = UTF8;
+                }
+            }
+        }
+
+        void add(ResultSet rs, int column) throws SQLException {
+            switch (sqlType) {
+                case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> {
+                    int value = rs.getInt(column);
+                    if (present(!rs.wasNull())) {
+                        int32(value);
+                    }
+                }
+                case Types.BIGINT -> {
+                    long value = rs.getLong(column);
+                    if (present(!rs.wasNull())) {
+                        int64(value);
+                    }
+                }
+                case Types.DOUBLE, Types.FLOAT, Types.REAL, Types.NUMERIC, Types.DECIMAL -> {
+                    double value = rs.getDouble(column);
+                    if (present(!rs.wasNull())) {
+                        int64(Double.doubleToLongBits(value));
+                    }
+                }
+                case Types.BOOLEAN, Types.BIT -> {
+                    boolean value = rs.getBoolean(column);
+                    if (present(!rs.wasNull())) {
+                        bits |= (value ? 1 : 0) << bitCount;
+                        if (++bitCount == 8) {
+                            values.write(bits);
+                            bits = 0;
+                            bitCount = 0;
+                        }
+                    }
+                }
+                case Types.DATE -> {
+                    LocalDate value = rs.getObject(column, LocalDate.class);
+                    if (present(value != null)) {
+                        int32((int) value.toEpochDay());
+                    }
+                }
+                case Types.TIME -> {
+                    LocalTime value = rs.getObject(column, LocalTime.class);
+                    if (present(value != null)) {
+                        int32((int) (value.toNanoOfDay() / 1_000_000));
+                    }
+                }
+                case Types.TIMESTAMP -> {
+                    Timestamp value = rs.getTimestamp(column);
+                    if (present(value != null)) {
+                        int64(value.getTime());
+                    }
+                }
+                default -> {
+                    String value = rs.getString(column);
+                    if (present(value != null)) {
+                        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                        int32(utf8.length);
+                        values.writeBytes(utf8);
+                    }
+                }
+            }
+        }
+
+        // Records the definition level; true if a value follows
+        private boolean present(boolean present) {
+            int level = present ? 1 : 0;
+            if (level != runLevel) {
+                endRun();
+                runLevel = level;
+            }
+            runLength++;
+            return present;
+        }
+
+        // RLE run of the hybrid encoding: header (length << 1), then the level in one byte
+        private void endRun() {
+            if (runLength > 0) {
+                Thrift.varint(levels, (long) runLength << 1);
+                levels.write(runLevel);
+            }
+            runLength = 0;
+        }
+
+        private void int32(int value) {
+            values.write(value);
+            values.write(value >>> 8);
+            values.write(value >>> 16);
+            values.write(value >>> 24);
+        }
+
+        private void int64(long value) {
+            int32((int) value);
+            int32((int) (value >>> 32));
+        }
+
+        /** Writes the buffered rows as one data page and resets the buffers. */
+        ColumnChunk writePage(CountingStream out, int rows) throws IOException {
+            endRun();
+            if (bitCount > 0) {
+                values.write(bits);
+                bits = 0;
+                bitCount = 0;
+            }
+            ByteArrayOutputStream page = new ByteArrayOutputStream(levels.size() + values.size() + 4);
+            int levelBytes = levels.size();
+            page.write(levelBytes);
+            page.write(levelBytes >>> 8);
+            page.write(levelBytes >>> 16);
+            page.write(levelBytes >>> 24);
+            levels.writeTo(page);
+            values.writeTo(page);
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(page.size() / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                page.writeTo(gzip);
+            }
+
+            Thrift header = new Thrift();
+            header.structBegin();
+            header.i32(1, DATA_PAGE);
+            header.i32(2, page.size());
+            header.i32(3, compressed.size());
+            header.structBegin(5);
+            header.i32(1, rows);
+            header.i32(2, PLAIN);
+            header.i32(3, RLE);
+            header.i32(4, RLE);
+            header.structEnd();
+            header.structEnd();
+            byte[] headerBytes = header.bytes();
+
+            long offset = out.count;
+            out.write(headerBytes);
+            compressed.writeTo(out);
+
+            levels.reset();
+            values.reset();
+            runLevel = -1;
+            return new ColumnChunk(offset, rows, headerBytes.length + page.size(),
+                    headerBytes.length + compressed.size());
+        }
+    }
+
+    /** The subset of the Thrift compact protocol the Parquet metadata needs. */
+    private static final class Thrift {
+
+        static final int I32 = 5, I64 = 6, BINARY = 8, LIST = 9, STRUCT = 12;
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // Last field id per open struct, for the delta-encoded field headers
+        private final int[] lastField = new int[8];
+        private int depth = -1;
+
+        void structBegin() {
+            lastField[++depth] = 0;
+        }
+
+        // Struct-valued field
+        void structBegin(int field) {
+            fieldHeader(field, STRUCT);
+            structBegin();
+        }
+
+        void structEnd() {
+            out.write(0);
+            depth--;
+        }
+
+        void i32(int field, int value) {
+            fieldHeader(field, I32);
+            varint(out, zigzag(value));
+        }
+
+        void i64(int field, long value) {
+            fieldHeader(field, I64);
+            varint(out, zigzag(value));
+        }
+
+        void string(int field, String value) {
+            fieldHeader(field, BINARY);
+            listString(value);
+        }
+
+        void listBegin(int field, int elementType, int size) {
+            fieldHeader(field, LIST);
+            if (size < 15) {
+                out.write(size << 4 | elementType);
+            } else {
+                out.write(0xF0 | elementType);
+                varint(out, size);
+            }
+        }
+
+        void listI32(int value) {
+            varint(out, zigzag(value));
+        }
+
+        void listString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(out, bytes.length);
+            out.writeBytes(bytes);
+        }
+
+        byte[] bytes() {
+            return out.toByteArray();
+        }
+
+        private void fieldHeader(int field, int type) {
+            int delta = field - lastField[depth];
+            if (delta > 0 && delta <= 15) {
+                out.write(delta << 4 | type);
+            } else {
+                out.write(type);
+                varint(out, zigzag(field));
+            }
+            lastField[depth] = field;
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+
+        static void varint(ByteArrayOutputStream out, long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+
+    /** Tracks the file offset that column chunk metadata points at. */
+    private static final class CountingStream extends FilterOutputStream {
+
+        long count;
+
+        CountingStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
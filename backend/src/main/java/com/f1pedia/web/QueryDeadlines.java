@@ -0,0 +1,147 @@
+package com.f1pedia.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Per-request query deadlines.
+ * <p>
+ * A handler runs inside a deadline scope; every statement issued in it,
+ * through JdbcTemplate or a JPA repository, gets a JDBC query timeout equal to
+ * the time left (see {@code DeadlineDataSource}), which the PostgreSQL
+ * driver enforces by sending a cancel request to the backend, so the query
+ * stops in the database too. Statements are not started at all once the
+ * deadline has passed.
+ * <p>
+ * A blocking servlet request cannot observe the client disconnecting, so the
+ * client advertises how long it will wait in the {@value #CLIENT_TIMEOUT_HEADER}
+ * header and the effective deadline is the earlier of that budget and the
+ * endpoint's own. Queries for abandoned requests are then cancelled when the
+ * client gives up instead of running to completion.
+ * <p>
+ * Metrics: query.deadline.exceeded{handler, limit=endpoint|client}.
+ */
+@Component
+@EnableConfigurationProperties(DeadlineProperties.class)
+public class QueryDeadlines {
+
+    public static final String CLIENT_TIMEOUT_HEADER = "X-Client-Timeout";
+
+    /**
+     * A computation that may throw, e.g. a proceeding AOP join point.
+     */
+    @FunctionalInterface
+    public interface Call {
+        Object run() throws Throwable;
+    }
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private final DeadlineProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public QueryDeadlines(DeadlineProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Deadline configured for a handler: method override, then controller
+     * override, then the default.
+     */
+    public Duration timeoutFor(String controller, String method) {
+        Duration timeout = properties.getHandlers().get(controller + "." + method);
+        if (timeout == null) {
+            timeout = properties.getHandlers().get(controller);
+        }
+        return timeout != null ? timeout : properties.getDefaultTimeout();
+    }
+
+    /**
+     * @param handler       low-cardinality name used to tag metrics
+     * @param timeout       the endpoint's deadline
+     * @param clientTimeout what the client advertised, or null
+     */
+    public Object run(String handler, Duration timeout, Duration clientTimeout, Call call) throws Throwable {
+        boolean clientBound = false;
+        if (clientTimeout != null) {
+            Duration budget = clientTimeout.minus(properties.getClientMargin());
+            if (budget.compareTo(timeout) < 0) {
+                timeout = budget.isNegative() ? Duration.ZERO : budget;
+                clientBound = true;
+            }
+        }
+
+        Scope outer = CURRENT.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        if (outer != null && outer.deadline <= deadline) {
+            return call.run();
+        }
+
+        Scope scope = new Scope(deadline);
+        CURRENT.set(scope);
+        try {
+            return call.run();
+        } catch (Throwable t) {
+            if (!scope.expired()) {
+                throw t;
+            }
+            Counter.builder("query.deadline.exceeded")
+                    .tag("handler", handler)
+                    .tag("limit", clientBound ? "client" : "endpoint")
+                    .register(meterRegistry)
+                    .increment();
+            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                    "Query deadline of " + timeout.toMillis() + " ms exceeded", t);
+        } finally {
+            if (outer == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(outer);
+            }
+        }
+    }
+
+    /**
+     * Caps the statement's query timeout at the time left in the current
+     * scope; no-op outside a scope.
+     */
+    public void applyTo(Statement statement) throws SQLException {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return;
+        }
+        long remaining = scope.deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new SQLTimeoutException("Query deadline exceeded before the statement started");
+        }
+        int seconds = (int) Math.max(1, (remaining + 999_999_999L) / 1_000_000_000L);
+        int current = statement.getQueryTimeout();
+        statement.setQueryTimeout(current > 0 ? Math.min(current, seconds) : seconds);
+    }
+
+    /**
+     * {@link System#nanoTime()} at which the current scope expires, for work
+     * that is not a JDBC statement (e.g. in-memory scans on other threads);
+     * null outside a scope.
+     */
+    public Long deadlineNanos() {
+        Scope scope = CURRENT.get();
+        return scope == null ? null : scope.deadline;
+    }
+
+    private record Scope(long deadline) {
+        boolean expired() {
+            return System.nanoTime() - deadline >= 0;
+        }
+    }
+}
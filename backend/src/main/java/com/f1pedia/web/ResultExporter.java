@@ -0,0 +1,134 @@
+package com.f1pedia.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+/**
+ * Streams a query result to the response as a CSV or Parquet download.
+ * <p>
+ * Rows come off a {@link CursorReader} and are written as they arrive: CSV
+ * row by row, Parquet one row group at a time (see
+ * {@link ParquetResultWriter}). The response has no length and goes out
+ * chunked, so memory stays flat however many rows are exported.
+ * <p>
+ * A download either completes or is cut off: the CSV is only flushed and the
+ * Parquet footer only written once the last row was read. When the query
+ * fails or the export deadline passes half way, the exception propagates; a
+ * response that is not committed yet turns into an error status, a committed
+ * one is aborted by the container without the terminating chunk, so clients
+ * see a truncated transfer rather than a short file that looks complete. The
+ * deadline is that of the {@link QueryDeadlines} scope of the handler; it is
+ * checked between rows too, as the statement timeout only covers the query
+ * up to its first rows.
+ */
+@Component
+public class ResultExporter {
+
+    public enum Format { CSV, PARQUET }
+
+    // Rows between deadline checks
+    private static final int CHECK_EVERY = 1024;
+
+    @Autowired
+    private CursorReader cursorReader;
+
+    @Autowired
+    private QueryDeadlines queryDeadlines;
+
+    /**
+     * @param name file name without extension, for Content-Disposition
+     */
+    public void export(HttpServletResponse response, Format format, String name, String sql, Object... args)
+            throws IOException {
+        String fileName = name + (format == Format.CSV ? ".csv" : ".parquet");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName).build().toString());
+        Long deadline = queryDeadlines.deadlineNanos();
+        try {
+            if (format == Format.CSV) {
+                response.setContentType("text/csv;charset=UTF-8");
+                Writer writer = new BufferedWriter(
+                        new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), 64 * 1024);
+                cursorReader.read(sql, args, rs -> writeCsv(rs, writer, deadline));
+                writer.flush();
+            } else {
+                response.setContentType("application/vnd.apache.parquet");
+                cursorReader.read(sql, args, rs -> {
+                    ParquetResultWriter parquet = new ParquetResultWriter(response.getOutputStream(),
+                            rs.getMetaData());
+                    for (int row = 1; rs.next(); row++) {
+                        checkDeadline(row, deadline);
+                        parquet.write(rs);
+                    }
+                    parquet.finish();
+                });
+            }
+        } catch (IOException | RuntimeException e) {
+            if (!response.isCommitted()) {
+                // Drop the partial rows so the error response goes out on its own
+                response.resetBuffer();
+            }
+            throw e;
+        }
+    }
+
+    private static void checkDeadline(int row, Long deadline) throws SQLTimeoutException {
+        if (deadline != null && row % CHECK_EVERY == 0 && System.nanoTime() - deadline >= 0) {
+            throw new SQLTimeoutException("Export deadline exceeded after " + row + " rows");
+        }
+    }
+
+    private static void writeCsv(ResultSet rs, Writer writer, Long deadline) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        for (int c = 1; c <= columns; c++) {
+            if (c > 1) {
+                writer.write(',');
+            }
+            writeCsvField(writer, meta.getColumnLabel(c));
+        }
+        writer.write("\r\n");
+        for (int row = 1; rs.next(); row++) {
+            checkDeadline(row, deadline);
+            for (int c = 1; c <= columns; c++) {
+                if (c > 1) {
+                    writer.write(',');
+                }
+                String value = rs.getString(c);
+                if (value != null) {
+                    writeCsvField(writer, value);
+                }
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char ch = value.charAt(i);
+            quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,55 @@
+package com.f1pedia.web;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copies of handler results that are handed to more than one request (a
+ * single-flight leader's result, a near-cache entry). The containers a
+ * handler builds its response from - maps, collections, arrays and the body
+ * of a {@link ResponseEntity} - are copied recursively, so one request
+ * editing or wrapping its result cannot change what another one serialises.
+ * Leaf values (strings, numbers, records, entities) are shared; handlers do
+ * not modify those after returning them.
+ */
+public final class SharedResults {
+
+    private SharedResults() {
+    }
+
+    public static Object copyOf(Object value) {
+        if (value instanceof ResponseEntity<?> entity) {
+            return new ResponseEntity<>(copyOf(entity.getBody()), entity.getHeaders(), entity.getStatusCode());
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+            map.forEach((k, v) -> copy.put(k, copyOf(v)));
+            return copy;
+        }
+        if (value instanceof Set<?> set) {
+            Set<Object> copy = new LinkedHashSet<>(set.size() * 4 / 3 + 1);
+            set.forEach(element -> copy.add(copyOf(element)));
+            return copy;
+        }
+        if (value instanceof Collection<?> collection) {
+            List<Object> copy = new ArrayList<>(collection.size());
+            collection.forEach(element -> copy.add(copyOf(element)));
+            return copy;
+        }
+        if (value instanceof Object[] array) {
+            Object[] copy = array.clone();
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = copyOf(copy[i]);
+            }
+            return copy;
+        }
+        return value;
+    }
+}
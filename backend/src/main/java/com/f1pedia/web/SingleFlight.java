@@ -0,0 +1,124 @@
+package com.f1pedia.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-flight execution: while a computation for a key is running, further
+ * callers with the same key wait for it and receive its result instead of
+ * starting their own. Nothing is cached once the computation completes.
+ * <p>
+ * Waiting is bounded by the waiter's own query deadline (the default deadline
+ * outside a deadline scope), after which it fails with 504 rather than
+ * holding its request thread for as long as the leader runs. Each waiter
+ * gets its own copy of the result (see {@link SharedResults}), never the
+ * instance the leader returns. A leader that fails because its own deadline
+ * passed does not fail waiters whose deadlines are later; they run the call
+ * again.
+ */
+@Component
+public class SingleFlight {
+
+    /**
+     * A computation that may throw, e.g. a proceeding AOP join point.
+     */
+    @FunctionalInterface
+    public interface Call {
+        Object run() throws Throwable;
+    }
+
+    private final ConcurrentHashMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final QueryDeadlines queryDeadlines;
+    private final DeadlineProperties deadlineProperties;
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(QueryDeadlines queryDeadlines, DeadlineProperties deadlineProperties,
+            MeterRegistry meterRegistry) {
+        this.queryDeadlines = queryDeadlines;
+        this.deadlineProperties = deadlineProperties;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gaugeMapSize("singleflight.inflight", java.util.List.of(), inFlight);
+    }
+
+    /**
+     * @param handler low-cardinality name used to tag metrics
+     * @param key     identity of the computation (handler plus arguments)
+     * @param call    the computation, run only by the first caller
+     */
+    public Object execute(String handler, String key, Call call) throws Throwable {
+        Long deadline = queryDeadlines.deadlineNanos();
+        while (true) {
+            Flight mine = new Flight(new CompletableFuture<>(), deadline);
+            Flight running = inFlight.putIfAbsent(key, mine);
+            if (running == null) {
+                return lead(handler, key, mine, call);
+            }
+            counter("singleflight.coalesced", handler).increment();
+            try {
+                return SharedResults.copyOf(await(running.result(), deadline, handler));
+            } catch (ResponseStatusException e) {
+                throw e;
+            } catch (Throwable t) {
+                // The leader ran out of its own, shorter deadline (e.g. a smaller
+                // X-Client-Timeout); this caller still has time, so it runs again
+                if (!running.expiredBefore(deadline)) {
+                    throw t;
+                }
+                counter("singleflight.retries", handler).increment();
+            }
+        }
+    }
+
+    private Object lead(String handler, String key, Flight mine, Call call) throws Throwable {
+        counter("singleflight.executions", handler).increment();
+        try {
+            Object result = call.run();
+            mine.result().complete(result);
+            return result;
+        } catch (Throwable t) {
+            mine.result().completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> running, Long deadline, String handler) throws Throwable {
+        long remaining = deadline != null
+                ? deadline - System.nanoTime()
+                : deadlineProperties.getDefaultTimeout().toNanos();
+        try {
+            return running.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            counter("singleflight.timeouts", handler).increment();
+            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                    "Timed out waiting for an identical request in flight", e);
+        }
+    }
+
+    /**
+     * @param deadline {@link System#nanoTime()} at which the leader's query
+     *                 deadline expires, null if it ran outside a scope
+     */
+    private record Flight(CompletableFuture<Object> result, Long deadline) {
+        boolean expiredBefore(Long waiterDeadline) {
+            return deadline != null && System.nanoTime() - deadline >= 0
+                    && (waiterDeadline == null || waiterDeadline - deadline > 0);
+        }
+    }
+
+    private Counter counter(String name, String handler) {
+        return Counter.builder(name).tag("handler", handler).register(meterRegistry);
+    }
+}
@@ -0,0 +1,40 @@
+package com.f1pedia.web;
+
+import jakarta.servlet.ServletResponse;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Routes calls to {@link Coalesced} handlers through {@link SingleFlight},
+ * keyed by handler plus arguments. After a cold start this turns a burst of
+ * identical analytics requests into a single query against the pool.
+ */
+@Aspect
+@Component
+@Order(2)
+@ConditionalOnProperty(name = "f1pedia.single-flight.enabled", havingValue = "true", matchIfMissing = true)
+public class SingleFlightAspect {
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Around("@within(com.f1pedia.web.Coalesced) || @annotation(com.f1pedia.web.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Streaming handlers write to their own response; there is no result to share
+        if (Arrays.stream(joinPoint.getArgs()).anyMatch(ServletResponse.class::isInstance)) {
+            return joinPoint.proceed();
+        }
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String handler = signature.getDeclaringType().getSimpleName() + "." + signature.getName();
+        String key = handler + Arrays.deepToString(joinPoint.getArgs());
+        return singleFlight.execute(handler, key, joinPoint::proceed);
+    }
+}
@@ -0,0 +1,262 @@
+package com.f1pedia.web;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.MethodParameter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ValueConstants;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bake run ({@code f1pedia.bake.output} set): once the application is up,
+ * requests every historic response from itself over HTTP, so they go through
+ * the real controllers, writes each as JSON plus gzip and brotli variants
+ * with a {@link BakeManifest}, and exits. Brotli is skipped on platforms
+ * brotli4j has no native encoder for.
+ * <p>
+ * Only data that can no longer change is baked: analytics endpoints taking a
+ * {@code season}, for every season before the latest one with results. A
+ * loaded calendar of the next year therefore does not get the season still
+ * being raced baked. Career and circuit pages are left live: their all-time
+ * ranks move with every race, whoever is still racing. Analytics endpoints
+ * are discovered from the request mappings, so new season-scoped endpoints
+ * are picked up without changes here.
+ */
+@Component
+@EnableConfigurationProperties(BakeProperties.class)
+@ConditionalOnProperty(name = "f1pedia.bake.output")
+public class StaticBaker {
+
+    private static final Logger log = LoggerFactory.getLogger(StaticBaker.class);
+
+    private static final String ANALYTICS = "/api/analytics/";
+    private static final int ATTEMPTS = 3;
+
+    @Autowired
+    private BakeProperties properties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    // Exits when done, non-zero if any response could not be baked or the bake
+    // was aborted, so a CI step fails instead of publishing a partial bake
+    @EventListener(ApplicationReadyEvent.class)
+    public void bake() {
+        int exitCode;
+        try {
+            exitCode = bakeAll() == 0 ? 0 : 1;
+        } catch (Exception e) {
+            log.error("Bake aborted", e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    // Returns the number of responses that could not be baked
+    private int bakeAll() throws Exception {
+        String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        Path output = properties.getOutput();
+        Files.createDirectories(output);
+        boolean brotli = brotliAvailable();
+
+        int latestSeason = latestSeason();
+        List<String> paths = paths(latestSeason);
+        log.info("Baking {} responses (seasons before {}) into {}", paths.size(), latestSeason, output);
+
+        Map<String, BakeManifest.Entry> entries = new ConcurrentSkipListMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(properties.getConcurrency());
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (String path : paths) {
+                tasks.add(pool.submit(() -> {
+                    byte[] json = fetch(base, path);
+                    if (json != null) {
+                        entries.put(path, write(output, path, json, brotli));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            // A failed task aborts the bake; the pool's threads must not keep the JVM up
+            pool.shutdownNow();
+        }
+
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.resolve(BakeManifest.FILE).toFile(),
+                new BakeManifest(Instant.now(), latestSeason, entries));
+        int failed = paths.size() - entries.size();
+        log.info("Baked {} responses, {} failed", entries.size(), failed);
+        return failed;
+    }
+
+    // The season being raced, or the last one raced; later calendars may be loaded already
+    int latestSeason() {
+        return jdbcTemplate.queryForObject("""
+                SELECT MAX(ra.year) FROM races ra
+                WHERE EXISTS (SELECT 1 FROM results r WHERE r.race_id = ra.race_id)
+                """, Integer.class);
+    }
+
+    private List<String> paths(int latestSeason) {
+        List<Integer> seasons = jdbcTemplate.queryForList(
+                "SELECT DISTINCT year FROM races WHERE year < ? ORDER BY year", Integer.class, latestSeason);
+        List<String> paths = new ArrayList<>();
+        for (String endpoint : seasonEndpoints()) {
+            for (int season : seasons) {
+                paths.add(endpoint + "?season=" + season);
+            }
+        }
+        return paths;
+    }
+
+    // GET analytics mappings without path variables whose only required
+    // input is a season
+    private List<String> seasonEndpoints() {
+        SortedSet<String> endpoints = new TreeSet<>();
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> mapping : handlerMapping.getHandlerMethods().entrySet()) {
+            Set<RequestMethod> methods = mapping.getKey().getMethodsCondition().getMethods();
+            if (!methods.isEmpty() && !methods.contains(RequestMethod.GET)) {
+                continue;
+            }
+            boolean season = false;
+            boolean otherRequired = false;
+            for (MethodParameter parameter : mapping.getValue().getMethodParameters()) {
+                RequestParam param = parameter.getParameterAnnotation(RequestParam.class);
+                if (param == null) {
+                    continue;
+                }
+                String name = !param.name().isEmpty() ? param.name() : parameter.getParameter().getName();
+                if (name.equals("season")) {
+                    season = true;
+                } else if (param.required() && param.defaultValue().equals(ValueConstants.DEFAULT_NONE)) {
+                    otherRequired = true;
+                }
+            }
+            if (season && !otherRequired) {
+                mapping.getKey().getPatternValues().stream()
+                        .filter(pattern -> pattern.startsWith(ANALYTICS) && !pattern.contains("{"))
+                        .forEach(endpoints::add);
+            }
+        }
+        return new ArrayList<>(endpoints);
+    }
+
+    // The JSON of one response and its compressed variants, at the file nginx
+    // looks for (see file())
+    static BakeManifest.Entry write(Path output, String path, byte[] json, boolean brotli)
+            throws IOException, NoSuchAlgorithmException {
+        Path file = output.resolve(file(path));
+        Files.createDirectories(file.getParent());
+        Files.write(file, json);
+
+        Path gzip = file.resolveSibling(file.getFileName() + ".gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip)) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(json);
+        }
+        Long brotliBytes = null;
+        if (brotli) {
+            Path br = file.resolveSibling(file.getFileName() + ".br");
+            Files.write(br, Encoder.compress(json, new Encoder.Parameters().setQuality(11)));
+            brotliBytes = Files.size(br);
+        }
+        return new BakeManifest.Entry(output.relativize(file).toString().replace('\\', '/'), sha256(json),
+                json.length, Files.size(gzip), brotliBytes);
+    }
+
+    // Retries sheds and timeouts; anything else non-200 is left to the live API
+    private byte[] fetch(String base, String path) throws InterruptedException {
+        for (int attempt = 1; attempt <= ATTEMPTS; attempt++) {
+            try {
+                HttpResponse<byte[]> response = http.send(HttpRequest.newBuilder(URI.create(base + path))
+                        .header("Accept", "application/json").GET().build(),
+                        HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() == 200) {
+                    return response.body();
+                }
+                if (response.statusCode() != 503 && response.statusCode() != 504) {
+                    log.warn("Not baking {}: HTTP {}", path, response.statusCode());
+                    return null;
+                }
+                log.info("{} answered {}, retrying", path, response.statusCode());
+            } catch (IOException e) {
+                log.warn("Baking {} failed: {}", path, e.getMessage());
+            }
+            Thread.sleep(Duration.ofSeconds(attempt).toMillis());
+        }
+        log.warn("Not baking {}: gave up after {} attempts", path, ATTEMPTS);
+        return null;
+    }
+
+    // /api/analytics/x -> api/analytics/x/index.json,
+    // /api/analytics/x?season=2010 -> api/analytics/x/season=2010.json
+    static String file(String path) {
+        int query = path.indexOf('?');
+        String dir = (query < 0 ? path : path.substring(0, query)).substring(1);
+        return dir + "/" + (query < 0 ? "index" : path.substring(query + 1)) + ".json";
+    }
+
+    private static boolean brotliAvailable() {
+        boolean available = Brotli4jLoader.isAvailable();
+        if (!available) {
+            log.info("No native brotli encoder for this platform ({}); baking gzip variants only",
+                    Brotli4jLoader.getUnavailabilityCause().getMessage());
+        }
+        return available;
+    }
+
+    private static String sha256(byte[] bytes) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+}
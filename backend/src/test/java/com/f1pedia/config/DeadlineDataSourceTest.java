@@ -0,0 +1,70 @@
+package com.f1pedia.config;
+
+import com.f1pedia.support.TestDatabase;
+import com.f1pedia.web.DeadlineProperties;
+import com.f1pedia.web.QueryDeadlines;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineDataSourceTest {
+
+    private QueryDeadlines deadlines;
+    private DeadlineDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        deadlines = new QueryDeadlines(new DeadlineProperties(), new SimpleMeterRegistry());
+        dataSource = new DeadlineDataSource(new TestDatabase().dataSource(), () -> deadlines);
+    }
+
+    @Test
+    void statementsInsideAScopeGetTheTimeLeft() throws Throwable {
+        Object timeout = deadlines.run("h", Duration.ofSeconds(3), null, () -> {
+            try (Connection connection = dataSource.getConnection();
+                    PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+                return statement.getQueryTimeout();
+            }
+        });
+        assertThat(timeout).isEqualTo(3);
+
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+            assertThat(statement.getQueryTimeout()).isZero();
+        }
+    }
+
+    @Test
+    void clientBudgetBindsBelowTheEndpointDeadline() throws Throwable {
+        Object timeout = deadlines.run("h", Duration.ofSeconds(25), Duration.ofSeconds(5), () -> {
+            try (Connection connection = dataSource.getConnection();
+                    PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+                return statement.getQueryTimeout();
+            }
+        });
+        assertThat(timeout).isEqualTo(5);
+    }
+
+    @Test
+    void noStatementStartsAfterTheDeadline() {
+        assertThatThrownBy(() -> deadlines.run("h", Duration.ofMillis(1), null, () -> {
+            Thread.sleep(20);
+            try (Connection connection = dataSource.getConnection()) {
+                return connection.createStatement();
+            }
+        })).isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+            assertThat(e.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+            assertThat(e.getCause()).isInstanceOf(SQLTimeoutException.class);
+        });
+    }
+}
@@ -0,0 +1,169 @@
+package com.f1pedia.config;
+
+import com.f1pedia.F1PediaApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the application once against Postgres and once with the
+ * {@code embedded} profile, then compares the JSON of a set of endpoints:
+ * every repository and JdbcTemplate query has to answer the same in H2's
+ * PostgreSQL mode. Point it at a database loaded by {@code etl/load_data.sh},
+ * e.g. {@code F1PEDIA_TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/f1pedia
+ * mvn test}; skipped when the variable is not set.
+ */
+@EnabledIfEnvironmentVariable(named = "F1PEDIA_TEST_POSTGRES_URL", matches = ".+")
+class EmbeddedParityTest {
+
+    /** Vary between runs, not between databases. */
+    private static final Set<String> IGNORED_FIELDS = Set.of("elapsedMs", "generatedAt", "timestamp");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final HttpClient HTTP = HttpClient.newHttpClient();
+
+    @TempDir
+    static Path embeddedDir;
+
+    private static ConfigurableApplicationContext postgres;
+    private static ConfigurableApplicationContext embedded;
+
+    @BeforeAll
+    static void start() {
+        // Arguments, as default properties would lose to application.properties
+        postgres = new SpringApplicationBuilder(F1PediaApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + System.getenv("F1PEDIA_TEST_POSTGRES_URL"),
+                "--spring.datasource.username=" + env("F1PEDIA_TEST_USER", "postgres"),
+                "--spring.datasource.password=" + env("F1PEDIA_TEST_PASSWORD", "postgres"),
+                "--f1pedia.invalidation.enabled=false");
+        embedded = new SpringApplicationBuilder(F1PediaApplication.class).profiles("embedded").run(
+                "--server.port=0",
+                "--f1pedia.embedded.database=" + embeddedDir.resolve("f1pedia-h2"));
+    }
+
+    @AfterAll
+    static void stop() {
+        if (embedded != null) {
+            embedded.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value != null ? value : fallback;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/drivers/1",
+            "/api/drivers/1/career",
+            "/api/drivers/1/championships",
+            "/api/drivers/1/circuits",
+            "/api/drivers/1/teammates",
+            "/api/drivers/1/status",
+            "/api/drivers/1/evolution",
+            "/api/drivers/1/profile",
+            "/api/constructors/6",
+            "/api/constructors/6/seasons",
+            "/api/constructors/6/drivers",
+            "/api/constructors/6/dashboard-stats",
+            "/api/constructors/6/status-breakdown",
+            "/api/circuits/14",
+            "/api/circuits/14/stats",
+            "/api/circuits/with-stats",
+            "/api/races/season/2023",
+            "/api/races/latest-season",
+            "/api/races/1100/results",
+            "/api/races/1100/qualifying",
+            "/api/races/1100/pit-stops",
+            "/api/analytics/dnf-causes",
+            "/api/analytics/pole-to-win",
+            "/api/analytics/grid-performance",
+            "/api/analytics/circuit-reliability",
+            "/api/analytics/championship-battle?year=2021",
+            "/api/analytics/constructor-championship?year=2021",
+            "/api/analytics/teammate-battles?year=2021",
+            "/api/analytics/points-efficiency?year=2021",
+            "/api/analytics/season-dominance",
+            "/api/leaderboards/drivers/wins",
+            "/api/search?q=hamilton"
+    })
+    void embeddedAnswersLikePostgres(String path) throws Exception {
+        JsonNode expected = get(postgres, path);
+        JsonNode actual = get(embedded, path);
+
+        List<String> differences = new ArrayList<>();
+        compare("$", expected, actual, differences);
+        assertThat(differences).as(path).isEmpty();
+    }
+
+    private static JsonNode get(ConfigurableApplicationContext context, String path) throws Exception {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        HttpResponse<String> response = HTTP.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + path)).build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as(path).isEqualTo(200);
+        return MAPPER.readTree(response.body());
+    }
+
+    private static void compare(String at, JsonNode expected, JsonNode actual, List<String> differences) {
+        if (expected.isNumber() && actual.isNumber()) {
+            // Rounded averages may land on the other side of the last digit
+            double a = expected.doubleValue();
+            double b = actual.doubleValue();
+            if (Math.abs(a - b) > 1e-6 * Math.max(1, Math.abs(a)) + 0.011) {
+                differences.add(at + ": " + expected + " != " + actual);
+            }
+        } else if (expected.isObject() && actual.isObject()) {
+            Set<String> names = new TreeSet<>();
+            expected.fieldNames().forEachRemaining(names::add);
+            actual.fieldNames().forEachRemaining(names::add);
+            for (String name : names) {
+                if (IGNORED_FIELDS.contains(name)) {
+                    continue;
+                }
+                if (!expected.has(name) || !actual.has(name)) {
+                    differences.add(at + "." + name + ": only in " + (expected.has(name) ? "postgres" : "embedded"));
+                } else {
+                    compare(at + "." + name, expected.get(name), actual.get(name), differences);
+                }
+            }
+        } else if (expected.isArray() && actual.isArray()) {
+            if (expected.size() != actual.size()) {
+                differences.add(at + ": " + expected.size() + " elements != " + actual.size());
+                return;
+            }
+            Iterator<JsonNode> a = expected.elements();
+            Iterator<JsonNode> b = actual.elements();
+            for (int i = 0; a.hasNext(); i++) {
+                compare(at + "[" + i + "]", a.next(), b.next(), differences);
+            }
+        } else if (!expected.equals(actual)) {
+            differences.add(at + ": " + expected + " != " + actual);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.f1pedia.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    @Test
+    void replicasAreJudgedAgainstThePrimaryAndTheirReceiver() throws SQLException {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("in-sync", replica(0.0));
+        replicas.put("lagging", replica(60.0));
+        // No WAL receiver: LAG_SQL yields NULL however far behind it is
+        replicas.put("disconnected", replica(null));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary("0/3000060"), replicas,
+                Duration.ofSeconds(30), Duration.ofHours(1), new SimpleMeterRegistry());
+
+        routing.checkReplicas();
+
+        assertThat(routing.healthyReplicas()).containsExactly("in-sync");
+    }
+
+    @Test
+    void unreachableReplicaIsSkipped() throws SQLException {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("connection refused"));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary("0/3000060"),
+                Map.of("replica-0", broken), Duration.ofSeconds(30), Duration.ofHours(1), new SimpleMeterRegistry());
+
+        routing.checkReplicas();
+
+        assertThat(routing.healthyReplicas()).isEmpty();
+    }
+
+    @Test
+    void fencedReplicasWaitUntilTheyReplayedTheChange() throws SQLException {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        // Both within the lag limit, only one has replayed the primary's position at the fence
+        replicas.put("replayed", replica(0.0, true));
+        replicas.put("behind", replica(5.0, false));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary("0/3000060"), replicas,
+                Duration.ofSeconds(30), Duration.ofHours(1), new SimpleMeterRegistry());
+        routing.checkReplicas();
+        assertThat(routing.healthyReplicas()).containsExactlyInAnyOrder("replayed", "behind");
+
+        routing.fence();
+        routing.checkReplicas();
+
+        assertThat(routing.healthyReplicas()).containsExactly("replayed");
+    }
+
+    private static DataSource primary(String lsn) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true);
+        when(rs.getString(1)).thenReturn(lsn);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenReturn(rs);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+
+    private static DataSource replica(Double lagSeconds) throws SQLException {
+        return replica(lagSeconds, true);
+    }
+
+    private static DataSource replica(Double lagSeconds, boolean pastFence) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true);
+        when(rs.getDouble(1)).thenReturn(lagSeconds == null ? 0 : lagSeconds);
+        when(rs.wasNull()).thenReturn(lagSeconds == null);
+        when(rs.getBoolean(2)).thenReturn(pastFence);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(rs);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
@@ -0,0 +1,97 @@
+package com.f1pedia.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Against a real primary and streaming replica, e.g.
+ * {@code docker compose -f docker-compose.replica.yaml up -d} and then
+ * {@code F1PEDIA_TEST_PRIMARY_URL=jdbc:postgresql://localhost:5432/f1pedia
+ * F1PEDIA_TEST_REPLICA_URL=jdbc:postgresql://localhost:5433/f1pedia mvn test}.
+ * Skipped when the variables are not set. The user needs superuser rights on
+ * the replica, which {@link #disconnectedReplicaIsSkipped()} points at a dead
+ * primary for a few seconds.
+ */
+@EnabledIfEnvironmentVariable(named = "F1PEDIA_TEST_REPLICA_URL", matches = ".+")
+class ReplicaRoutingPostgresTest {
+
+    private static DriverManagerDataSource dataSource(String url) {
+        return new DriverManagerDataSource(url, env("F1PEDIA_TEST_USER", "postgres"),
+                env("F1PEDIA_TEST_PASSWORD", "postgres"));
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value != null ? value : fallback;
+    }
+
+    @Test
+    void streamingReplicaCatchesUpWithThePrimary() throws InterruptedException {
+        DriverManagerDataSource primary = dataSource(System.getenv("F1PEDIA_TEST_PRIMARY_URL"));
+        DriverManagerDataSource replica = dataSource(System.getenv("F1PEDIA_TEST_REPLICA_URL"));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica),
+                Duration.ofSeconds(30), Duration.ofHours(1), new SimpleMeterRegistry());
+
+        // Move the primary's WAL position, then wait for the replica to replay it
+        JdbcTemplate jdbc = new JdbcTemplate(primary);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS replica_lag_probe (id int)");
+        jdbc.update("INSERT INTO replica_lag_probe VALUES (1)");
+        jdbc.execute("DROP TABLE replica_lag_probe");
+        long giveUp = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        routing.checkReplicas();
+        while (routing.healthyReplicas().isEmpty() && System.nanoTime() < giveUp) {
+            Thread.sleep(200);
+            routing.checkReplicas();
+        }
+
+        assertThat(routing.healthyReplicas()).containsExactly("replica-0");
+        assertThat(new JdbcTemplate(replica).queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_stat_wal_receiver)", Boolean.class)).isTrue();
+
+        // A fence after another change lifts once the replica has replayed it
+        jdbc.execute("CREATE TABLE replica_lag_probe (id int)");
+        jdbc.execute("DROP TABLE replica_lag_probe");
+        routing.fence();
+        giveUp = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (routing.healthyReplicas().isEmpty() && System.nanoTime() < giveUp) {
+            Thread.sleep(200);
+            routing.checkReplicas();
+        }
+        assertThat(routing.healthyReplicas()).containsExactly("replica-0");
+    }
+
+    @Test
+    void disconnectedReplicaIsSkipped() throws InterruptedException {
+        DriverManagerDataSource primary = dataSource(System.getenv("F1PEDIA_TEST_PRIMARY_URL"));
+        DriverManagerDataSource replica = dataSource(System.getenv("F1PEDIA_TEST_REPLICA_URL"));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica),
+                Duration.ofSeconds(30), Duration.ofHours(1), new SimpleMeterRegistry());
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        String conninfo = replicaJdbc.queryForObject("SELECT current_setting('primary_conninfo')", String.class);
+
+        // An idle, disconnected replica has equal receive and replay positions,
+        // which is what used to pass for "in sync"
+        replicaJdbc.execute("ALTER SYSTEM SET primary_conninfo = 'host=127.0.0.1 port=1 user=nobody'");
+        replicaJdbc.execute("SELECT pg_reload_conf()");
+        try {
+            long giveUp = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+            while (replicaJdbc.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_stat_wal_receiver)", Boolean.class)
+                    && System.nanoTime() < giveUp) {
+                Thread.sleep(200);
+            }
+            routing.checkReplicas();
+            assertThat(routing.healthyReplicas()).isEmpty();
+        } finally {
+            replicaJdbc.execute("ALTER SYSTEM SET primary_conninfo = '" + conninfo.replace("'", "''") + "'");
+            replicaJdbc.execute("SELECT pg_reload_conf()");
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.f1pedia.graphql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DataLoaderTest {
+
+    @Test
+    void failedBatchFailsOnlyItsOwnKeys() {
+        Set<Integer> broken = new HashSet<>(Set.of(2));
+        DataLoader<Integer, String> loader = new DataLoader<>(keys -> {
+            if (keys.stream().anyMatch(broken::contains)) {
+                throw new IllegalStateException("connection reset");
+            }
+            Map<Integer, String> values = new HashMap<>();
+            keys.forEach(key -> values.put(key, "v" + key));
+            return values;
+        });
+
+        DataLoader.Pending<String> first = loader.load(1);
+        loader.dispatch();
+        DataLoader.Pending<String> failing = loader.load(2);
+        loader.dispatch();
+        DataLoader.Pending<String> later = loader.load(3);
+        loader.dispatch();
+
+        assertThat(first.get()).isEqualTo("v1");
+        assertThatThrownBy(failing::get).hasMessage("connection reset");
+        assertThat(later.get()).isEqualTo("v3");
+        assertThat(loader.load(1).get()).isEqualTo("v1");
+
+        // A failed key is loaded again when asked for later
+        broken.clear();
+        DataLoader.Pending<String> retried = loader.load(2);
+        assertThat(loader.dispatch()).isTrue();
+        assertThat(retried.get()).isEqualTo("v2");
+        assertThat(loader.batches()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,136 @@
+package com.f1pedia.graphql;
+
+import com.f1pedia.support.TestDatabase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GraphQLExecutorTest {
+
+    private GraphQLExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase db = new TestDatabase()
+                .circuit(1, "Monza", "Italy", 45.6, 9.3)
+                .driver(1, "AAA", "Ann", "Alpha").driver(2, "BBB", "Ben", "Beta")
+                .constructor(1, "Red")
+                .race(1, 2023, 1, 1).race(2, 2024, 1, 1).race(3, 2024, 2, 1)
+                .result(1, 1, 1, 1, 25).result(1, 2, 1, 2, 18)
+                .result(2, 2, 1, 1, 25).result(3, 1, 1, 1, 25);
+        GraphQLProperties properties = new GraphQLProperties();
+        F1Schema schema = new F1Schema();
+        ReflectionTestUtils.setField(schema, "jdbcTemplate", db.jdbc());
+        ReflectionTestUtils.setField(schema, "properties", properties);
+        executor = new GraphQLExecutor();
+        ReflectionTestUtils.setField(executor, "f1Schema", schema);
+        ReflectionTestUtils.setField(executor, "properties", properties);
+        ReflectionTestUtils.setField(executor, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @Test
+    void nestedLevelsAreLoadedInOneBatchEach() {
+        Map<String, Object> response = executor.execute(
+                "{ races(season: 2024) { round results { driver { code } } } }", null, null);
+
+        assertThat(response).doesNotContainKey("errors");
+        assertThat(response.get("data")).isEqualTo(Map.of("races", List.of(
+                Map.of("round", 1, "results", List.of(Map.of("driver", Map.of("code", "BBB")))),
+                Map.of("round", 2, "results", List.of(Map.of("driver", Map.of("code", "AAA")))))));
+        // results, then drivers, for both races together
+        assertThat(extensions(response)).containsEntry("batches", 2);
+    }
+
+    @Test
+    void variablesAreCoercedAndChecked() {
+        String query = "query Season($season: Int!) { races(season: $season) { name } }";
+
+        assertThat(executor.execute(query, null, Map.of("season", 2023)).get("data"))
+                .isEqualTo(Map.of("races", List.of(Map.of("name", "Race 1"))));
+        assertThat(message(executor.execute(query, null, Map.of("season", "2023"))))
+                .isEqualTo("Variable $season must be Int");
+        assertThat(message(executor.execute(query, null, Map.of())))
+                .isEqualTo("Variable $season must not be null");
+        assertThat(message(executor.execute("{ races(season: $season) { name } }", null, null)))
+                .isEqualTo("Variable $season is not defined");
+    }
+
+    @Test
+    void tooDeepQueriesAreRejectedUnexecuted() {
+        String tooDeep = "{ race(id: 1) {" + " results { race {".repeat(4) + " id" + " } }".repeat(4) + " } }";
+        // Each fragment parses within the limit; together they nest ten levels
+        String deepInFragments = "{ races { ...R } } fragment R on Race { results { race { ...S } } }"
+                + " fragment S on Race {" + " results { race {".repeat(3) + " id" + " } }".repeat(3) + " }";
+
+        for (String query : List.of(tooDeep, deepInFragments, "{" + " races {".repeat(3000) + " id"
+                + " }".repeat(3000) + " }")) {
+            Map<String, Object> response = executor.execute(query, null, null);
+            assertThat(response).doesNotContainKey("data");
+            assertThat(message(response)).isEqualTo("Query is nested deeper than 8 levels");
+        }
+    }
+
+    @Test
+    void costlyQueriesAreRejectedUnexecuted() {
+        Map<String, Object> response = executor.execute(
+                "{ races(limit: 500) { results(limit: 500) { driver { id } } } }", null, null);
+
+        assertThat(response).doesNotContainKey("data");
+        assertThat(message(response)).startsWith("Query cost 500500 exceeds the limit of 10000");
+    }
+
+    @Test
+    void costCountsLimitsAndNesting() {
+        Map<String, Object> response = executor.execute(
+                "{ races(limit: 10) { results(limit: 5) { driver { id } } } }", null, null);
+
+        // 10 races at 1 + 5 results at 1 + a driver at 1
+        assertThat(extensions(response)).containsEntry("cost", 10L * (1 + 5 * (1 + 1)));
+    }
+
+    @Test
+    void fragmentCyclesAreRejected() {
+        Map<String, Object> response = executor.execute("""
+                { races { ...A } }
+                fragment A on Race { id ...B }
+                fragment B on Race { name ...A }
+                """, null, null);
+
+        assertThat(response).doesNotContainKey("data");
+        assertThat(message(response)).isEqualTo("Fragment A spreads itself");
+    }
+
+    @Test
+    void fragmentsMultiplyingOutAreRejected() {
+        // Each fragment spreads the next twice: 2^20 expansions
+        StringBuilder query = new StringBuilder("{ races { ...F0 } }\n");
+        for (int i = 0; i < 20; i++) {
+            query.append("fragment F").append(i).append(" on Race { id ...F").append(i + 1).append(" ...F")
+                    .append(i + 1).append(" }\n");
+        }
+        query.append("fragment F20 on Race { id }\n");
+
+        Map<String, Object> response = executor.execute(query.toString(), null, null);
+
+        assertThat(response).doesNotContainKey("data");
+        assertThat(message(response)).isEqualTo("Query expands more than 1000 fragment spreads");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> extensions(Map<String, Object> response) {
+        return (Map<String, Object>) response.get("extensions");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String message(Map<String, Object> response) {
+        List<Map<String, Object>> errors = (List<Map<String, Object>>) response.get("errors");
+        assertThat(errors).isNotEmpty();
+        return (String) errors.get(0).get("message");
+    }
+}
@@ -0,0 +1,93 @@
+package com.f1pedia.graphql;
+
+import com.f1pedia.graphql.Document.Field;
+import com.f1pedia.graphql.Document.Variable;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GraphQLParserTest {
+
+    private static final int MAX_DEPTH = 8;
+
+    @Test
+    void parsesFieldsArgumentsAndVariables() {
+        Document document = GraphQLParser.parse("""
+                query Season($year: Int = 2021, $ids: [ID!]) {
+                  top: races(season: $year, limit: 3) { name results(limit: 1) { points } }
+                }
+                """, MAX_DEPTH);
+
+        Document.Operation operation = document.operations().get(0);
+        assertThat(operation.name()).isEqualTo("Season");
+        assertThat(operation.variables()).extracting(Document.VariableDefinition::type)
+                .containsExactly("Int", "[ID!]");
+        assertThat(operation.variables().get(0).defaultValue()).isEqualTo(2021);
+        Field races = (Field) operation.selections().get(0);
+        assertThat(races.responseKey()).isEqualTo("top");
+        assertThat(races.arguments()).isEqualTo(Map.of("season", new Variable("year"), "limit", 3));
+        assertThat(races.selections()).hasSize(2);
+    }
+
+    @Test
+    void selectionSetsUpToTheLimitParse() {
+        assertThat(GraphQLParser.parse(selections("a", MAX_DEPTH), MAX_DEPTH).operations()).hasSize(1);
+    }
+
+    @Test
+    void deeplyNestedSelectionSetsAreRejected() {
+        // Deep enough to overflow the stack without the limit
+        assertThatThrownBy(() -> GraphQLParser.parse(selections("a", 3000), MAX_DEPTH))
+                .isInstanceOf(GraphQLException.class)
+                .hasMessage("Query is nested deeper than 8 levels");
+        assertThatThrownBy(() -> GraphQLParser.parse(selections("...", MAX_DEPTH + 1), MAX_DEPTH))
+                .isInstanceOf(GraphQLException.class)
+                .hasMessageContaining("nested deeper");
+    }
+
+    @Test
+    void deeplyNestedValuesAreRejected() {
+        String lists = "[".repeat(3000) + "]".repeat(3000);
+        String objects = "{ y: ".repeat(3000) + "1" + " }".repeat(3000);
+        String listType = "[".repeat(3000) + "Int" + "]".repeat(3000);
+
+        for (String query : List.of("{ a(x: " + lists + ") }", "{ a(x: " + objects + ") }",
+                "query($x: " + listType + ") { a }")) {
+            assertThatThrownBy(() -> GraphQLParser.parse(query, MAX_DEPTH))
+                    .isInstanceOf(GraphQLException.class)
+                    .hasMessageContaining("nested deeper");
+        }
+    }
+
+    @Test
+    void valuesUpToTheLimitParse() {
+        String lists = "[".repeat(MAX_DEPTH) + "]".repeat(MAX_DEPTH);
+        Document document = GraphQLParser.parse("{ a(x: " + lists + ") }", MAX_DEPTH);
+
+        Object value = ((Field) document.operations().get(0).selections().get(0)).arguments().get("x");
+        for (int level = 1; level < MAX_DEPTH; level++) {
+            assertThat(value).asList().hasSize(1);
+            value = ((List<?>) value).get(0);
+        }
+        assertThat(value).asList().isEmpty();
+    }
+
+    @Test
+    void syntaxErrorsCarryTheirLocation() {
+        assertThatThrownBy(() -> GraphQLParser.parse("{\n  races(season: ) { name } }", MAX_DEPTH))
+                .isInstanceOf(GraphQLException.class)
+                .hasMessage("Unexpected ')'")
+                .extracting(e -> ((GraphQLException) e).getLocation())
+                .isEqualTo(new Document.Location(2, 17));
+    }
+
+    // Selection sets nested levels deep: each holds an "outer" field or
+    // inline fragment, the innermost just the field a
+    private static String selections(String outer, int levels) {
+        return "{ " + (outer + " { ").repeat(levels - 1) + "a" + " }".repeat(levels);
+    }
+}
@@ -0,0 +1,74 @@
+package com.f1pedia.service;
+
+import com.f1pedia.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ChampionshipSimulationServiceTest {
+
+    private JdbcTemplate jdbc;
+    private ChampionshipSimulationService service;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase db = new TestDatabase()
+                .circuit(1, "Monza", "Italy", 45.6, 9.3)
+                .driver(1, "AAA", "Ann", "Alpha").driver(2, "BBB", "Ben", "Beta")
+                .constructor(1, "Red").constructor(2, "Blue")
+                .race(1, 2024, 1, 1).race(2, 2024, 2, 1).race(3, 2024, 3, 1);
+        // Alpha leads by 50 with one round left: the title is decided
+        for (int race = 1; race <= 2; race++) {
+            db.result(race, 1, 1, 1, 25).result(race, 2, 2, 2, 0);
+        }
+        jdbc = spy(db.jdbc());
+        service = new ChampionshipSimulationService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbc);
+    }
+
+    @Test
+    void decidedTitleHasCertainOdds() {
+        Map<String, Object> result = service.simulate(1_000, 5);
+
+        assertThat(result).containsEntry("season", 2024).containsEntry("completedRounds", 2)
+                .containsEntry("remainingRounds", 1);
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> drivers = (List<Map<String, Object>>) result.get("drivers");
+        assertThat(drivers.get(0)).containsEntry("code", "AAA").containsEntry("titleProbability", 100.0);
+        assertThat(drivers.get(1)).containsEntry("titleProbability", 0.0);
+    }
+
+    @Test
+    void modelIsLoadedOncePerWindowUntilEvicted() {
+        service.simulate(1_000, 5);
+        service.simulate(1_000, 5);
+        verify(jdbc, times(1)).queryForObject(anyString(), eq(Integer.class));
+
+        service.evict();
+        service.simulate(1_000, 5);
+        verify(jdbc, times(2)).queryForObject(anyString(), eq(Integer.class));
+    }
+
+    @Test
+    void modelLoadedAcrossAnEvictionIsNotKept() {
+        // Results change while the first load is reading the season
+        doAnswer(invocation -> {
+            service.evict();
+            return invocation.callRealMethod();
+        }).doCallRealMethod().when(jdbc).queryForObject(anyString(), eq(Integer.class));
+
+        assertThat(service.simulate(1_000, 5)).containsEntry("season", 2024);
+        service.simulate(1_000, 5);
+
+        verify(jdbc, times(2)).queryForObject(anyString(), eq(Integer.class));
+    }
+}
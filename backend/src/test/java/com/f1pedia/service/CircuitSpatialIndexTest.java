@@ -0,0 +1,83 @@
+package com.f1pedia.service;
+
+import com.f1pedia.controller.CircuitController;
+import com.f1pedia.domain.Circuit;
+import com.f1pedia.dto.NearbyCircuitDTO;
+import com.f1pedia.repository.CircuitRepository;
+import com.f1pedia.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class CircuitSpatialIndexTest {
+
+    private CircuitRepository circuits;
+    private CircuitSpatialIndex index;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase db = new TestDatabase()
+                .circuit(1, "Monza", "Italy", 45.6, 9.3)
+                .circuit(2, "Imola", "Italy", 44.3, 11.7)
+                .circuit(3, "Nowhere", "Italy", null, null)
+                .driver(1, "AAA", "Ann", "Alpha")
+                .constructor(1, "Red")
+                .race(1, 2024, 1, 1).race(2, 2024, 2, 3)
+                .result(1, 1, 1, 1, 25).result(2, 1, 1, 1, 25);
+        circuits = mock(CircuitRepository.class);
+        when(circuits.findAll()).thenReturn(List.of(circuit(1, "Monza", 45.6, 9.3), circuit(2, "Imola", 44.3, 11.7),
+                circuit(3, "Nowhere", null, null)));
+        ReferenceNames names = new ReferenceNames();
+        ReflectionTestUtils.setField(names, "jdbcTemplate", db.jdbc());
+        index = new CircuitSpatialIndex();
+        ReflectionTestUtils.setField(index, "circuitRepository", circuits);
+        ReflectionTestUtils.setField(index, "jdbcTemplate", db.jdbc());
+        ReflectionTestUtils.setField(index, "referenceNames", names);
+    }
+
+    @Test
+    void circuitsWithoutCoordinatesKeepTheirResults() {
+        assertThat(index.nearest(45, 10, 10)).extracting(NearbyCircuitDTO::circuitId).containsExactly(1, 2);
+        assertThat(index.inBox(-90, -180, 90, 180)).extracting(NearbyCircuitDTO::circuitId).containsExactly(1, 2);
+        // Both wins count for Italy, including the one at the circuit without coordinates
+        assertThat(index.constructorByCountry(1).get("Italy")[2]).isEqualTo(2);
+    }
+
+    @Test
+    void performanceSkipsCircuitsGoneAfterARebuild() {
+        List<NearbyCircuitDTO> region = index.within(45, 10, 500);
+        when(circuits.findAll()).thenReturn(List.of(circuit(1, "Monza", 45.6, 9.3)));
+        index.evict();
+
+        assertThat(index.performance(region, 10).races()).isEqualTo(1);
+    }
+
+    @Test
+    void negativeRadiusIsRejected() {
+        CircuitController controller = new CircuitController();
+        ReflectionTestUtils.setField(controller, "circuitSpatialIndex", index);
+
+        assertThatThrownBy(() -> controller.getCircuitsWithin(45, 10, -300))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThat(controller.getCircuitsWithin(45, 10, 0)).isEmpty();
+    }
+
+    private static Circuit circuit(int id, String name, Double lat, Double lng) {
+        Circuit circuit = new Circuit();
+        circuit.setCircuitId(id);
+        circuit.setName(name);
+        circuit.setCountry("Italy");
+        circuit.setLat(lat);
+        circuit.setLng(lng);
+        return circuit;
+    }
+}
@@ -0,0 +1,137 @@
+package com.f1pedia.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DatasetSnapshotTest {
+
+    private static final String DRIVERS = """
+            driverId,code,surname,height
+            1,"HAM","Hamilton",1.74
+            2,\\N,"R\u00e4ikk\u00f6nen",\\N
+            3,"ALO","Say \"\"hi\"\"",1.71
+            """;
+
+    private static final String SEASONS = """
+            year,url
+            2023,"http://2023"
+            2024,\\N
+            """;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void mappedSnapshotHoldsTheParsedTables() throws Exception {
+        List<CsvTableReader.Table> parsed = List.of(parse("drivers", DRIVERS), parse("seasons", SEASONS));
+        Path snapshot = dir.resolve("f1pedia.snapshot");
+
+        DatasetSnapshot.write(parsed, snapshot);
+        Map<String, ColumnTable> mapped = DatasetSnapshot.map(snapshot);
+
+        assertThat(mapped.keySet()).containsExactly("drivers", "seasons");
+        for (CsvTableReader.Table table : parsed) {
+            assertSameRows(table, mapped.get(table.name()));
+            assertSameRows(table, DatasetSnapshot.read(DatasetSnapshot.encode(parsed)).get(table.name()));
+        }
+        ColumnTable drivers = mapped.get("drivers");
+        assertThat(drivers.strings("surname").get(1)).isEqualTo("R\u00e4ikk\u00f6nen");
+        assertThat(drivers.strings("surname").get(2)).isEqualTo("Say \"hi\"");
+        assertThat(drivers.strings("code").isNull(1)).isTrue();
+        assertThat(drivers.column("height").isNull(1)).isTrue();
+        assertThat(drivers.ints("driverId").get(2)).isEqualTo(3);
+    }
+
+    @Test
+    void otherVersionIsRejected() {
+        ByteBuffer encoded = DatasetSnapshot.encode(List.of(parse("seasons", SEASONS)));
+        encoded.order(ByteOrder.LITTLE_ENDIAN).putInt(4, DatasetSnapshot.VERSION + 1);
+
+        assertThatThrownBy(() -> DatasetSnapshot.read(encoded)).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("version");
+    }
+
+    @Test
+    void freshSnapshotIsMappedAndAStaleOneRebuilt() throws Exception {
+        Path csvs = Files.createDirectory(dir.resolve("F1"));
+        Path seasons = csvs.resolve("seasons.csv");
+        Files.writeString(seasons, SEASONS);
+        Path snapshot = csvs.resolve("f1pedia.snapshot");
+
+        // First boot parses the CSVs and writes the snapshot
+        assertThat(dataset(csvs, snapshot).table("seasons").rows()).isEqualTo(2);
+        assertThat(snapshot).exists();
+        touch(seasons, 0);
+        touch(snapshot, 60);
+        // A later boot maps it as it is
+        String written = dataset(csvs, snapshot).stamp();
+        assertThat(dataset(csvs, snapshot).stamp()).isEqualTo(written).isNotNull();
+
+        // A snapshot of another format version is rebuilt from the CSVs
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(0, DatasetSnapshot.VERSION + 1), 4);
+        }
+        touch(snapshot, 60);
+        F1Dataset rebuilt = dataset(csvs, snapshot);
+        assertThat(rebuilt.table("seasons").rows()).isEqualTo(2);
+        assertThat(rebuilt.stamp()).isNotEqualTo(written);
+        assertThat(DatasetSnapshot.map(snapshot)).containsKey("seasons");
+
+        // So is one older than a CSV
+        Files.writeString(seasons, SEASONS + "2025,\"http://2025\"\n");
+        touch(snapshot, 60);
+        touch(seasons, 120);
+        assertThat(dataset(csvs, snapshot).table("seasons").rows()).isEqualTo(3);
+        assertThat(DatasetSnapshot.map(snapshot).get("seasons").rows()).isEqualTo(3);
+    }
+
+    private static void assertSameRows(CsvTableReader.Table expected, ColumnTable actual) {
+        assertThat(actual.rows()).isEqualTo(expected.rows());
+        for (CsvTableReader.Column column : expected.columns()) {
+            ColumnTable.Column mapped = actual.column(column.name());
+            assertThat(mapped.type()).isEqualTo(column.type());
+            for (int row = 0; row < expected.rows(); row++) {
+                Object value = switch (column.type()) {
+                    case INT -> column.ints()[row] == ColumnTable.NULL_INT ? null : column.ints()[row];
+                    case DOUBLE -> Double.isNaN(column.doubles()[row]) ? null : column.doubles()[row];
+                    case STRING -> column.codes()[row] < 0 ? null : column.dictionary().get(column.codes()[row]);
+                };
+                assertThat(mapped.value(row)).as("%s.%s[%d]", expected.name(), column.name(), row)
+                        .isEqualTo(value);
+            }
+        }
+    }
+
+    private static CsvTableReader.Table parse(String name, String csv) {
+        return CsvTableReader.parse(name, ByteBuffer.wrap(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static F1Dataset dataset(Path csvs, Path snapshot) {
+        F1Dataset dataset = new F1Dataset();
+        ReflectionTestUtils.setField(dataset, "csvDirectory", csvs.toString());
+        ReflectionTestUtils.setField(dataset, "snapshotFile", snapshot.toString());
+        return dataset;
+    }
+
+    // Sets a file's modification time to a fixed instant plus the given seconds
+    private static void touch(Path file, long seconds) throws Exception {
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-01-01T00:00:00Z").plusSeconds(seconds)));
+    }
+}
@@ -0,0 +1,101 @@
+package com.f1pedia.service;
+
+import com.f1pedia.domain.Driver;
+import com.f1pedia.dto.*;
+import com.f1pedia.repository.DriverRepository;
+import com.f1pedia.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DriverProfileServiceTest {
+
+    private DriverProfileService service;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase db = new TestDatabase()
+                .circuit(1, "Monza", "Italy", 45.6, 9.3).circuit(2, "Spa", "Belgium", 50.4, 5.9)
+                .driver(1, "AAA", "Ann", "Alpha").driver(2, "BBB", "Ben", "Beta")
+                .constructor(1, "Red").constructor(2, "Blue")
+                .race(1, 2023, 1, 1).race(2, 2023, 2, 2).race(3, 2024, 1, 1).race(4, 2024, 2, 2)
+                // Alpha and Beta share the Red in 2023; Alpha drives the Blue alone in 2024
+                .result(1, 1, 1, 1, 25).result(1, 2, 1, 2, 18)
+                .result(2, 1, 1, 2, 18).result(2, 2, 1, 1, 25)
+                .result(3, 1, 2, 1, 25)
+                .result(4, 1, 2, null, 0)
+                .driverStanding(2, 1, 43, 1, 1).driverStanding(2, 2, 43, 2, 1)
+                .driverStanding(4, 1, 25, 1, 1);
+
+        Driver alpha = new Driver();
+        alpha.setDriverId(1);
+        alpha.setForename("Ann");
+        alpha.setSurname("Alpha");
+        DriverRepository drivers = mock(DriverRepository.class);
+        when(drivers.findById(1)).thenReturn(Optional.of(alpha));
+        when(drivers.findById(9)).thenReturn(Optional.empty());
+
+        ReferenceNames names = new ReferenceNames();
+        ReflectionTestUtils.setField(names, "jdbcTemplate", db.jdbc());
+        MetricRankIndex ranks = new MetricRankIndex();
+        ReflectionTestUtils.setField(ranks, "jdbcTemplate", db.jdbc());
+        ReflectionTestUtils.setField(ranks, "referenceNames", names);
+        service = new DriverProfileService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", db.jdbc());
+        ReflectionTestUtils.setField(service, "driverRepository", drivers);
+        ReflectionTestUtils.setField(service, "metricRankIndex", ranks);
+    }
+
+    @Test
+    void careerTotalsCountEveryResultOnce() {
+        // Beta's rows are joined in as teammate rows and must not add up twice
+        Map<String, Object> career = service.profile(1).career();
+
+        assertThat(career).containsEntry("races", 4L).containsEntry("wins", 2L).containsEntry("podiums", 3L)
+                .containsEntry("poles", 2L).containsEntry("total_points", 68.0)
+                .containsEntry("first_year", 2023).containsEntry("last_year", 2024);
+        assertThat(career.get("teams")).asList().extracting("name").containsExactly("Blue", "Red");
+        assertThat(career.get("ranks")).isNotNull();
+    }
+
+    @Test
+    void bestResultsTiedOnPointsKeepRaceOrder() {
+        @SuppressWarnings("unchecked")
+        List<DriverBestResultDTO> best = (List<DriverBestResultDTO>) service.profile(1).career().get("bestResults");
+
+        assertThat(best).extracting(DriverBestResultDTO::race).containsExactly("Race 1", "Race 3", "Race 2");
+    }
+
+    @Test
+    void seasonViews() {
+        DriverProfileDTO profile = service.profile(1);
+
+        assertThat(profile.championships()).extracting(DriverChampionshipDTO::year).containsExactly(2024, 2023);
+        assertThat(profile.teammates()).singleElement().satisfies(season -> {
+            assertThat(season.year()).isEqualTo(2023);
+            assertThat(season.racesWithTeammate()).isEqualTo(2);
+            assertThat(season.raceAhead()).isEqualTo(1);
+            assertThat(season.raceBehind()).isEqualTo(1);
+        });
+        assertThat(profile.trajectory()).extracting(CareerTrajectoryDTO::cumulativePoints)
+                .containsExactly(43.0, 68.0);
+        assertThat(profile.status()).extracting(FinishingStatusDTO::statusGroup, FinishingStatusDTO::count)
+                .containsExactly(tuple("Finished", 3), tuple("Mechanical", 1));
+        assertThat(profile.positions()).extracting(PositionCountDTO::position, PositionCountDTO::count)
+                .containsExactly(tuple(1, 2), tuple(2, 1));
+    }
+
+    @Test
+    void unknownDriverHasNoProfile() {
+        assertThat(service.profile(9)).isNull();
+    }
+}
@@ -0,0 +1,79 @@
+package com.f1pedia.service;
+
+import com.f1pedia.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LapTimeAnalyticsServiceTest {
+
+    private JdbcTemplate jdbc;
+    private LapTimeAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase db = new TestDatabase()
+                .circuit(1, "Monza", "Italy", 45.6, 9.3)
+                .driver(1, "AAA", "Ann", "Alpha").driver(2, "BBB", "Ben", "Beta").driver(3, "CCC", "Cy", "Gamma")
+                .constructor(1, "Red")
+                .race(1, 2024, 1, 1).race(2, 2024, 2, 1)
+                .result(1, 1, 1, 1, 25).result(1, 2, 1, 2, 18).result(1, 3, 1, 3, 15);
+        for (int lap = 1; lap <= 10; lap++) {
+            for (int driver = 1; driver <= 3; driver++) {
+                // Alpha pits on lap 5
+                db.lapTime(1, driver, lap, driver, driver == 1 && lap == 5 ? 120_000 : 90_000 + driver * 100);
+            }
+        }
+        jdbc = spy(db.jdbc());
+        ReferenceNames names = new ReferenceNames();
+        ReflectionTestUtils.setField(names, "jdbcTemplate", db.jdbc());
+        service = new LapTimeAnalyticsService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbc);
+        ReflectionTestUtils.setField(service, "referenceNames", names);
+    }
+
+    @Test
+    void stintsSplitAtSlowLaps() {
+        List<Map<String, Object>> drivers = service.getRaceStints(1);
+
+        assertThat(drivers).hasSize(3);
+        assertThat(drivers.get(0)).containsEntry("driverId", 1).containsEntry("finishPosition", 1);
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> stints = (List<Map<String, Object>>) drivers.get(0).get("stints");
+        assertThat(stints).extracting(s -> s.get("startLap"), s -> s.get("endLap"))
+                .containsExactly(tuple(1, 4), tuple(6, 10));
+        assertThat((List<?>) drivers.get(1).get("stints")).hasSize(1);
+    }
+
+    @Test
+    void raceWithoutLapDataIsQueriedOnce() {
+        assertThat(service.getRace(2)).isNull();
+        assertThat(service.getRace(2)).isNull();
+        assertThat(service.getRaceStints(2)).isEmpty();
+
+        // One results and one lap_times query for the single load
+        verify(jdbc, times(2)).query(anyString(), any(RowCallbackHandler.class), eq(2));
+    }
+
+    @Test
+    void matricesAreReusedUntilTheRaceIsEvicted() {
+        RaceLapMatrix first = service.getRace(1);
+        assertThat(service.getRace(1)).isSameAs(first);
+        // The season scan replaces its races' matrices with the ones it loaded
+        RaceLapMatrix season = service.getSeason(2024).get(0);
+        assertThat(service.getRace(1)).isSameAs(season);
+
+        service.evictRace(1);
+        assertThat(service.getRace(1)).isNotSameAs(season);
+    }
+}
@@ -0,0 +1,65 @@
+package com.f1pedia.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LazyValueTest {
+
+    private final AtomicInteger builds = new AtomicInteger();
+
+    @Test
+    void buildsOnceUntilEvicted() {
+        LazyValue<Integer> value = new LazyValue<>(builds::incrementAndGet);
+
+        assertThat(value.get()).isEqualTo(1);
+        assertThat(value.get()).isEqualTo(1);
+        value.evict();
+        assertThat(value.get()).isEqualTo(2);
+    }
+
+    @Test
+    void buildOvertakenByAnEvictionIsReturnedButNotKept() {
+        AtomicReference<LazyValue<Integer>> holder = new AtomicReference<>();
+        holder.set(new LazyValue<>(() -> {
+            int build = builds.incrementAndGet();
+            if (build == 1) {
+                // An invalidation arriving while the first build reads the data
+                holder.get().evict();
+            }
+            return build;
+        }));
+
+        assertThat(holder.get().get()).isEqualTo(1);
+        assertThat(holder.get().get()).isEqualTo(2);
+        assertThat(holder.get().get()).isEqualTo(2);
+    }
+
+    @Test
+    void updateAppliesToABuiltValueOnly() {
+        LazyValue<Integer> value = new LazyValue<>(builds::incrementAndGet);
+
+        value.update(v -> v + 10);
+        assertThat(value.get()).isEqualTo(1);
+        value.update(v -> v + 10);
+        assertThat(value.get()).isEqualTo(11);
+        value.update(v -> null);
+        assertThat(value.get()).isEqualTo(2);
+    }
+
+    @Test
+    void updateOvertakenByAnEvictionIsNotKept() {
+        LazyValue<Integer> value = new LazyValue<>(builds::incrementAndGet);
+        value.get();
+
+        value.update(v -> {
+            value.evict();
+            return v + 10;
+        });
+
+        assertThat(value.get()).isEqualTo(2);
+    }
+}
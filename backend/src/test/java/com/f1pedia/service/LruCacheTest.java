@@ -0,0 +1,65 @@
+package com.f1pedia.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LruCacheTest {
+
+    private final LruCache<Integer, String> cache = new LruCache<>(2);
+
+    @Test
+    void keepsTheMostRecentlyUsedEntries() {
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.get(1);
+        cache.put(3, "c");
+
+        assertThat(cache.get(1)).isEqualTo("a");
+        assertThat(cache.get(2)).isNull();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void loadIsCachedUntilEvicted() {
+        assertThat(cache.computeIfAbsent(1, key -> "loaded")).isEqualTo("loaded");
+        assertThat(cache.computeIfAbsent(1, key -> "reloaded")).isEqualTo("loaded");
+
+        cache.remove(1);
+
+        assertThat(cache.computeIfAbsent(1, key -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    @Test
+    void loadOvertakenByAnEvictionIsReturnedButNotCached() {
+        assertThat(cache.computeIfAbsent(1, key -> {
+            cache.clear();
+            return "stale";
+        })).isEqualTo("stale");
+        assertThat(cache.get(1)).isNull();
+
+        cache.computeIfAbsent(1, key -> {
+            cache.remove(2);
+            return "stale";
+        });
+        assertThat(cache.get(1)).isNull();
+
+        cache.computeIfAbsent(1, key -> {
+            cache.removeIf((k, v) -> false);
+            return "stale";
+        });
+        assertThat(cache.get(1)).isNull();
+    }
+
+    @Test
+    void putForAnOlderGenerationIsDropped() {
+        long loadedAt = cache.generation();
+        cache.put(1, "kept", loadedAt);
+        cache.clear();
+        cache.put(2, "stale", loadedAt);
+
+        assertThat(cache.get(2)).isNull();
+        cache.put(2, "fresh", cache.generation());
+        assertThat(cache.get(2)).isEqualTo("fresh");
+    }
+}
@@ -0,0 +1,55 @@
+package com.f1pedia.service;
+
+import com.f1pedia.dto.MetricRankDTO;
+import com.f1pedia.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static com.f1pedia.service.RatingService.Subject.CONSTRUCTOR;
+import static com.f1pedia.service.RatingService.Subject.DRIVER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricRankIndexTest {
+
+    private MetricRankIndex index;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase db = new TestDatabase()
+                .circuit(1, "Monza", "Italy", 45.6, 9.3)
+                .driver(1, "AAA", "Ann", "Alpha").driver(2, "BBB", "Ben", "Beta")
+                .constructor(1, "Red");
+        // Two Red cars in each of five races; Alpha wins two of them from pole
+        for (int race = 1; race <= 5; race++) {
+            db.race(race, 2024, race, 1)
+                    .result(race, 1, 1, race <= 2 ? 1 : 2, race <= 2 ? 25 : 18)
+                    .result(race, 2, 1, race <= 2 ? 2 : 1, race <= 2 ? 18 : 25);
+        }
+        ReferenceNames names = new ReferenceNames();
+        ReflectionTestUtils.setField(names, "jdbcTemplate", db.jdbc());
+        index = new MetricRankIndex();
+        ReflectionTestUtils.setField(index, "jdbcTemplate", db.jdbc());
+        ReflectionTestUtils.setField(index, "referenceNames", names);
+    }
+
+    @Test
+    void constructorWinAndPoleRatesArePerRace() {
+        Map<String, MetricRankDTO> ranks = index.ranks(CONSTRUCTOR, 1, 2024);
+
+        assertThat(ranks.get("races").value()).isEqualTo(5);
+        assertThat(ranks.get("wins").value()).isEqualTo(5);
+        assertThat(ranks.get("win_rate").value()).isEqualTo(100.0);
+        assertThat(ranks.get("pole_rate").value()).isEqualTo(100.0);
+        // Both cars on the podium every time, counted per car
+        assertThat(ranks.get("podium_rate").value()).isEqualTo(100.0);
+    }
+
+    @Test
+    void driverRatesArePerStart() {
+        assertThat(index.ranks(DRIVER, 1, 2024).get("win_rate").value()).isEqualTo(40.0);
+        assertThat(index.ranks(DRIVER, 2, 2024).get("win_rate").value()).isEqualTo(60.0);
+    }
+}
@@ -0,0 +1,83 @@
+package com.f1pedia.service;
+
+import com.f1pedia.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PitStrategyServiceTest {
+
+    private JdbcTemplate jdbc;
+    private PitStrategyService service;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase db = new TestDatabase()
+                .circuit(1, "Monza", "Italy", 45.6, 9.3)
+                .driver(1, "AAA", "Ann", "Alpha").driver(2, "BBB", "Ben", "Beta")
+                .constructor(1, "Red")
+                .race(1, 2024, 1, 1)
+                .result(1, 1, 1, 1, 25).result(1, 2, 1, 2, 18)
+                .pitStop(1, 1, 1, 5, 22_000).pitStop(1, 2, 1, 4, 23_000).pitStop(1, 2, 2, 8, 23_000);
+        for (int lap = 1; lap <= 10; lap++) {
+            // Alpha leads except on lap 5, when their stop drops them to second
+            db.lapTime(1, 1, lap, lap == 5 ? 2 : 1, lap == 5 ? 110_000 : 90_000);
+            db.lapTime(1, 2, lap, lap == 5 ? 1 : 2, lap == 4 || lap == 8 ? 110_000 : 90_500);
+        }
+        jdbc = spy(db.jdbc());
+        ReferenceNames names = new ReferenceNames();
+        ReflectionTestUtils.setField(names, "jdbcTemplate", db.jdbc());
+        LapTimeAnalyticsService laps = new LapTimeAnalyticsService();
+        ReflectionTestUtils.setField(laps, "jdbcTemplate", db.jdbc());
+        ReflectionTestUtils.setField(laps, "referenceNames", names);
+        service = new PitStrategyService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbc);
+        ReflectionTestUtils.setField(service, "lapTimeAnalyticsService", laps);
+        ReflectionTestUtils.setField(service, "referenceNames", names);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void raceStrategyListsStopsAndStints() {
+        Map<String, Object> strategy = service.getRaceStrategy(1);
+
+        List<Map<String, Object>> drivers = (List<Map<String, Object>>) strategy.get("drivers");
+        assertThat(drivers).extracting(d -> d.get("driverId")).containsExactly(1, 2);
+        List<Map<String, Object>> stops = (List<Map<String, Object>>) drivers.get(0).get("stops");
+        assertThat(stops).singleElement().satisfies(stop -> assertThat(stop)
+                .containsEntry("lap", 5).containsEntry("duration", 22.0));
+        assertThat((List<?>) drivers.get(0).get("stints")).hasSize(2);
+        assertThat((List<?>) drivers.get(1).get("stops")).hasSize(2);
+    }
+
+    @Test
+    void stopCountsPerCircuit() {
+        assertThat(service.getStopCountsByCircuit(null)).extracting(r -> r.get("stops"), r -> r.get("count"))
+                .containsExactly(tuple(1, 1), tuple(2, 1));
+        assertThat(service.getStopCountsByCircuit(2)).isEmpty();
+    }
+
+    @Test
+    void lookupsAreCachedUntilEvicted() {
+        service.getRaceStrategy(1);
+        service.getRaceStrategy(1);
+        service.getStopCountsByCircuit(null);
+        service.getStopCountsByCircuit(1);
+        verify(jdbc, times(1)).queryForList(startsWith("SELECT year"), eq(Integer.class), any());
+        verify(jdbc, times(1)).queryForObject(startsWith("SELECT MAX(year)"), eq(Integer.class));
+
+        service.evictRace(1);
+        service.getRaceStrategy(1);
+        service.getStopCountsByCircuit(null);
+        verify(jdbc, times(2)).queryForObject(startsWith("SELECT MAX(year)"), eq(Integer.class));
+    }
+}
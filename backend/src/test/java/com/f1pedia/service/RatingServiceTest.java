@@ -0,0 +1,103 @@
+package com.f1pedia.service;
+
+import com.f1pedia.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static com.f1pedia.service.RatingService.Subject.CONSTRUCTOR;
+import static com.f1pedia.service.RatingService.Subject.DRIVER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.spy;
+
+class RatingServiceTest {
+
+    private TestDatabase db;
+    private JdbcTemplate jdbc;
+    private RatingService service;
+
+    @BeforeEach
+    void setUp() {
+        db = new TestDatabase()
+                .circuit(1, "Monza", "Italy", 45.6, 9.3)
+                .driver(1, "AAA", "Ann", "Alpha").driver(2, "BBB", "Ben", "Beta").driver(3, "CCC", "Cid", "Gamma")
+                .constructor(1, "Red").constructor(2, "Blue")
+                .race(1, 2024, 1, 1)
+                // Alpha shares a second car and finishes behind Beta in it; Gamma never starts
+                .result(1, 1, 1, 1, 8)
+                .result(1, 2, 2, 2, 6)
+                .result(1, 1, 1, 3, 1)
+                .result(1, 3, 2, null, 4, 0, 0, 6);
+        jdbc = spy(db.jdbc());
+        service = newService(jdbc);
+    }
+
+    @Test
+    void sharedDrivesCountOnceWithTheBestFinish() {
+        assertThat(service.history(DRIVER, 1)).singleElement()
+                .satisfies(point -> assertThat(point.rating()).isEqualTo(1516.0));
+        assertThat(service.rating(DRIVER, 2, null).rating()).isEqualTo(1484.0);
+        assertThat(service.rating(CONSTRUCTOR, 1, null).rating()).isEqualTo(1516.0);
+    }
+
+    @Test
+    void nonStartersAreNotRated() {
+        assertThat(service.rating(DRIVER, 3, null)).isNull();
+        assertThat(service.history(DRIVER, 3)).isEmpty();
+    }
+
+    @Test
+    void newRaceIsAppendedAndMatchesAFullBuild() {
+        service.rating(DRIVER, 1, null);
+        db.race(2, 2024, 2, 1).result(2, 2, 2, 1, 25).result(2, 1, 1, 2, 18).result(2, 3, 1, 3, 15);
+
+        service.racesChanged(List.of(2));
+
+        // Appended right away rather than dropped for a replay
+        clearInvocations(jdbc);
+        assertThat(service.history(DRIVER, 1)).hasSize(2);
+        assertThat(mockingDetails(jdbc).getInvocations()).isEmpty();
+        assertSameRatings(service, newService(db.jdbc()));
+    }
+
+    @Test
+    void editToARatedRaceReplaysHistory() {
+        db.race(2, 2024, 2, 1).result(2, 2, 2, 1, 25).result(2, 1, 1, 2, 18);
+        double before = service.rating(DRIVER, 2, null).rating();
+        // Beta now won the first race as well
+        db.jdbc().update("UPDATE results SET position_order = 0 WHERE race_id = 1 AND driver_id = 2");
+
+        service.racesChanged(List.of(1));
+
+        clearInvocations(jdbc);
+        assertThat(service.rating(DRIVER, 2, null).rating()).isGreaterThan(before);
+        assertThat(mockingDetails(jdbc).getInvocations()).isNotEmpty();
+        assertSameRatings(service, newService(db.jdbc()));
+    }
+
+    private RatingService newService(JdbcTemplate ratingsJdbc) {
+        ReferenceNames names = new ReferenceNames();
+        ReflectionTestUtils.setField(names, "jdbcTemplate", db.jdbc());
+        RatingService ratings = new RatingService();
+        ReflectionTestUtils.setField(ratings, "jdbcTemplate", ratingsJdbc);
+        ReflectionTestUtils.setField(ratings, "referenceNames", names);
+        return ratings;
+    }
+
+    private static void assertSameRatings(RatingService actual, RatingService expected) {
+        for (RatingService.Subject subject : RatingService.Subject.values()) {
+            for (int id = 1; id <= 3; id++) {
+                assertThat(actual.history(subject, id)).as("%s %d", subject, id)
+                        .isEqualTo(expected.history(subject, id));
+                assertThat(actual.rating(subject, id, null)).as("%s %d", subject, id)
+                        .isEqualTo(expected.rating(subject, id, null));
+            }
+            assertThat(actual.leaderboard(subject, true, 10)).isEqualTo(expected.leaderboard(subject, true, 10));
+        }
+    }
+}
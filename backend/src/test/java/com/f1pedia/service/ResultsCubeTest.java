@@ -0,0 +1,109 @@
+package com.f1pedia.service;
+
+import com.f1pedia.repository.CircuitRepository;
+import com.f1pedia.repository.DriverRepository;
+import com.f1pedia.service.ResultsCube.Cell;
+import com.f1pedia.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static com.f1pedia.service.ResultsCube.Dimension.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+class ResultsCubeTest {
+
+    private ResultsCube cube;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase db = new TestDatabase()
+                .circuit(1, "Monza", "Italy", 45.6, 9.3).circuit(2, "Spa", "Belgium", 50.4, 5.9)
+                .driver(1, "AAA", "Ann", "Alpha").driver(2, "BBB", "Ben", "Beta")
+                .constructor(1, "Red").constructor(2, "Blue")
+                .race(1, 2022, 1, 1).race(2, 2023, 1, 1).race(3, 2023, 2, 2).race(4, 2024, 1, 2)
+                .result(1, 1, 1, 1, 25).result(1, 2, 2, 2, 18)
+                .result(2, 1, 1, 3, 15).result(2, 2, 2, null, 0)
+                // Alpha retires at Spa but is still awarded a point; moves to the Blue for 2024
+                .result(3, 1, 1, null, 1).result(3, 2, 2, 1, 25)
+                .result(4, 2, 2, 1, 25).result(4, 1, 2, 2, 18);
+        // A result without a status still counts as an entry, just not as a DNF
+        db.jdbc().update("UPDATE results SET status_id = NULL WHERE race_id = 4 AND driver_id = 1");
+        cube = new ResultsCube();
+        ReflectionTestUtils.setField(cube, "jdbcTemplate", db.jdbc());
+        ReflectionTestUtils.setField(cube, "circuitRepository", mock(CircuitRepository.class));
+        ReflectionTestUtils.setField(cube, "driverRepository", mock(DriverRepository.class));
+    }
+
+    @Test
+    void fixedDimensionsSliceAndGroupByDimensionsSplit() {
+        List<Cell> byTeam = sorted(cube.rollUp(DRIVER, 1, CONSTRUCTOR), Cell::constructorId);
+
+        assertThat(byTeam).extracting(Cell::driverId, Cell::constructorId, Cell::season, Cell::entries,
+                Cell::wins, Cell::podiums, Cell::poles, Cell::dnfs, Cell::points)
+                .containsExactly(tuple(null, 1, null, 3L, 1L, 2L, 1L, 1L, 41.0),
+                        tuple(null, 2, null, 1L, 0L, 1L, 0L, 0L, 18.0));
+
+        List<Cell> spa = sorted(cube.rollUp(Map.of(DRIVER, 1, CIRCUIT, 2), SEASON, CONSTRUCTOR), Cell::season);
+        assertThat(spa).extracting(Cell::season, Cell::constructorId, Cell::entries)
+                .containsExactly(tuple(2023, 1, 1L), tuple(2024, 2, 1L));
+        assertThat(cube.rollUp(Map.of(DRIVER, 1, CIRCUIT, 1, SEASON, 2024))).isEmpty();
+        assertThat(cube.rollUp(DRIVER, 9, SEASON)).isEmpty();
+    }
+
+    @Test
+    void dimensionsNeitherFixedNorGroupedAreSummedAway() {
+        assertThat(cube.rollUp(Map.of())).singleElement().satisfies(total -> {
+            assertThat(total.driverId()).isNull();
+            assertThat(total.circuitId()).isNull();
+            assertThat(total.entries()).isEqualTo(8);
+            assertThat(total.classified()).isEqualTo(6);
+            assertThat(total.wins()).isEqualTo(3);
+            assertThat(total.dnfs()).isEqualTo(2);
+            assertThat(total.points()).isEqualTo(127.0);
+        });
+
+        List<Cell> byCircuit = sorted(cube.rollUp(Map.of(), CIRCUIT), Cell::circuitId);
+        assertThat(byCircuit).extracting(Cell::circuitId, Cell::entries, Cell::dnfs)
+                .containsExactly(tuple(1, 4L, 1L), tuple(2, 4L, 1L));
+    }
+
+    @Test
+    void finishesOnlyCountClassifiedRows() {
+        Cell alpha = cube.rollUp(DRIVER, 1, DRIVER).iterator().next();
+        assertThat(alpha.unclassified()).isEqualTo(1);
+        assertThat(alpha.bestFinish()).isEqualTo(1);
+        assertThat(alpha.avgFinish()).isEqualTo(2.0);
+        assertThat(alpha.classifiedPoints()).isEqualTo(58.0);
+        assertThat(alpha.points()).isEqualTo(59.0);
+
+        // Only a retirement in the slice: no finish to report
+        Cell retired = cube.rollUp(Map.of(DRIVER, 1, SEASON, 2023, CIRCUIT, 2)).iterator().next();
+        assertThat(retired.classified()).isZero();
+        assertThat(retired.bestFinish()).isNull();
+        assertThat(retired.avgFinish()).isNull();
+    }
+
+    @Test
+    void seasonSpanCoversTheRolledUpCells() {
+        List<Cell> byCircuit = sorted(cube.rollUp(DRIVER, 1, CIRCUIT), Cell::circuitId);
+
+        assertThat(byCircuit).extracting(Cell::circuitId, Cell::firstSeason, Cell::lastSeason)
+                .containsExactly(tuple(1, 2022, 2023), tuple(2, 2023, 2024));
+        assertThat(cube.rollUp(CONSTRUCTOR, 2)).singleElement()
+                .satisfies(blue -> assertThat(List.of(blue.firstSeason(), blue.lastSeason()))
+                        .containsExactly(2022, 2024));
+    }
+
+    private static List<Cell> sorted(Collection<Cell> cells, Function<Cell, Integer> key) {
+        return cells.stream().sorted(Comparator.comparing(key)).toList();
+    }
+}
@@ -0,0 +1,81 @@
+package com.f1pedia.service;
+
+import com.f1pedia.support.TestDatabase;
+import com.f1pedia.web.DeadlineProperties;
+import com.f1pedia.web.QueryDeadlines;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ResultsQueryEngineTest {
+
+    private static final ResultsQueryEngine.Filter ALL = new ResultsQueryEngine.Filter(null, null, null, null, null,
+            null);
+
+    private TestDatabase db;
+    private QueryDeadlines deadlines;
+    private ResultsQueryEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        db = new TestDatabase()
+                .circuit(1, "Monza", "Italy", 45.6, 9.3)
+                .driver(1, "AAA", "Ann", "Alpha").driver(2, "BBB", "Ben", "Beta")
+                .constructor(1, "Red")
+                .race(1, 2023, 1, 1).race(2, 2024, 1, 1)
+                .result(1, 1, 1, 1, 25).result(1, 2, 1, 2, 18)
+                .result(2, 2, 1, 1, 25).result(2, 1, 1, null, 0);
+        deadlines = new QueryDeadlines(new DeadlineProperties(), new SimpleMeterRegistry());
+        engine = new ResultsQueryEngine();
+        ReflectionTestUtils.setField(engine, "jdbcTemplate", db.jdbc());
+        ReflectionTestUtils.setField(engine, "queryDeadlines", deadlines);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void groupsAndAggregatesResultsFromTheDatabase() {
+        Map<String, Object> response = engine.query(ALL, List.of("driver"), List.of("sum:win", "sum:points"),
+                "sum_points", false, 10);
+
+        assertThat((List<Map<String, Object>>) response.get("rows"))
+                .extracting(r -> r.get("driver"), r -> r.get("sum_win"), r -> r.get("sum_points"))
+                .containsExactly(tuple("Ben Beta", 1.0, 43.0), tuple("Ann Alpha", 1.0, 25.0));
+        assertThat(response).containsEntry("scannedRows", 4);
+
+        Map<String, Object> retired = engine.query(new ResultsQueryEngine.Filter(2024, null, null, null, null,
+                "mechanical"), List.of(), List.of("count"), null, false, 10);
+        assertThat((List<Map<String, Object>>) retired.get("rows")).singleElement()
+                .satisfies(r -> assertThat(r).containsEntry("count", 1L));
+    }
+
+    @Test
+    void evictReloadsFromTheDatabase() {
+        engine.query(ALL, List.of(), List.of("count"), null, false, 1);
+        db.race(3, 2024, 2, 1).result(3, 1, 1, 1, 25);
+
+        assertThat(engine.query(ALL, List.of(), List.of("count"), null, false, 1)).containsEntry("scannedRows", 4);
+        engine.evict();
+        assertThat(engine.query(ALL, List.of(), List.of("count"), null, false, 1)).containsEntry("scannedRows", 5);
+    }
+
+    @Test
+    void expiredDeadlineIsAGatewayTimeout() {
+        engine.query(ALL, List.of(), List.of("count"), null, false, 1);
+
+        assertThatThrownBy(() -> deadlines.run("QueryController.query", Duration.ZERO, null,
+                () -> engine.query(ALL, List.of("driver"), List.of("count"), null, false, 1)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT));
+    }
+}
@@ -0,0 +1,73 @@
+package com.f1pedia.service;
+
+import com.f1pedia.domain.Constructor;
+import com.f1pedia.repository.CircuitRepository;
+import com.f1pedia.repository.ConstructorRepository;
+import com.f1pedia.repository.DriverRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class SearchIndexServiceTest {
+
+    private SearchIndexService service;
+
+    @BeforeEach
+    void setUp() {
+        ConstructorRepository constructors = mock(ConstructorRepository.class);
+        when(constructors.findAll()).thenReturn(List.of(constructor(1, "Ferrari", "ferrari"),
+                constructor(2, "Red Bull", "red_bull"), constructor(3, "Scuderia Toro Rosso", "toro_rosso"),
+                constructor(4, "Brawn", "brawn"), constructor(5, "Alpine F1 Team", "alpine"),
+                constructor(6, "Lotus-Climax", "lotus-climax")));
+        DriverRepository drivers = mock(DriverRepository.class);
+        CircuitRepository circuits = mock(CircuitRepository.class);
+        service = new SearchIndexService();
+        ReflectionTestUtils.setField(service, "constructorRepository", constructors);
+        ReflectionTestUtils.setField(service, "driverRepository", drivers);
+        ReflectionTestUtils.setField(service, "circuitRepository", circuits);
+        ReflectionTestUtils.setField(service, "jdbcTemplate", mock(JdbcTemplate.class));
+    }
+
+    @Test
+    void constructorsNamedMatchesSubstrings() {
+        assertThat(names(service.constructorsNamed("ERRAR"))).containsExactly("Ferrari");
+        assertThat(names(service.constructorsNamed("d bu"))).containsExactly("Red Bull");
+        assertThat(names(service.constructorsNamed("ro"))).containsExactly("Scuderia Toro Rosso");
+        assertThat(names(service.constructorsNamed("r"))).containsExactly("Ferrari", "Red Bull",
+                "Scuderia Toro Rosso", "Brawn");
+        // Shares every trigram with "Scuderia Toro Rosso" but is not a substring of it
+        assertThat(service.constructorsNamed("rosso toro")).isEmpty();
+        assertThat(service.constructorsNamed("mclaren")).isEmpty();
+    }
+
+    @Test
+    void punctuationOnlyTextIsMatchedLiterally() {
+        // Folds to nothing, which every name would otherwise contain
+        assertThat(names(service.constructorsNamed("-"))).containsExactly("Lotus-Climax");
+        assertThat(service.constructorsNamed("&")).isEmpty();
+    }
+
+    @Test
+    void searchToleratesTypos() {
+        assertThat(service.search("feraril", null, 3)).first()
+                .satisfies(hit -> assertThat(hit).containsEntry("label", "Ferrari"));
+    }
+
+    private static Constructor constructor(int id, String name, String ref) {
+        Constructor constructor = new Constructor();
+        constructor.setConstructorId(id);
+        constructor.setName(name);
+        constructor.setConstructorRef(ref);
+        return constructor;
+    }
+
+    private static List<String> names(List<Constructor> constructors) {
+        return constructors.stream().map(Constructor::getName).toList();
+    }
+}
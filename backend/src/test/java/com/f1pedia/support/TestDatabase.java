@@ -0,0 +1,109 @@
+package com.f1pedia.support;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fresh in-memory H2 database with {@code etl/schema.sql}, in the same
+ * PostgreSQL mode as the {@code embedded} profile, plus terse inserts for the
+ * rows tests need. Parent rows a fixture refers to (seasons, statuses) are
+ * created on demand.
+ */
+public final class TestDatabase {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbc;
+    private final Set<Integer> seasons = new HashSet<>();
+    private int resultId;
+    private int standingId;
+
+    public TestDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:test"
+                + DATABASES.incrementAndGet() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;"
+                + "NON_KEYWORDS=YEAR,VALUE;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new FileSystemResource("../etl/schema.sql")).execute(dataSource);
+        this.dataSource = dataSource;
+        this.jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO status (status_id, status) VALUES (1, 'Finished'), (2, '+1 Lap'), "
+                + "(3, 'Engine'), (4, 'Collision'), (5, 'Disqualified'), (6, 'Did not start')");
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    public JdbcTemplate jdbc() {
+        return jdbc;
+    }
+
+    public TestDatabase circuit(int id, String name, String country, Double lat, Double lng) {
+        jdbc.update("INSERT INTO circuits (circuit_id, circuit_ref, name, location, country, lat, lng) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", id, "c" + id, name, name, country, lat, lng);
+        return this;
+    }
+
+    public TestDatabase driver(int id, String code, String forename, String surname) {
+        jdbc.update("INSERT INTO drivers (driver_id, driver_ref, code, forename, surname, nationality) "
+                + "VALUES (?, ?, ?, ?, ?, 'Test')", id, surname.toLowerCase(), code, forename, surname);
+        return this;
+    }
+
+    public TestDatabase constructor(int id, String name) {
+        jdbc.update("INSERT INTO constructors (constructor_id, constructor_ref, name, nationality) "
+                + "VALUES (?, ?, ?, 'Test')", id, name.toLowerCase(), name);
+        return this;
+    }
+
+    public TestDatabase race(int id, int year, int round, int circuitId) {
+        if (seasons.add(year)) {
+            jdbc.update("INSERT INTO seasons (year) VALUES (?)", year);
+        }
+        jdbc.update("INSERT INTO races (race_id, year, round, circuit_id, name, date) VALUES (?, ?, ?, ?, ?, ?)",
+                id, year, round, circuitId, "Race " + id, LocalDate.of(year, 3, 1).plusWeeks(round));
+        return this;
+    }
+
+    /** A result with grid = finishing order; a null position is a retirement (status Engine). */
+    public TestDatabase result(int raceId, int driverId, int constructorId, Integer position, double points) {
+        int order = position != null ? position : 20 + resultId % 10;
+        return result(raceId, driverId, constructorId, position, order, order, points, position != null ? 1 : 3);
+    }
+
+    public TestDatabase result(int raceId, int driverId, int constructorId, Integer position, int positionOrder,
+            int grid, double points, int statusId) {
+        jdbc.update("INSERT INTO results (result_id, race_id, driver_id, constructor_id, grid, position, "
+                + "position_text, position_order, points, laps, status_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 50, ?)",
+                ++resultId, raceId, driverId, constructorId, grid, position,
+                position != null ? String.valueOf(position) : "R", positionOrder, points, statusId);
+        return this;
+    }
+
+    public TestDatabase driverStanding(int raceId, int driverId, double points, int position, int wins) {
+        jdbc.update("INSERT INTO driver_standings (driver_standings_id, race_id, driver_id, points, position, "
+                + "position_text, wins) VALUES (?, ?, ?, ?, ?, ?, ?)", ++standingId, raceId, driverId, points,
+                position, String.valueOf(position), wins);
+        return this;
+    }
+
+    public TestDatabase lapTime(int raceId, int driverId, int lap, int position, int milliseconds) {
+        jdbc.update("INSERT INTO lap_times (race_id, driver_id, lap, position, milliseconds) VALUES (?, ?, ?, ?, ?)",
+                raceId, driverId, lap, position, milliseconds);
+        return this;
+    }
+
+    public TestDatabase pitStop(int raceId, int driverId, int stop, int lap, int milliseconds) {
+        jdbc.update("INSERT INTO pit_stops (race_id, driver_id, stop, lap, milliseconds) VALUES (?, ?, ?, ?, ?)",
+                raceId, driverId, stop, lap, milliseconds);
+        return this;
+    }
+}
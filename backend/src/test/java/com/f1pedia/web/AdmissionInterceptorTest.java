@@ -0,0 +1,90 @@
+package com.f1pedia.web;
+
+import com.f1pedia.controller.ExportController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionInterceptorTest {
+
+    private AdaptiveLimiter limiter;
+    private AdmissionInterceptor interceptor;
+    private Bulkheads bulkheads;
+    private HandlerMethod handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AdmissionProperties admission = new AdmissionProperties();
+        limiter = new AdaptiveLimiter(admission, new SimpleMeterRegistry());
+        interceptor = new AdmissionInterceptor();
+        ReflectionTestUtils.setField(interceptor, "adaptiveLimiter", limiter);
+        ReflectionTestUtils.setField(interceptor, "properties", admission);
+        BulkheadProperties.Limit limit = new BulkheadProperties.Limit();
+        limit.setMaxConcurrent(1);
+        limit.setMaxWait(Duration.ZERO);
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.setLimits(Map.of(Bulkhead.EXPORT, limit));
+        bulkheads = new Bulkheads(properties, new SimpleMeterRegistry());
+        handler = new HandlerMethod(new ExportController(), ExportController.class.getMethod("exportResults",
+                Integer.class, String.class, HttpServletResponse.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void fullBulkheadDoesNotShrinkTheLimit() throws Throwable {
+        int before = limiter.limit();
+        // One export holds the only slot while the next is rejected
+        bulkheads.execute(Bulkhead.EXPORT, () -> {
+            MockHttpServletResponse response = request(() -> bulkheads.execute(Bulkhead.EXPORT, () -> null));
+            assertThat(response.getStatus()).isEqualTo(503);
+            return null;
+        });
+
+        assertThat(limiter.limit()).isEqualTo(before);
+        // and its permit was handed back
+        assertThat((AtomicInteger) ReflectionTestUtils.getField(limiter, "inFlight")).hasValue(0);
+    }
+
+    @Test
+    void otherServiceUnavailableShrinksTheLimit() throws Throwable {
+        int before = limiter.limit();
+        request(() -> {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE);
+        });
+
+        assertThat(limiter.limit()).isLessThan(before);
+    }
+
+    // One request through the interceptor; a 503 from the call ends up as the response status
+    private MockHttpServletResponse request(Bulkheads.Call call) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/export/results");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        assertThat(interceptor.preHandle(request, response, handler)).isTrue();
+        assertThatThrownBy(call::run).isInstanceOf(ResponseStatusException.class)
+                .satisfies(e -> response.setStatus(((ResponseStatusException) e).getStatusCode().value()));
+        interceptor.afterCompletion(request, response, handler, null);
+        return response;
+    }
+}
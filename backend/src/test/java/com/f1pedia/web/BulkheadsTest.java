@@ -0,0 +1,123 @@
+package com.f1pedia.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadsTest {
+
+    private SimpleMeterRegistry registry;
+    private Bulkheads bulkheads;
+
+    @BeforeEach
+    void setUp() {
+        bulkheads(Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void queuedCallRunsOnceTheSlotIsReleased() throws Throwable {
+        bulkheads(Duration.ofSeconds(10));
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> holder = CompletableFuture.supplyAsync(() -> execute(() -> {
+            holding.countDown();
+            release.await();
+            return "first";
+        }));
+        assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> execute(() -> "second"));
+        waitFor(() -> registry.get("bulkhead.queued").gauge().value() == 1);
+        assertThat(registry.get("bulkhead.active").gauge().value()).isEqualTo(1);
+        release.countDown();
+
+        assertThat(holder.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+        assertThat(registry.get("bulkhead.active").gauge().value()).isZero();
+        assertThat(registry.get("bulkhead.queue.wait").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void callWaitingPastMaxWaitIsRejected() throws Throwable {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        bulkheads.execute(Bulkhead.HEAVY, () -> {
+            assertThatThrownBy(() -> bulkheads.execute(Bulkhead.HEAVY, () -> "never"))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode().value())
+                            .isEqualTo(503));
+            return null;
+        });
+
+        assertThat(request.getAttribute(Bulkheads.REJECTED_ATTRIBUTE)).isEqualTo(Bulkhead.HEAVY);
+        assertThat(registry.get("bulkhead.rejected").counter().count()).isEqualTo(1);
+        // The rejected call never held the slot, so the next one gets it straight away
+        assertThat(bulkheads.execute(Bulkhead.HEAVY, () -> "next")).isEqualTo("next");
+    }
+
+    @Test
+    void failingCallReleasesItsSlot() throws Throwable {
+        assertThatThrownBy(() -> bulkheads.execute(Bulkhead.HEAVY, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(bulkheads.execute(Bulkhead.HEAVY, () -> "next")).isEqualTo("next");
+    }
+
+    @Test
+    void unknownBulkheadRunsUnlimited() throws Throwable {
+        bulkheads.execute(Bulkhead.HEAVY, () -> {
+            assertThat(bulkheads.execute(Bulkhead.LOOKUP, () -> "lookup")).isEqualTo("lookup");
+            return null;
+        });
+        assertThat(registry.find("bulkhead.rejected").counter().count()).isZero();
+    }
+
+    // A single-slot heavy bulkhead
+    private void bulkheads(Duration maxWait) {
+        BulkheadProperties.Limit limit = new BulkheadProperties.Limit();
+        limit.setMaxConcurrent(1);
+        limit.setMaxWait(maxWait);
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.setLimits(Map.of(Bulkhead.HEAVY, limit));
+        registry = new SimpleMeterRegistry();
+        bulkheads = new Bulkheads(properties, registry);
+    }
+
+    private Object execute(Bulkheads.Call call) {
+        try {
+            return bulkheads.execute(Bulkhead.HEAVY, call);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
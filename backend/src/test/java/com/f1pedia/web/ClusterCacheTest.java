@@ -0,0 +1,121 @@
+package com.f1pedia.web;
+
+import com.f1pedia.config.ClusterConfig;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Three cluster members talking over loopback, as three instances would.
+ */
+class ClusterCacheTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JavaType TYPE = MAPPER.getTypeFactory()
+            .constructMapType(Map.class, String.class, Integer.class);
+
+    private static final List<HazelcastInstance> members = new ArrayList<>();
+    private static final List<ClusterCache> caches = new ArrayList<>();
+
+    private final AtomicInteger computed = new AtomicInteger();
+
+    @BeforeAll
+    static void start() {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setName("f1pedia-test");
+        properties.setBindInterface("127.0.0.1");
+        properties.setPort(5801);
+        properties.setMembers(List.of("127.0.0.1:5801", "127.0.0.1:5802", "127.0.0.1:5803"));
+        for (int i = 0; i < 3; i++) {
+            HazelcastInstance member = Hazelcast.newHazelcastInstance(new ClusterConfig().hazelcastConfig(properties));
+            members.add(member);
+            caches.add(new ClusterCache(member, MAPPER, new SimpleMeterRegistry()));
+        }
+        assertThat(members.get(0).getCluster().getMembers()).hasSize(3);
+    }
+
+    @AfterAll
+    static void stop() {
+        members.forEach(HazelcastInstance::shutdown);
+    }
+
+    @BeforeEach
+    void clear() {
+        caches.get(0).invalidate();
+    }
+
+    @Test
+    void computedOnceForTheCluster() throws Throwable {
+        for (int round = 0; round < 2; round++) {
+            for (ClusterCache cache : caches) {
+                assertThat(get(cache, "wins", 7)).isEqualTo(Map.of("wins", 7));
+            }
+        }
+        assertThat(computed).hasValue(1);
+    }
+
+    @Test
+    void invalidationReachesEveryMember() throws Throwable {
+        get(caches.get(0), "wins", 7);
+        caches.get(2).invalidate();
+
+        assertThat(get(caches.get(1), "wins", 8)).isEqualTo(Map.of("wins", 8));
+        assertThat(get(caches.get(0), "wins", 9)).isEqualTo(Map.of("wins", 8));
+        assertThat(computed).hasValue(2);
+    }
+
+    @Test
+    void resultComputedAcrossAnInvalidationIsNotServed() throws Throwable {
+        // An ingest lands on another member while this one is still computing
+        Object stale = caches.get(0).get("key", TYPE, () -> {
+            caches.get(1).invalidate();
+            return Map.of("wins", 1);
+        });
+        assertThat(stale).isEqualTo(Map.of("wins", 1));
+
+        assertThat(get(caches.get(2), "wins", 2)).isEqualTo(Map.of("wins", 2));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void everyReadGetsItsOwnObject() throws Throwable {
+        get(caches.get(0), "wins", 7);
+        // Read twice on every member, so near copies are served too
+        for (ClusterCache cache : caches) {
+            Map<String, Integer> first = (Map<String, Integer>) get(cache, "wins", 0);
+            first.put("wins", 99);
+            assertThat(get(cache, "wins", 0)).isNotSameAs(first).isEqualTo(Map.of("wins", 7));
+        }
+    }
+
+    @Test
+    void clusterModeRequiresABindInterface() {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setEnabled(true);
+
+        assertThatThrownBy(() -> new ClusterConfig().hazelcastConfig(properties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("bind-interface");
+    }
+
+    private Object get(ClusterCache cache, String field, int value) throws Throwable {
+        return cache.get("key", TYPE, () -> {
+            computed.incrementAndGet();
+            return Map.of(field, value);
+        });
+    }
+}
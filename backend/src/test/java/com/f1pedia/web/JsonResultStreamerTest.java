@@ -0,0 +1,170 @@
+package com.f1pedia.web;
+
+import com.f1pedia.controller.RaceController;
+import com.f1pedia.domain.Circuit;
+import com.f1pedia.domain.Race;
+import com.f1pedia.support.TestDatabase;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonResultStreamerTest {
+
+    // The ObjectMapper Spring Boot configures for the entity responses
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private TestDatabase db;
+    private JsonResultStreamer streamer;
+
+    @BeforeEach
+    void setUp() {
+        db = new TestDatabase()
+                .circuit(1, "Monza", "Italy", 45.6156, 9.28111).circuit(2, "Nowhere", null, null, null)
+                .race(1, 2023, 1, 1).race(2, 2023, 2, 2);
+        db.jdbc().update("UPDATE circuits SET alt = 162, url = 'http://monza' WHERE circuit_id = 1");
+        db.jdbc().update("UPDATE races SET time = TIME '14:00:00', fp1_date = DATE '2023-03-06', "
+                + "fp1_time = TIME '11:30:15', url = 'http://race1' WHERE race_id = 1");
+        CursorReader cursorReader = new CursorReader();
+        ReflectionTestUtils.setField(cursorReader, "jdbcTemplate", db.jdbc());
+        ReflectionTestUtils.setField(cursorReader, "transactionManager",
+                new DataSourceTransactionManager(db.dataSource()));
+        ReflectionTestUtils.setField(cursorReader, "fetchSize", 500);
+        streamer = new JsonResultStreamer();
+        ReflectionTestUtils.setField(streamer, "cursorReader", cursorReader);
+        ReflectionTestUtils.setField(streamer, "objectMapper", objectMapper);
+    }
+
+    @Test
+    void streamedRacesMatchTheSerialisedEntities() throws Exception {
+        RaceController controller = new RaceController();
+        ReflectionTestUtils.setField(controller, "jsonResultStreamer", streamer);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.getAllRaces(response);
+
+        List<Race> entities = db.jdbc().query("""
+                SELECT ra.*, ci.circuit_ref, ci.name AS circuit_name, ci.location, ci.country, ci.lat, ci.lng,
+                       ci.alt, ci.url AS circuit_url
+                FROM races ra LEFT JOIN circuits ci ON ra.circuit_id = ci.circuit_id
+                ORDER BY ra.race_id
+                """, (rs, row) -> race(rs));
+        assertThat(response.getContentType()).startsWith("application/json");
+        assertThat(objectMapper.readTree(response.getContentAsByteArray()))
+                .isEqualTo(objectMapper.valueToTree(entities));
+    }
+
+    @Test
+    void dottedLabelsNestAndCloseWhenThePrefixChanges() throws Exception {
+        JsonNode rows = stream("""
+                SELECT 1 AS "id", 'x' AS "a.b.c", 'y' AS "a.b.d", 'z' AS "a.e", 2 AS "f.g", 3 AS "h"
+                """);
+
+        assertThat(rows).isEqualTo(objectMapper.readTree("""
+                [{"id": 1, "a": {"b": {"c": "x", "d": "y"}, "e": "z"}, "f": {"g": 2}, "h": 3}]
+                """));
+    }
+
+    @Test
+    void nullsStayNullInEveryType() throws Exception {
+        JsonNode rows = stream("""
+                SELECT CAST(NULL AS INT) AS "int", CAST(NULL AS BIGINT) AS "big",
+                       CAST(NULL AS DOUBLE PRECISION) AS "double", CAST(NULL AS NUMERIC(5, 2)) AS "numeric",
+                       CAST(NULL AS BOOLEAN) AS "bool", CAST(NULL AS VARCHAR) AS "text",
+                       CAST(NULL AS DATE) AS "date", CAST(NULL AS TIME) AS "time",
+                       CAST(NULL AS TIMESTAMP) AS "stamp", CAST(NULL AS INT) AS "nested.value"
+                """);
+
+        assertThat(rows.get(0)).hasSize(10);
+        rows.get(0).fields().forEachRemaining(field -> {
+            JsonNode value = field.getKey().equals("nested") ? field.getValue().get("value") : field.getValue();
+            assertThat(value.isNull()).as(field.getKey()).isTrue();
+        });
+    }
+
+    @Test
+    void valuesKeepTheirJsonTypes() throws Exception {
+        JsonNode row = stream("""
+                SELECT 7 AS "int", CAST(9000000000 AS BIGINT) AS "big", 1.5 AS "double",
+                       CAST(2.25 AS NUMERIC(5, 2)) AS "numeric", TRUE AS "bool", 'text' AS "text",
+                       DATE '2023-03-05' AS "date", TIME '14:00:00' AS "time", TIME '09:05:30' AS "seconds",
+                       TIMESTAMP '2023-03-05 14:00:01' AS "stamp"
+                """).get(0);
+
+        assertThat(row.get("int").isInt()).isTrue();
+        assertThat(row.get("big").asLong()).isEqualTo(9000000000L);
+        assertThat(row.get("double").asDouble()).isEqualTo(1.5);
+        assertThat(row.get("numeric").asDouble()).isEqualTo(2.25);
+        assertThat(row.get("bool").asBoolean()).isTrue();
+        assertThat(row.get("text").asText()).isEqualTo("text");
+        assertThat(row.get("date").asText()).isEqualTo("2023-03-05");
+        // Whole minutes keep their seconds, as Jackson writes LocalTime
+        assertThat(row.get("time").asText()).isEqualTo(objectMapper.valueToTree(LocalTime.of(14, 0)).asText())
+                .isEqualTo("14:00:00");
+        assertThat(row.get("seconds").asText()).isEqualTo("09:05:30");
+        assertThat(row.get("stamp").asText()).isEqualTo("2023-03-05T14:00:01");
+    }
+
+    @Test
+    void emptyResultIsAnEmptyArray() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        streamer.stream(response, "SELECT race_id AS \"raceId\" FROM races WHERE year = ?", 1950);
+
+        assertThat(response.getContentAsString()).isEqualTo("[]");
+    }
+
+    private JsonNode stream(String sql) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        streamer.stream(response, sql);
+        return objectMapper.readTree(response.getContentAsByteArray());
+    }
+
+    private static Race race(ResultSet rs) throws SQLException {
+        Circuit circuit = new Circuit();
+        circuit.setCircuitId(rs.getInt("circuit_id"));
+        circuit.setCircuitRef(rs.getString("circuit_ref"));
+        circuit.setName(rs.getString("circuit_name"));
+        circuit.setLocation(rs.getString("location"));
+        circuit.setCountry(rs.getString("country"));
+        circuit.setLat(rs.getObject("lat", Double.class));
+        circuit.setLng(rs.getObject("lng", Double.class));
+        circuit.setAlt(rs.getObject("alt", Integer.class));
+        circuit.setUrl(rs.getString("circuit_url"));
+        Race race = new Race();
+        race.setRaceId(rs.getInt("race_id"));
+        race.setYear(rs.getInt("year"));
+        race.setRound(rs.getInt("round"));
+        race.setCircuit(circuit);
+        race.setName(rs.getString("name"));
+        race.setDate(rs.getObject("date", LocalDate.class));
+        race.setTime(rs.getObject("time", LocalTime.class));
+        race.setUrl(rs.getString("url"));
+        race.setFp1Date(rs.getObject("fp1_date", LocalDate.class));
+        race.setFp1Time(rs.getObject("fp1_time", LocalTime.class));
+        race.setFp2Date(rs.getObject("fp2_date", LocalDate.class));
+        race.setFp2Time(rs.getObject("fp2_time", LocalTime.class));
+        race.setFp3Date(rs.getObject("fp3_date", LocalDate.class));
+        race.setFp3Time(rs.getObject("fp3_time", LocalTime.class));
+        race.setQualiDate(rs.getObject("quali_date", LocalDate.class));
+        race.setQualiTime(rs.getObject("quali_time", LocalTime.class));
+        race.setSprintDate(rs.getObject("sprint_date", LocalDate.class));
+        race.setSprintTime(rs.getObject("sprint_time", LocalTime.class));
+        return race;
+    }
+}
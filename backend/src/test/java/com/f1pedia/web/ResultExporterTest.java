@@ -0,0 +1,166 @@
+package com.f1pedia.web;
+
+import com.f1pedia.controller.ExportController;
+import com.f1pedia.support.TestDatabase;
+import com.f1pedia.web.ResultExporter.Format;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.MessageType;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResultExporterTest {
+
+    // More rows than fit one row group, a null in every third label
+    private static final String ROWS_SQL = """
+            SELECT CAST(n AS INT) AS id, n * 1.5 AS score,
+                   CASE WHEN MOD(n, 3) = 0 THEN NULL ELSE 'row ' || n END AS label,
+                   DATEADD(DAY, n, DATE '2000-01-01') AS race_date
+            FROM (SELECT "X" AS n FROM SYSTEM_RANGE(1, 70000)) r
+            ORDER BY n
+            """;
+
+    @TempDir
+    Path dir;
+
+    private QueryDeadlines deadlines;
+    private ResultExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase db = new TestDatabase();
+        CursorReader cursorReader = new CursorReader();
+        ReflectionTestUtils.setField(cursorReader, "jdbcTemplate", db.jdbc());
+        ReflectionTestUtils.setField(cursorReader, "transactionManager",
+                new DataSourceTransactionManager(db.dataSource()));
+        ReflectionTestUtils.setField(cursorReader, "fetchSize", 500);
+        deadlines = new QueryDeadlines(new DeadlineProperties(), new SimpleMeterRegistry());
+        exporter = new ResultExporter();
+        ReflectionTestUtils.setField(exporter, "cursorReader", cursorReader);
+        ReflectionTestUtils.setField(exporter, "queryDeadlines", deadlines);
+    }
+
+    @Test
+    void parquetReadsBackWithParquetJava() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        exporter.export(response, Format.PARQUET, "rows", ROWS_SQL);
+
+        List<Group> rows = read(response.getContentAsByteArray());
+        assertThat(rows).hasSize(70000);
+        Group first = rows.get(0);
+        assertThat(first.getInteger("id", 0)).isEqualTo(1);
+        assertThat(first.getDouble("score", 0)).isEqualTo(1.5);
+        assertThat(first.getString("label", 0)).isEqualTo("row 1");
+        assertThat(LocalDate.ofEpochDay(first.getInteger("race_date", 0))).isEqualTo(LocalDate.of(2000, 1, 2));
+        assertThat(rows.get(2).getFieldRepetitionCount("label")).isZero();
+        Group last = rows.get(69999);
+        assertThat(last.getInteger("id", 0)).isEqualTo(70000);
+        assertThat(last.getString("label", 0)).isEqualTo("row 70000");
+    }
+
+    @Test
+    void parquetPastTheDeadlineHasNoFooter() throws Exception {
+        // Committed from the first byte, as a long download would be
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setBufferSize(1);
+
+        assertThatThrownBy(() -> deadlines.run("export", Duration.ZERO, null,
+                () -> {
+                    exporter.export(response, Format.PARQUET, "rows", ROWS_SQL);
+                    return null;
+                }))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT));
+        assertThat(response.isCommitted()).isTrue();
+        assertThatThrownBy(() -> read(response.getContentAsByteArray())).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void csvPastTheDeadlineBeforeCommittingIsDropped() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThatThrownBy(() -> deadlines.run("export", Duration.ZERO, null,
+                () -> {
+                    exporter.export(response, Format.CSV, "rows", ROWS_SQL);
+                    return null;
+                }))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void deadlineAfterCommitAbortsTheResponse() throws Throwable {
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.getHandlers().put("ExportController", Duration.ZERO);
+        DeadlineAspect aspect = new DeadlineAspect();
+        ReflectionTestUtils.setField(aspect, "queryDeadlines",
+                new QueryDeadlines(properties, new SimpleMeterRegistry()));
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getDeclaringType()).thenReturn(ExportController.class);
+        when(signature.getName()).thenReturn("exportResults");
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenThrow(new QueryTimeoutException("canceling statement"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(), response));
+        try {
+            assertThatThrownBy(() -> aspect.withDeadline(joinPoint))
+                    .isInstanceOf(ResponseStatusException.class);
+
+            // Spring would swallow a 504 once committed and end the response normally
+            response.setCommitted(true);
+            assertThatThrownBy(() -> aspect.withDeadline(joinPoint)).isInstanceOf(QueryTimeoutException.class);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private List<Group> read(byte[] parquet) throws Exception {
+        Path file = Files.write(dir.resolve("export.parquet"), parquet);
+        List<Group> rows = new ArrayList<>();
+        try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(file))) {
+            MessageType schema = reader.getFooter().getFileMetaData().getSchema();
+            PageReadStore pages;
+            while ((pages = reader.readNextRowGroup()) != null) {
+                RecordReader<Group> records = new ColumnIOFactory().getColumnIO(schema)
+                        .getRecordReader(pages, new GroupRecordConverter(schema));
+                for (long i = 0; i < pages.getRowCount(); i++) {
+                    rows.add(records.read());
+                }
+            }
+        }
+        return rows;
+    }
+}
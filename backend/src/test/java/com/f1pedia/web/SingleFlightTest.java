@@ -0,0 +1,135 @@
+package com.f1pedia.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private DeadlineProperties properties;
+    private QueryDeadlines deadlines;
+    private SingleFlight singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DeadlineProperties();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        deadlines = new QueryDeadlines(properties, registry);
+        singleFlight = new SingleFlight(deadlines, properties, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void waitersShareOneExecutionButNotTheInstance() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Map<String, Object> result = new LinkedHashMap<>(Map.of("rows", new ArrayList<>(List.of(1, 2))));
+        Future<Object> leader = submit(() -> {
+            started.countDown();
+            release.await();
+            return result;
+        });
+        started.await();
+        Future<Object> follower = submit(() -> {
+            throw new AssertionError("followers must not run the call");
+        });
+        Thread.sleep(50);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isSameAs(result);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> copy = (Map<String, Object>) follower.get(5, TimeUnit.SECONDS);
+        assertThat(copy).isEqualTo(result).isNotSameAs(result);
+        assertThat(copy.get("rows")).isNotSameAs(result.get("rows"));
+    }
+
+    @Test
+    void waitIsBoundedByTheWaitersDeadline() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        submit(() -> {
+            started.countDown();
+            release.await();
+            return "late";
+        });
+        started.await();
+        try {
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> deadlines.run("h", Duration.ofMillis(100), null,
+                    () -> singleFlight.execute("h", "k", () -> "own")))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT));
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void waiterWithMoreTimeRetriesWhenTheLeadersDeadlinePasses() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch joined = new CountDownLatch(1);
+        // The leader advertised a short client timeout and runs out of it
+        Future<Object> leader = executor.submit(() -> {
+            try {
+                return deadlines.run("h", Duration.ofMillis(200), null, () -> singleFlight.execute("h", "k", () -> {
+                    started.countDown();
+                    joined.await();
+                    Thread.sleep(300);
+                    throw new SQLTimeoutException("cancelled");
+                }));
+            } catch (Throwable t) {
+                return t;
+            }
+        });
+        started.await();
+        Future<Object> follower = executor.submit(() -> {
+            try {
+                return deadlines.run("h", Duration.ofSeconds(10), null, () -> {
+                    joined.countDown();
+                    return singleFlight.execute("h", "k", () -> "own");
+                });
+            } catch (Throwable t) {
+                return t;
+            }
+        });
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isInstanceOf(ResponseStatusException.class);
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("own");
+    }
+
+    private Future<Object> submit(SingleFlight.Call call) {
+        return executor.submit(() -> {
+            try {
+                return singleFlight.execute("h", "k", call);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package com.f1pedia.web;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.decoder.Decoder;
+import com.f1pedia.support.TestDatabase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StaticBakerTest {
+
+    private static final Path NGINX_CONF = Path.of("../frontend/nginx.conf");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void seasonWithACalendarButNoResultsIsNotTheLatest() {
+        TestDatabase db = new TestDatabase()
+                .circuit(1, "Monza", "Italy", null, null)
+                .driver(1, "VER", "Max", "Verstappen")
+                .constructor(1, "Red Bull")
+                .race(1, 2023, 1, 1)
+                .race(2, 2024, 1, 1)
+                .race(3, 2024, 2, 1)
+                .race(4, 2025, 1, 1)
+                .result(1, 1, 1, 1, 25)
+                .result(2, 1, 1, 1, 25);
+        StaticBaker baker = new StaticBaker();
+        ReflectionTestUtils.setField(baker, "jdbcTemplate", db.jdbc());
+
+        // 2024 is still being raced: nothing from it may be baked
+        assertThat(baker.latestSeason()).isEqualTo(2024);
+    }
+
+    @Test
+    void writesJsonWithGzipAndBrotliVariants() throws Exception {
+        byte[] json = "{\"season\":2010,\"rows\":[1,2,3]}".getBytes(StandardCharsets.UTF_8);
+        boolean brotli = Brotli4jLoader.isAvailable();
+
+        BakeManifest.Entry entry = StaticBaker.write(dir, "/api/analytics/grid-performance?season=2010", json,
+                brotli);
+
+        assertThat(entry.file()).isEqualTo("api/analytics/grid-performance/season=2010.json");
+        assertThat(entry.bytes()).isEqualTo(json.length);
+        Path file = dir.resolve(entry.file());
+        assertThat(file).hasBinaryContent(json);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(Path.of(file + ".gz")))) {
+            assertThat(in.readAllBytes()).isEqualTo(json);
+        }
+        assertThat(entry.gzipBytes()).isEqualTo(Files.size(Path.of(file + ".gz")));
+        if (brotli) {
+            byte[] br = Files.readAllBytes(Path.of(file + ".br"));
+            assertThat(entry.brotliBytes()).isEqualTo(br.length);
+            assertThat(Decoder.decompress(br).getDecompressedData()).isEqualTo(json);
+        } else {
+            assertThat(entry.brotliBytes()).isNull();
+        }
+    }
+
+    @Test
+    void nginxLooksUpTheFilesTheBakeWrites() throws Exception {
+        String conf = Files.readString(NGINX_CONF);
+        Matcher args = Pattern.compile("\"~(\\S+)\"\\s+\\$args;").matcher(conf);
+        Matcher tryFiles = Pattern.compile("try_files (\\S+) @backend;").matcher(conf);
+        assertThat(args.find()).isTrue();
+        assertThat(tryFiles.find()).isTrue();
+        assertThat(conf).contains("gzip_static on;");
+        Pattern plainArgs = Pattern.compile(args.group(1));
+
+        for (String path : new String[] {"/api/analytics/grid-performance?season=2010", "/api/analytics/x"}) {
+            int query = path.indexOf('?');
+            String uri = query < 0 ? path : path.substring(0, query);
+            String name = query < 0 ? "index" : path.substring(query + 1);
+            assertThat(plainArgs.matcher(name).matches()).isTrue();
+            // The bake is published as the site's /baked directory
+            String looked = tryFiles.group(1).replace("$uri", uri).replace("$baked_name", name);
+            assertThat(looked).isEqualTo("/baked/" + StaticBaker.file(path));
+        }
+        assertThat(plainArgs.matcher("season=2010&x=../../etc").matches()).isFalse();
+    }
+}
@@ -32,6 +32,22 @@ def load_schema(engine):
             connection.commit()
     print("Schema initialized successfully.")
 
+def load_triggers(engine):
+    # NOTIFY triggers the backend listens on to invalidate its caches.
+    # Sent through the raw DBAPI cursor: the PL/pgSQL body contains '%' and ':'
+    print("Installing change notification triggers...")
+    triggers_path = os.path.join(os.path.dirname(__file__), 'notify_triggers.sql')
+    with open(triggers_path, 'r') as file:
+        triggers_sql = file.read()
+    connection = engine.raw_connection()
+    try:
+        cursor = connection.cursor()
+        cursor.execute(triggers_sql)
+        connection.commit()
+    finally:
+        connection.close()
+    print("Triggers installed successfully.")
+
 def load_csv(engine, file_path, table_name, chunksize=None):
     print(f"Loading {table_name} from {file_path}...")
     
@@ -108,6 +124,8 @@ def main():
     load_csv(engine, os.path.join(data_dir, 'constructor_standings.csv'), 'constructor_standings')
     load_csv(engine, os.path.join(data_dir, 'constructor_results.csv'), 'constructor_results')
     
+    load_triggers(engine)
+    
     print("ETL Pipeline Complete.")
 
 if __name__ == "__main__":
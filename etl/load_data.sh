@@ -45,4 +45,7 @@ load_table driver_standings F1/driver_standings.csv
 load_table constructor_standings F1/constructor_standings.csv
 load_table constructor_results F1/constructor_results.csv
 
+# Change notifications for backend cache invalidation
+psql "$DB_URL" -f etl/notify_triggers.sql
+
 echo "ETL Complete!"
@@ -0,0 +1,92 @@
+-- Change notifications for backend cache invalidation (PostgreSQL only)
+--
+-- Every statement that changes race data sends one NOTIFY on the
+-- f1pedia_changes channel with the affected races and seasons, e.g.
+--   {"table": "results", "op": "UPDATE", "races": [1120], "seasons": [2024]}
+-- Each backend instance LISTENs and drops only what the change touches.
+-- Reference tables (drivers, constructors, circuits, status) and TRUNCATE
+-- only carry the table name. NOTIFY payloads are capped at 8000 bytes, so
+-- statements touching many races (bulk loads) fall back to the season list.
+--
+-- Apply after loading the data:  psql "$DB_URL" -f etl/notify_triggers.sql
+
+CREATE OR REPLACE FUNCTION f1pedia_notify_change() RETURNS trigger AS $$
+DECLARE
+    race_ids INT[];
+    seasons INT[];
+    payload TEXT;
+BEGIN
+    IF TG_OP = 'TRUNCATE' OR TG_TABLE_NAME IN ('drivers', 'constructors', 'circuits', 'status') THEN
+        PERFORM pg_notify('f1pedia_changes', json_build_object('table', TG_TABLE_NAME, 'op', TG_OP)::text);
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(DISTINCT race_id) INTO race_ids FROM new_rows;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(DISTINCT race_id) INTO race_ids FROM old_rows;
+    ELSE
+        SELECT array_agg(DISTINCT race_id) INTO race_ids
+        FROM (SELECT race_id FROM old_rows UNION SELECT race_id FROM new_rows) changed;
+    END IF;
+    IF race_ids IS NULL THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_TABLE_NAME = 'races' THEN
+        -- Deleted races are gone from the table; take the year from the rows
+        IF TG_OP = 'INSERT' THEN
+            SELECT array_agg(DISTINCT year) INTO seasons FROM new_rows;
+        ELSIF TG_OP = 'DELETE' THEN
+            SELECT array_agg(DISTINCT year) INTO seasons FROM old_rows;
+        ELSE
+            SELECT array_agg(DISTINCT year) INTO seasons
+            FROM (SELECT year FROM old_rows UNION SELECT year FROM new_rows) changed;
+        END IF;
+    ELSE
+        SELECT array_agg(DISTINCT year) INTO seasons FROM races WHERE race_id = ANY (race_ids);
+    END IF;
+
+    payload := json_build_object('table', TG_TABLE_NAME, 'op', TG_OP,
+                                 'races', race_ids, 'seasons', seasons)::text;
+    IF octet_length(payload) > 7900 THEN
+        payload := json_build_object('table', TG_TABLE_NAME, 'op', TG_OP, 'seasons', seasons)::text;
+    END IF;
+    PERFORM pg_notify('f1pedia_changes', payload);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Statement-level triggers with transition tables: one notification per
+-- statement, however many rows it touches. A trigger with transition tables
+-- can only fire on one event, hence three per table.
+DO $$
+DECLARE
+    t TEXT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['races', 'results', 'sprint_results', 'qualifying', 'pit_stops', 'lap_times',
+                             'driver_standings', 'constructor_standings', 'constructor_results'] LOOP
+        EXECUTE format('DROP TRIGGER IF EXISTS %1$s_notify_insert ON %1$I', t);
+        EXECUTE format('DROP TRIGGER IF EXISTS %1$s_notify_update ON %1$I', t);
+        EXECUTE format('DROP TRIGGER IF EXISTS %1$s_notify_delete ON %1$I', t);
+        EXECUTE format('DROP TRIGGER IF EXISTS %1$s_notify_truncate ON %1$I', t);
+        EXECUTE format('CREATE TRIGGER %1$s_notify_insert AFTER INSERT ON %1$I '
+                       'REFERENCING NEW TABLE AS new_rows '
+                       'FOR EACH STATEMENT EXECUTE FUNCTION f1pedia_notify_change()', t);
+        EXECUTE format('CREATE TRIGGER %1$s_notify_update AFTER UPDATE ON %1$I '
+                       'REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows '
+                       'FOR EACH STATEMENT EXECUTE FUNCTION f1pedia_notify_change()', t);
+        EXECUTE format('CREATE TRIGGER %1$s_notify_delete AFTER DELETE ON %1$I '
+                       'REFERENCING OLD TABLE AS old_rows '
+                       'FOR EACH STATEMENT EXECUTE FUNCTION f1pedia_notify_change()', t);
+        EXECUTE format('CREATE TRIGGER %1$s_notify_truncate AFTER TRUNCATE ON %1$I '
+                       'FOR EACH STATEMENT EXECUTE FUNCTION f1pedia_notify_change()', t);
+    END LOOP;
+
+    FOREACH t IN ARRAY ARRAY['drivers', 'constructors', 'circuits', 'status'] LOOP
+        EXECUTE format('DROP TRIGGER IF EXISTS %1$s_notify ON %1$I', t);
+        EXECUTE format('CREATE TRIGGER %1$s_notify AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON %1$I '
+                       'FOR EACH STATEMENT EXECUTE FUNCTION f1pedia_notify_change()', t);
+    END LOOP;
+END;
+$$;
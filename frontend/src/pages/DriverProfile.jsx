@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react';
 import { useParams, Link } from 'react-router-dom';
-import { getDriverCareer, getDriverCircuits, getDriverEvolution, getDriverFinishingStatus, getDriverTeammateBattles, getDriverCareerTrajectory, getDriverFinishingPositions } from '../services/api';
+import { getDriverProfile } from '../services/api';
 import { Loader2, ChevronRight, Trophy, Flag, Calendar, MapPin, ArrowLeft, TrendingUp, Activity } from 'lucide-react';
 import { BarChart, Bar, XAxis, YAxis, CartesianGrid, Tooltip, ResponsiveContainer, PieChart, Pie, Cell, Legend, LineChart, Line, AreaChart, Area } from 'recharts';
 import { getDriverPhotoOrPlaceholder } from '../utils/driverPhotos';
@@ -24,23 +24,15 @@ export default function DriverProfile() {
         const fetchData = async () => {
             setLoading(true);
             try {
-                // Fetch all data in parallel for speed
-                const [careerRes, circuitsRes, evolutionRes, statusRes, teammatesRes, trajectoryRes, positionsRes] = await Promise.all([
-                    getDriverCareer(id),
-                    getDriverCircuits(id),
-                    getDriverEvolution(id),
-                    getDriverFinishingStatus(id),
-                    getDriverTeammateBattles(id),
-                    getDriverCareerTrajectory(id),
-                    getDriverFinishingPositions(id)
-                ]);
-                setCareer(careerRes.data);
-                setCircuits(circuitsRes.data);
-                setEvolution(evolutionRes.data);
-                setFinishingStatus(statusRes.data);
-                setTeammates(teammatesRes.data);
-                setTrajectory(trajectoryRes.data);
-                setPositions(positionsRes.data);
+                // One request for the whole page
+                const { data } = await getDriverProfile(id);
+                setCareer(data.career);
+                setCircuits(data.circuits);
+                setEvolution(data.evolution);
+                setFinishingStatus(data.status);
+                setTeammates(data.teammates);
+                setTrajectory(data.trajectory);
+                setPositions(data.positions);
             } catch (err) {
                 console.error('Failed to load driver:', err);
             } finally {
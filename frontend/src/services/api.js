@@ -5,7 +5,16 @@ const api = axios.create({
     headers: {
         'Content-Type': 'application/json',
     },
-    timeout: 30000, // 30 second timeout
+    // Below the backend's 25s default deadline, so X-Client-Timeout is what bounds our queries
+    timeout: 20000,
+});
+
+// Advertise how long we will wait, so the backend cancels queries we have given up on
+api.interceptors.request.use((config) => {
+    if (config.timeout) {
+        config.headers['X-Client-Timeout'] = String(config.timeout);
+    }
+    return config;
 });
 
 // Global response interceptor for unified error handling
@@ -111,6 +120,8 @@ export const getSeasonDominance = (season) => api.get(`/analytics/season-dominan
 
 // Driver Profile & Detailed History
 export const getDriverById = (id) => api.get(`/drivers/${id}`);
+// The whole driver page in one request
+export const getDriverProfile = (id) => api.get(`/drivers/${id}/profile`);
 export const getDriverCareer = (id) => api.get(`/drivers/${id}/career`);
 export const getDriverChampionships = (id) => api.get(`/drivers/${id}/championships`);
 export const getDriverCircuits = (id) => api.get(`/drivers/${id}/circuits`);